@@ -31,6 +31,7 @@ WINDOW: 'WINDOW';
 NER: 'NER';
 POS: 'POS';
 DEPENDS: 'DEPENDS';
+HYPERNYM: 'HYPERNYM';
 DATE: 'DATE'; // Used for DATE() condition and NER(DATE) type
 PROXIMITY: 'PROXIMITY';
 GRANULARITY: 'GRANULARITY';
@@ -59,6 +60,11 @@ INNER: 'INNER';
 LEFT: 'LEFT';
 RIGHT: 'RIGHT';
 
+// Histogram buckets (COUNT BY YEAR)
+BUCKET_YEAR: 'YEAR';
+BUCKET_MONTH: 'MONTH';
+BUCKET_DAY: 'DAY';
+
 // NER Entity Type Keywords (Must match VALID_NER_TYPES in validator, case-insensitive)
 PERSON: 'PERSON';
 LOCATION: 'LOCATION';
@@ -147,6 +153,14 @@ countExpression
     : COUNT LPAREN WILDCARD RPAREN                   # CountAllExpression
     | COUNT LPAREN UNIQUE variable RPAREN            # CountUniqueExpression
     | COUNT LPAREN DOCUMENTS RPAREN                  # CountDocumentsExpression
+    | COUNT BY bucket=histogramBucket                # CountByExpression
+    ;
+
+// Counts the result units per document timestamp bucket, e.g. COUNT BY YEAR
+histogramBucket
+    : BUCKET_YEAR
+    | BUCKET_MONTH
+    | BUCKET_DAY
     ;
 
 whereClause
@@ -182,6 +196,7 @@ singleCondition
     | dateExpression
     | dependsExpression
     | posExpression
+    | hypernymExpression
     ;
 
 dateExpression
@@ -340,6 +355,11 @@ posExpression
     : POS LPAREN tag=posTag (COMMA termValue=term)? RPAREN (AS var=variable)?
     ;
 
+// Matches any instance of a category, e.g. HYPERNYM("vehicle") for cars, trucks, ...
+hypernymExpression
+    : HYPERNYM LPAREN category=STRING RPAREN (AS var=variable)?
+    ;
+
 posTag
     : STRING
     | identifier
@@ -20,6 +20,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 
 public class IndexRunner {
@@ -44,12 +47,12 @@ public class IndexRunner {
                 .help("Path to stopwords file (default: stopwords.txt)");
 
         parser.addArgument("--batch-size")
-                .setDefault(1000)
+                .setDefault(100000)
                 .type(Integer.class)
-                .help("Batch size for processing (default: 1000)");
+                .help("Batch size for processing (default: 100000)");
 
         parser.addArgument("-t", "--type")
-                .choices("all", "unigram", "bigram", "trigram", "dependency", "ner_date", "ner", "pos", "hypernym", "stitch")
+                .choices("all", "unigram", "bigram", "trigram", "dependency", "ner_date", "nash", "ner", "ner_timeline", "pos", "hypernym", "stitch")
                 .setDefault("all")
                 .help("Type of index to generate");
 
@@ -65,6 +68,27 @@ public class IndexRunner {
                 .type(Integer.class)
                 .help("Maximum number of documents to process");
 
+        parser.addArgument("--timestamp-order")
+                .action(net.sourceforge.argparse4j.impl.Arguments.storeTrue())
+                .help("Renumber documents in timestamp order before indexing, so document ids follow time");
+
+        parser.addArgument("--time-segments")
+                .action(net.sourceforge.argparse4j.impl.Arguments.storeTrue())
+                .help("Build each index as one segment per year; date queries on ner_date skip other years, other indexes read every segment");
+
+        parser.addArgument("--segment-years")
+                .type(Integer.class)
+                .nargs("+")
+                .help("Rebuild only the segments of these years (implies --time-segments and --preserve-index)");
+
+        parser.addArgument("--term-ids")
+                .action(net.sourceforge.argparse4j.impl.Arguments.storeTrue())
+                .help("Key the n-gram and dependency indexes by corpus-wide term ids instead of strings");
+
+        parser.addArgument("--resume")
+                .action(net.sourceforge.argparse4j.impl.Arguments.storeTrue())
+                .help("Continue an interrupted build with the same options from its last checkpoint");
+
         try {
             // Parse arguments
             Namespace ns = parser.parseArgs(args);
@@ -74,15 +98,20 @@ public class IndexRunner {
                 System.setProperty("DEBUG_MODE", "true");
             }
 
-            runIndexing(
-                ns.getString("db"),
-                ns.getString("index_dir"),
-                ns.getString("stopwords"),
-                ns.getInt("batch_size"),
-                ns.getString("type"),
-                ns.getBoolean("preserve_index"),
-                ns.getInt("limit")
-            );
+            List<Integer> segmentYears = ns.getList("segment_years");
+            IndexConfig config = new IndexConfig.Builder()
+                .withBatchSize(ns.getInt("batch_size"))
+                .withPreserveExistingIndex(ns.getBoolean("preserve_index"))
+                .withLimit(ns.getInt("limit"))
+                .withTimestampOrderedIds(ns.getBoolean("timestamp_order"))
+                .withTimeSegments(ns.getBoolean("time_segments"))
+                .withSegmentYears(segmentYears == null ? Set.of() : Set.copyOf(segmentYears))
+                .withTermIds(ns.getBoolean("term_ids"))
+                .withCheckpoints(true)
+                .withResume(ns.getBoolean("resume"))
+                .build();
+            runIndexing(ns.getString("db"), ns.getString("index_dir"), ns.getString("stopwords"),
+                ns.getString("type"), config);
         } catch (ArgumentParserException e) {
             parser.handleError(e);
             System.exit(1);
@@ -93,13 +122,25 @@ public class IndexRunner {
     }
 
 
+    /**
+     * Builds the indexes. With {@link IndexConfig#useCheckpoints()} each build records a
+     * checkpoint in its index directory, and with {@link IndexConfig#shouldResume()} the
+     * builds of an interrupted run with the same options continue from their checkpoints;
+     * indexes whose build completed are kept.
+     *
+     * @param dbPath The annotated SQLite database
+     * @param indexDir The index set directory
+     * @param stopwordsPath The stopwords file
+     * @param indexType The index to build, or "all"
+     * @param indexConfig The build options
+     */
     public static void runIndexing(String dbPath, String indexDir, String stopwordsPath,
-            int batchSize, String indexType, boolean preserveIndex) throws Exception {
-        runIndexing(dbPath, indexDir, stopwordsPath, batchSize, indexType, preserveIndex, null);
-    }
-
-    public static void runIndexing(String dbPath, String indexDir, String stopwordsPath,
-            int batchSize, String indexType, boolean preserveIndex, Integer limit) throws Exception {
+            String indexType, IndexConfig indexConfig) throws Exception {
+        int batchSize = indexConfig.getBatchSize();
+        Integer limit = indexConfig.getLimit();
+        boolean preserveIndex = indexConfig.shouldPreserveExistingIndex();
+        boolean timestampOrder = indexConfig.useTimestampOrderedIds();
+        boolean resume = indexConfig.shouldResume();
         logger.info("Starting indexing process");
         logger.info("Database: {}", dbPath);
         logger.info("Index directory: {}", indexDir);
@@ -121,12 +162,6 @@ public class IndexRunner {
         IndexingMetrics metrics = new IndexingMetrics();
         ProgressTracker progress = new ProgressTracker();
         
-        // Create index configuration
-        IndexConfig indexConfig = new IndexConfig.Builder()
-            .withPreserveExistingIndex(preserveIndex)
-            .withLimit(limit)
-            .build();
-
         // Ensure index directory exists
         Path indexPath = Paths.get(indexDir);
         if (!preserveIndex) {
@@ -137,13 +172,22 @@ public class IndexRunner {
                 indexPath.resolve("entity"),
                 indexPath.resolve("dependency"),
                 indexPath.resolve("nerdate"),
+                indexPath.resolve(NashIndex.DIRECTORY),
                 indexPath.resolve("ner"),
+                indexPath.resolve("ner_timeline"),
                 indexPath.resolve("pos"),
                 indexPath.resolve("hypernym"),
-                indexPath.resolve("stitch")
+                indexPath.resolve("stitch"),
+                indexPath.resolve(TermDictionary.FILE_NAME)
             };
             
+            // A resumed run keeps the indexes with checkpoints, and the term ids they were built with
+            boolean checkpointed = resume && Arrays.stream(indexDirectories).anyMatch(BuildCheckpoint::exists);
             for (Path dir : indexDirectories) {
+                if (checkpointed && (BuildCheckpoint.exists(dir) || dir.endsWith(TermDictionary.FILE_NAME))) {
+                    logger.info("Resuming from checkpoint, keeping {}", dir);
+                    continue;
+                }
                 if (Files.exists(dir)) {
                     logger.debug("Cleaning existing index directory: {}", dir);
                     Files.walk(dir)
@@ -164,8 +208,20 @@ public class IndexRunner {
         
         // Connect to database and process indexes
         try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath)) {
+            // A new mapping invalidates every index built with the old one, so a single
+            // index is rebuilt with the existing mapping when there is one
+            if (timestampOrder && (indexType.equals("all") || DocumentOrder.load(conn).isEmpty())) {
+                DocumentOrder.create(conn);
+            } else if (!timestampOrder && indexType.equals("all")) {
+                // The rebuilt indexes hold SQLite ids, which queries must not translate
+                DocumentOrder.drop(conn);
+            } else if (!timestampOrder && DocumentOrder.load(conn).isPresent()) {
+                logger.warn("Rebuilding the {} index with SQLite ids while the other indexes use " +
+                    "timestamp-ordered ids; pass --timestamp-order to keep them consistent", indexType);
+            }
+
             // Determine total number of indexes to generate
-            int totalIndexes = indexType.equals("all") ? 9 : 1;
+            int totalIndexes = indexType.equals("all") ? 11 : 1;
             int currentIndex = 0;
 
             // Create and run generators based on type
@@ -270,6 +326,24 @@ public class IndexRunner {
                     progress.completeIndex();
                 }
 
+                if (indexType.equals("all") || indexType.equals("nash")) {
+                    currentIndex++;
+                    System.out.printf("%nIndex %d/%d", currentIndex, totalIndexes);
+                    metrics.startBatch(batchSize, "nash");
+                    progress.startIndex("Nash Temporal Index", 1);
+                    
+                    // Derived from the ner_date index, which must already exist
+                    try {
+                        int prefixes = NashIndexGenerator.generate(Path.of(indexDir));
+                        progress.updateIndex(1);
+                        metrics.recordBatchSuccess(prefixes);
+                    } catch (Exception e) {
+                        metrics.recordBatchFailure();
+                        logger.error("Error generating Nash index: {}", e.getMessage(), e);
+                    }
+                    progress.completeIndex();
+                }
+
                 if (indexType.equals("all") || indexType.equals("ner")) {
                     currentIndex++;
                     System.out.printf("%nIndex %d/%d", currentIndex, totalIndexes);
@@ -290,6 +364,26 @@ public class IndexRunner {
                     progress.completeIndex();
                 }
 
+                if (indexType.equals("all") || indexType.equals("ner_timeline")) {
+                    currentIndex++;
+                    System.out.printf("%nIndex %d/%d", currentIndex, totalIndexes);
+                    metrics.startBatch(batchSize, "ner_timeline");
+                    long count = getNerCount(conn, limit);
+                    progress.startIndex("NER Timeline Index", count);
+                    
+                    // Get path with proper directory structure
+                    Path timelinePath = Path.of(indexDir).resolve("ner_timeline");
+                    try (NerTimelineIndexGenerator gen = new NerTimelineIndexGenerator(
+                            timelinePath.toString(), stopwordsPath, conn, progress, indexConfig)) {
+                        gen.generateIndex();
+                        metrics.recordBatchSuccess((int)count);
+                    } catch (Exception e) {
+                        metrics.recordBatchFailure();
+                        logger.error("Error generating NER timeline index: {}", e.getMessage(), e);
+                    }
+                    progress.completeIndex();
+                }
+
                 if (indexType.equals("all") || indexType.equals("pos")) {
                     currentIndex++;
                     System.out.printf("%nIndex %d/%d", currentIndex, totalIndexes);
@@ -363,7 +457,7 @@ public class IndexRunner {
         // First check if the annotations table exists
         try (Statement checkStmt = conn.createStatement();
              ResultSet checkRs = checkStmt.executeQuery(
-                 "SELECT COUNT(*) FROM sqlite_master WHERE type='table' AND name='annotations'")) {
+                 "SELECT COUNT(*) FROM sqlite_master WHERE type IN ('table', 'view') AND name='annotations'")) {
             if (checkRs.next() && checkRs.getInt(1) == 0) {
                 // Table doesn't exist
                 logger.error("Annotations table does not exist. Please run annotation stage first.");
@@ -391,7 +485,7 @@ public class IndexRunner {
         // First check if the dependencies table exists
         try (Statement checkStmt = conn.createStatement();
              ResultSet checkRs = checkStmt.executeQuery(
-                 "SELECT COUNT(*) FROM sqlite_master WHERE type='table' AND name='dependencies'")) {
+                 "SELECT COUNT(*) FROM sqlite_master WHERE type IN ('table', 'view') AND name='dependencies'")) {
             if (checkRs.next() && checkRs.getInt(1) == 0) {
                 // Table doesn't exist
                 logger.error("Dependencies table does not exist. Please run annotation stage first.");
@@ -419,7 +513,7 @@ public class IndexRunner {
         // First check if the annotations table exists
         try (Statement checkStmt = conn.createStatement();
              ResultSet checkRs = checkStmt.executeQuery(
-                 "SELECT COUNT(*) FROM sqlite_master WHERE type='table' AND name='annotations'")) {
+                 "SELECT COUNT(*) FROM sqlite_master WHERE type IN ('table', 'view') AND name='annotations'")) {
             if (checkRs.next() && checkRs.getInt(1) == 0) {
                 // Table doesn't exist
                 logger.error("Annotations table does not exist. Please run annotation stage first.");
@@ -447,7 +541,7 @@ public class IndexRunner {
         // First check if the annotations table exists
         try (Statement checkStmt = conn.createStatement();
              ResultSet checkRs = checkStmt.executeQuery(
-                 "SELECT COUNT(*) FROM sqlite_master WHERE type='table' AND name='annotations'")) {
+                 "SELECT COUNT(*) FROM sqlite_master WHERE type IN ('table', 'view') AND name='annotations'")) {
             if (checkRs.next() && checkRs.getInt(1) == 0) {
                 // Table doesn't exist
                 logger.error("Annotations table does not exist. Please run annotation stage first.");
@@ -500,6 +594,9 @@ public class IndexRunner {
         if (indexType.equals("all") || indexType.equals("ner")) {
             Files.createDirectories(Path.of(indexDir, "ner"));
         }
+        if (indexType.equals("all") || indexType.equals("ner_timeline")) {
+            Files.createDirectories(Path.of(indexDir, "ner_timeline"));
+        }
         if (indexType.equals("all") || indexType.equals("pos")) {
             Files.createDirectories(Path.of(indexDir, "pos"));
         }
@@ -1,7 +1,6 @@
 package com.example;
 
 import org.iq80.leveldb.*;
-import static org.iq80.leveldb.impl.Iq80DBFactory.*;
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
@@ -12,14 +11,21 @@ import java.nio.file.Paths;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.core.IndexAccess;
+import com.example.core.IndexAccessException;
+import com.example.core.IndexAccessInterface;
 import com.example.core.Position;
 import com.example.core.PositionList;
 import com.example.index.StitchPosition;
+import com.example.index.SynonymDictionary;
+import com.example.index.TermDictionary;
+import com.example.core.TermKeyedIndexAccess;
 
 public class LevelDBBrowser {
     private static final String DELIMITER = "\u0000";
     private static final Logger logger = LoggerFactory.getLogger(LevelDBBrowser.class);
-    private static final String ANNOTATION_SYNONYMS_PREFIX = "%s_synonyms.ser";
+    private static final String ANNOTATION_SYNONYMS_PREFIX = "%s_synonyms.dict";
+    private static final String LEGACY_ANNOTATION_SYNONYMS_PREFIX = "%s_synonyms.ser";
     private static final String[] ANNOTATION_TYPES = {"date", "ner", "pos", "dependency"};
 
     public static void main(String[] args) throws IOException {
@@ -29,7 +35,7 @@ public class LevelDBBrowser {
                 .description("Browse contents of LevelDB index databases");
 
         parser.addArgument("index_type")
-                .choices("unigram", "bigram", "trigram", "dependency", "ner_date", "pos", "hypernym", "stitch")
+                .choices("unigram", "bigram", "trigram", "dependency", "ner_date", "ner_timeline", "pos", "hypernym", "stitch")
                 .help("Type of index to browse");
 
         parser.addArgument("db_path")
@@ -67,18 +73,22 @@ public class LevelDBBrowser {
                 annotationSynonyms = loadAnnotationSynonyms(basePath);
             }
 
-            // Open the database
+            // Open the database, reading term-keyed indexes through their string keys
             Options options = new Options();
-            try (DB db = factory.open(new File(dbPath), options)) {
+            IndexAccessInterface db = new IndexAccess(Path.of(dbPath), indexType, options);
+            if (TermDictionary.isTermKeyed(Path.of(dbPath))) {
+                db = new TermKeyedIndexAccess(db, TermDictionary.open(Path.of(basePath)));
+            }
+            try (IndexAccessInterface index = db) {
                 if (showStats) {
-                    displayStats(db);
+                    displayStats(index);
                 }
                 if (key != null) {
-                    displayEntry(db, key, indexType, annotationSynonyms);
+                    displayEntry(index, key, indexType, annotationSynonyms);
                 } else if (prefix != null) {
-                    listEntriesByPrefix(db, prefix, limit, indexType, annotationSynonyms);
+                    listEntriesByPrefix(index, prefix, limit, indexType, annotationSynonyms);
                     } else {
-                    listAllEntries(db, limit, indexType, annotationSynonyms);
+                    listAllEntries(index, limit, indexType, annotationSynonyms);
                 }
             }
         } catch (ArgumentParserException e) {
@@ -91,7 +101,7 @@ public class LevelDBBrowser {
         }
     }
 
-    private static void displayStats(DB db) throws IOException {
+    private static void displayStats(IndexAccessInterface db) throws IOException, IndexAccessException {
         long totalEntries = 0;
         long totalPositions = 0;
 
@@ -111,8 +121,8 @@ public class LevelDBBrowser {
         System.out.println();
     }
 
-    private static void displayEntry(DB db, String key, String indexType, Map<String, Map<Integer, String>> synonyms) throws IOException {
-        byte[] data = db.get(bytes(key));
+    private static void displayEntry(IndexAccessInterface db, String key, String indexType, Map<String, Map<Integer, String>> synonyms) throws IOException, IndexAccessException {
+        byte[] data = db.getRaw(bytes(key)).orElse(null);
         if (data == null) {
             System.out.printf("Key not found: %s%n", key);
             return;
@@ -122,7 +132,7 @@ public class LevelDBBrowser {
         displayPositions(key, positions, indexType, synonyms);
     }
 
-    private static void listEntriesByPrefix(DB db, String prefix, int limit, String indexType, Map<String, Map<Integer, String>> synonyms) throws IOException {
+    private static void listEntriesByPrefix(IndexAccessInterface db, String prefix, int limit, String indexType, Map<String, Map<Integer, String>> synonyms) throws IOException, IndexAccessException {
         System.out.printf("Entries with prefix '%s':%n", prefix);
         System.out.println("=".repeat(20 + prefix.length()));
         
@@ -146,7 +156,7 @@ public class LevelDBBrowser {
         }
     }
 
-    private static void listAllEntries(DB db, int limit, String indexType, Map<String, Map<Integer, String>> synonyms) throws IOException {
+    private static void listAllEntries(IndexAccessInterface db, int limit, String indexType, Map<String, Map<Integer, String>> synonyms) throws IOException, IndexAccessException {
         System.out.println("All Entries");
         System.out.println("===========");
         
@@ -222,7 +232,19 @@ public class LevelDBBrowser {
         Map<String, Map<Integer, String>> allSynonyms = new HashMap<>();
         
         for (String annotationType : ANNOTATION_TYPES) {
-            String synonymsFileName = String.format(ANNOTATION_SYNONYMS_PREFIX, annotationType);
+            Path dictionaryPath = Paths.get(basePath, "stitch", String.format(ANNOTATION_SYNONYMS_PREFIX, annotationType));
+            if (dictionaryPath.toFile().exists()) {
+                try {
+                    Map<Integer, String> idToValue = new HashMap<>();
+                    SynonymDictionary.open(dictionaryPath).forEach((value, id) -> idToValue.put(id, value));
+                    allSynonyms.put(annotationType, idToValue);
+                } catch (IOException e) {
+                    logger.error("Error loading {} synonyms: {}", annotationType, e.getMessage());
+                }
+                continue;
+            }
+
+            String synonymsFileName = String.format(LEGACY_ANNOTATION_SYNONYMS_PREFIX, annotationType);
             Path synonymsPath = Paths.get(basePath, "stitch", synonymsFileName);
             File synonymsFile = synonymsPath.toFile();
             
@@ -1,6 +1,7 @@
 package com.example;
 
 import com.example.annotation.Annotations;
+import com.example.index.IndexConfig;
 import com.example.logging.analysis.LogAnalyzer;
 import com.example.logging.analysis.LogSummarizer;
 import net.sourceforge.argparse4j.ArgumentParsers;
@@ -103,7 +104,7 @@ public class Pipeline {
                 .help("Path to file containing stopwords to exclude (default: stopwords.txt)");
 
         indexGroup.addArgument("-y", "--index-type")
-                .choices("unigram", "bigram", "trigram", "dependency", "ner_date", "ner", "pos", "hypernym", "stitch", "all")
+                .choices("unigram", "bigram", "trigram", "dependency", "ner_date", "ner", "ner_timeline", "pos", "hypernym", "stitch", "all")
                 .setDefault("all")
                 .help("Type of index to generate:\n" +
                       "  unigram    - Single word index\n" +
@@ -112,6 +113,7 @@ public class Pipeline {
                       "  dependency - Grammatical dependencies\n" +
                       "  ner_date   - Named entity dates\n" +
                       "  ner        - Named entity recognition\n" +
+                      "  ner_timeline - Named entity mentions in timestamp order\n" +
                       "  pos        - Part-of-speech tagging\n" +
                       "  hypernym   - Word hypernyms\n" +
                       "  stitch     - Connects unigrams with their associated dates\n" +
@@ -220,14 +222,17 @@ public class Pipeline {
             System.out.println("Running indexing stage...");
             System.out.println("Using database path: " + dbPath);
             System.out.println("Using index directory: " + indexDir);
+            IndexConfig indexConfig = new IndexConfig.Builder()
+                    .withPreserveExistingIndex(ns.getBoolean("preserve_index"))
+                    .withLimit(ns.getInt("limit"))
+                    .withCheckpoints(true)
+                    .build();
             IndexRunner.runIndexing(
                     dbPath,
                     indexDir,
                     ns.getString("stopwords"),
-                    ns.getInt("batch_size"),
                     ns.getString("index_type"),
-                    ns.getBoolean("preserve_index"),
-                    ns.getInt("limit"));
+                    indexConfig);
         }
 
         if (stage.equals("analyze")) {
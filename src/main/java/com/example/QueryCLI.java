@@ -103,6 +103,8 @@ public class QueryCLI {
                 
                 // Initialize Nash index with the index manager
                 executor.initializeNashIndex(indexSetName, indexManager);
+                executor.initializeStitchIndex(indexSetName, indexManager);
+                executor.registerIndexVersion(indexSetName, indexManager);
                 
                 // 5. Execute query using QueryExecutor
                 logger.debug("Executing query against index set: {}", indexSetName);
@@ -116,10 +118,17 @@ public class QueryCLI {
                 // --- Adapt Match Count Display --- 
                 // Use result.getAllDetails().size() as a proxy for count. 
                 // TODO: Improve count logic based on QueryResult granularity/structure if needed.
-                int matchCount = result.getAllDetails().size(); 
-                String matchUnit = (granularity == Query.Granularity.DOCUMENT) ? "documents (approx details)" : "sentences (approx details)";
-                logger.info("Query executed, found {} matching details (granularity: {})", matchCount, granularity);
-                System.out.println("Total matches: " + matchCount + " " + matchUnit);
+                if (result.getHistogram().isPresent()) {
+                    long unitCount = result.getHistogram().get().total();
+                    logger.info("Query executed, counted {} units into {} buckets (granularity: {})",
+                        unitCount, result.getHistogram().get().counts().size(), granularity);
+                    System.out.println("Total matches: " + unitCount + " " + (granularity == Query.Granularity.DOCUMENT ? "documents" : "sentences"));
+                } else {
+                    int matchCount = result.getAllDetails().size(); 
+                    String matchUnit = (granularity == Query.Granularity.DOCUMENT) ? "documents (approx details)" : "sentences (approx details)";
+                    logger.info("Query executed, found {} matching details (granularity: {})", matchCount, granularity);
+                    System.out.println("Total matches: " + matchCount + " " + matchUnit);
+                }
                 // Removed specific document ID counting block
 
                 // 6. Generate results using TableResultService 
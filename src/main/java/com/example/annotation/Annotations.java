@@ -1,5 +1,6 @@
 package com.example.annotation;
 
+import com.example.index.CompactAnnotations;
 import edu.stanford.nlp.pipeline.*;
 import edu.stanford.nlp.ling.*;
 import edu.stanford.nlp.semgraph.*;
@@ -19,12 +20,25 @@ public class Annotations {
     private final Path dbFile;
     private final boolean overwrite;
     private final Integer limit;
+    private final boolean compact;
     private final StanfordCoreNLP pipeline;
+    // Next ids of the compact tables, which are keyed by position and assign no ids themselves
+    private long nextAnnotationId;
+    private long nextDependencyId;
     
     public Annotations(Path dbFile, int threads, boolean overwrite, Integer limit) {
+        this(dbFile, threads, overwrite, limit, false);
+    }
+
+    /**
+     * @param compact Whether to store annotations in the compact layout (see
+     *        {@link CompactAnnotations}), migrating the existing ones
+     */
+    public Annotations(Path dbFile, int threads, boolean overwrite, Integer limit, boolean compact) {
         this.dbFile = dbFile;
         this.overwrite = overwrite;
         this.limit = limit;
+        this.compact = compact;
         
         // Create optimized CoreNLP configuration
         CoreNLPConfig config = new CoreNLPConfig(threads);
@@ -34,9 +48,18 @@ public class Annotations {
 
     public void processDocuments() throws Exception {
         try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile)) {
-            createTables(conn, overwrite);
+            // A database that already has the compact layout keeps it
+            CompactAnnotations codes = compact || CompactAnnotations.exists(conn)
+                ? createCompactTables(conn, overwrite)
+                : null;
+            if (codes == null) {
+                createTables(conn, overwrite);
+            } else {
+                nextAnnotationId = nextId(conn, CompactAnnotations.ANNOTATIONS, "annotation_id");
+                nextDependencyId = nextId(conn, CompactAnnotations.DEPENDENCIES, "dependency_id");
+            }
             
-            String query = buildQuery(overwrite, limit);
+            String query = buildQuery(overwrite, limit, codes != null);
             
             // First count total documents to process for progress tracking
             int totalDocuments = 0;
@@ -73,7 +96,12 @@ public class Annotations {
                     // separately, and then combining the results, while maintaining correct offsets
                     
                     AnnotationResult result = processTextWithCoreNLP(pipeline, text, documentId);
-                    insertData(conn, result.annotations, result.dependencies);
+                    if (codes != null) {
+                        long day = CompactAnnotations.day(rs.getString("timestamp"));
+                        insertCompactData(conn, codes, day, result.annotations, result.dependencies);
+                    } else {
+                        insertData(conn, result.annotations, result.dependencies);
+                    }
                     
                     pb.step();
                     processed++;
@@ -141,6 +169,23 @@ public class Annotations {
         }
     }
 
+    private static CompactAnnotations createCompactTables(Connection conn, boolean overwrite) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (overwrite) {
+                if (CompactAnnotations.exists(conn)) {
+                    CompactAnnotations.clear(conn);
+                } else {
+                    // Nothing to migrate
+                    stmt.execute("DROP TABLE IF EXISTS annotations");
+                    stmt.execute("DROP TABLE IF EXISTS dependencies");
+                }
+            }
+            stmt.execute("DROP TABLE IF EXISTS index_table");
+            stmt.execute("PRAGMA foreign_keys = ON");
+        }
+        return CompactAnnotations.create(conn);
+    }
+
     /**
      * Processes text with CoreNLP pipeline, chunking if needed, and returns annotations.
      * 
@@ -261,11 +306,76 @@ public class Annotations {
         }
     }
 
-    private static String buildQuery(boolean overwrite, Integer limit) {
-        StringBuilder query = new StringBuilder("SELECT document_id, text FROM documents");
+    /**
+     * Writes the annotations and dependencies of a document to the compact tables.
+     *
+     * @param day The document day, as days since the epoch
+     */
+    private void insertCompactData(Connection conn, CompactAnnotations codes, long day,
+            List<Map<String, Object>> annotations, List<Map<String, Object>> dependencies) throws SQLException {
+        String annotationSQL = "INSERT INTO " + CompactAnnotations.ANNOTATIONS + " (" +
+                "document_id, sentence_id, begin_char, annotation_id, end_char, token, " +
+                "lemma, pos, ner, normalized_ner, day" +
+                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        String dependencySQL = "INSERT INTO " + CompactAnnotations.DEPENDENCIES + " (" +
+                "document_id, sentence_id, begin_char, dependency_id, end_char, " +
+                "head_token, dependent_token, relation, day" +
+                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement annotationStmt = conn.prepareStatement(annotationSQL);
+                PreparedStatement dependencyStmt = conn.prepareStatement(dependencySQL)) {
+
+            for (Map<String, Object> annotation : annotations) {
+                annotationStmt.setInt(1, (Integer) annotation.get("document_id"));
+                annotationStmt.setInt(2, (Integer) annotation.get("sentence_id"));
+                annotationStmt.setInt(3, (Integer) annotation.get("begin_char"));
+                annotationStmt.setLong(4, nextAnnotationId++);
+                annotationStmt.setInt(5, (Integer) annotation.get("end_char"));
+                annotationStmt.setString(6, (String) annotation.get("token"));
+                annotationStmt.setString(7, (String) annotation.get("lemma"));
+                annotationStmt.setObject(8, codes.encode(conn, (String) annotation.get("pos")));
+                annotationStmt.setObject(9, codes.encode(conn, (String) annotation.get("ner")));
+                annotationStmt.setString(10, (String) annotation.get("normalized_ner"));
+                annotationStmt.setLong(11, day);
+
+                annotationStmt.addBatch();
+            }
+            annotationStmt.executeBatch();
+
+            for (Map<String, Object> dependency : dependencies) {
+                dependencyStmt.setInt(1, (Integer) dependency.get("document_id"));
+                dependencyStmt.setInt(2, (Integer) dependency.get("sentence_id"));
+                dependencyStmt.setInt(3, (Integer) dependency.get("begin_char"));
+                dependencyStmt.setLong(4, nextDependencyId++);
+                dependencyStmt.setInt(5, (Integer) dependency.get("end_char"));
+                dependencyStmt.setString(6, (String) dependency.get("head_token"));
+                dependencyStmt.setString(7, (String) dependency.get("dependent_token"));
+                dependencyStmt.setObject(8, codes.encode(conn, (String) dependency.get("relation")));
+                dependencyStmt.setLong(9, day);
+
+                dependencyStmt.addBatch();
+            }
+            dependencyStmt.executeBatch();
+        }
+    }
+
+    private static long nextId(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 1;
+        }
+    }
+
+    private static String buildQuery(boolean overwrite, Integer limit, boolean compact) {
+        StringBuilder query = new StringBuilder(compact
+            ? "SELECT document_id, text, timestamp FROM documents"
+            : "SELECT document_id, text FROM documents");
 
         if (!overwrite) {
-            query.append(" WHERE document_id NOT IN (SELECT DISTINCT document_id FROM annotations)");
+            query.append(" WHERE document_id NOT IN (SELECT DISTINCT document_id FROM ")
+                 .append(compact ? CompactAnnotations.ANNOTATIONS : "annotations")
+                 .append(")");
         }
 
         if (limit != null) {
@@ -298,6 +408,10 @@ public class Annotations {
                 .type(Integer.class)
                 .help("Limit the number of documents to process (default: None)");
 
+        parser.addArgument("-c", "--compact")
+                .action(net.sourceforge.argparse4j.impl.Arguments.storeTrue())
+                .help("Store annotations in the compact layout, migrating existing ones (default: False)");
+
         try {
             Namespace ns = parser.parseArgs(args);
             
@@ -306,7 +420,8 @@ public class Annotations {
                 Path.of(ns.getString("db")),
                 ns.getInt("threads"),
                 ns.getBoolean("overwrite"),
-                ns.getInt("limit")
+                ns.getInt("limit"),
+                ns.getBoolean("compact")
             );
             
             // Use the instance method instead of static method
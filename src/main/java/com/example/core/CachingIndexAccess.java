@@ -0,0 +1,141 @@
+package com.example.core;
+
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.WriteBatch;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Read-through wrapper that serves {@link #get(byte[])} and {@link #getDecoded(byte[])} from
+ * a shared {@link PostingCache}. Decoded postings are cached as primitive columns, so a hit
+ * skips both the LevelDB lookup and FastPFOR decompression. Each key is cached once, decoded;
+ * {@link #getRaw(byte[])} reads the wrapped index directly. Writes go straight to the
+ * wrapped index and drop this index's cache entries. Iterators are not cached.
+ */
+public class CachingIndexAccess implements IndexAccessInterface {
+    private final IndexAccessInterface delegate;
+    private final PostingCache cache;
+    private final String namespace;
+
+    /**
+     * Creates a caching view of an index.
+     *
+     * @param delegate The index to read from
+     * @param cache The shared cache
+     * @param namespace Identifies this index instance in the cache; must change when the
+     *                  index is rebuilt
+     */
+    public CachingIndexAccess(IndexAccessInterface delegate, PostingCache cache, String namespace) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.namespace = namespace;
+    }
+
+    @Override
+    public Optional<PositionList> get(byte[] key) throws IndexAccessException {
+        return getDecoded(key).map(decoded -> decoded.toPositionList(null));
+    }
+
+    @Override
+    public Optional<DecodedPostings> getDecoded(byte[] key) throws IndexAccessException {
+        DecodedPostings decoded = cache.getDecoded(namespace, getIndexType(), key);
+        if (decoded == null) {
+            Optional<byte[]> raw = delegate.getRaw(key);
+            if (raw.isEmpty()) {
+                return Optional.empty();
+            }
+            try {
+                decoded = PositionList.decode(raw.get());
+            } catch (Exception e) {
+                throw new IndexAccessException(
+                    "Failed to get entry: " + e.getMessage(),
+                    getIndexType(),
+                    IndexAccessException.ErrorType.READ_ERROR,
+                    e
+                );
+            }
+            cache.putDecoded(namespace, getIndexType(), key, decoded);
+        }
+        return Optional.of(decoded);
+    }
+
+    /**
+     * Reads the stored bytes from the wrapped index, uncached. Lookups that decode the
+     * postings go through {@link #getDecoded(byte[])}, so caching the bytes as well would
+     * only hold every hot key twice.
+     */
+    @Override
+    public Optional<byte[]> getRaw(byte[] key) throws IndexAccessException {
+        return delegate.getRaw(key);
+    }
+
+    @Override
+    public DBIterator iterator() throws IndexAccessException {
+        return delegate.iterator();
+    }
+
+    @Override
+    public DBIterator iterator(ReadOptions options) throws IndexAccessException {
+        return delegate.iterator(options);
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) throws IndexAccessException {
+        delegate.put(key, value);
+        cache.invalidate(namespace);
+    }
+
+    @Override
+    public void delete(byte[] key) throws IndexAccessException {
+        delegate.delete(key);
+        cache.invalidate(namespace);
+    }
+
+    @Override
+    public WriteBatch createWriteBatch() throws IndexAccessException {
+        return delegate.createWriteBatch();
+    }
+
+    @Override
+    public void write(WriteBatch batch) throws IndexAccessException {
+        delegate.write(batch);
+        cache.invalidate(namespace);
+    }
+
+    @Override
+    public String getIndexType() {
+        return delegate.getIndexType();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    /**
+     * Restricts the wrapped index. A restricted view reads different data for the same
+     * key, so it gets its own cache namespace.
+     */
+    @Override
+    public IndexAccessInterface restrictTo(LocalDate from, LocalDate to) {
+        IndexAccessInterface restricted = delegate.restrictTo(from, to);
+        if (restricted == delegate) {
+            return this;
+        }
+        return new CachingIndexAccess(restricted, cache, namespace + "#" + from + ".." + to);
+    }
+
+    /**
+     * Gets the cache counters of this index.
+     */
+    public PostingCache.Stats getCacheStats() {
+        return cache.stats(getIndexType());
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.core;
+
+import com.example.index.AnnotationType;
+import com.example.index.DatedPosition;
+import com.example.index.StitchPosition;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The decompressed columns of a serialized {@link PositionList}. Holds only primitive
+ * arrays, so it is compact enough to be cached and cheap to turn back into positions.
+ * Instances are immutable once created; the arrays must not be modified.
+ */
+public final class DecodedPostings {
+    static final DecodedPostings EMPTY = new DecodedPostings(
+        new int[0], new int[0], new int[0], new int[0], new long[0], null, null, false);
+
+    // Array headers plus the object itself, roughly
+    private static final long OVERHEAD_BYTES = 128;
+
+    private final int[] docIds;
+    private final int[] sentenceIds;
+    private final int[] beginPositions;
+    private final int[] endPositions;
+    private final long[] timestamps;
+    private final byte[] positionTypes;
+    // Synonym ids of stitch positions, epoch days of dated positions
+    private final int[] synonymIds;
+    // Positions are in timestamp order rather than document order
+    private final boolean timeOrdered;
+
+    DecodedPostings(int[] docIds, int[] sentenceIds, int[] beginPositions, int[] endPositions,
+                    long[] timestamps, byte[] positionTypes, int[] synonymIds, boolean timeOrdered) {
+        this.docIds = docIds;
+        this.sentenceIds = sentenceIds;
+        this.beginPositions = beginPositions;
+        this.endPositions = endPositions;
+        this.timestamps = timestamps;
+        this.positionTypes = positionTypes;
+        this.synonymIds = synonymIds;
+        this.timeOrdered = timeOrdered;
+    }
+
+    /**
+     * Gets postings without positions, as for a key that is not in the index.
+     */
+    public static DecodedPostings empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return docIds.length;
+    }
+
+    /**
+     * Gets the document id of the position at an index, in stored order.
+     */
+    public int documentId(int index) {
+        return docIds[index];
+    }
+
+    /**
+     * Gets the sentence id of the position at an index, in stored order.
+     */
+    public int sentenceId(int index) {
+        return sentenceIds[index];
+    }
+
+    /**
+     * Gets the document timestamp, as an epoch day, of the position at an index.
+     */
+    public long epochDay(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Estimates the heap footprint of the decoded columns.
+     */
+    public long sizeInBytes() {
+        long perPosition = 4L * Integer.BYTES + Long.BYTES;
+        if (positionTypes != null) {
+            perPosition += 1 + Integer.BYTES;
+        }
+        return OVERHEAD_BYTES + perPosition * docIds.length;
+    }
+
+    /**
+     * Whether the positions are in timestamp order (see {@link PositionList#serializeByTime()}).
+     */
+    public boolean isTimeOrdered() {
+        return timeOrdered;
+    }
+
+    /**
+     * Gets the distinct documents of the positions without creating Position objects.
+     */
+    public DocumentIdSet documentIds() {
+        return DocumentIdSet.of(docIds);
+    }
+
+    /**
+     * Gets the first {@code limit} distinct documents in stored order. The walk stops at
+     * the first position of the next document.
+     */
+    public DocumentIdSet firstDocuments(int limit) {
+        int[] selected = new int[Math.max(0, Math.min(limit, docIds.length))];
+        int count = 0;
+        // Positions of a document are adjacent unless the list is time-ordered
+        Set<Integer> seen = timeOrdered ? new HashSet<>() : null;
+        for (int i = 0; i < docIds.length; i++) {
+            boolean known = seen != null ? seen.contains(docIds[i]) : count > 0 && selected[count - 1] == docIds[i];
+            if (known) {
+                continue;
+            }
+            if (count == selected.length) {
+                break;
+            }
+            selected[count++] = docIds[i];
+            if (seen != null) {
+                seen.add(docIds[i]);
+            }
+        }
+        return DocumentIdSet.of(Arrays.copyOf(selected, count));
+    }
+
+    /**
+     * Gets the {@code limit} documents with the earliest (or latest) timestamps, ties going
+     * to the lower document id. A bounded heap over the timestamp column holds at most
+     * {@code limit} candidates. Time-ordered lists are walked from their best end, and the
+     * walk stops at the first day after the heap is full.
+     */
+    public DocumentIdSet topDocumentsByTime(int limit, boolean descending) {
+        if (limit <= 0 || docIds.length == 0) {
+            return DocumentIdSet.empty();
+        }
+        // A rank packs (day, document id) into one long, smaller is better; the head is the worst kept
+        PriorityQueue<Long> heap = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        Set<Integer> seen = timeOrdered ? new HashSet<>() : null;
+        for (int n = 0; n < docIds.length; n++) {
+            int i = timeOrdered && descending ? docIds.length - 1 - n : n;
+            if (seen != null ? !seen.add(docIds[i]) : n > 0 && docIds[i] == docIds[i - 1]) {
+                continue;
+            }
+            long day = descending ? -timestamps[i] : timestamps[i];
+            long rank = (day << 32) | (docIds[i] & 0xFFFFFFFFL);
+            if (heap.size() < limit) {
+                heap.add(rank);
+            } else if (rank < heap.peek()) {
+                heap.poll();
+                heap.add(rank);
+            } else if (timeOrdered && day > heap.peek() >> 32) {
+                break;
+            }
+        }
+        return DocumentIdSet.of(heap.stream().mapToInt(Long::intValue).toArray());
+    }
+
+    /**
+     * Creates Position objects for the positions whose document is in {@code documents}.
+     *
+     * @param documents Documents to keep, or null to keep everything
+     * @return A new, independently mutable position list
+     */
+    public PositionList toPositionList(DocumentIdSet documents) {
+        PositionList result = new PositionList();
+        // A cursor needs ascending document ids; time-ordered lists probe the set instead
+        DocumentIdSet.Cursor filter = documents != null && !timeOrdered ? documents.cursor() : null;
+        for (int i = 0; i < docIds.length; i++) {
+            if (filter != null ? !filter.matches(docIds[i]) : documents != null && !documents.contains(docIds[i])) {
+                continue;
+            }
+            if (positionTypes != null && positionTypes[i] == StitchPosition.POSITION_TYPE) {
+                // Create StitchPosition with DATE type for backward compatibility
+                result.add(new StitchPosition(
+                    docIds[i],
+                    sentenceIds[i],
+                    beginPositions[i],
+                    endPositions[i],
+                    LocalDate.ofEpochDay(timestamps[i]),
+                    AnnotationType.DATE, // Default to DATE for backward compatibility
+                    synonymIds[i]
+                ));
+            } else if (positionTypes != null && positionTypes[i] == DatedPosition.POSITION_TYPE) {
+                result.add(new DatedPosition(
+                    docIds[i],
+                    sentenceIds[i],
+                    beginPositions[i],
+                    endPositions[i],
+                    LocalDate.ofEpochDay(timestamps[i]),
+                    LocalDate.ofEpochDay(synonymIds[i])
+                ));
+            } else {
+                // Create regular Position
+                result.add(new Position(
+                    docIds[i],
+                    sentenceIds[i],
+                    beginPositions[i],
+                    endPositions[i],
+                    LocalDate.ofEpochDay(timestamps[i])
+                ));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.core;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, sorted set of distinct document IDs backed by a primitive array.
+ * Used to intersect the document sets of several conditions cheaply before any
+ * positions are decoded. Intersections gallop through the larger side via
+ * {@link Cursor#advanceTo(int)}, so their cost is driven by the smaller set.
+ */
+public final class DocumentIdSet {
+    /** Returned by {@link Cursor#advanceTo(int)} once the set is exhausted. */
+    public static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private static final DocumentIdSet EMPTY = new DocumentIdSet(new int[0]);
+
+    private final int[] ids;
+
+    private DocumentIdSet(int[] ids) {
+        this.ids = ids;
+    }
+
+    public static DocumentIdSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a set from ids in ascending order, dropping adjacent duplicates.
+     * Falls back to sorting when the input is not ordered.
+     */
+    public static DocumentIdSet of(int[] ids) {
+        int[] sorted = ids.clone();
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) {
+                Arrays.sort(sorted);
+                break;
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (count == 0 || sorted[count - 1] != sorted[i]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return count == 0 ? EMPTY : new DocumentIdSet(count == sorted.length ? sorted : Arrays.copyOf(sorted, count));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public boolean contains(int documentId) {
+        return Arrays.binarySearch(ids, documentId) >= 0;
+    }
+
+    /**
+     * Returns a copy of the ids in ascending order.
+     */
+    public int[] toArray() {
+        return ids.clone();
+    }
+
+    /**
+     * Intersects this set with another, walking the smaller set and skipping
+     * through the larger one.
+     */
+    public DocumentIdSet intersect(DocumentIdSet other) {
+        if (this.isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        DocumentIdSet small = this.size() <= other.size() ? this : other;
+        DocumentIdSet large = small == this ? other : this;
+        int[] out = new int[small.size()];
+        int count = 0;
+        Cursor cursor = large.cursor();
+        for (int id : small.ids) {
+            int found = cursor.advanceTo(id);
+            if (found == NO_MORE_DOCS) {
+                break;
+            }
+            if (found == id) {
+                out[count++] = id;
+            }
+        }
+        return count == 0 ? EMPTY : new DocumentIdSet(Arrays.copyOf(out, count));
+    }
+
+    /**
+     * Creates a forward-only cursor over this set.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof DocumentIdSet other && Arrays.equals(ids, other.ids));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentIdSet{size=" + ids.length + "}";
+    }
+
+    /**
+     * Forward-only cursor supporting exponential-search skips.
+     */
+    public final class Cursor {
+        private int index = 0;
+
+        /**
+         * Moves to the first id greater than or equal to {@code target} and returns it,
+         * or {@link #NO_MORE_DOCS} if there is none. Targets must not decrease between calls.
+         */
+        public int advanceTo(int target) {
+            if (index >= ids.length) {
+                return NO_MORE_DOCS;
+            }
+            if (ids[index] >= target) {
+                return ids[index];
+            }
+            // Gallop to bracket the target, then binary search inside the bracket
+            int step = 1;
+            int low = index;
+            int high = index + 1;
+            while (high < ids.length && ids[high] < target) {
+                low = high;
+                step <<= 1;
+                high = index + step;
+            }
+            int pos = Arrays.binarySearch(ids, low + 1, Math.min(high + 1, ids.length), target);
+            index = pos >= 0 ? pos : -pos - 1;
+            return index < ids.length ? ids[index] : NO_MORE_DOCS;
+        }
+
+        /**
+         * Returns true if {@code documentId} is in the set. Ids must be probed in
+         * non-decreasing order.
+         */
+        public boolean matches(int documentId) {
+            return advanceTo(documentId) == documentId;
+        }
+    }
+}
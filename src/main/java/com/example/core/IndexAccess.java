@@ -69,6 +69,16 @@ public class IndexAccess implements IndexAccessInterface {
      * This is a convenience method specific to this implementation.
      */
     public void put(byte[] key, PositionList positions) throws IndexAccessException {
+        put(key, positions, false);
+    }
+
+    /**
+     * Stores a position list for a given key, merged with any list already stored.
+     *
+     * @param timeOrdered Whether to store the positions in timestamp order
+     *                    (see {@link PositionList#serializeByTime()}) rather than document order
+     */
+    public void put(byte[] key, PositionList positions, boolean timeOrdered) throws IndexAccessException {
         checkOpen();
         try {
             byte[] existing = db.get(key);
@@ -77,7 +87,7 @@ public class IndexAccess implements IndexAccessInterface {
                 positions.merge(existingPositions);
             }
             
-            db.put(key, positions.serialize());
+            db.put(key, timeOrdered ? positions.serializeByTime() : positions.serialize());
         } catch (Exception e) {
             throw new IndexAccessException(
                 "Failed to put entry: " + e.getMessage(),
@@ -4,6 +4,7 @@ import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.ReadOptions;
 import org.iq80.leveldb.WriteBatch;
 
+import java.time.LocalDate;
 import java.util.Optional;
 
 /**
@@ -27,6 +28,25 @@ public interface IndexAccessInterface extends AutoCloseable {
      */
     Optional<byte[]> getRaw(byte[] key) throws IndexAccessException;
 
+    /**
+     * Retrieves the decoded columns of the posting list stored under a key, without
+     * creating Position objects. Callers that filter or count positions should use this
+     * instead of decoding {@link #getRaw(byte[])} themselves, so caching views can serve it.
+     * The returned postings are shared and must not be modified.
+     */
+    default Optional<DecodedPostings> getDecoded(byte[] key) throws IndexAccessException {
+        Optional<byte[]> raw = getRaw(key);
+        if (raw.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(PositionList.decode(raw.get()));
+        } catch (RuntimeException e) {
+            throw new IndexAccessException("Failed to decode entry: " + e.getMessage(),
+                getIndexType(), IndexAccessException.ErrorType.READ_ERROR, e);
+        }
+    }
+
     /**
      * Creates a new iterator over the database.
      * The caller is responsible for closing the iterator.
@@ -71,6 +91,18 @@ public interface IndexAccessInterface extends AutoCloseable {
      */
     boolean isOpen();
 
+    /**
+     * Gets a view of this index that may leave out data outside a time range.
+     * Indexes built as time segments return a view over the overlapping segments only;
+     * all other indexes return themselves. Closing the view does not close this index.
+     *
+     * @param from The first time, or null for no lower bound
+     * @param to The last time, or null for no upper bound
+     */
+    default IndexAccessInterface restrictTo(LocalDate from, LocalDate to) {
+        return this;
+    }
+
     /**
      * Closes the index access, releasing any underlying resources.
      * Overrides AutoCloseable.close().
@@ -2,27 +2,33 @@ package com.example.core;
 
 import me.lemire.integercompression.*;
 import java.nio.ByteBuffer;
-import java.time.LocalDate;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.example.logging.LogSampler;
+import com.example.index.DatedPosition;
 import com.example.index.StitchPosition;
-import com.example.index.AnnotationType;
 
 /**
  * Manages collections of Position objects with efficient compression and serialization capabilities.
  * Uses FastPFOR128 compression to minimize storage requirements while maintaining quick access times.
  * Supports operations like merging, sorting, and deduplication of positions. The class handles
  * serialization by separating position data into parallel arrays for optimal compression ratios,
- * making it suitable for storage in key-value databases. Thread-safe for read operations through
- * unmodifiable list views.
+ * making it suitable for storage in key-value databases. Timestamps are stored as day offsets
+ * from the earliest day of the list, which compress like the other int columns.
+ * Thread-safe for read operations through unmodifiable list views.
  */
 public class PositionList {
     private static final Logger logger = LoggerFactory.getLogger(PositionList.class);
     private static final LogSampler logSampler = new LogSampler(0.001);
     private final List<Position> positions;
     private static final IntegerCODEC codec = new FastPFOR128();
+    // Positions per compression block
+    static final int BLOCK_SIZE = 128;
+    // Header flag bits; lists written without a day offset flag store timestamps as raw longs
+    private static final int FLAG_SPECIAL_POSITIONS = 1;
+    private static final int FLAG_TIME_ORDERED = 4;
+    private static final int FLAG_DAY_OFFSETS = 8;
     
     public PositionList() {
         this.positions = new ArrayList<>();
@@ -47,23 +53,36 @@ public class PositionList {
     }
 
     public byte[] serialize() {
+        // Sort positions for efficient compression
+        sort();
+        return encode(false);
+    }
+
+    /**
+     * Serializes the positions in timestamp order instead of document order. Document ids
+     * compress less well, but readers see the positions in time order without sorting them.
+     */
+    public byte[] serializeByTime() {
+        sortByTime();
+        return encode(true);
+    }
+
+    private byte[] encode(boolean timeOrdered) {
         if (positions.isEmpty()) {
             logger.debug("Serializing empty position list");
             return new byte[0];
         }
 
         try {
-            // Sort positions for efficient compression
-            sort();
-
             // Prepare arrays for compression
             int[] docIds = new int[positions.size()];
             int[] sentenceIds = new int[positions.size()];
             int[] beginPositions = new int[positions.size()];
             int[] endPositions = new int[positions.size()];
-            long[] timestamps = new long[positions.size()];
+            int[] epochDays = new int[positions.size()];
             
-            // Prepare type information and synonym IDs (for StitchPosition)
+            // Prepare type information and the value that comes with it: the synonym ID of
+            // a StitchPosition or the epoch day of a DatedPosition
             byte[] positionTypes = new byte[positions.size()];
             int[] synonymIds = new int[positions.size()];
             boolean hasSpecialPositions = false;
@@ -75,13 +94,17 @@ public class PositionList {
                 sentenceIds[i] = pos.getSentenceId();
                 beginPositions[i] = pos.getBeginPosition();
                 endPositions[i] = pos.getEndPosition();
-                timestamps[i] = pos.getTimestamp().toEpochDay();
+                epochDays[i] = Math.toIntExact(pos.getTimestamp().toEpochDay());
                 
                 // Store position type and synonym ID if applicable
                 if (pos instanceof StitchPosition) {
                     positionTypes[i] = StitchPosition.POSITION_TYPE;
                     synonymIds[i] = ((StitchPosition) pos).getSynonymId();
                     hasSpecialPositions = true;
+                } else if (pos instanceof DatedPosition dated) {
+                    positionTypes[i] = DatedPosition.POSITION_TYPE;
+                    synonymIds[i] = Math.toIntExact(dated.getMentionDate().toEpochDay());
+                    hasSpecialPositions = true;
                 } else {
                     positionTypes[i] = 0; // Regular position
                     synonymIds[i] = -1;   // Invalid synonym ID
@@ -93,50 +116,25 @@ public class PositionList {
                     positions.size(), docIds[0], docIds[positions.size() - 1]);
             }
 
+            // Each timestamp as days after the earliest one
+            int baseDay = Arrays.stream(epochDays).min().getAsInt();
+            int[] dayOffsets = new int[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                dayOffsets[i] = epochDays[i] - baseDay;
+            }
+
             // Allocate buffer with estimated size
             ByteBuffer buffer = ByteBuffer.allocate(positions.size() * 28 + 256);
 
             // Write metadata
             buffer.putInt(positions.size());
-            buffer.put((byte)(hasSpecialPositions ? 1 : 0)); // Flag if we have special positions
+            buffer.put((byte) ((hasSpecialPositions ? FLAG_SPECIAL_POSITIONS : 0) | FLAG_DAY_OFFSETS
+                | (timeOrdered ? FLAG_TIME_ORDERED : 0)));
+            buffer.putInt(baseDay);
 
             // Compress each array individually with proper size checks
-            for (int[] array : new int[][]{docIds, sentenceIds, beginPositions, endPositions}) {
-                IntWrapper inOffset = new IntWrapper(0);
-                IntWrapper outOffset = new IntWrapper(0);
-                
-                if (array.length <= 128) {  // Don't compress small arrays
-                    buffer.putInt(-array.length);
-                    for (int i = 0; i < array.length; i++) {
-                        buffer.putInt(array[i]);
-                    }
-                    continue;
-                }
-                
-                // Calculate number of complete blocks
-                int blockSize = 128;
-                int numBlocks = (array.length + blockSize - 1) / blockSize;
-                int paddedSize = numBlocks * blockSize;
-                
-                // Create padded array
-                int[] paddedArray = Arrays.copyOf(array, paddedSize);
-                int[] compressed = new int[paddedSize * 2]; // Double size for safety
-                
-                // Try compression
-                codec.compress(paddedArray, inOffset, paddedSize, compressed, outOffset);
-                int compressedSize = outOffset.get();
-                
-                // Store the actual length and compressed size
-                buffer.putInt(array.length);  // Original length
-                buffer.putInt(compressedSize); // Compressed size
-                for (int i = 0; i < compressedSize; i++) {
-                    buffer.putInt(compressed[i]);
-                }
-            }
-
-            // Write timestamps separately (not compressed)
-            for (long timestamp : timestamps) {
-                buffer.putLong(timestamp);
+            for (int[] array : new int[][]{docIds, sentenceIds, beginPositions, endPositions, dayOffsets}) {
+                writeIntColumn(buffer, array);
             }
             
             // Write position type information if needed
@@ -144,36 +142,8 @@ public class PositionList {
                 // Write position types (1 byte per position)
                 buffer.put(positionTypes);
                 
-                // Write synonym IDs if we have StitchPositions
-                IntWrapper inOffset = new IntWrapper(0);
-                IntWrapper outOffset = new IntWrapper(0);
-                
-                if (positions.size() <= 128) {  // Don't compress small arrays
-                    buffer.putInt(-positions.size());
-                    for (int i = 0; i < positions.size(); i++) {
-                        buffer.putInt(synonymIds[i]);
-                    }
-                } else {
-                    // Calculate number of complete blocks
-                    int blockSize = 128;
-                    int numBlocks = (positions.size() + blockSize - 1) / blockSize;
-                    int paddedSize = numBlocks * blockSize;
-                    
-                    // Create padded array
-                    int[] paddedArray = Arrays.copyOf(synonymIds, paddedSize);
-                    int[] compressed = new int[paddedSize * 2]; // Double size for safety
-                    
-                    // Try compression
-                    codec.compress(paddedArray, inOffset, paddedSize, compressed, outOffset);
-                    int compressedSize = outOffset.get();
-                    
-                    // Store the actual length and compressed size
-                    buffer.putInt(positions.size());  // Original length
-                    buffer.putInt(compressedSize);    // Compressed size
-                    for (int i = 0; i < compressedSize; i++) {
-                        buffer.putInt(compressed[i]);
-                    }
-                }
+                // Write synonym IDs and mention days of the special positions
+                writeIntColumn(buffer, synonymIds);
             }
 
             // Create exact-sized result
@@ -186,19 +156,94 @@ public class PositionList {
         }
     }
 
+    /**
+     * Writes one int column, either raw (negative length) or FastPFOR compressed.
+     */
+    private static void writeIntColumn(ByteBuffer buffer, int[] array) {
+        if (array.length <= BLOCK_SIZE) {  // Don't compress small arrays
+            buffer.putInt(-array.length);
+            for (int value : array) {
+                buffer.putInt(value);
+            }
+            return;
+        }
+
+        // Calculate number of complete blocks
+        int numBlocks = (array.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int paddedSize = numBlocks * BLOCK_SIZE;
+
+        // Create padded array
+        int[] paddedArray = Arrays.copyOf(array, paddedSize);
+        int[] compressed = new int[paddedSize * 2]; // Double size for safety
+
+        IntWrapper inOffset = new IntWrapper(0);
+        IntWrapper outOffset = new IntWrapper(0);
+        codec.compress(paddedArray, inOffset, paddedSize, compressed, outOffset);
+        int compressedSize = outOffset.get();
+
+        // Store the actual length and compressed size
+        buffer.putInt(array.length);  // Original length
+        buffer.putInt(compressedSize); // Compressed size
+        for (int i = 0; i < compressedSize; i++) {
+            buffer.putInt(compressed[i]);
+        }
+    }
+
     public static PositionList deserialize(byte[] data) {
+        return deserialize(data, null);
+    }
+
+    /**
+     * Deserializes only the positions whose document is in {@code documents}.
+     * The columns are still decoded, but Position objects are created only for
+     * surviving documents, so the cost of materialization follows the filter.
+     *
+     * @param data The serialized position list
+     * @param documents Documents to keep, or null to keep everything
+     * @return The filtered position list
+     */
+    public static PositionList deserialize(byte[] data, DocumentIdSet documents) {
+        return decode(data).toPositionList(documents);
+    }
+
+    /**
+     * Checks whether a serialized position list holds typed positions, such as
+     * {@link StitchPosition} or {@link DatedPosition}, without decoding it.
+     */
+    public static boolean hasTypedPositions(byte[] data) {
+        return data.length > Integer.BYTES && (data[Integer.BYTES] & FLAG_SPECIAL_POSITIONS) != 0;
+    }
+
+    /**
+     * Checks whether a serialized position list was written by {@link #serializeByTime()}.
+     */
+    public static boolean isTimeOrdered(byte[] data) {
+        return data.length > Integer.BYTES && (data[Integer.BYTES] & FLAG_TIME_ORDERED) != 0;
+    }
+
+    /**
+     * Decodes a serialized position list into its primitive columns without creating
+     * Position objects. The result can be kept (e.g. in a cache) and materialized
+     * repeatedly with {@link DecodedPostings#toPositionList(DocumentIdSet)}.
+     *
+     * @param data The serialized position list
+     * @return The decoded columns
+     */
+    public static DecodedPostings decode(byte[] data) {
         if (data.length == 0) {
             logger.debug("Deserializing empty position list");
-            return new PositionList();
+            return DecodedPostings.EMPTY;
         }
 
         try {
             ByteBuffer buffer = ByteBuffer.wrap(data);
-            PositionList result = new PositionList();
 
             // Read metadata
             int count = buffer.getInt();
-            boolean hasSpecialPositions = buffer.get() != 0;
+            byte flags = buffer.get();
+            boolean hasSpecialPositions = (flags & FLAG_SPECIAL_POSITIONS) != 0;
+            boolean hasDayOffsets = (flags & FLAG_DAY_OFFSETS) != 0;
+            boolean timeOrdered = (flags & FLAG_TIME_ORDERED) != 0;
             logger.debug("Deserializing {} positions, hasSpecialPositions: {}", count, hasSpecialPositions);
 
             // Prepare arrays
@@ -210,48 +255,28 @@ public class PositionList {
             byte[] positionTypes = hasSpecialPositions ? new byte[count] : null;
             int[] synonymIds = hasSpecialPositions ? new int[count] : null;
 
+            // Day the offsets count from
+            int baseDay = hasDayOffsets ? buffer.getInt() : 0;
+
             IntWrapper inOffset = new IntWrapper(0);
             IntWrapper outOffset = new IntWrapper(0);
 
             // Read and decompress each array
             for (int[] array : new int[][]{docIds, sentenceIds, beginPositions, endPositions}) {
-                int size = buffer.getInt();
-                
-                if (size < 0) {  // Uncompressed data
-                    size = -size;
-                    for (int i = 0; i < size; i++) {
-                        array[i] = buffer.getInt();
-                    }
-                } else {
-                    int originalLength = size;
-                    int compressedSize = buffer.getInt();
-                    
-                    // Calculate padded size
-                    int blockSize = 128;
-                    int numBlocks = (originalLength + blockSize - 1) / blockSize;
-                    int paddedSize = numBlocks * blockSize;
-                    
-                    int[] compressed = new int[compressedSize];
-                    int[] decompressed = new int[paddedSize];
-                    
-                    for (int i = 0; i < compressedSize; i++) {
-                        compressed[i] = buffer.getInt();
-                    }
-                    
-                    inOffset.set(0);
-                    outOffset.set(0);
-                    
-                    // Decompress to padded array
-                    codec.uncompress(compressed, inOffset, compressedSize, decompressed, outOffset);
-                    
-                    // Copy only the needed values
-                    System.arraycopy(decompressed, 0, array, 0, originalLength);
-                }
+                readIntColumn(buffer, array, inOffset, outOffset);
             }
 
-            // Read timestamps
-            for (int i = 0; i < count; i++) {
-                timestamps[i] = buffer.getLong();
+            // Read timestamps, as day offsets from a base day or as raw longs
+            if (hasDayOffsets) {
+                int[] dayOffsets = new int[count];
+                readIntColumn(buffer, dayOffsets, inOffset, outOffset);
+                for (int i = 0; i < count; i++) {
+                    timestamps[i] = (long) baseDay + dayOffsets[i];
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    timestamps[i] = buffer.getLong();
+                }
             }
             
             // Read position type information if present
@@ -260,72 +285,54 @@ public class PositionList {
                 buffer.get(positionTypes);
                 
                 // Read synonym IDs
-                int size = buffer.getInt();
-                
-                if (size < 0) {  // Uncompressed data
-                    size = -size;
-                    for (int i = 0; i < size; i++) {
-                        synonymIds[i] = buffer.getInt();
-                    }
-                } else {
-                    int originalLength = size;
-                    int compressedSize = buffer.getInt();
-                    
-                    // Calculate padded size
-                    int blockSize = 128;
-                    int numBlocks = (originalLength + blockSize - 1) / blockSize;
-                    int paddedSize = numBlocks * blockSize;
-                    
-                    int[] compressed = new int[compressedSize];
-                    int[] decompressed = new int[paddedSize];
-                    
-                    for (int i = 0; i < compressedSize; i++) {
-                        compressed[i] = buffer.getInt();
-                    }
-                    
-                    inOffset.set(0);
-                    outOffset.set(0);
-                    
-                    // Decompress to padded array
-                    codec.uncompress(compressed, inOffset, compressedSize, decompressed, outOffset);
-                    
-                    // Copy only the needed values
-                    System.arraycopy(decompressed, 0, synonymIds, 0, originalLength);
-                }
-            }
-
-            // Create Position objects
-            for (int i = 0; i < count; i++) {
-                if (hasSpecialPositions && positionTypes[i] == StitchPosition.POSITION_TYPE) {
-                    // Create StitchPosition with DATE type for backward compatibility
-                    result.add(new StitchPosition(
-                        docIds[i],
-                        sentenceIds[i],
-                        beginPositions[i],
-                        endPositions[i],
-                        LocalDate.ofEpochDay(timestamps[i]),
-                        AnnotationType.DATE, // Default to DATE for backward compatibility
-                        synonymIds[i]
-                    ));
-                } else {
-                    // Create regular Position
-                    result.add(new Position(
-                        docIds[i],
-                        sentenceIds[i],
-                        beginPositions[i],
-                        endPositions[i],
-                        LocalDate.ofEpochDay(timestamps[i])
-                    ));
-                }
+                readIntColumn(buffer, synonymIds, inOffset, outOffset);
             }
 
-            return result;
+            return new DecodedPostings(docIds, sentenceIds, beginPositions, endPositions,
+                timestamps, positionTypes, synonymIds, timeOrdered);
         } catch (Exception e) {
             logger.error("Failed to deserialize position list: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Reads one int column, either raw (negative length) or FastPFOR compressed.
+     */
+    private static void readIntColumn(ByteBuffer buffer, int[] array, IntWrapper inOffset, IntWrapper outOffset) {
+        int size = buffer.getInt();
+        
+        if (size < 0) {  // Uncompressed data
+            size = -size;
+            for (int i = 0; i < size; i++) {
+                array[i] = buffer.getInt();
+            }
+        } else {
+            int originalLength = size;
+            int compressedSize = buffer.getInt();
+            
+            // Calculate padded size
+            int numBlocks = (originalLength + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            int paddedSize = numBlocks * BLOCK_SIZE;
+            
+            int[] compressed = new int[compressedSize];
+            int[] decompressed = new int[paddedSize];
+            
+            for (int i = 0; i < compressedSize; i++) {
+                compressed[i] = buffer.getInt();
+            }
+            
+            inOffset.set(0);
+            outOffset.set(0);
+            
+            // Decompress to padded array
+            codec.uncompress(compressed, inOffset, compressedSize, decompressed, outOffset);
+            
+            // Copy only the needed values
+            System.arraycopy(decompressed, 0, array, 0, originalLength);
+        }
+    }
+
     public synchronized void merge(PositionList other) {
         if (other == null) {
             logger.warn("Attempted to merge with null PositionList");
@@ -400,4 +407,15 @@ public class PositionList {
             return Integer.compare(a.getEndPosition(), b.getEndPosition());
         });
     }
+
+    /**
+     * Sorts by timestamp, then in the document order of {@link #sort()}.
+     */
+    public void sortByTime() {
+        Collections.sort(positions, Comparator.comparing(Position::getTimestamp)
+            .thenComparingInt(Position::getDocumentId)
+            .thenComparingInt(Position::getSentenceId)
+            .thenComparingInt(Position::getBeginPosition)
+            .thenComparingInt(Position::getEndPosition));
+    }
 }
@@ -0,0 +1,313 @@
+package com.example.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Byte-bounded cache of posting values shared by all indexes of a process.
+ * Holds the decoded columns behind {@link IndexAccessInterface#getDecoded(byte[])} and
+ * {@link IndexAccessInterface#get(byte[])}, one entry per key.
+ * <p>
+ * Admission follows W-TinyLFU: new entries enter a small LRU window, and an entry leaving
+ * the window only replaces an entry of the main LRU region if it has been requested more
+ * often, as estimated by a count-min sketch over recent accesses. Keys fetched once (for
+ * example by a broad scan) therefore fall out of the window without displacing the hot
+ * working set.
+ */
+public final class PostingCache {
+    private static final Logger logger = LoggerFactory.getLogger(PostingCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final int WINDOW_PERCENT = 1;
+
+    private static final PostingCache SHARED = new PostingCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final long windowMaxBytes;
+    private final long mainMaxBytes;
+    private final LinkedHashMap<Key, Entry> window = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<Key, Entry> main = new LinkedHashMap<>(256, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final Map<String, Counters> counters = new HashMap<>();
+    private long windowBytes = 0;
+    private long mainBytes = 0;
+
+    /**
+     * Per-index counters.
+     */
+    public record Stats(long hits, long misses, long evictions) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Creates a cache bounded to the given number of bytes.
+     *
+     * @param maxBytes Maximum estimated size of all cached values
+     */
+    public PostingCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.windowMaxBytes = Math.max(1, maxBytes * WINDOW_PERCENT / 100);
+        this.mainMaxBytes = maxBytes - windowMaxBytes;
+        // Sized for roughly one counter per 4KB of capacity
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(1024, maxBytes / 4096)));
+    }
+
+    /**
+     * Returns the process-wide cache used by IndexManager.
+     */
+    public static PostingCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets cached decoded postings.
+     *
+     * @param namespace Identifies the index instance (path and version)
+     * @param indexName Index name the counters are reported under
+     * @param key The LevelDB key
+     * @return The cached postings, or null on a miss
+     */
+    public synchronized DecodedPostings getDecoded(String namespace, String indexName, byte[] key) {
+        return lookup(new Key(namespace, key), indexName);
+    }
+
+    /**
+     * Offers decoded postings to the cache.
+     */
+    public synchronized void putDecoded(String namespace, String indexName, byte[] key, DecodedPostings value) {
+        admit(new Key(namespace, key.clone()), new Entry(indexName, value, value.sizeInBytes() + key.length));
+    }
+
+    /**
+     * Drops all entries of an index instance, e.g. after it has been written to.
+     *
+     * @param namespace The index instance
+     */
+    public synchronized void invalidate(String namespace) {
+        windowBytes -= removeNamespace(window, namespace);
+        mainBytes -= removeNamespace(main, namespace);
+    }
+
+    /**
+     * Gets the counters of one index.
+     *
+     * @param indexName The index name
+     * @return Hit, miss and eviction counts
+     */
+    public synchronized Stats stats(String indexName) {
+        Counters c = counters.get(indexName);
+        return c == null ? new Stats(0, 0, 0) : new Stats(c.hits, c.misses, c.evictions);
+    }
+
+    /**
+     * Gets the counters of all indexes, sorted by index name.
+     */
+    public synchronized Map<String, Stats> allStats() {
+        Map<String, Stats> result = new TreeMap<>();
+        counters.forEach((name, c) -> result.put(name, new Stats(c.hits, c.misses, c.evictions)));
+        return result;
+    }
+
+    /**
+     * Estimated size of all cached values in bytes.
+     */
+    public synchronized long sizeInBytes() {
+        return windowBytes + mainBytes;
+    }
+
+    private DecodedPostings lookup(Key key, String indexName) {
+        sketch.increment(key.hashCode());
+        Counters c = counters.computeIfAbsent(indexName, n -> new Counters());
+        Entry entry = window.get(key);
+        if (entry == null) {
+            entry = main.get(key);
+        }
+        if (entry == null) {
+            c.misses++;
+            return null;
+        }
+        c.hits++;
+        return entry.value;
+    }
+
+    private void admit(Key key, Entry entry) {
+        if (entry.weight > mainMaxBytes / 2) {
+            // Would displace most of the cache on its own
+            return;
+        }
+        Entry previous = window.remove(key);
+        if (previous != null) {
+            windowBytes -= previous.weight;
+        }
+        previous = main.remove(key);
+        if (previous != null) {
+            mainBytes -= previous.weight;
+        }
+        window.put(key, entry);
+        windowBytes += entry.weight;
+
+        while (windowBytes > windowMaxBytes && window.size() > 1) {
+            Iterator<Map.Entry<Key, Entry>> it = window.entrySet().iterator();
+            Map.Entry<Key, Entry> eldest = it.next();
+            it.remove();
+            windowBytes -= eldest.getValue().weight;
+            promote(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Moves a candidate leaving the window into the main region if it is used more often
+     * than every entry it would displace. The victims are chosen first and only evicted
+     * once the candidate is admitted; a rejected candidate leaves the main region as is.
+     */
+    private void promote(Key candidateKey, Entry candidate) {
+        int candidateFrequency = sketch.frequency(candidateKey.hashCode());
+        List<Key> victims = new ArrayList<>();
+        long freed = 0;
+        Iterator<Map.Entry<Key, Entry>> it = main.entrySet().iterator();
+        while (mainBytes - freed + candidate.weight > mainMaxBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> victim = it.next();
+            if (candidateFrequency <= sketch.frequency(victim.getKey().hashCode())) {
+                evicted(candidate);
+                return;
+            }
+            victims.add(victim.getKey());
+            freed += victim.getValue().weight;
+        }
+        for (Key victimKey : victims) {
+            Entry victim = main.remove(victimKey);
+            mainBytes -= victim.weight;
+            evicted(victim);
+        }
+        main.put(candidateKey, candidate);
+        mainBytes += candidate.weight;
+    }
+
+    private void evicted(Entry entry) {
+        counters.computeIfAbsent(entry.indexName, n -> new Counters()).evictions++;
+        if (logger.isTraceEnabled()) {
+            logger.trace("Evicted {} bytes of {} postings", entry.weight, entry.indexName);
+        }
+    }
+
+    private static long removeNamespace(LinkedHashMap<Key, Entry> region, String namespace) {
+        long removed = 0;
+        Iterator<Map.Entry<Key, Entry>> it = region.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().namespace.equals(namespace)) {
+                removed += e.getValue().weight;
+                it.remove();
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public String toString() {
+        return "PostingCache{maxBytes=" + maxBytes + ", size=" + sizeInBytes() + "}";
+    }
+
+    private static final class Counters {
+        long hits;
+        long misses;
+        long evictions;
+    }
+
+    private record Entry(String indexName, DecodedPostings value, long weight) {}
+
+    private static final class Key {
+        final String namespace;
+        final byte[] key;
+        final int hash;
+
+        Key(String namespace, byte[] key) {
+            this.namespace = namespace;
+            this.key = key;
+            this.hash = 31 * namespace.hashCode() + Arrays.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Key other
+                && namespace.equals(other.namespace)
+                && Arrays.equals(key, other.key));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Count-min sketch with four rows of 4-bit counters. All counters are halved once the
+     * number of increments reaches ten times the width, so old popularity fades.
+     */
+    static final class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] rows;
+        private final int mask;
+        private final int sampleSize;
+        private int additions = 0;
+
+        FrequencySketch(int width) {
+            int size = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+            this.rows = new byte[SEEDS.length][size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * size;
+        }
+
+        void increment(int hash) {
+            for (int i = 0; i < rows.length; i++) {
+                int index = index(hash, i);
+                if (rows[i][index] < MAX_COUNT) {
+                    rows[i][index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int min = MAX_COUNT;
+            for (int i = 0; i < rows.length; i++) {
+                min = Math.min(min, rows[i][index(hash, i)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
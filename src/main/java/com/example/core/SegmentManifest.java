@@ -0,0 +1,138 @@
+package com.example.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lists the time segments of an index that was built as one LevelDB per period.
+ * Each segment records the earliest and latest time of the data it holds, so readers can
+ * skip segments outside a queried time range without opening their postings.
+ * <p>
+ * The manifest is a tab-separated file in the index directory, one segment per line:
+ * <pre>
+ * name    min time (yyyy-MM-dd or -)    max time (yyyy-MM-dd or -)    key count
+ * </pre>
+ * The segment with name {@code name} lives in the subdirectory of the same name. A
+ * segment without times holds undated data and is never skipped.
+ *
+ * @param segments The segments, ordered by name
+ */
+public record SegmentManifest(List<Segment> segments) {
+    public static final String FILE_NAME = "segments.tsv";
+    private static final String NO_TIME = "-";
+
+    /**
+     * One segment of an index.
+     *
+     * @param name The segment name, also its directory name
+     * @param minTime The earliest time in the segment, or null if undated
+     * @param maxTime The latest time in the segment, or null if undated
+     * @param keys The number of keys written to the segment
+     */
+    public record Segment(String name, LocalDate minTime, LocalDate maxTime, long keys) {
+        /**
+         * Checks whether the segment may hold data between two times.
+         *
+         * @param from The first time, or null for no lower bound
+         * @param to The last time, or null for no upper bound
+         */
+        public boolean overlaps(LocalDate from, LocalDate to) {
+            if (minTime == null || maxTime == null) {
+                return true;
+            }
+            return (from == null || !maxTime.isBefore(from)) && (to == null || !minTime.isAfter(to));
+        }
+    }
+
+    public SegmentManifest {
+        segments = segments.stream().sorted(Comparator.comparing(Segment::name)).toList();
+    }
+
+    /**
+     * Checks whether an index directory holds a segmented index.
+     */
+    public static boolean exists(Path indexDir) {
+        return Files.isRegularFile(indexDir.resolve(FILE_NAME));
+    }
+
+    /**
+     * Reads the manifest of an index directory.
+     *
+     * @throws IOException if the manifest cannot be read or is malformed
+     */
+    public static SegmentManifest read(Path indexDir) throws IOException {
+        Path file = indexDir.resolve(FILE_NAME);
+        List<Segment> segments = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\t");
+            if (parts.length != 4) {
+                throw new IOException("Malformed segment manifest line in " + file + ": " + line);
+            }
+            try {
+                segments.add(new Segment(parts[0], parseTime(parts[1]), parseTime(parts[2]), Long.parseLong(parts[3])));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IOException("Malformed segment manifest line in " + file + ": " + line, e);
+            }
+        }
+        return new SegmentManifest(segments);
+    }
+
+    /**
+     * Writes the manifest to an index directory, replacing the previous one atomically.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    public void write(Path indexDir) throws IOException {
+        Files.createDirectories(indexDir);
+        StringBuilder content = new StringBuilder("# name\tmin_time\tmax_time\tkeys\n");
+        for (Segment segment : segments) {
+            content.append(segment.name()).append('\t')
+                .append(formatTime(segment.minTime())).append('\t')
+                .append(formatTime(segment.maxTime())).append('\t')
+                .append(segment.keys()).append('\n');
+        }
+        Path file = indexDir.resolve(FILE_NAME);
+        Path temp = indexDir.resolve(FILE_NAME + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns a manifest with the given segments added, replacing segments of the same name.
+     */
+    public SegmentManifest with(Collection<Segment> updated) {
+        Map<String, Segment> byName = new TreeMap<>();
+        segments.forEach(segment -> byName.put(segment.name(), segment));
+        updated.forEach(segment -> byName.put(segment.name(), segment));
+        return new SegmentManifest(new ArrayList<>(byName.values()));
+    }
+
+    /**
+     * Returns a manifest without the segments of the given names.
+     */
+    public SegmentManifest without(Collection<String> names) {
+        return new SegmentManifest(segments.stream().filter(segment -> !names.contains(segment.name())).toList());
+    }
+
+    private static LocalDate parseTime(String value) {
+        return NO_TIME.equals(value) ? null : LocalDate.parse(value);
+    }
+
+    private static String formatTime(LocalDate time) {
+        return time == null ? NO_TIME : time.toString();
+    }
+}
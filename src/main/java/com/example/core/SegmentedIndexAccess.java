@@ -0,0 +1,351 @@
+package com.example.core;
+
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.WriteBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Read-only view over an index built as time segments (see {@link SegmentManifest}).
+ * Lookups and iterators merge the segments, so callers see one index whose posting list
+ * for a key holds the positions of that key in every segment.
+ * <p>
+ * {@link #restrictTo(LocalDate, LocalDate)} drops the segments that cannot hold data of a
+ * time range. Only ner_date, whose segments follow the mentioned day, is restricted at
+ * query time: date conditions read just the years they name. The other indexes are
+ * segmented by document time, which no query constrains, so every lookup on them reads
+ * and merges all segments.
+ */
+public final class SegmentedIndexAccess implements IndexAccessInterface {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedIndexAccess.class);
+
+    /**
+     * An open segment.
+     *
+     * @param segment The manifest entry of the segment
+     * @param index The segment's index
+     */
+    public record Part(SegmentManifest.Segment segment, IndexAccessInterface index) {}
+
+    private final String indexType;
+    private final List<Part> parts;
+    // Restricted views share the parts of the view they were made from
+    private final boolean ownsParts;
+
+    /**
+     * Creates a view over open segments. The view closes the segments when it is closed.
+     */
+    public SegmentedIndexAccess(String indexType, List<Part> parts) {
+        this(indexType, parts, true);
+    }
+
+    private SegmentedIndexAccess(String indexType, List<Part> parts, boolean ownsParts) {
+        this.indexType = indexType;
+        this.parts = List.copyOf(parts);
+        this.ownsParts = ownsParts;
+    }
+
+    /**
+     * Opens an index directory, which holds either a single LevelDB or a segment manifest
+     * with one LevelDB per segment.
+     *
+     * @param indexDir The index directory
+     * @param indexType The index type
+     * @param options LevelDB options for every segment
+     * @return The index
+     * @throws IndexAccessException if the manifest or a segment cannot be opened
+     */
+    public static IndexAccessInterface open(Path indexDir, String indexType, Options options)
+            throws IndexAccessException {
+        if (!SegmentManifest.exists(indexDir)) {
+            return new IndexAccess(indexDir, indexType, options);
+        }
+        SegmentManifest manifest;
+        try {
+            manifest = SegmentManifest.read(indexDir);
+        } catch (IOException e) {
+            throw new IndexAccessException("Failed to read segment manifest: " + e.getMessage(),
+                indexType, IndexAccessException.ErrorType.METADATA_ERROR, e);
+        }
+        List<Part> parts = new ArrayList<>();
+        try {
+            for (SegmentManifest.Segment segment : manifest.segments()) {
+                parts.add(new Part(segment, new IndexAccess(indexDir.resolve(segment.name()), indexType, options)));
+            }
+        } catch (IndexAccessException e) {
+            closeAll(parts);
+            throw e;
+        }
+        logger.info("Opened {} index with {} time segments", indexType, parts.size());
+        return new SegmentedIndexAccess(indexType, parts);
+    }
+
+    /**
+     * Gets the segments of this view.
+     */
+    public List<SegmentManifest.Segment> getSegments() {
+        return parts.stream().map(Part::segment).toList();
+    }
+
+    @Override
+    public IndexAccessInterface restrictTo(LocalDate from, LocalDate to) {
+        List<Part> overlapping = parts.stream()
+            .filter(part -> part.segment().overlaps(from, to))
+            .toList();
+        if (overlapping.size() == parts.size()) {
+            return this;
+        }
+        logger.debug("Pruned {} of {} {} segments for range {}..{}",
+            parts.size() - overlapping.size(), parts.size(), indexType, from, to);
+        return new SegmentedIndexAccess(indexType, overlapping, false);
+    }
+
+    @Override
+    public Optional<PositionList> get(byte[] key) throws IndexAccessException {
+        Optional<byte[]> raw = getRaw(key);
+        if (raw.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(PositionList.deserialize(raw.get()));
+        } catch (Exception e) {
+            throw new IndexAccessException("Failed to get entry: " + e.getMessage(),
+                indexType, IndexAccessException.ErrorType.READ_ERROR, e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> getRaw(byte[] key) throws IndexAccessException {
+        List<byte[]> values = new ArrayList<>();
+        for (Part part : parts) {
+            part.index().getRaw(key).ifPresent(values::add);
+        }
+        if (values.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(values.size() == 1 ? values.get(0) : concat(values));
+    }
+
+    @Override
+    public DBIterator iterator() throws IndexAccessException {
+        return iterator(null);
+    }
+
+    @Override
+    public DBIterator iterator(ReadOptions options) throws IndexAccessException {
+        if (parts.size() == 1) {
+            return options == null ? parts.get(0).index().iterator() : parts.get(0).index().iterator(options);
+        }
+        List<DBIterator> iterators = new ArrayList<>();
+        try {
+            for (Part part : parts) {
+                iterators.add(options == null ? part.index().iterator() : part.index().iterator(options));
+            }
+        } catch (IndexAccessException e) {
+            for (DBIterator iterator : iterators) {
+                try {
+                    iterator.close();
+                } catch (IOException closeError) {
+                    logger.debug("Failed to close segment iterator: {}", closeError.getMessage());
+                }
+            }
+            throw e;
+        }
+        return new MergingIterator(iterators);
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) throws IndexAccessException {
+        throw readOnly();
+    }
+
+    @Override
+    public void delete(byte[] key) throws IndexAccessException {
+        throw readOnly();
+    }
+
+    @Override
+    public WriteBatch createWriteBatch() throws IndexAccessException {
+        throw readOnly();
+    }
+
+    @Override
+    public void write(WriteBatch batch) throws IndexAccessException {
+        throw readOnly();
+    }
+
+    @Override
+    public String getIndexType() {
+        return indexType;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return parts.stream().allMatch(part -> part.index().isOpen());
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (ownsParts) {
+            closeAll(parts);
+        }
+    }
+
+    private IndexAccessException readOnly() {
+        return new IndexAccessException("Segmented indexes are read-only; rebuild the segment instead",
+            indexType, IndexAccessException.ErrorType.WRITE_ERROR);
+    }
+
+    private static void closeAll(List<Part> parts) {
+        for (Part part : parts) {
+            try {
+                part.index().close();
+            } catch (Exception e) {
+                logger.error("Error closing segment {}: {}", part.segment().name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Joins the posting lists of one key from several segments. Plain concatenation is
+     * enough because every position belongs to exactly one segment. Time-ordered lists
+     * stay time-ordered.
+     */
+    private static byte[] concat(List<byte[]> values) {
+        PositionList merged = new PositionList();
+        boolean timeOrdered = true;
+        for (byte[] value : values) {
+            PositionList.deserialize(value).getPositions().forEach(merged::add);
+            timeOrdered &= PositionList.isTimeOrdered(value);
+        }
+        return timeOrdered ? merged.serializeByTime() : merged.serialize();
+    }
+
+    /**
+     * Forward iterator over the union of the segments' keys in key order.
+     */
+    private static final class MergingIterator implements DBIterator {
+        private final List<DBIterator> iterators;
+        // Next unread entry of each segment, or null when the segment is exhausted
+        private final List<Map.Entry<byte[], byte[]>> heads;
+
+        MergingIterator(List<DBIterator> iterators) {
+            this.iterators = iterators;
+            this.heads = new ArrayList<>();
+            for (int i = 0; i < iterators.size(); i++) {
+                heads.add(null);
+            }
+            refill();
+        }
+
+        private void refill() {
+            for (int i = 0; i < iterators.size(); i++) {
+                heads.set(i, iterators.get(i).hasNext() ? iterators.get(i).next() : null);
+            }
+        }
+
+        @Override
+        public void seek(byte[] key) {
+            iterators.forEach(iterator -> iterator.seek(key));
+            refill();
+        }
+
+        @Override
+        public void seekToFirst() {
+            iterators.forEach(DBIterator::seekToFirst);
+            refill();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heads.stream().anyMatch(head -> head != null);
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> peekNext() {
+            return merge(false);
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> next() {
+            return merge(true);
+        }
+
+        private Map.Entry<byte[], byte[]> merge(boolean advance) {
+            byte[] smallest = null;
+            for (Map.Entry<byte[], byte[]> head : heads) {
+                if (head != null && (smallest == null || Arrays.compareUnsigned(head.getKey(), smallest) < 0)) {
+                    smallest = head.getKey();
+                }
+            }
+            if (smallest == null) {
+                throw new NoSuchElementException();
+            }
+            List<byte[]> values = new ArrayList<>();
+            for (int i = 0; i < heads.size(); i++) {
+                Map.Entry<byte[], byte[]> head = heads.get(i);
+                if (head != null && Arrays.equals(head.getKey(), smallest)) {
+                    values.add(head.getValue());
+                    if (advance) {
+                        heads.set(i, iterators.get(i).hasNext() ? iterators.get(i).next() : null);
+                    }
+                }
+            }
+            byte[] value = values.size() == 1 ? values.get(0) : concat(values);
+            return new AbstractMap.SimpleImmutableEntry<>(smallest, value);
+        }
+
+        @Override
+        public void seekToLast() {
+            throw new UnsupportedOperationException("Segmented iterators only move forward");
+        }
+
+        @Override
+        public boolean hasPrev() {
+            throw new UnsupportedOperationException("Segmented iterators only move forward");
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> prev() {
+            throw new UnsupportedOperationException("Segmented iterators only move forward");
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> peekPrev() {
+            throw new UnsupportedOperationException("Segmented iterators only move forward");
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Segmented indexes are read-only");
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (DBIterator iterator : iterators) {
+                try {
+                    iterator.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
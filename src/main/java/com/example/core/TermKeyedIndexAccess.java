@@ -0,0 +1,266 @@
+package com.example.core;
+
+import com.example.index.TermDictionary;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.WriteBatch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * View of an index keyed by term IDs (see {@link TermDictionary}) that takes and returns
+ * the usual UTF-8 string keys, so executors read it like any string-keyed index.
+ * <p>
+ * Point lookups translate the key's terms to IDs with the memory-mapped dictionary; a key
+ * with a term the corpus never contained is answered without touching LevelDB. Iterators
+ * return decoded keys. Seeking to a prefix that ends in whole terms seeks to their encoded
+ * tuple, which covers exactly the keys with that prefix. Seeking to a prefix that ends
+ * inside a term (a wildcard) visits the dictionary terms with that start instead, and
+ * returns their keys in string order.
+ */
+public class TermKeyedIndexAccess implements IndexAccessInterface {
+    private final IndexAccessInterface delegate;
+    private final TermDictionary terms;
+
+    /**
+     * Creates a string-keyed view of a term-keyed index.
+     *
+     * @param delegate The term-keyed index
+     * @param terms The term dictionary of the index set
+     */
+    public TermKeyedIndexAccess(IndexAccessInterface delegate, TermDictionary terms) {
+        this.delegate = delegate;
+        this.terms = terms;
+    }
+
+    @Override
+    public Optional<PositionList> get(byte[] key) throws IndexAccessException {
+        byte[] encoded = encode(key);
+        return encoded == null ? Optional.empty() : delegate.get(encoded);
+    }
+
+    @Override
+    public Optional<byte[]> getRaw(byte[] key) throws IndexAccessException {
+        byte[] encoded = encode(key);
+        return encoded == null ? Optional.empty() : delegate.getRaw(encoded);
+    }
+
+    @Override
+    public DBIterator iterator() throws IndexAccessException {
+        return new DecodingIterator(delegate.iterator(), terms);
+    }
+
+    @Override
+    public DBIterator iterator(ReadOptions options) throws IndexAccessException {
+        return new DecodingIterator(delegate.iterator(options), terms);
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) throws IndexAccessException {
+        delegate.put(encodeForWrite(key), value);
+    }
+
+    @Override
+    public void delete(byte[] key) throws IndexAccessException {
+        byte[] encoded = encode(key);
+        if (encoded != null) {
+            delegate.delete(encoded);
+        }
+    }
+
+    /**
+     * Creates a batch on the underlying index; keys added to it must already be encoded.
+     */
+    @Override
+    public WriteBatch createWriteBatch() throws IndexAccessException {
+        return delegate.createWriteBatch();
+    }
+
+    @Override
+    public void write(WriteBatch batch) throws IndexAccessException {
+        delegate.write(batch);
+    }
+
+    @Override
+    public String getIndexType() {
+        return delegate.getIndexType();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public IndexAccessInterface restrictTo(LocalDate from, LocalDate to) {
+        IndexAccessInterface restricted = delegate.restrictTo(from, to);
+        return restricted == delegate ? this : new TermKeyedIndexAccess(restricted, terms);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    private byte[] encode(byte[] key) {
+        return terms.encodeKey(new String(key, StandardCharsets.UTF_8));
+    }
+
+    private byte[] encodeForWrite(byte[] key) throws IndexAccessException {
+        byte[] encoded = encode(key);
+        if (encoded == null) {
+            throw new IndexAccessException("Key has a term missing from the term dictionary",
+                getIndexType(), IndexAccessException.ErrorType.WRITE_ERROR);
+        }
+        return encoded;
+    }
+
+    /**
+     * Forward iterator that decodes the keys of a term-keyed index.
+     */
+    private static final class DecodingIterator implements DBIterator {
+        private final DBIterator iterator;
+        private final TermDictionary terms;
+        // Entries of a wildcard seek, or null while reading the underlying iterator
+        private Iterator<Map.Entry<byte[], byte[]>> wildcard;
+        // Decoded entry read ahead of the caller, or null
+        private Map.Entry<byte[], byte[]> head;
+
+        DecodingIterator(DBIterator iterator, TermDictionary terms) {
+            this.iterator = iterator;
+            this.terms = terms;
+        }
+
+        @Override
+        public void seek(byte[] key) {
+            String prefix = new String(key, StandardCharsets.UTF_8);
+            int split = prefix.lastIndexOf(IndexAccessInterface.DELIMITER) + 1;
+            String partial = prefix.substring(split);
+
+            byte[] leading = new byte[0];
+            if (split > 0) {
+                leading = terms.encodeKey(prefix.substring(0, split - 1));
+                if (leading == null) {
+                    seekWildcard(List.of());
+                    return;
+                }
+            }
+            if (partial.isEmpty()) {
+                wildcard = null;
+                head = null;
+                if (leading.length == 0) {
+                    iterator.seekToFirst();
+                } else {
+                    iterator.seek(leading);
+                    // The key of the leading terms alone sorts first but lacks the trailing delimiter
+                    if (iterator.hasNext()) {
+                        Map.Entry<byte[], byte[]> first = iterator.next();
+                        head = Arrays.equals(first.getKey(), leading) ? null : decode(first);
+                    }
+                }
+                return;
+            }
+
+            String leadingTerms = prefix.substring(0, split);
+            List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>();
+            terms.forEachTermWithPrefix(partial, (term, id) -> {
+                byte[] termPrefix = terms.encodeKey(leadingTerms + term);
+                iterator.seek(termPrefix);
+                while (iterator.hasNext()) {
+                    Map.Entry<byte[], byte[]> entry = iterator.next();
+                    if (!startsWith(entry.getKey(), termPrefix)) {
+                        break;
+                    }
+                    entries.add(decode(entry));
+                }
+            });
+            entries.sort(Comparator.comparing(entry -> new String(entry.getKey(), StandardCharsets.UTF_8)));
+            seekWildcard(entries);
+        }
+
+        private void seekWildcard(List<Map.Entry<byte[], byte[]>> entries) {
+            wildcard = entries.iterator();
+            head = wildcard.hasNext() ? wildcard.next() : null;
+        }
+
+        @Override
+        public void seekToFirst() {
+            wildcard = null;
+            head = null;
+            iterator.seekToFirst();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return head != null || wildcard == null && iterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> peekNext() {
+            if (head == null) {
+                if (wildcard != null) {
+                    throw new NoSuchElementException();
+                }
+                head = decode(iterator.next());
+            }
+            return head;
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> next() {
+            Map.Entry<byte[], byte[]> entry = peekNext();
+            head = wildcard != null && wildcard.hasNext() ? wildcard.next() : null;
+            return entry;
+        }
+
+        private Map.Entry<byte[], byte[]> decode(Map.Entry<byte[], byte[]> entry) {
+            byte[] key = terms.decodeKey(entry.getKey()).getBytes(StandardCharsets.UTF_8);
+            return new AbstractMap.SimpleImmutableEntry<>(key, entry.getValue());
+        }
+
+        private static boolean startsWith(byte[] key, byte[] prefix) {
+            return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+        }
+
+        @Override
+        public void seekToLast() {
+            throw new UnsupportedOperationException("Term-keyed iterators only move forward");
+        }
+
+        @Override
+        public boolean hasPrev() {
+            throw new UnsupportedOperationException("Term-keyed iterators only move forward");
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> prev() {
+            throw new UnsupportedOperationException("Term-keyed iterators only move forward");
+        }
+
+        @Override
+        public Map.Entry<byte[], byte[]> peekPrev() {
+            throw new UnsupportedOperationException("Term-keyed iterators only move forward");
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Term-keyed iterators are read-only");
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
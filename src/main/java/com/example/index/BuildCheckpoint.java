@@ -0,0 +1,343 @@
+package com.example.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Durable progress of an index build, so a build that was killed resumes where it stopped
+ * instead of starting over.
+ * <p>
+ * A build goes through three phases: it spills fetched batches to sorted run files, merges
+ * the runs into one sorted file, and writes the sorted terms to LevelDB. The checkpoint
+ * lives in the {@value #DIRECTORY} subdirectory of the index directory, together with the
+ * run and sorted files it refers to. Its manifest {@value #FILE_NAME} is a tab-separated
+ * file of {@code name value} lines:
+ * <pre>
+ * settings    the build settings; a build with other settings starts over
+ * phase       SPILL, MERGE, WRITE or DONE
+ * offset      the fetch offset reached by the spilled runs
+ * written     the number of sorted terms known to be in the index
+ * run         one line per spilled run file, in fetch order
+ * </pre>
+ * Every file is synced before the manifest names it, and the manifest is replaced
+ * atomically, so the manifest never refers to data that a crash can lose. Opening a
+ * checkpoint deletes the files it does not name, such as a run whose batch was not
+ * recorded yet or a half-merged file.
+ */
+public final class BuildCheckpoint {
+    private static final Logger logger = LoggerFactory.getLogger(BuildCheckpoint.class);
+
+    public static final String DIRECTORY = "build-checkpoint";
+    public static final String FILE_NAME = "checkpoint.tsv";
+    static final String SORTED_FILE = "sorted.tmp";
+    static final String MERGE_FILE = "merging.tmp";
+    private static final String MERGE_INPUT_PREFIX = "merge-";
+    // Terms written between two checkpoints of the write phase
+    static final int WRITE_INTERVAL = 10000;
+
+    /**
+     * Phases of an index build, in order.
+     */
+    enum Phase { SPILL, MERGE, WRITE, DONE }
+
+    /**
+     * Called by a checkpointed build at the points where it can be killed: before a spilled
+     * run is recorded, before a finished merge is published, and after each written term.
+     * Tests throw from it to stop a build at an exact point.
+     */
+    @FunctionalInterface
+    interface Interruption {
+        Interruption NONE = (phase, progress) -> { };
+
+        /**
+         * @param phase The phase the build is in
+         * @param progress The fetch offset after the run in SPILL, 0 in MERGE, and the
+         *                 number of terms written in WRITE
+         */
+        void reached(Phase phase, long progress) throws IOException;
+    }
+
+    private final Path directory;
+    private final String settings;
+    private final List<String> runs = new ArrayList<>();
+    private Phase phase = Phase.SPILL;
+    private int offset = 0;
+    private long written = 0;
+
+    private BuildCheckpoint(Path directory, String settings) {
+        this.directory = directory;
+        this.settings = settings;
+    }
+
+    /**
+     * Checks whether an index directory holds the checkpoint of a build.
+     */
+    public static boolean exists(Path indexDir) {
+        return Files.isRegularFile(indexDir.resolve(DIRECTORY).resolve(FILE_NAME));
+    }
+
+    /**
+     * Opens the checkpoint of an index directory.
+     *
+     * @param indexDir The index directory
+     * @param settings The settings of the build, compared with those of the checkpoint
+     * @param resume Whether to continue from a checkpoint with the same settings;
+     *               otherwise any previous checkpoint is discarded
+     * @return The checkpoint, empty unless a consistent one was resumed
+     * @throws IOException if the checkpoint directory cannot be read or written
+     */
+    static BuildCheckpoint open(Path indexDir, String settings, boolean resume) throws IOException {
+        Path directory = indexDir.resolve(DIRECTORY);
+        Files.createDirectories(directory);
+        BuildCheckpoint checkpoint = new BuildCheckpoint(directory, settings);
+        if (resume && checkpoint.load() && checkpoint.isConsistent()) {
+            logger.info("Resuming build of {} in phase {} at offset {} with {} runs and {} written terms",
+                indexDir, checkpoint.phase, checkpoint.offset, checkpoint.runs.size(), checkpoint.written);
+        } else {
+            checkpoint.reset();
+        }
+        checkpoint.deleteOrphans();
+        checkpoint.save();
+        return checkpoint;
+    }
+
+    Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets the fetch offset after the last recorded run.
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the number of sorted terms known to be written to the index.
+     */
+    long getWritten() {
+        return written;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the recorded run files, in fetch order.
+     */
+    List<File> getRunFiles() {
+        return runs.stream().map(name -> directory.resolve(name).toFile()).toList();
+    }
+
+    File getSortedFile() {
+        return directory.resolve(SORTED_FILE).toFile();
+    }
+
+    /**
+     * Gets the file the runs are merged into before {@link #merged()} publishes it.
+     */
+    File getMergeFile() {
+        return directory.resolve(MERGE_FILE).toFile();
+    }
+
+    /**
+     * Records a spilled run and the fetch offset after its batch.
+     */
+    void addRun(File run, int offset) throws IOException {
+        sync(run.toPath());
+        runs.add(run.getName());
+        this.offset = offset;
+        save();
+    }
+
+    /**
+     * Records that all batches are spilled and the runs are being merged.
+     *
+     * @return Links to the runs to merge; the merge deletes its input files, and the
+     *         recorded runs must survive it until {@link #merged()}
+     */
+    List<File> startMerge() throws IOException {
+        phase = Phase.MERGE;
+        save();
+        List<File> inputs = new ArrayList<>();
+        for (String run : runs) {
+            Path input = directory.resolve(MERGE_INPUT_PREFIX + run);
+            Files.deleteIfExists(input);
+            try {
+                Files.createLink(input, directory.resolve(run));
+            } catch (UnsupportedOperationException e) {
+                Files.copy(directory.resolve(run), input);
+            }
+            inputs.add(input.toFile());
+        }
+        return inputs;
+    }
+
+    /**
+     * Publishes the merge file as the sorted file and drops the runs it was merged from.
+     */
+    void merged() throws IOException {
+        Path mergeFile = directory.resolve(MERGE_FILE);
+        sync(mergeFile);
+        Files.move(mergeFile, directory.resolve(SORTED_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        startWrite();
+    }
+
+    /**
+     * Records the number of sorted terms written to the index.
+     */
+    void recordWritten(long written) throws IOException {
+        this.written = written;
+        save();
+    }
+
+    /**
+     * Records that the index is complete and drops the sorted file.
+     */
+    void complete() throws IOException {
+        phase = Phase.DONE;
+        save();
+        Files.deleteIfExists(directory.resolve(SORTED_FILE));
+    }
+
+    private void startWrite() throws IOException {
+        List<File> merged = getRunFiles();
+        phase = Phase.WRITE;
+        written = 0;
+        runs.clear();
+        save();
+        for (File run : merged) {
+            Files.deleteIfExists(run.toPath());
+            Files.deleteIfExists(directory.resolve(MERGE_INPUT_PREFIX + run.getName()));
+        }
+    }
+
+    /**
+     * Reads the manifest.
+     *
+     * @return Whether a manifest with the same settings was read
+     */
+    private boolean load() throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        String savedSettings = null;
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\t", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Malformed line: " + line);
+                }
+                switch (parts[0]) {
+                    case "settings" -> savedSettings = parts[1];
+                    case "phase" -> phase = Phase.valueOf(parts[1]);
+                    case "offset" -> offset = Integer.parseInt(parts[1]);
+                    case "written" -> written = Long.parseLong(parts[1]);
+                    case "run" -> runs.add(parts[1]);
+                    default -> throw new IllegalArgumentException("Unknown entry: " + parts[0]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed build checkpoint {}: {}", file, e.getMessage());
+            return false;
+        }
+        if (!settings.equals(savedSettings)) {
+            logger.info("Build settings changed since checkpoint {}, starting over", file);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the files the manifest names still exist, and completes a merge that was
+     * published but not recorded.
+     */
+    private boolean isConsistent() throws IOException {
+        boolean runsExist = runs.stream().allMatch(name -> Files.isRegularFile(directory.resolve(name)));
+        boolean sortedExists = Files.isRegularFile(directory.resolve(SORTED_FILE));
+        boolean consistent = switch (phase) {
+            case SPILL -> runsExist;
+            case MERGE -> runsExist || sortedExists;
+            case WRITE -> sortedExists;
+            case DONE -> true;
+        };
+        if (!consistent) {
+            logger.warn("Build checkpoint {} refers to missing files, starting over", directory);
+            return false;
+        }
+        if (phase == Phase.MERGE && sortedExists) {
+            startWrite();
+        }
+        return true;
+    }
+
+    private void reset() {
+        phase = Phase.SPILL;
+        offset = 0;
+        written = 0;
+        runs.clear();
+    }
+
+    private void deleteOrphans() throws IOException {
+        Set<String> kept = new HashSet<>(runs);
+        kept.add(FILE_NAME);
+        if (phase == Phase.WRITE) {
+            kept.add(SORTED_FILE);
+        }
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted(Comparator.naturalOrder()).toList()) {
+                if (!kept.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} orphaned files from build checkpoint {}", deleted, directory);
+        }
+    }
+
+    private void save() throws IOException {
+        StringBuilder content = new StringBuilder("# name\tvalue\n")
+            .append("settings\t").append(settings).append('\n')
+            .append("phase\t").append(phase).append('\n')
+            .append("offset\t").append(offset).append('\n')
+            .append("written\t").append(written).append('\n');
+        for (String run : runs) {
+            content.append("run\t").append(run).append('\n');
+        }
+        Path file = directory.resolve(FILE_NAME);
+        Path temp = directory.resolve(FILE_NAME + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        sync(temp);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compact storage layout for the annotations and dependencies of a corpus database.
+ * <p>
+ * The wide tables keep pos, ner and relation as text and leave the document timestamp in
+ * {@code documents}, so every generator fetch reads long rows and joins for the date.
+ * The compact tables store those labels as small integer codes from {@value #CODES}, carry
+ * the document day (days since the epoch) on each row, and are clustered on
+ * {@code (document_id, sentence_id, begin_char)}, the order every fetch query reads in.
+ * The NER and date fetches, which read a small share of the rows, get partial covering
+ * indexes, so no fetch sorts or visits the rows of other generators.
+ * <p>
+ * Views named {@code annotations} and {@code dependencies} decode the compact tables,
+ * so code that is not aware of the layout keeps reading the old columns. Generators
+ * detect the layout with {@link #load(Connection)} and read the compact tables directly.
+ */
+public final class CompactAnnotations {
+    private static final Logger logger = LoggerFactory.getLogger(CompactAnnotations.class);
+
+    public static final String ANNOTATIONS = "compact_annotations";
+    public static final String DEPENDENCIES = "compact_dependencies";
+    public static final String CODES = "annotation_codes";
+
+    // Fixed codes, so the NER filters and their partial indexes need no lookup
+    public static final int EMPTY_CODE = 0;
+    public static final int OUTSIDE_CODE = 1;
+    public static final int DATE_CODE = 2;
+
+    // julianday() of 1970-01-01
+    private static final String EPOCH_DAY =
+        "CAST(julianday(substr(d.timestamp, 1, 10)) - 2440587.5 AS INTEGER)";
+
+    private final List<String> values;
+    private final Map<String, Integer> codes;
+
+    private CompactAnnotations(List<String> values) {
+        this.values = values;
+        this.codes = new HashMap<>();
+        for (int code = 0; code < values.size(); code++) {
+            if (values.get(code) != null) {
+                codes.put(values.get(code), code);
+            }
+        }
+    }
+
+    /**
+     * Creates the compact tables if they do not exist. Rows of existing wide
+     * {@code annotations} and {@code dependencies} tables are moved into them, the wide
+     * tables are replaced by views and the database is vacuumed to return their space.
+     * Annotations of documents missing from {@code documents} are not carried over,
+     * as they have no timestamp to index.
+     *
+     * @param conn Connection to the corpus database
+     * @return The layout
+     * @throws SQLException if the tables cannot be created or migrated
+     */
+    public static CompactAnnotations create(Connection conn) throws SQLException {
+        boolean migrateAnnotations = isTable(conn, "annotations");
+        boolean migrateDependencies = isTable(conn, "dependencies");
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            createTables(stmt);
+            if (migrateAnnotations || migrateDependencies) {
+                migrate(stmt, migrateAnnotations, migrateDependencies);
+            }
+            createViews(stmt);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        if (migrateAnnotations || migrateDependencies) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("VACUUM");
+            }
+        }
+        return load(conn).orElseThrow();
+    }
+
+    private static void createTables(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + CODES + " (" +
+            "code INTEGER PRIMARY KEY, " +
+            "value TEXT NOT NULL UNIQUE)");
+        stmt.execute("INSERT OR IGNORE INTO " + CODES + " (code, value) VALUES " +
+            "(" + EMPTY_CODE + ", ''), (" + OUTSIDE_CODE + ", 'O'), (" + DATE_CODE + ", 'DATE')");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + ANNOTATIONS + " (" +
+            "document_id INTEGER NOT NULL, " +
+            "sentence_id INTEGER NOT NULL, " +
+            "begin_char INTEGER NOT NULL, " +
+            "annotation_id INTEGER NOT NULL, " +
+            "end_char INTEGER, " +
+            "token TEXT, " +
+            "lemma TEXT, " +
+            "pos INTEGER, " +
+            "ner INTEGER, " +
+            "normalized_ner TEXT, " +
+            "day INTEGER NOT NULL, " +
+            "PRIMARY KEY (document_id, sentence_id, begin_char, annotation_id)) WITHOUT ROWID");
+        // Covering indexes of the NER and date fetches; their WHERE terms match the queries
+        stmt.execute("CREATE INDEX IF NOT EXISTS " + ANNOTATIONS + "_entities ON " + ANNOTATIONS +
+            " (document_id, sentence_id, begin_char, end_char, token, ner, day) WHERE ner > " + DATE_CODE);
+        stmt.execute("CREATE INDEX IF NOT EXISTS " + ANNOTATIONS + "_dates ON " + ANNOTATIONS +
+            " (document_id, sentence_id, begin_char, end_char, ner, normalized_ner, day) WHERE ner = " + DATE_CODE);
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS " + DEPENDENCIES + " (" +
+            "document_id INTEGER NOT NULL, " +
+            "sentence_id INTEGER NOT NULL, " +
+            "begin_char INTEGER NOT NULL, " +
+            "dependency_id INTEGER NOT NULL, " +
+            "end_char INTEGER, " +
+            "head_token TEXT, " +
+            "dependent_token TEXT, " +
+            "relation INTEGER, " +
+            "day INTEGER NOT NULL, " +
+            "PRIMARY KEY (document_id, sentence_id, begin_char, dependency_id)) WITHOUT ROWID");
+    }
+
+    private static void migrate(Statement stmt, boolean annotations, boolean dependencies) throws SQLException {
+        List<String> labels = new ArrayList<>();
+        if (annotations) {
+            labels.add("SELECT pos FROM annotations WHERE pos IS NOT NULL");
+            labels.add("SELECT ner FROM annotations WHERE ner IS NOT NULL");
+        }
+        if (dependencies) {
+            labels.add("SELECT relation FROM dependencies WHERE relation IS NOT NULL");
+        }
+        stmt.execute("INSERT OR IGNORE INTO " + CODES + " (value) " + String.join(" UNION ", labels));
+
+        // Missing positions read as 0 in the wide layout too
+        if (annotations) {
+            int rows = stmt.executeUpdate("INSERT INTO " + ANNOTATIONS + " (document_id, sentence_id, " +
+                "begin_char, annotation_id, end_char, token, lemma, pos, ner, normalized_ner, day) " +
+                "SELECT a.document_id, COALESCE(a.sentence_id, 0), COALESCE(a.begin_char, 0), " +
+                "a.annotation_id, a.end_char, a.token, a.lemma, p.code, n.code, a.normalized_ner, " + EPOCH_DAY + " " +
+                "FROM annotations a " +
+                "JOIN documents d ON a.document_id = d.document_id " +
+                "LEFT JOIN " + CODES + " p ON p.value = a.pos " +
+                "LEFT JOIN " + CODES + " n ON n.value = a.ner");
+            stmt.execute("DROP TABLE annotations");
+            logger.info("Moved {} annotations to {}", rows, ANNOTATIONS);
+        }
+        if (dependencies) {
+            int rows = stmt.executeUpdate("INSERT INTO " + DEPENDENCIES + " (document_id, sentence_id, " +
+                "begin_char, dependency_id, end_char, head_token, dependent_token, relation, day) " +
+                "SELECT dep.document_id, COALESCE(dep.sentence_id, 0), COALESCE(dep.begin_char, 0), " +
+                "dep.dependency_id, dep.end_char, dep.head_token, dep.dependent_token, r.code, " + EPOCH_DAY + " " +
+                "FROM dependencies dep " +
+                "JOIN documents d ON dep.document_id = d.document_id " +
+                "LEFT JOIN " + CODES + " r ON r.value = dep.relation");
+            stmt.execute("DROP TABLE dependencies");
+            logger.info("Moved {} dependencies to {}", rows, DEPENDENCIES);
+        }
+    }
+
+    private static void createViews(Statement stmt) throws SQLException {
+        stmt.execute("CREATE VIEW IF NOT EXISTS annotations AS " +
+            "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
+            "a.token, a.lemma, p.value AS pos, n.value AS ner, a.normalized_ner " +
+            "FROM " + ANNOTATIONS + " a " +
+            "LEFT JOIN " + CODES + " p ON p.code = a.pos " +
+            "LEFT JOIN " + CODES + " n ON n.code = a.ner");
+        stmt.execute("CREATE VIEW IF NOT EXISTS dependencies AS " +
+            "SELECT d.dependency_id, d.document_id, d.sentence_id, d.begin_char, d.end_char, " +
+            "d.head_token, d.dependent_token, r.value AS relation " +
+            "FROM " + DEPENDENCIES + " d " +
+            "LEFT JOIN " + CODES + " r ON r.code = d.relation");
+    }
+
+    /**
+     * Loads the codes of a corpus database.
+     *
+     * @param conn Connection to the corpus database
+     * @return The layout, or empty if the database uses the wide tables
+     * @throws SQLException if the codes cannot be read
+     */
+    public static Optional<CompactAnnotations> load(Connection conn) throws SQLException {
+        if (!isTable(conn, ANNOTATIONS)) {
+            return Optional.empty();
+        }
+        List<String> values = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT code, value FROM " + CODES + " ORDER BY code")) {
+            while (rs.next()) {
+                int code = rs.getInt(1);
+                while (values.size() < code) {
+                    values.add(null);
+                }
+                values.add(rs.getString(2));
+            }
+        }
+        return Optional.of(new CompactAnnotations(values));
+    }
+
+    /**
+     * Checks whether a corpus database uses the compact layout.
+     */
+    public static boolean exists(Connection conn) throws SQLException {
+        return isTable(conn, ANNOTATIONS);
+    }
+
+    private static boolean isTable(Connection conn, String table) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getTables(null, null, table, new String[] {"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Deletes all annotations and dependencies, keeping the codes.
+     */
+    public static void clear(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM " + ANNOTATIONS);
+            stmt.execute("DELETE FROM " + DEPENDENCIES);
+        }
+    }
+
+    /**
+     * Gets the code of a label, adding it to {@value #CODES} if it is new.
+     *
+     * @param conn Connection to the corpus database
+     * @param value The label
+     * @return The code, or null for a null label
+     * @throws SQLException if a new code cannot be stored
+     */
+    public Integer encode(Connection conn, String value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO " + CODES + " (code, value) VALUES (?, ?)")) {
+            code = values.size();
+            insert.setInt(1, code);
+            insert.setString(2, value);
+            insert.executeUpdate();
+        }
+        values.add(value);
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * Gets the label of a code.
+     *
+     * @return The label, or null for a null or unknown code
+     */
+    public String decode(Integer code) {
+        return code == null || code < 0 || code >= values.size() ? null : values.get(code);
+    }
+
+    /**
+     * Reads a label column of a compact table row.
+     */
+    public String decode(ResultSet rs, String column) throws SQLException {
+        int code = rs.getInt(column);
+        return rs.wasNull() ? null : decode(code);
+    }
+
+    /**
+     * Reads the document day of a compact table row.
+     */
+    public static LocalDate day(ResultSet rs) throws SQLException {
+        return LocalDate.ofEpochDay(rs.getLong("day"));
+    }
+
+    /**
+     * Converts a document timestamp to the value of the day column.
+     */
+    public static long day(String timestamp) {
+        return LocalDate.parse(timestamp.substring(0, 10)).toEpochDay();
+    }
+}
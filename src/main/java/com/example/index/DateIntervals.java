@@ -0,0 +1,208 @@
+package com.example.index;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.IsoFields;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Date mentions that span more than one day, such as a month, a year, a decade or an
+ * explicit range, stored in the ner_date index as [start, end] intervals.
+ * <p>
+ * Interval keys are {@value #PREFIX} followed by a two-digit length class, the start day
+ * and the end day ({@code ~iLLyyyyMMddyyyyMMdd}). Class {@code l} holds intervals of at most
+ * 2<sup>l</sup> days, so within a class the keys sort by start and every interval that can
+ * satisfy a predicate starts in a window at most 2<sup>l</sup> days wider than the query.
+ * A lookup seeks once per class and reads that window, which keeps it at O(log n + k) per
+ * class instead of enumerating the days of the query.
+ * <p>
+ * Interval keys sort after the daily keys and before the roll-up keys of {@link DateRollups}.
+ * Single-day mentions keep their daily key and are not stored here.
+ */
+public final class DateIntervals {
+    public static final String PREFIX = DateRollups.PREFIX + "i";
+    /** Class of the longest interval between {@link DateRollups#MIN_DATE} and {@link DateRollups#MAX_DATE} */
+    public static final int MAX_LENGTH_CLASS = 22;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern DAY = Pattern.compile("(\\d{4})-(\\d{2})-(\\d{2})(T.*)?");
+    private static final Pattern MONTH = Pattern.compile("(\\d{4})-(\\d{2})");
+    private static final Pattern YEAR = Pattern.compile("\\d{4}");
+    private static final Pattern DECADE = Pattern.compile("(\\d{3})X");
+    private static final Pattern CENTURY = Pattern.compile("(\\d{2})XX");
+    private static final Pattern WEEK = Pattern.compile("(\\d{4})-W(\\d{2})");
+    private static final Pattern QUARTER = Pattern.compile("(\\d{4})-Q([1-4])");
+    private static final Pattern HALF = Pattern.compile("(\\d{4})-H([12])");
+    private static final Pattern SEASON = Pattern.compile("(\\d{4})-(SP|SU|FA|WI)");
+
+    /**
+     * An inclusive range of days.
+     */
+    public record Interval(LocalDate start, LocalDate end) {
+        public long lengthDays() {
+            return end.toEpochDay() - start.toEpochDay() + 1;
+        }
+
+        public boolean isSingleDay() {
+            return start.equals(end);
+        }
+
+        /**
+         * The smallest class whose intervals are at least as long as this one.
+         */
+        public int lengthClass() {
+            return DateIntervals.lengthClass(lengthDays());
+        }
+
+        public String key() {
+            return String.format("%s%02d%s%s", PREFIX, lengthClass(),
+                start.format(DAY_FORMAT), end.format(DAY_FORMAT));
+        }
+    }
+
+    private DateIntervals() {
+    }
+
+    /**
+     * Normalizes a DATE value as written by the NLP pipeline (TIMEX3 style) to the days it
+     * covers. Understands days (with or without a time), months, years, decades
+     * ({@code 199X}), centuries ({@code 19XX}), ISO weeks, quarters, halves, seasons, and
+     * ranges of two such values separated by {@code /}.
+     *
+     * @return The interval, or empty for relative, partial or unknown values
+     */
+    public static Optional<Interval> parse(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String trimmed = value.trim();
+        int slash = trimmed.indexOf('/');
+        if (slash > 0) {
+            Optional<Interval> first = parseSingle(trimmed.substring(0, slash));
+            Optional<Interval> last = parseSingle(trimmed.substring(slash + 1));
+            if (first.isEmpty() || last.isEmpty() || last.get().end().isBefore(first.get().start())) {
+                return Optional.empty();
+            }
+            return Optional.of(new Interval(first.get().start(), last.get().end()));
+        }
+        return parseSingle(trimmed);
+    }
+
+    private static Optional<Interval> parseSingle(String value) {
+        try {
+            Interval interval = null;
+            Matcher m;
+            if ((m = DAY.matcher(value)).matches()) {
+                LocalDate day = LocalDate.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)),
+                    Integer.parseInt(m.group(3)));
+                interval = new Interval(day, day);
+            } else if ((m = MONTH.matcher(value)).matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+                interval = new Interval(month.atDay(1), month.atEndOfMonth());
+            } else if (YEAR.matcher(value).matches()) {
+                interval = years(Integer.parseInt(value), 1);
+            } else if ((m = DECADE.matcher(value)).matches()) {
+                interval = years(Integer.parseInt(m.group(1)) * 10, 10);
+            } else if ((m = CENTURY.matcher(value)).matches()) {
+                interval = years(Integer.parseInt(m.group(1)) * 100, 100);
+            } else if ((m = WEEK.matcher(value)).matches()) {
+                LocalDate monday = LocalDate.of(Integer.parseInt(m.group(1)), 1, 4)
+                    .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, Integer.parseInt(m.group(2)))
+                    .with(DayOfWeek.MONDAY);
+                interval = new Interval(monday, monday.plusDays(6));
+            } else if ((m = QUARTER.matcher(value)).matches()) {
+                interval = months(Integer.parseInt(m.group(1)), (Integer.parseInt(m.group(2)) - 1) * 3 + 1, 3);
+            } else if ((m = HALF.matcher(value)).matches()) {
+                interval = months(Integer.parseInt(m.group(1)), (Integer.parseInt(m.group(2)) - 1) * 6 + 1, 6);
+            } else if ((m = SEASON.matcher(value)).matches()) {
+                int year = Integer.parseInt(m.group(1));
+                interval = switch (m.group(2)) {
+                    case "SP" -> months(year, 3, 3);
+                    case "SU" -> months(year, 6, 3);
+                    case "FA" -> months(year, 9, 3);
+                    default -> months(year, 12, 3);
+                };
+            }
+            if (interval == null || !DateRollups.isIndexable(interval.start()) || !DateRollups.isIndexable(interval.end())) {
+                return Optional.empty();
+            }
+            return Optional.of(interval);
+        } catch (DateTimeException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Interval years(int firstYear, int count) {
+        LocalDate start = LocalDate.of(firstYear, 1, 1);
+        return new Interval(start, start.plusYears(count).minusDays(1));
+    }
+
+    private static Interval months(int year, int firstMonth, int count) {
+        LocalDate start = LocalDate.of(year, firstMonth, 1);
+        return new Interval(start, start.plusMonths(count).minusDays(1));
+    }
+
+    /**
+     * The smallest class {@code l} with 2<sup>l</sup> at least the given length.
+     */
+    public static int lengthClass(long lengthDays) {
+        return lengthDays <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(lengthDays - 1);
+    }
+
+    /**
+     * The longest interval, in days, of a length class.
+     */
+    public static long maxLength(int lengthClass) {
+        return 1L << lengthClass;
+    }
+
+    /**
+     * The shortest interval, in days, of a length class.
+     */
+    public static long minLength(int lengthClass) {
+        return lengthClass == 0 ? 1 : (1L << (lengthClass - 1)) + 1;
+    }
+
+    /**
+     * The key to seek to for the first interval of a class starting on or after a day.
+     */
+    public static String seekKey(int lengthClass, LocalDate start) {
+        return String.format("%s%02d%s", PREFIX, lengthClass, start.format(DAY_FORMAT));
+    }
+
+    /**
+     * The common prefix of every key of a length class.
+     */
+    public static String classPrefix(int lengthClass) {
+        return String.format("%s%02d", PREFIX, lengthClass);
+    }
+
+    public static boolean isIntervalKey(String key) {
+        return key.startsWith(PREFIX);
+    }
+
+    /**
+     * Gets the interval of an interval key.
+     *
+     * @return The interval, or empty if the key is not an interval key
+     */
+    public static Optional<Interval> fromKey(String key) {
+        if (!isIntervalKey(key) || key.length() != PREFIX.length() + 2 + 16) {
+            return Optional.empty();
+        }
+        try {
+            int offset = PREFIX.length() + 2;
+            LocalDate start = LocalDate.parse(key.substring(offset, offset + 8), DAY_FORMAT);
+            LocalDate end = LocalDate.parse(key.substring(offset + 8), DAY_FORMAT);
+            return Optional.of(new Interval(start, end));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.index;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keys of the year and month roll-up posting lists stored in the ner_date index next to
+ * the daily {@code yyyyMMdd} keys. A roll-up list holds the positions of every date
+ * mention in its year or month.
+ * <p>
+ * Roll-up keys start with {@value #PREFIX}, which sorts after every digit, so all daily
+ * keys come first and a scan over daily keys can stop at the first roll-up key.
+ * <p>
+ * {@link #cover(LocalDate, LocalDate)} splits a day range into the fewest runs of whole
+ * years, whole months and single days, so a range of any length reads at most two partial
+ * months of days, at most two partial years of months, and the whole years in between.
+ */
+public final class DateRollups {
+    public static final String PREFIX = "~";
+    public static final String YEAR_PREFIX = PREFIX + "y";
+    public static final String MONTH_PREFIX = PREFIX + "m";
+
+    /** Earliest date with a four-digit year key */
+    public static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    /** Latest date with a four-digit year key */
+    public static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    public enum Level { YEAR, MONTH, DAY }
+
+    /**
+     * A run of consecutive keys of one level, covering the days from start to end.
+     */
+    public record Segment(Level level, LocalDate start, LocalDate end) {
+        /**
+         * The key of the first year, month or day of the run.
+         */
+        public String firstKey() {
+            return key(level, start);
+        }
+
+        /**
+         * The key of the last year, month or day of the run. Keys of one level have a
+         * fixed width, so every key of the run sorts between the first and the last key.
+         */
+        public String lastKey() {
+            return key(level, end);
+        }
+    }
+
+    private DateRollups() {
+    }
+
+    public static String yearKey(int year) {
+        return String.format("%s%04d", YEAR_PREFIX, year);
+    }
+
+    public static String monthKey(YearMonth month) {
+        return MONTH_PREFIX + month.format(MONTH_FORMAT);
+    }
+
+    public static String dayKey(LocalDate date) {
+        return date.format(DAY_FORMAT);
+    }
+
+    /**
+     * Checks whether an index key belongs to a roll-up list rather than a single day.
+     * Interval keys of {@link DateIntervals} share the prefix, so this holds for them too:
+     * it marks the first key after the daily keys.
+     */
+    public static boolean isRollupKey(byte[] key) {
+        return key.length > 0 && key[0] == PREFIX.charAt(0);
+    }
+
+    /**
+     * Gets the days covered by a single year, month or day key.
+     *
+     * @return The period, or empty if the key is not a valid key of any level
+     */
+    public static Optional<Segment> period(String key) {
+        try {
+            if (key.startsWith(YEAR_PREFIX)) {
+                LocalDate start = LocalDate.of(Integer.parseInt(key.substring(YEAR_PREFIX.length())), 1, 1);
+                return Optional.of(new Segment(Level.YEAR, start, start.withDayOfYear(start.lengthOfYear())));
+            }
+            if (key.startsWith(MONTH_PREFIX)) {
+                YearMonth month = YearMonth.parse(key.substring(MONTH_PREFIX.length()), MONTH_FORMAT);
+                return Optional.of(new Segment(Level.MONTH, month.atDay(1), month.atEndOfMonth()));
+            }
+            LocalDate day = LocalDate.parse(key, DAY_FORMAT);
+            return Optional.of(new Segment(Level.DAY, day, day));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks whether a date has keys at every level.
+     */
+    public static boolean isIndexable(LocalDate date) {
+        return !date.isBefore(MIN_DATE) && !date.isAfter(MAX_DATE);
+    }
+
+    /**
+     * Splits an inclusive day range into runs of whole years, whole months and days.
+     *
+     * @param from First day, clamped to {@link #MIN_DATE}
+     * @param to Last day, clamped to {@link #MAX_DATE}
+     * @return The runs in date order; empty if the range is empty
+     */
+    public static List<Segment> cover(LocalDate from, LocalDate to) {
+        List<Segment> segments = new ArrayList<>();
+        LocalDate start = from.isBefore(MIN_DATE) ? MIN_DATE : from;
+        LocalDate end = to.isAfter(MAX_DATE) ? MAX_DATE : to;
+        if (start.isAfter(end)) {
+            return segments;
+        }
+
+        LocalDate firstFullYear = start.getDayOfYear() == 1 ? start : start.plusYears(1).withDayOfYear(1);
+        LocalDate lastFullYearEnd = end.equals(end.withDayOfYear(end.lengthOfYear())) ? end
+            : end.withDayOfYear(1).minusDays(1);
+        if (!firstFullYear.isAfter(lastFullYearEnd)) {
+            coverMonths(start, firstFullYear.minusDays(1), segments);
+            segments.add(new Segment(Level.YEAR, firstFullYear, lastFullYearEnd));
+            coverMonths(lastFullYearEnd.plusDays(1), end, segments);
+        } else {
+            coverMonths(start, end, segments);
+        }
+        return segments;
+    }
+
+    private static void coverMonths(LocalDate start, LocalDate end, List<Segment> segments) {
+        if (start.isAfter(end)) {
+            return;
+        }
+        LocalDate firstFullMonth = start.getDayOfMonth() == 1 ? start : start.plusMonths(1).withDayOfMonth(1);
+        LocalDate lastFullMonthEnd = end.getDayOfMonth() == end.lengthOfMonth() ? end
+            : end.withDayOfMonth(1).minusDays(1);
+        if (!firstFullMonth.isAfter(lastFullMonthEnd)) {
+            addDays(start, firstFullMonth.minusDays(1), segments);
+            segments.add(new Segment(Level.MONTH, firstFullMonth, lastFullMonthEnd));
+            addDays(lastFullMonthEnd.plusDays(1), end, segments);
+        } else {
+            addDays(start, end, segments);
+        }
+    }
+
+    private static void addDays(LocalDate start, LocalDate end, List<Segment> segments) {
+        if (!start.isAfter(end)) {
+            segments.add(new Segment(Level.DAY, start, end));
+        }
+    }
+
+    private static String key(Level level, LocalDate date) {
+        return switch (level) {
+            case YEAR -> yearKey(date.getYear());
+            case MONTH -> monthKey(YearMonth.from(date));
+            case DAY -> dayKey(date);
+        };
+    }
+}
@@ -19,18 +19,26 @@ import java.util.regex.Pattern;
  * A simple lookup table that maps date strings to integer IDs to improve compression.
  * Instead of storing duplicate date strings like [2024-01-01, 2020-01-01, 1680-01-01],
  * we can store more compact IDs [0, 1, 2] and use this class to look up the original values.
+ * <p>
+ * Saved mappings are a memory-mapped {@link SynonymDictionary}; dates added since opening are
+ * merged into it on close. Mappings saved with Java serialization are still loaded.
  */
 public class DateSynonyms implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(DateSynonyms.class);
     private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
-    private static final String FILENAME = "date_synonyms.ser";
+    private static final String FILENAME = "date_synonyms.dict";
+    private static final String LEGACY_FILENAME = "date_synonyms.ser";
     
-    // Bidirectional mappings
+    // Saved mappings
+    private volatile SynonymDictionary dictionary = SynonymDictionary.empty();
+
+    // Bidirectional mappings not yet saved
     private final Map<String, Integer> dateToId = new ConcurrentHashMap<>();
     private final Map<Integer, String> idToDate = new ConcurrentHashMap<>();
     private final AtomicInteger nextId = new AtomicInteger(1);
     private final Path storageFile;
+    private final Path legacyFile;
     private volatile boolean closed = false;
     private boolean modified = false;
 
@@ -44,6 +52,7 @@ public class DateSynonyms implements AutoCloseable {
         try {
             Files.createDirectories(baseDir);
             this.storageFile = baseDir.resolve(FILENAME);
+            this.legacyFile = baseDir.resolve(LEGACY_FILENAME);
             loadMappings();
             logger.info("Initialized date synonyms at {}", storageFile);
         } catch (Exception e) {
@@ -66,7 +75,13 @@ public class DateSynonyms implements AutoCloseable {
         
         validateDateFormat(dateValue);
 
-        // Check cache first
+        // Check saved mappings first
+        int savedId = dictionary.getId(dateValue);
+        if (savedId >= 0) {
+            return savedId;
+        }
+
+        // Then mappings created since loading
         Integer existingId = dateToId.get(dateValue);
         if (existingId != null) {
             return existingId;
@@ -106,7 +121,8 @@ public class DateSynonyms implements AutoCloseable {
             throw new IllegalStateException("DateSynonyms is closed");
         }
         
-        return idToDate.get(synonymId);
+        String saved = dictionary.getValue(synonymId);
+        return saved != null ? saved : idToDate.get(synonymId);
     }
 
     /**
@@ -133,7 +149,11 @@ public class DateSynonyms implements AutoCloseable {
     @SuppressWarnings("unchecked")
     private void loadMappings() throws IOException {
         if (Files.exists(storageFile)) {
-            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(storageFile))) {
+            dictionary = SynonymDictionary.open(storageFile);
+            nextId.set(dictionary.maxId() + 1);
+            logger.info("Mapped {} date synonyms with next ID {}", dictionary.size(), nextId.get());
+        } else if (Files.exists(legacyFile)) {
+            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(legacyFile))) {
                 Map<String, Integer> loadedDateToId = (Map<String, Integer>) ois.readObject();
                 int maxId = 0;
                 
@@ -144,7 +164,9 @@ public class DateSynonyms implements AutoCloseable {
                 }
                 
                 nextId.set(maxId + 1);
-                logger.info("Loaded {} date synonyms with next ID {}", dateToId.size(), nextId.get());
+                // Rewrite as a dictionary on close
+                modified = true;
+                logger.info("Loaded {} legacy date synonyms with next ID {}", dateToId.size(), nextId.get());
             } catch (ClassNotFoundException e) {
                 throw new IOException("Failed to load date synonyms", e);
             }
@@ -156,12 +178,11 @@ public class DateSynonyms implements AutoCloseable {
      */
     private void saveMappings() throws IOException {
         if (modified) {
-            Files.createDirectories(storageFile.getParent());
-            try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(storageFile))) {
-                oos.writeObject(new HashMap<>(dateToId)); // Create a serializable copy
-                logger.info("Saved {} date synonyms", dateToId.size());
-                modified = false;
-            }
+            Map<String, Integer> merged = new HashMap<>(dateToId);
+            dictionary.forEach(merged::put);
+            SynonymDictionary.write(storageFile, merged);
+            logger.info("Saved {} date synonyms", merged.size());
+            modified = false;
         }
     }
 
@@ -169,6 +190,14 @@ public class DateSynonyms implements AutoCloseable {
      * Validates the consistency of the synonym mappings by checking all entries.
      */
     public void validateSynonyms() {
+        SynonymDictionary saved = dictionary;
+        saved.forEach((date, id) -> {
+            if (!date.equals(saved.getValue(id))) {
+                logger.error("Inconsistent saved synonym mappings detected: {} maps to {} but {} maps to {}",
+                    date, id, id, saved.getValue(id));
+            }
+        });
+
         for (Map.Entry<Integer, String> entry : idToDate.entrySet()) {
             int id = entry.getKey();
             String date = entry.getValue();
@@ -187,7 +216,7 @@ public class DateSynonyms implements AutoCloseable {
      * @return The number of date synonyms
      */
     public int size() {
-        return dateToId.size();
+        return dictionary.size() + dateToId.size();
     }
 
     @Override
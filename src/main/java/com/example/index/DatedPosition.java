@@ -0,0 +1,59 @@
+package com.example.index;
+
+import com.example.core.Position;
+import java.time.LocalDate;
+
+/**
+ * A date mention stored in a year or month roll-up list of the ner_date index. The
+ * roll-up key only names the period, so the position carries the day that was mentioned.
+ */
+public class DatedPosition extends Position {
+    private final LocalDate mentionDate;
+
+    // Type identifier for serialization
+    public static final byte POSITION_TYPE = 2;
+
+    public DatedPosition(
+        int documentId,
+        int sentenceId,
+        int beginPosition,
+        int endPosition,
+        LocalDate timestamp,
+        LocalDate mentionDate
+    ) {
+        super(documentId, sentenceId, beginPosition, endPosition, timestamp);
+        this.mentionDate = mentionDate;
+    }
+
+    /**
+     * Gets the day the mention refers to, as opposed to the document timestamp.
+     */
+    public LocalDate getMentionDate() {
+        return mentionDate;
+    }
+
+    /**
+     * Creates a DatedPosition from a regular Position by adding the mentioned day.
+     *
+     * @param position The base position
+     * @param mentionDate The day the mention refers to
+     * @return A new DatedPosition
+     */
+    public static DatedPosition fromPosition(Position position, LocalDate mentionDate) {
+        return new DatedPosition(
+            position.getDocumentId(),
+            position.getSentenceId(),
+            position.getBeginPosition(),
+            position.getEndPosition(),
+            position.getTimestamp(),
+            mentionDate
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DatedPosition(doc=%d, sent=%d, begin=%d, end=%d, time=%s, date=%s)",
+                getDocumentId(), getSentenceId(), getBeginPosition(), getEndPosition(),
+                getTimestamp(), mentionDate);
+    }
+}
@@ -7,7 +7,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -51,14 +50,24 @@ public final class DependencyIndexGenerator extends IndexGenerator<DependencyEnt
         return "dependency";
     }
 
+    @Override
+    protected boolean supportsTermIds() {
+        return true;
+    }
+
     @Override
     protected List<DependencyEntry> fetchBatch(int offset) throws SQLException {
         List<DependencyEntry> batch = new ArrayList<>();
-        String query = "SELECT d.document_id, d.sentence_id, d.head_token, d.dependent_token, d.relation, " +
-                      "d.begin_char, d.end_char, doc.timestamp " +
-                      "FROM dependencies d " +
-                      "JOIN documents doc ON d.document_id = doc.document_id " +
-                      "ORDER BY d.document_id, d.sentence_id, d.begin_char LIMIT ? OFFSET ?";
+        String query = useCompactAnnotations()
+            ? "SELECT d.document_id, d.sentence_id, d.head_token, d.dependent_token, d.relation, " +
+              "d.begin_char, d.end_char, d.day " +
+              "FROM " + CompactAnnotations.DEPENDENCIES + " d " +
+              "ORDER BY d.document_id, d.sentence_id, d.begin_char LIMIT ? OFFSET ?"
+            : "SELECT d.document_id, d.sentence_id, d.head_token, d.dependent_token, d.relation, " +
+              "d.begin_char, d.end_char, doc.timestamp " +
+              "FROM dependencies d " +
+              "JOIN documents doc ON d.document_id = doc.document_id " +
+              "ORDER BY d.document_id, d.sentence_id, d.begin_char LIMIT ? OFFSET ?";
         
         try (PreparedStatement stmt = sqliteConn.prepareStatement(query)) {
             stmt.setInt(1, config.getBatchSize());
@@ -69,7 +78,7 @@ public final class DependencyIndexGenerator extends IndexGenerator<DependencyEnt
                     // Sanitize text fields
                     String headToken = sanitizeText(rs.getString("head_token"));
                     String dependentToken = sanitizeText(rs.getString("dependent_token"));
-                    String relation = sanitizeText(rs.getString("relation"));
+                    String relation = sanitizeText(getLabel(rs, "relation"));
 
                     // Skip entries where any required field is null or empty after sanitization
                     if (headToken == null || headToken.isEmpty() ||
@@ -88,7 +97,7 @@ public final class DependencyIndexGenerator extends IndexGenerator<DependencyEnt
                         headToken,
                         dependentToken,
                         relation,
-                        LocalDate.parse(rs.getString("timestamp").substring(0, 10))
+                        getDocumentDate(rs)
                     ));
                 }
             }
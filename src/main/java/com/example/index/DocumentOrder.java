@@ -0,0 +1,203 @@
+package com.example.index;
+
+import com.example.core.Position;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maps SQLite document ids to internal document ids assigned in timestamp order.
+ * <p>
+ * SQLite ids follow insertion order, which says nothing about when a document was
+ * written. Once {@link #create(Connection)} has stored the mapping in the
+ * {@value #TABLE} table, the generators write internal ids to the index, so the
+ * documents of any time span hold one contiguous id range and neighbouring postings
+ * come from documents of nearby times. No query turns a time range into an id range
+ * yet; queries only translate internal ids back with {@link #documentId(int)}. The table belongs to the index set built with
+ * it: a full rebuild without timestamp order drops it with {@link #drop(Connection)}.
+ */
+public final class DocumentOrder {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentOrder.class);
+
+    public static final String TABLE = "document_order";
+
+    // Original ids in ascending order and the internal id of each
+    private final int[] sortedDocumentIds;
+    private final int[] internalIdsOfSorted;
+    // Original id of each internal id
+    private final int[] documentIds;
+
+    private DocumentOrder(int[] documentIds) {
+        this.documentIds = documentIds;
+        Integer[] order = new Integer[documentIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(documentIds[a], documentIds[b]));
+        this.sortedDocumentIds = new int[order.length];
+        this.internalIdsOfSorted = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedDocumentIds[i] = documentIds[order[i]];
+            internalIdsOfSorted[i] = order[i];
+        }
+    }
+
+    /**
+     * Assigns internal ids to all documents ordered by timestamp, ties broken by SQLite id,
+     * and replaces any previous mapping. Indexes built with an earlier mapping must be
+     * rebuilt afterwards.
+     *
+     * @param conn Connection to the corpus database
+     * @return The new mapping
+     * @throws SQLException if the mapping cannot be written
+     */
+    public static DocumentOrder create(Connection conn) throws SQLException {
+        List<Integer> ordered = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT document_id FROM documents ORDER BY timestamp, document_id")) {
+            while (rs.next()) {
+                ordered.add(rs.getInt(1));
+            }
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS " + TABLE);
+                stmt.execute("CREATE TABLE " + TABLE + " (" +
+                    "internal_id INTEGER PRIMARY KEY, " +
+                    "document_id INTEGER NOT NULL UNIQUE)");
+            }
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO " + TABLE + " (internal_id, document_id) VALUES (?, ?)")) {
+                for (int i = 0; i < ordered.size(); i++) {
+                    insert.setInt(1, i);
+                    insert.setInt(2, ordered.get(i));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        logger.info("Assigned timestamp-ordered ids to {} documents", ordered.size());
+        return new DocumentOrder(ordered.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Loads the mapping of a corpus database.
+     *
+     * @param conn Connection to the corpus database
+     * @return The mapping, or empty if the documents were never renumbered
+     * @throws SQLException if the mapping cannot be read
+     */
+    public static Optional<DocumentOrder> load(Connection conn) throws SQLException {
+        if (!exists(conn)) {
+            return Optional.empty();
+        }
+        List<Integer> ordered = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT internal_id, document_id FROM " + TABLE + " ORDER BY internal_id")) {
+            while (rs.next()) {
+                if (rs.getInt(1) != ordered.size()) {
+                    throw new SQLException("Internal document ids in " + TABLE + " are not contiguous");
+                }
+                ordered.add(rs.getInt(2));
+            }
+        }
+        return Optional.of(new DocumentOrder(ordered.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    private static boolean exists(Connection conn) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getTables(null, null, TABLE, new String[] {"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Removes the mapping, so the documents keep their SQLite ids. Indexes built with the
+     * mapping must be rebuilt afterwards.
+     *
+     * @param conn Connection to the corpus database
+     * @return Whether a mapping existed
+     * @throws SQLException if the table cannot be dropped
+     */
+    public static boolean drop(Connection conn) throws SQLException {
+        if (!exists(conn)) {
+            return false;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE " + TABLE);
+        }
+        logger.info("Dropped timestamp-ordered ids");
+        return true;
+    }
+
+    /**
+     * Number of mapped documents.
+     */
+    public int size() {
+        return documentIds.length;
+    }
+
+    /**
+     * Gets the internal id of a SQLite document id.
+     *
+     * @return The internal id, or -1 if the document was added after the mapping was created
+     */
+    public int internalId(int documentId) {
+        int index = Arrays.binarySearch(sortedDocumentIds, documentId);
+        return index >= 0 ? internalIdsOfSorted[index] : -1;
+    }
+
+    /**
+     * Gets the SQLite document id of an internal id.
+     *
+     * @return The SQLite id, or -1 if the internal id is not mapped
+     */
+    public int documentId(int internalId) {
+        return internalId >= 0 && internalId < documentIds.length ? documentIds[internalId] : -1;
+    }
+
+    /**
+     * Copies a position with its document id replaced by the internal id.
+     * Stitch positions keep their annotation, and roll-up date mentions keep their day.
+     *
+     * @throws IllegalArgumentException if the document is not mapped
+     */
+    public Position renumber(Position position) {
+        int internalId = internalId(position.getDocumentId());
+        if (internalId < 0) {
+            throw new IllegalArgumentException("Document " + position.getDocumentId() +
+                " has no entry in " + TABLE + "; renumber the documents again");
+        }
+        if (position instanceof StitchPosition stitch) {
+            return new StitchPosition(internalId, stitch.getSentenceId(), stitch.getBeginPosition(),
+                stitch.getEndPosition(), stitch.getTimestamp(), stitch.getType(), stitch.getSynonymId());
+        }
+        if (position instanceof DatedPosition dated) {
+            return new DatedPosition(internalId, dated.getSentenceId(), dated.getBeginPosition(),
+                dated.getEndPosition(), dated.getTimestamp(), dated.getMentionDate());
+        }
+        return new Position(internalId, position.getSentenceId(), position.getBeginPosition(),
+            position.getEndPosition(), position.getTimestamp());
+    }
+}
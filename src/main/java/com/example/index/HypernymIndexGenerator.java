@@ -7,7 +7,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,7 +21,10 @@ import com.example.core.PositionList;
 /**
  * Generates a streaming hypernym index from dependency entries.
  * Each entry maps a hypernym-hyponym (category-instance) pair to its positions in the corpus.
- * Uses streaming processing and external sorting for efficient memory usage.
+ * Every category also gets a roll-up entry, keyed by the category alone, with the positions
+ * of all its instances, so a query for a category is answered with a single lookup.
+ * Uses streaming processing and external sorting for efficient memory usage: batches are
+ * read from one cursor over the joined relations, so the join is evaluated once per build.
  */
 public final class HypernymIndexGenerator extends IndexGenerator<DependencyEntry> {
     private static final Logger logger = LoggerFactory.getLogger(HypernymIndexGenerator.class);
@@ -35,6 +37,10 @@ public final class HypernymIndexGenerator extends IndexGenerator<DependencyEntry
         "nmod:particularly"
     );
 
+    // Open cursor of the current pass over the hypernym relations, or null
+    private PreparedStatement cursorStatement;
+    private ResultSet cursor;
+
     public HypernymIndexGenerator(String levelDbPath, String stopwordsPath,
             Connection sqliteConn, ProgressTracker progress) throws IOException {
         super(levelDbPath, stopwordsPath, sqliteConn, progress);
@@ -55,78 +61,117 @@ public final class HypernymIndexGenerator extends IndexGenerator<DependencyEntry
         return "hypernym";
     }
 
+    @Override
+    protected boolean fetchesByOffset() {
+        return false;
+    }
+
     @Override
     protected List<DependencyEntry> fetchBatch(int offset) throws SQLException {
+        // Offset 0 starts a new pass; later batches continue the open cursor, so the join
+        // runs once per build instead of once per batch up to the offset
+        if (offset == 0) {
+            openCursor();
+        } else if (cursor == null) {
+            return List.of(); // The pass is exhausted
+        }
+
         List<DependencyEntry> batch = new ArrayList<>();
-        
+        while (batch.size() < config.getBatchSize() && cursor.next()) {
+            // Sanitize text fields
+            String headLemma = sanitizeText(cursor.getString("head_lemma"));
+            String dependentLemma = sanitizeText(cursor.getString("dependent_lemma"));
+            String relation = sanitizeText(getLabel(cursor, "relation"));
+
+            // Skip if any required field is null or empty after sanitization
+            if (headLemma == null || headLemma.isEmpty() ||
+                dependentLemma == null || dependentLemma.isEmpty() ||
+                relation == null || relation.isEmpty()) {
+                logger.debug("Skipping entry with null/empty fields: head={}, dependent={}, relation={}",
+                           headLemma, dependentLemma, relation);
+                continue;
+            }
+
+            // Skip if either term is a stopword
+            if (isStopword(headLemma) || isStopword(dependentLemma)) {
+                continue;
+            }
+
+            batch.add(new DependencyEntry(
+                cursor.getInt("document_id"),
+                cursor.getInt("sentence_id"),
+                cursor.getInt("begin_char"),
+                cursor.getInt("end_char"),
+                headLemma,
+                dependentLemma,
+                relation,
+                getDocumentDate(cursor)
+            ));
+        }
+
+        if (batch.size() < config.getBatchSize()) {
+            closeCursor();
+        }
+        return batch;
+    }
+
+    /**
+     * Opens a single cursor over the hypernym relations with the lemmas of their head and
+     * dependent tokens. It is read in dependency table order, so SQLite streams it without
+     * sorting; the external sort orders the postings.
+     */
+    private void openCursor() throws SQLException {
+        closeCursor();
+
         // Build the IN clause from HYPERNYM_RELATIONS
         String inClause = HYPERNYM_RELATIONS.stream()
             .map(r -> "'" + r + "'")
             .collect(java.util.stream.Collectors.joining(", "));
-            
-        String query = String.format(
-            "WITH filtered_deps AS (" +
-            "    SELECT document_id, sentence_id, head_token, dependent_token, " +
-            "           relation, begin_char, end_char " +
-            "    FROM dependencies " +
-            "    WHERE relation IN (%s)" +
-            "), " +
-            "head_tokens AS (" +
-            "    SELECT d.*, a.lemma as head_lemma " +
-            "    FROM filtered_deps d " +
-            "    JOIN annotations a ON d.document_id = a.document_id " +
-            "        AND d.sentence_id = a.sentence_id " +
-            "        AND d.head_token = a.token" +
-            ") " +
-            "SELECT h.*, a.lemma as dependent_lemma, doc.timestamp " +
-            "FROM head_tokens h " +
-            "JOIN annotations a ON h.document_id = a.document_id " +
-            "    AND h.sentence_id = a.sentence_id " +
-            "    AND h.dependent_token = a.token " +
-            "JOIN documents doc ON h.document_id = doc.document_id " +
-            "ORDER BY h.document_id, h.sentence_id, h.begin_char " +
-            "LIMIT ? OFFSET ?",
-            inClause);
-        
-        try (PreparedStatement stmt = sqliteConn.prepareStatement(query)) {
-            stmt.setInt(1, config.getBatchSize());
-            stmt.setInt(2, offset);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    // Sanitize text fields
-                    String headLemma = sanitizeText(rs.getString("head_lemma"));
-                    String dependentLemma = sanitizeText(rs.getString("dependent_lemma"));
-                    String relation = sanitizeText(rs.getString("relation"));
-                    
-                    // Skip if any required field is null or empty after sanitization
-                    if (headLemma == null || headLemma.isEmpty() ||
-                        dependentLemma == null || dependentLemma.isEmpty() ||
-                        relation == null || relation.isEmpty()) {
-                        logger.debug("Skipping entry with null/empty fields: head={}, dependent={}, relation={}",
-                                   headLemma, dependentLemma, relation);
-                        continue;
-                    }
-                    
-                    // Skip if either term is a stopword
-                    if (isStopword(headLemma) || isStopword(dependentLemma)) {
-                        continue;
-                    }
-
-                    batch.add(new DependencyEntry(
-                        rs.getInt("document_id"),
-                        rs.getInt("sentence_id"),
-                        rs.getInt("begin_char"),
-                        rs.getInt("end_char"),
-                        headLemma,
-                        dependentLemma,
-                        relation,
-                        LocalDate.parse(rs.getString("timestamp").substring(0, 10))
-                    ));
-                }
+
+        // The compact tables find the tokens of a sentence through their primary key
+        String query = useCompactAnnotations()
+            ? String.format(
+                "SELECT d.document_id, d.sentence_id, d.begin_char, d.end_char, d.relation, " +
+                "       h.lemma AS head_lemma, t.lemma AS dependent_lemma, d.day " +
+                "FROM " + CompactAnnotations.DEPENDENCIES + " d " +
+                "JOIN " + CompactAnnotations.ANNOTATIONS + " h ON h.document_id = d.document_id " +
+                "    AND h.sentence_id = d.sentence_id " +
+                "    AND h.token = d.head_token " +
+                "JOIN " + CompactAnnotations.ANNOTATIONS + " t ON t.document_id = d.document_id " +
+                "    AND t.sentence_id = d.sentence_id " +
+                "    AND t.token = d.dependent_token " +
+                "WHERE d.relation IN (SELECT code FROM " + CompactAnnotations.CODES + " WHERE value IN (%s))",
+                inClause)
+            : String.format(
+                "SELECT d.document_id, d.sentence_id, d.begin_char, d.end_char, d.relation, " +
+                "       h.lemma AS head_lemma, t.lemma AS dependent_lemma, doc.timestamp " +
+                "FROM dependencies d " +
+                "JOIN annotations h ON h.document_id = d.document_id " +
+                "    AND h.sentence_id = d.sentence_id " +
+                "    AND h.token = d.head_token " +
+                "JOIN annotations t ON t.document_id = d.document_id " +
+                "    AND t.sentence_id = d.sentence_id " +
+                "    AND t.token = d.dependent_token " +
+                "JOIN documents doc ON d.document_id = doc.document_id " +
+                "WHERE d.relation IN (%s)",
+                inClause);
+
+        cursorStatement = sqliteConn.prepareStatement(query);
+        cursor = cursorStatement.executeQuery();
+    }
+
+    private void closeCursor() throws SQLException {
+        try {
+            if (cursor != null) {
+                cursor.close();
+            }
+        } finally {
+            cursor = null;
+            if (cursorStatement != null) {
+                cursorStatement.close();
+                cursorStatement = null;
             }
         }
-        return batch;
     }
 
     @Override
@@ -150,6 +195,8 @@ public final class HypernymIndexGenerator extends IndexGenerator<DependencyEntry
             // Get or create position list for this hypernym pair
             PositionList posList = positionLists.computeIfAbsent(key, k -> new PositionList());
             posList.add(position);
+            positionLists.computeIfAbsent(categoryKey(entry.getHeadToken()), k -> new PositionList())
+                .add(position);
             
             logger.debug("Added hypernym relation: {} -> {} at position {}", 
                 entry.getHeadToken(), entry.getDependentToken(), position);
@@ -173,6 +220,17 @@ public final class HypernymIndexGenerator extends IndexGenerator<DependencyEntry
         return category.toLowerCase() + DELIMITER + instance.toLowerCase();
     }
 
+    /**
+     * Creates the key of a category's roll-up entry, which holds the positions of every
+     * instance of the category. It has no delimiter, so it sorts before the category's
+     * pair keys and is never matched by a scan of the {@code category\0} prefix.
+     * @param category The hypernym (category)
+     * @return The roll-up key
+     */
+    public static String categoryKey(String category) {
+        return category.toLowerCase();
+    }
+
     /**
      * Sanitizes text by removing special characters and normalizing whitespace.
      * @param text The text to sanitize
@@ -192,4 +250,14 @@ public final class HypernymIndexGenerator extends IndexGenerator<DependencyEntry
                   .replaceAll("\\s+", " ")
                   .replaceAll("[^\\p{L}\\p{N}\\s:-]", "");
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeCursor();
+        } catch (SQLException e) {
+            logger.warn("Failed to close hypernym cursor: {}", e.getMessage());
+        }
+        super.close();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.index;
 
+import java.util.Set;
+
 /**
  * Configuration class for index generation settings.
  * Handles settings related to index preservation, safety checks, and performance tuning.
@@ -10,12 +12,26 @@ public class IndexConfig {
     private final long sizeThresholdForConfirmation;
     private final Integer limit;
     private final int batchSize;
+    private final boolean timestampOrderedIds;
+    private final boolean timeSegments;
+    private final Set<Integer> segmentYears;
+    private final boolean termIds;
+    private final boolean checkpoints;
+    private final boolean resume;
     
     private IndexConfig(Builder builder) {
-        this.preserveExistingIndex = builder.preserveExistingIndex;
+        // Rebuilding some years must keep the segments of all other years
+        boolean rebuildYears = !builder.segmentYears.isEmpty();
+        this.preserveExistingIndex = builder.preserveExistingIndex || rebuildYears;
         this.sizeThresholdForConfirmation = builder.sizeThresholdForConfirmation;
         this.limit = builder.limit;
         this.batchSize = builder.batchSize;
+        this.timestampOrderedIds = builder.timestampOrderedIds;
+        this.timeSegments = builder.timeSegments || rebuildYears;
+        this.segmentYears = builder.segmentYears;
+        this.termIds = builder.termIds;
+        this.checkpoints = builder.checkpoints || builder.resume;
+        this.resume = builder.resume;
     }
     
     public boolean shouldPreserveExistingIndex() {
@@ -33,12 +49,66 @@ public class IndexConfig {
     public int getBatchSize() {
         return batchSize;
     }
+
+    /**
+     * Whether generators write the timestamp-ordered ids of {@link DocumentOrder}
+     * instead of SQLite document ids.
+     */
+    public boolean useTimestampOrderedIds() {
+        return timestampOrderedIds;
+    }
+
+    /**
+     * Whether indexes are built as one LevelDB segment per year. Only date conditions on
+     * ner_date skip segments at query time; lookups on the other indexes read every segment,
+     * so for them segments only make rebuilding single years cheaper.
+     */
+    public boolean useTimeSegments() {
+        return timeSegments;
+    }
+
+    /**
+     * Years whose segments are rebuilt; empty to rebuild all of them.
+     */
+    public Set<Integer> getSegmentYears() {
+        return segmentYears;
+    }
+
+    /**
+     * Whether n-gram and dependency indexes are keyed by the IDs of the index set's
+     * {@link TermDictionary} instead of UTF-8 strings.
+     */
+    public boolean useTermIds() {
+        return termIds;
+    }
+
+    /**
+     * Whether generators record a {@link BuildCheckpoint} while building, so an
+     * interrupted build can be resumed.
+     */
+    public boolean useCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * Whether generators continue from the checkpoint of an earlier build with the same
+     * settings instead of starting over.
+     */
+    public boolean shouldResume() {
+        return resume;
+    }
     
     public static class Builder {
         private boolean preserveExistingIndex = false;
         private long sizeThresholdForConfirmation = 1024 * 1024 * 1024; // 1GB
         private Integer limit = null;
         private int batchSize = 100000; // Default batch size
+        private boolean timestampOrderedIds = false;
+        private boolean timeSegments = false;
+        private Set<Integer> segmentYears = Set.of();
+        private boolean termIds = false;
+        private boolean checkpoints = false;
+        private boolean resume = false;
         
         public Builder withPreserveExistingIndex(boolean preserve) {
             this.preserveExistingIndex = preserve;
@@ -66,6 +136,43 @@ public class IndexConfig {
             return this;
         }
         
+        public Builder withTimestampOrderedIds(boolean timestampOrderedIds) {
+            this.timestampOrderedIds = timestampOrderedIds;
+            return this;
+        }
+        
+        public Builder withTimeSegments(boolean timeSegments) {
+            this.timeSegments = timeSegments;
+            return this;
+        }
+        
+        /**
+         * Rebuilds only the segments of these years; a non-empty set implies
+         * {@link #withTimeSegments(boolean)} and {@link #withPreserveExistingIndex(boolean)}.
+         */
+        public Builder withSegmentYears(Set<Integer> segmentYears) {
+            this.segmentYears = segmentYears == null ? Set.of() : Set.copyOf(segmentYears);
+            return this;
+        }
+        
+        public Builder withTermIds(boolean termIds) {
+            this.termIds = termIds;
+            return this;
+        }
+        
+        public Builder withCheckpoints(boolean checkpoints) {
+            this.checkpoints = checkpoints;
+            return this;
+        }
+        
+        /**
+         * Resumes from an earlier checkpoint; implies {@link #withCheckpoints(boolean)}.
+         */
+        public Builder withResume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+        
         public IndexConfig build() {
             return new IndexConfig(this);
         }
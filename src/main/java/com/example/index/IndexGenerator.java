@@ -18,6 +18,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.ResultSet;
+import java.time.LocalDate;
 import java.util.*;
 import java.nio.charset.Charset;
 
@@ -32,13 +33,24 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
     public static final String DELIMITER = "\0";
     public static final char ESCAPE_CHAR = '\u001F';
 
+    // Exactly one of these is set, depending on IndexConfig.useTimeSegments()
     private final IndexAccess indexAccess;
+    private final SegmentedIndexWriter segmentWriter;
     private final Set<String> stopwords;
     protected final Connection sqliteConn;
     protected final ProgressTracker progress;
     private final Path tempDir;
     private long totalNGramsGenerated = 0;
     protected final IndexConfig config;
+    // Timestamp-ordered document ids, or null to keep SQLite ids
+    private final DocumentOrder documentOrder;
+    private final Path indexDir;
+    // Term IDs for keys, or null to write UTF-8 keys
+    private final TermDictionary termDictionary;
+    // Codes of the compact annotation tables, or null when the database has the wide tables
+    private final CompactAnnotations compactAnnotations;
+    // Stops a checkpointed build at an exact point in tests
+    private BuildCheckpoint.Interruption interruption = BuildCheckpoint.Interruption.NONE;
 
     /**
      * Gets the name of the table to query for entries.
@@ -59,6 +71,15 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
 
     protected IndexGenerator(String indexBaseDir, String stopwordsPath,
             Connection sqliteConn, ProgressTracker progress, IndexConfig config) throws IOException {
+        // Load the id mapping first so a missing mapping does not leave the index open
+        this.documentOrder = config.useTimestampOrderedIds() ? loadDocumentOrder(sqliteConn) : null;
+        this.compactAnnotations = loadCompactAnnotations(sqliteConn);
+        this.indexDir = Path.of(indexBaseDir);
+        // The dictionary is shared by the indexes of the set, so it lives in their parent directory
+        this.termDictionary = config.useTermIds() && supportsTermIds()
+            ? TermDictionary.open(indexDir.toAbsolutePath().getParent())
+            : null;
+
         // Initialize IndexAccess with optimized options
         Options options = new Options();
         options.createIfMissing(true);
@@ -67,10 +88,17 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
         options.blockSize(4 * 1024); // 4KB block size
         options.compressionType(org.iq80.leveldb.CompressionType.SNAPPY);
 
-        try {
-            this.indexAccess = new IndexAccess(Path.of(indexBaseDir), getIndexName(), options);
-        } catch (IndexAccessException e) {
-            throw new IOException("Failed to initialize IndexAccess", e);
+        if (config.useTimeSegments()) {
+            this.indexAccess = null;
+            this.segmentWriter = new SegmentedIndexWriter(Path.of(indexBaseDir), getIndexName(), options,
+                config.getSegmentYears());
+        } else {
+            this.segmentWriter = null;
+            try {
+                this.indexAccess = new IndexAccess(Path.of(indexBaseDir), getIndexName(), options);
+            } catch (IndexAccessException e) {
+                throw new IOException("Failed to initialize IndexAccess", e);
+            }
         }
 
         this.stopwords = loadStopwords(stopwordsPath);
@@ -101,6 +129,23 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
         }));
     }
 
+    private static DocumentOrder loadDocumentOrder(Connection conn) throws IOException {
+        try {
+            return DocumentOrder.load(conn).orElseThrow(() -> new IOException(
+                "Timestamp-ordered ids requested but table " + DocumentOrder.TABLE + " does not exist"));
+        } catch (SQLException e) {
+            throw new IOException("Failed to load document order", e);
+        }
+    }
+
+    private static CompactAnnotations loadCompactAnnotations(Connection conn) throws IOException {
+        try {
+            return CompactAnnotations.load(conn).orElse(null);
+        } catch (SQLException e) {
+            throw new IOException("Failed to load annotation codes", e);
+        }
+    }
+
     private Set<String> loadStopwords(String path) throws IOException {
         Set<String> words = new HashSet<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
@@ -116,6 +161,32 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
         return word == null || stopwords.contains(word.toLowerCase());
     }
 
+    /**
+     * Whether fetch queries should read the compact annotation tables.
+     * @see CompactAnnotations
+     */
+    protected boolean useCompactAnnotations() {
+        return compactAnnotations != null;
+    }
+
+    /**
+     * Reads a pos, ner or relation column of a fetched row, which holds a code in the
+     * compact layout.
+     */
+    protected String getLabel(ResultSet rs, String column) throws SQLException {
+        return compactAnnotations != null ? compactAnnotations.decode(rs, column) : rs.getString(column);
+    }
+
+    /**
+     * Reads the document date of a fetched row: its timestamp column, or the day column
+     * in the compact layout.
+     */
+    protected LocalDate getDocumentDate(ResultSet rs) throws SQLException {
+        return compactAnnotations != null
+            ? CompactAnnotations.day(rs)
+            : LocalDate.parse(rs.getString("timestamp").substring(0, 10));
+    }
+
     /**
      * Fetches a batch of entries from the database for processing.
      * @param offset The offset to start fetching from
@@ -132,17 +203,26 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
 
     /**
      * Writes a batch of processed entries to a temporary file.
+     * Document ids are replaced by their timestamp-ordered ids here when the config asks
+     * for it, so fetch queries and processBatch keep working with SQLite ids.
      * @param positions The processed position lists to write
      * @return The temporary file containing the sorted entries
      */
     protected File writeBatchToTempFile(ListMultimap<String, PositionList> positions) throws IOException {
-        File tempFile = Files.createTempFile(tempDir, "batch-", ".tmp").toFile();
+        return writeBatchToTempFile(positions, tempDir);
+    }
+
+    private File writeBatchToTempFile(ListMultimap<String, PositionList> positions, Path directory)
+            throws IOException {
+        File tempFile = Files.createTempFile(directory, "batch-", ".tmp").toFile();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
             for (Map.Entry<String, Collection<PositionList>> entry : positions.asMap().entrySet()) {
                 // Merge all position lists for this term
                 PositionList mergedList = new PositionList();
                 for (PositionList list : entry.getValue()) {
-                    list.getPositions().forEach(mergedList::add);
+                    for (Position position : list.getPositions()) {
+                        mergedList.add(documentOrder == null ? position : renumber(position));
+                    }
                 }
                 
                 String line = String.format("%s\t%s\n", 
@@ -154,79 +234,147 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
         return tempFile;
     }
 
+    private Position renumber(Position position) throws IOException {
+        try {
+            return documentOrder.renumber(position);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Writes the final merged and sorted entries to the index.
      * @param sortedFile The file containing the sorted entries
      */
     protected void writeToLevelDB(File sortedFile) throws IOException {
-        int batchCount = 0;
-        long startTime = System.currentTimeMillis();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(sortedFile))) {
-            String currentTerm = null;
-            PositionList mergedPositions = null;
-            String line;
+        writeToLevelDB(sortedFile, null);
+    }
 
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\t", 2);
-                if (parts.length != 2) {
-                    logger.warn("Invalid line format: {}", line);
-                    continue;
+    private void writeToLevelDB(File sortedFile, BuildCheckpoint checkpoint) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long resumeAfter = checkpoint == null ? 0 : resumableTerms(sortedFile, checkpoint);
+        // Checkpointed builds never preserve old postings, and an interrupted write may have
+        // stored terms past its last checkpoint, so terms replace what is stored instead of
+        // merging with it
+        boolean overwrite = checkpoint != null;
+        long written = 0;
+
+        try (SortedTerms terms = new SortedTerms(sortedFile)) {
+            while (terms.next()) {
+                String term = terms.term();
+                try {
+                    if (written < resumeAfter) {
+                        // Skipped terms still take their ids, in the order the interrupted build gave them
+                        keyOf(term);
+                    } else {
+                        putTerm(term, terms.positions(), overwrite);
+                    }
+                } catch (IndexAccessException e) {
+                    throw new IOException("Failed to write term: " + term, e);
                 }
-
-                String term = parts[0];
-                byte[] positionData = Base64.getDecoder().decode(parts[1]);
-                PositionList positions = PositionList.deserialize(positionData);
-
-                // First term initialization
-                if (currentTerm == null) {
-                    currentTerm = term;
-                    mergedPositions = positions;
-                    continue;
+                written++;
+                totalNGramsGenerated++;
+                if (checkpoint != null) {
+                    interruption.reached(BuildCheckpoint.Phase.WRITE, written);
                 }
 
-                // If we have a new term, write the current one
-                if (!currentTerm.equals(term)) {
-                    // Write current term
-                    try {
-                        indexAccess.put(bytes(currentTerm), mergedPositions);
-                        batchCount++;
-                        totalNGramsGenerated++;
-                    } catch (IndexAccessException e) {
-                        throw new IOException("Failed to write term: " + currentTerm, e);
-                    }
-                    
-                    // Collect stats periodically
-                    if (totalNGramsGenerated % 10000 == 0) {
-                        long elapsed = System.currentTimeMillis() - startTime;
-                        logger.info("Write progress: {} terms, {} terms/sec", 
-                            totalNGramsGenerated,
-                            String.format("%.2f", totalNGramsGenerated * 1000.0 / elapsed));
-                    }
-                    
-                    // Start new term
-                    currentTerm = term;
-                    mergedPositions = positions;
-                } else {
-                    // Merge positions for same term
-                    positions.getPositions().forEach(mergedPositions::add);
+                // Collect stats periodically
+                if (totalNGramsGenerated % 10000 == 0) {
+                    long elapsed = System.currentTimeMillis() - startTime;
+                    logger.info("Write progress: {} terms, {} terms/sec",
+                        totalNGramsGenerated,
+                        String.format("%.2f", totalNGramsGenerated * 1000.0 / elapsed));
+                }
+                if (checkpoint != null && written > resumeAfter && written % BuildCheckpoint.WRITE_INTERVAL == 0) {
+                    checkpoint.recordWritten(written);
                 }
             }
+        }
 
-            // Write the last term if we have one
-            if (currentTerm != null && mergedPositions != null) {
-                try {
-                    indexAccess.put(bytes(currentTerm), mergedPositions);
-                    totalNGramsGenerated++;
-                } catch (IndexAccessException e) {
-                    throw new IOException("Failed to write final term: " + currentTerm, e);
+        logger.info("Finished writing {} terms to index", totalNGramsGenerated);
+    }
+
+    /**
+     * Counts the sorted terms that an interrupted write left in the index and need not be
+     * written again, or 0 to write all of them. Time segments are cleared when the writer
+     * first touches them, so they are always written again; otherwise the last term the
+     * checkpoint counts must hold exactly the postings this build would write.
+     */
+    private long resumableTerms(File sortedFile, BuildCheckpoint checkpoint) throws IOException {
+        long written = checkpoint.getWritten();
+        if (written == 0 || segmentWriter != null) {
+            return 0;
+        }
+        try (SortedTerms terms = new SortedTerms(sortedFile)) {
+            for (long i = 0; i < written; i++) {
+                if (!terms.next()) {
+                    logger.warn("Checkpoint of {} index counts {} written terms but the sorted file has {}",
+                        getIndexName(), written, i);
+                    return 0;
                 }
+                keyOf(terms.term());
             }
+            Optional<byte[]> stored = indexAccess.getRaw(keyOf(terms.term()));
+            if (stored.isPresent() && Arrays.equals(stored.get(), serialize(terms.positions()))) {
+                logger.info("Resuming write of {} index after {} terms", getIndexName(), written);
+                return written;
+            }
+            logger.warn("{} index does not hold the postings of checkpointed term {}, writing all terms again",
+                getIndexName(), terms.term());
+            return 0;
+        } catch (IndexAccessException e) {
+            throw new IOException("Failed to verify checkpointed term of " + getIndexName() + " index", e);
+        }
+    }
 
-            logger.info("Finished writing {} terms to index", totalNGramsGenerated);
+    private void putTerm(String term, PositionList positions, boolean overwrite)
+            throws IOException, IndexAccessException {
+        byte[] key = keyOf(term);
+        if (segmentWriter != null) {
+            segmentWriter.put(key, positions, position -> segmentTime(term, position), isTimeOrdered());
+        } else if (overwrite) {
+            indexAccess.put(key, serialize(positions));
+        } else {
+            indexAccess.put(key, positions, isTimeOrdered());
         }
     }
 
+    private byte[] keyOf(String term) {
+        return termDictionary == null ? bytes(term) : termDictionary.assignKey(term);
+    }
+
+    private byte[] serialize(PositionList positions) {
+        return isTimeOrdered() ? positions.serializeByTime() : positions.serialize();
+    }
+
+    /**
+     * Whether this index may be keyed by term IDs (see {@link IndexConfig#useTermIds()}).
+     * Only indexes whose keys are {@code \0}-joined lemmas or relations qualify.
+     */
+    protected boolean supportsTermIds() {
+        return false;
+    }
+
+    /**
+     * Whether this index stores each posting list in timestamp order rather than document
+     * order (see {@link PositionList#serializeByTime()}).
+     */
+    protected boolean isTimeOrdered() {
+        return false;
+    }
+
+    /**
+     * Gets the time that places a position in a time segment. Defaults to the document
+     * timestamp; indexes keyed by time may use the key instead.
+     *
+     * @param key The index key of the position
+     * @param position The position
+     * @return The time, or null if the position is undated
+     */
+    protected LocalDate segmentTime(String key, Position position) {
+        return position.getTimestamp();
+    }
+
     /**
      * Converts a string to UTF-8 bytes for index operations.
      */
@@ -234,58 +382,220 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
         return str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
     }
 
+    /**
+     * Whether {@link #fetchBatch(int)} can start at any offset. Generators that read from a
+     * cursor return false; a resumed build then fetches the batches before the checkpointed
+     * offset again, without processing them, to bring the cursor there.
+     */
+    protected boolean fetchesByOffset() {
+        return true;
+    }
+
     /**
      * Generates the index by processing documents in batches, sorting externally,
      * and merging to the final index store.
+     * With {@link IndexConfig#useCheckpoints()}, every phase is recorded in a
+     * {@link BuildCheckpoint}, and {@link IndexConfig#shouldResume()} continues the build
+     * from the last one.
      */
     public void generateIndex() throws SQLException, IOException {
         List<File> tempFiles = new ArrayList<>();
         int offset = 0;
         IndexingMetrics metrics = new IndexingMetrics();
         metrics.startBatch(config.getBatchSize(), getIndexName());
+        TermDictionary.setTermKeyed(indexDir, termDictionary != null);
+
+        BuildCheckpoint checkpoint = openCheckpoint();
+        if (checkpoint != null) {
+            if (checkpoint.getPhase() == BuildCheckpoint.Phase.DONE) {
+                logger.info("{} index is already complete", getIndexName());
+                return;
+            }
+            tempFiles.addAll(checkpoint.getRunFiles());
+            offset = checkpoint.getOffset();
+            progress.updateIndex(offset);
+        }
 
         try {
-            // Process batches and write to temp files
-            while (true) {
-                List<T> batch = fetchBatch(offset);
-                if (batch.isEmpty()) {
-                    break;
-                }
+            if (checkpoint == null || checkpoint.getPhase() == BuildCheckpoint.Phase.SPILL) {
+                skipToOffset(offset);
+
+                // Process batches and write to temp files
+                while (true) {
+                    List<T> batch = fetchBatch(offset);
+                    if (batch.isEmpty()) {
+                        break;
+                    }
 
-                // Process batch and write to temp file
-                ListMultimap<String, PositionList> positions = processBatch(batch);
-                File tempFile = writeBatchToTempFile(positions);
-                tempFiles.add(tempFile);
+                    // Process batch and write to temp file
+                    ListMultimap<String, PositionList> positions = processBatch(batch);
+                    offset += batch.size();
+                    if (checkpoint == null) {
+                        tempFiles.add(writeBatchToTempFile(positions));
+                    } else {
+                        File tempFile = writeBatchToTempFile(positions, checkpoint.getDirectory());
+                        tempFiles.add(tempFile);
+                        interruption.reached(BuildCheckpoint.Phase.SPILL, offset);
+                        checkpoint.addRun(tempFile, offset);
+                    }
 
-                // Update progress and metrics
-                offset += batch.size();
-                metrics.recordBatchSuccess(batch.size());
-                progress.updateIndex(batch.size());
+                    // Update progress and metrics
+                    metrics.recordBatchSuccess(batch.size());
+                    progress.updateIndex(batch.size());
+                }
             }
 
             // Sort and merge temp files
-            File outputFile = new File(tempDir.toFile(), "sorted.tmp");
-            ExternalSort.mergeSortedFiles(tempFiles, outputFile, new PositionListComparator());
+            File outputFile;
+            if (checkpoint == null) {
+                outputFile = new File(tempDir.toFile(), "sorted.tmp");
+                ExternalSort.mergeSortedFiles(tempFiles, outputFile, new PositionListComparator());
+            } else {
+                if (checkpoint.getPhase() != BuildCheckpoint.Phase.WRITE) {
+                    List<File> mergeInputs = checkpoint.startMerge();
+                    ExternalSort.mergeSortedFiles(mergeInputs, checkpoint.getMergeFile(), new PositionListComparator());
+                    interruption.reached(BuildCheckpoint.Phase.MERGE, 0);
+                    checkpoint.merged();
+                }
+                outputFile = checkpoint.getSortedFile();
+            }
 
             // Write sorted entries to LevelDB
-            writeToLevelDB(outputFile);
+            writeToLevelDB(outputFile, checkpoint);
+            if (checkpoint != null) {
+                checkpoint.complete();
+            }
             
             // Final metrics
             metrics.logIndexingMetrics();
             logger.info("Index generation complete. Total entries: {}", totalNGramsGenerated);
 
         } finally {
-            // Cleanup temp files
-            for (File file : tempFiles) {
-                try {
-                    Files.deleteIfExists(file.toPath());
-                } catch (IOException e) {
-                    logger.debug("Could not delete temp file: {} ({})", file, e.getMessage());
+            // Cleanup temp files; checkpointed runs are kept for a resumed build
+            if (checkpoint == null) {
+                for (File file : tempFiles) {
+                    try {
+                        Files.deleteIfExists(file.toPath());
+                    } catch (IOException e) {
+                        logger.debug("Could not delete temp file: {} ({})", file, e.getMessage());
+                    }
                 }
             }
         }
     }
 
+    private BuildCheckpoint openCheckpoint() throws IOException {
+        if (!config.useCheckpoints()) {
+            return null;
+        }
+        if (segmentWriter == null && config.shouldPreserveExistingIndex()) {
+            // A resumed write could not tell preserved postings from the ones it wrote itself
+            logger.warn("Not checkpointing {} index because it preserves existing postings", getIndexName());
+            return null;
+        }
+        return BuildCheckpoint.open(indexDir, checkpointSettings(), config.shouldResume());
+    }
+
+    /**
+     * Describes the settings that decide what the build writes, so a checkpoint is only
+     * resumed by the same build.
+     */
+    private String checkpointSettings() {
+        return String.join(";",
+            "index=" + getIndexName(),
+            "batch=" + config.getBatchSize(),
+            "limit=" + config.getLimit(),
+            "timestampIds=" + (documentOrder != null),
+            "segments=" + (segmentWriter != null ? new TreeSet<>(config.getSegmentYears()) : "none"),
+            "termIds=" + (termDictionary != null));
+    }
+
+    /**
+     * Brings a cursor-based generator to the offset a resumed build starts at.
+     */
+    private void skipToOffset(int offset) throws SQLException, IOException {
+        if (offset == 0 || fetchesByOffset()) {
+            return;
+        }
+        int fetched = 0;
+        while (fetched < offset) {
+            List<T> batch = fetchBatch(fetched);
+            if (batch.isEmpty()) {
+                break;
+            }
+            fetched += batch.size();
+        }
+        if (fetched != offset) {
+            throw new IOException("Cannot resume " + getIndexName() + " index at offset " + offset
+                + ": the database now has batches ending at " + fetched);
+        }
+    }
+
+    /**
+     * Reads a sorted file one term at a time, merging the position lists of its lines.
+     */
+    private static final class SortedTerms implements Closeable {
+        private final BufferedReader reader;
+        private String term;
+        private PositionList positions;
+        // First line of the following term, or null at the end of the file
+        private String nextTerm;
+        private PositionList nextPositions;
+
+        SortedTerms(File sortedFile) throws IOException {
+            this.reader = new BufferedReader(new FileReader(sortedFile));
+            readLine();
+        }
+
+        /**
+         * Moves to the next term.
+         * @return Whether there was one
+         */
+        boolean next() throws IOException {
+            if (nextTerm == null) {
+                return false;
+            }
+            term = nextTerm;
+            positions = nextPositions;
+            readLine();
+            while (term.equals(nextTerm)) {
+                // Merge positions for same term
+                nextPositions.getPositions().forEach(positions::add);
+                readLine();
+            }
+            return true;
+        }
+
+        String term() {
+            return term;
+        }
+
+        PositionList positions() {
+            return positions;
+        }
+
+        private void readLine() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 2);
+                if (parts.length != 2) {
+                    logger.warn("Invalid line format: {}", line);
+                    continue;
+                }
+                nextTerm = parts[0];
+                nextPositions = PositionList.deserialize(Base64.getDecoder().decode(parts[1]));
+                return;
+            }
+            nextTerm = null;
+            nextPositions = null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
     /**
      * Comparator for sorting position list entries
      */
@@ -306,12 +616,30 @@ public abstract class IndexGenerator<T extends IndexEntry> implements AutoClosea
         return totalNGramsGenerated;
     }
 
+    /**
+     * Sets the hook a checkpointed build calls where it can be killed, so tests can stop it there.
+     * @param interruption The hook
+     */
+    void setInterruption(BuildCheckpoint.Interruption interruption) {
+        this.interruption = interruption;
+    }
+
     @Override
     public void close() throws IOException {
         try {
-            indexAccess.close();
-        } catch (IndexAccessException e) {
-            throw new IOException("Failed to close index access", e);
+            if (termDictionary != null) {
+                termDictionary.close();
+            }
+        } finally {
+            if (segmentWriter != null) {
+                segmentWriter.close();
+            } else {
+                try {
+                    indexAccess.close();
+                } catch (IndexAccessException e) {
+                    throw new IOException("Failed to close index access", e);
+                }
+            }
         }
     }
 } 
@@ -20,6 +20,11 @@ import java.util.regex.Pattern;
  * Implementation of AnnotationSynonyms that handles multiple annotation types.
  * Manages synonym mappings for DATE, NER, POS, and DEPENDENCY annotation types.
  * Each type has its own namespace of IDs to avoid collisions.
+ * <p>
+ * Saved mappings are memory-mapped {@link SynonymDictionary} files, so opening an index
+ * does not deserialize them and lookups of saved values take no locks. IDs created since
+ * the files were opened are kept in memory and merged into the files on close. Mappings
+ * saved with Java serialization by earlier versions are still loaded.
  */
 public class MultiAnnotationSynonyms extends AnnotationSynonyms {
     private static final Logger logger = LoggerFactory.getLogger(MultiAnnotationSynonyms.class);
@@ -27,10 +32,19 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
     // File names for each annotation type
     private static final EnumMap<AnnotationType, String> FILE_NAMES = new EnumMap<>(AnnotationType.class);
     static {
-        FILE_NAMES.put(AnnotationType.DATE, "date_synonyms.ser");
-        FILE_NAMES.put(AnnotationType.NER, "ner_synonyms.ser");
-        FILE_NAMES.put(AnnotationType.POS, "pos_synonyms.ser");
-        FILE_NAMES.put(AnnotationType.DEPENDENCY, "dependency_synonyms.ser");
+        FILE_NAMES.put(AnnotationType.DATE, "date_synonyms.dict");
+        FILE_NAMES.put(AnnotationType.NER, "ner_synonyms.dict");
+        FILE_NAMES.put(AnnotationType.POS, "pos_synonyms.dict");
+        FILE_NAMES.put(AnnotationType.DEPENDENCY, "dependency_synonyms.dict");
+    }
+
+    // Java-serialized files written by earlier versions
+    private static final EnumMap<AnnotationType, String> LEGACY_FILE_NAMES = new EnumMap<>(AnnotationType.class);
+    static {
+        LEGACY_FILE_NAMES.put(AnnotationType.DATE, "date_synonyms.ser");
+        LEGACY_FILE_NAMES.put(AnnotationType.NER, "ner_synonyms.ser");
+        LEGACY_FILE_NAMES.put(AnnotationType.POS, "pos_synonyms.ser");
+        LEGACY_FILE_NAMES.put(AnnotationType.DEPENDENCY, "dependency_synonyms.ser");
     }
     
     // Starting offset for IDs in each namespace to avoid collisions
@@ -46,7 +60,10 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
     private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     
-    // Bidirectional mappings for each annotation type
+    // Saved mappings for each annotation type
+    private final EnumMap<AnnotationType, SynonymDictionary> dictionaries = new EnumMap<>(AnnotationType.class);
+
+    // Bidirectional mappings not yet saved, for each annotation type
     private final EnumMap<AnnotationType, Map<String, Integer>> valueToId = new EnumMap<>(AnnotationType.class);
     private final EnumMap<AnnotationType, Map<Integer, String>> idToValue = new EnumMap<>(AnnotationType.class);
     private final EnumMap<AnnotationType, AtomicInteger> nextIds = new EnumMap<>(AnnotationType.class);
@@ -71,6 +88,7 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
         
         // Initialize data structures for each annotation type
         for (AnnotationType type : AnnotationType.values()) {
+            dictionaries.put(type, SynonymDictionary.empty());
             valueToId.put(type, new ConcurrentHashMap<>());
             idToValue.put(type, new ConcurrentHashMap<>());
             // Initialize with offset to ensure unique IDs across types
@@ -96,7 +114,13 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
         
         validateValue(value, type);
         
-        // Check cache first
+        // Check saved mappings first
+        int savedId = dictionaries.get(type).getId(value);
+        if (savedId >= 0) {
+            return savedId;
+        }
+
+        // Then mappings created since loading
         Map<String, Integer> typeValueToId = valueToId.get(type);
         Integer existingId = typeValueToId.get(value);
         if (existingId != null) {
@@ -131,19 +155,20 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
             throw new IllegalStateException("MultiAnnotationSynonyms is closed");
         }
         
-        return idToValue.get(type).get(id);
+        String saved = dictionaries.get(type).getValue(id);
+        return saved != null ? saved : idToValue.get(type).get(id);
     }
 
     @Override
     public int size(AnnotationType type) {
-        return valueToId.get(type).size();
+        return dictionaries.get(type).size() + valueToId.get(type).size();
     }
 
     @Override
     public int size() {
         int total = 0;
         for (AnnotationType type : AnnotationType.values()) {
-            total += valueToId.get(type).size();
+            total += size(type);
         }
         return total;
     }
@@ -201,9 +226,16 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
     @SuppressWarnings("unchecked")
     private void loadMappings(AnnotationType type) throws IOException {
         Path storageFile = storageFiles.get(type);
+        Path legacyFile = baseDir.resolve(LEGACY_FILE_NAMES.get(type));
         
         if (Files.exists(storageFile)) {
-            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(storageFile))) {
+            SynonymDictionary dictionary = SynonymDictionary.open(storageFile);
+            dictionaries.put(type, dictionary);
+            nextIds.get(type).set(Math.max(ID_OFFSETS.get(type), dictionary.maxId()) + 1);
+            logger.info("Mapped {} {} synonyms with next ID {}", 
+                       dictionary.size(), type, nextIds.get(type).get());
+        } else if (Files.exists(legacyFile)) {
+            try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(legacyFile))) {
                 Map<String, Integer> loadedValueToId = (Map<String, Integer>) ois.readObject();
                 int maxId = ID_OFFSETS.get(type); // Start with the offset as minimum
                 
@@ -215,7 +247,9 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
                 
                 // Ensure next ID is greater than the highest seen ID
                 nextIds.get(type).set(maxId + 1);
-                logger.info("Loaded {} {} synonyms with next ID {}", 
+                // Rewrite as a dictionary on close
+                modified.put(type, true);
+                logger.info("Loaded {} legacy {} synonyms with next ID {}", 
                            valueToId.get(type).size(), type, nextIds.get(type).get());
             } catch (ClassNotFoundException e) {
                 throw new IOException("Failed to load " + type + " synonyms", e);
@@ -237,17 +271,15 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
     }
 
     /**
-     * Saves the current mappings for a specific type to disk.
+     * Saves the saved and new mappings for a specific type to disk.
      */
     private void saveMappings(AnnotationType type) throws IOException {
-        Path storageFile = storageFiles.get(type);
-        Files.createDirectories(storageFile.getParent());
-        
-        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(storageFile))) {
-            oos.writeObject(new HashMap<>(valueToId.get(type))); // Create a serializable copy
-            logger.info("Saved {} {} synonyms", valueToId.get(type).size(), type);
-            modified.put(type, false);
-        }
+        Map<String, Integer> merged = new HashMap<>(valueToId.get(type));
+        dictionaries.get(type).forEach(merged::put);
+
+        SynonymDictionary.write(storageFiles.get(type), merged);
+        logger.info("Saved {} {} synonyms", merged.size(), type);
+        modified.put(type, false);
     }
 
     @Override
@@ -261,6 +293,14 @@ public class MultiAnnotationSynonyms extends AnnotationSynonyms {
      * Validates the consistency of synonym mappings for a specific type.
      */
     private void validateSynonyms(AnnotationType type) {
+        SynonymDictionary dictionary = dictionaries.get(type);
+        dictionary.forEach((value, id) -> {
+            if (!value.equals(dictionary.getValue(id))) {
+                logger.error("Inconsistent saved {} synonym mappings detected: {} maps to {} but {} maps to {}",
+                    type, value, id, id, dictionary.getValue(id));
+            }
+        });
+
         Map<Integer, String> typeIdToValue = idToValue.get(type);
         Map<String, Integer> typeValueToId = valueToId.get(type);
         
@@ -0,0 +1,288 @@
+package com.example.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only Nash temporal index: maps each Nash hash prefix to the sorted ids of the
+ * documents with a date mention under that prefix, and each of those documents to its
+ * timestamp.
+ * <p>
+ * The index is a single file written by {@link NashIndexGenerator} and memory-mapped at
+ * query time, so opening it costs one mmap instead of re-running {@code Nash.invert} over
+ * the whole ner_date index. Lookups binary-search the mapped prefix table and copy nothing
+ * but the matching document ids.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int    magic ("NASH")
+ * int    format version
+ * int    bucket count B
+ * int    document id count N
+ * int    document date count D
+ * int[B + 1]  start of each prefix in the key region, in bytes
+ * int[B + 1]  start of each bucket in the document id region, in ids
+ * byte[] key region: UTF-8 prefixes, sorted by unsigned byte order
+ * byte[] padding to a multiple of 4
+ * int[N] document id region: ascending, duplicate-free ids per bucket
+ * int[D] document date region: epoch day of document id i at i, or MIN_VALUE if unknown
+ * </pre>
+ */
+public final class NashIndex {
+    public static final String DIRECTORY = "nash";
+    public static final String FILE_NAME = "nash.idx";
+
+    private static final int MAGIC = 0x4E415348;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final NashIndex EMPTY = new NashIndex(serialize(Map.of(), Map.of()));
+
+    private final ByteBuffer buffer;
+    private final int bucketCount;
+    private final int keyOffsetsStart;
+    private final int postingOffsetsStart;
+    private final int keysStart;
+    private final int docIdsStart;
+    private final int dateCount;
+    private final int datesStart;
+
+    private NashIndex(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a Nash index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported Nash index version " + buffer.getInt(4));
+        }
+        this.bucketCount = buffer.getInt(8);
+        this.keyOffsetsStart = HEADER_BYTES;
+        this.postingOffsetsStart = keyOffsetsStart + (bucketCount + 1) * Integer.BYTES;
+        this.keysStart = postingOffsetsStart + (bucketCount + 1) * Integer.BYTES;
+        int keyBytes = buffer.getInt(keyOffsetsStart + bucketCount * Integer.BYTES);
+        this.docIdsStart = align(keysStart + keyBytes);
+        this.dateCount = buffer.getInt(16);
+        this.datesStart = docIdsStart + buffer.getInt(12) * Integer.BYTES;
+    }
+
+    /**
+     * Gets the path of the index file inside an index set directory.
+     */
+    public static Path path(Path indexSetDir) {
+        return indexSetDir.resolve(DIRECTORY).resolve(FILE_NAME);
+    }
+
+    /**
+     * Maps an index file read-only.
+     *
+     * @param file The index file
+     * @return The mapped index
+     * @throws IOException if the file cannot be read or is not a Nash index
+     */
+    public static NashIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Nash index larger than 2GB cannot be mapped: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            return new NashIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid Nash index " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates an index held on the heap, for corpora without a persisted index file.
+     *
+     * @param buckets Document ids per Nash hash prefix
+     * @param documentDates Timestamp of each indexed document
+     */
+    public static NashIndex of(Map<String, ? extends Collection<Integer>> buckets,
+                               Map<Integer, LocalDate> documentDates) {
+        return buckets.isEmpty() ? EMPTY : new NashIndex(serialize(buckets, documentDates));
+    }
+
+    /**
+     * Writes an index file. The file is written next to its final location and moved
+     * into place, so readers never see a partial index.
+     *
+     * @param buckets Document ids per Nash hash prefix
+     * @param documentDates Timestamp of each indexed document
+     * @param file The index file
+     * @throws IOException if writing fails
+     */
+    public static void write(Map<String, ? extends Collection<Integer>> buckets,
+                             Map<Integer, LocalDate> documentDates, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer data = serialize(buckets, documentDates);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Number of hash prefixes in the index.
+     */
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Adds the ids of the documents under a hash prefix to a collection.
+     *
+     * @param prefix The Nash hash prefix
+     * @param target Receives the document ids
+     * @return The number of ids under the prefix
+     */
+    public int collectDocIds(String prefix, Collection<Integer> target) {
+        int bucket = find(prefix.getBytes(StandardCharsets.UTF_8));
+        if (bucket < 0) {
+            return 0;
+        }
+        int from = postingOffset(bucket);
+        int to = postingOffset(bucket + 1);
+        for (int i = from; i < to; i++) {
+            target.add(buffer.getInt(docIdsStart + i * Integer.BYTES));
+        }
+        return to - from;
+    }
+
+    /**
+     * Gets the ids of the documents under a hash prefix.
+     *
+     * @param prefix The Nash hash prefix
+     * @return Ascending document ids, empty if the prefix is not indexed
+     */
+    public int[] docIds(String prefix) {
+        List<Integer> ids = new ArrayList<>();
+        collectDocIds(prefix, ids);
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gets the timestamp of an indexed document.
+     *
+     * @param documentId The document id
+     * @return The timestamp, or null if the document is not in the index
+     */
+    public LocalDate documentDate(int documentId) {
+        if (documentId < 0 || documentId >= dateCount) {
+            return null;
+        }
+        int day = buffer.getInt(datesStart + documentId * Integer.BYTES);
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private int find(byte[] key) {
+        int low = 0;
+        int high = bucketCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int bucket, byte[] key) {
+        int start = keysStart + buffer.getInt(keyOffsetsStart + bucket * Integer.BYTES);
+        int length = keysStart + buffer.getInt(keyOffsetsStart + (bucket + 1) * Integer.BYTES) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int postingOffset(int bucket) {
+        return buffer.getInt(postingOffsetsStart + bucket * Integer.BYTES);
+    }
+
+    private static int align(int offset) {
+        return (offset + Integer.BYTES - 1) & -Integer.BYTES;
+    }
+
+    private static ByteBuffer serialize(Map<String, ? extends Collection<Integer>> buckets,
+                                        Map<Integer, LocalDate> documentDates) {
+        List<byte[]> keys = new ArrayList<>();
+        List<int[]> postings = new ArrayList<>();
+        buckets.entrySet().stream()
+            .map(e -> Map.entry(e.getKey().getBytes(StandardCharsets.UTF_8), e.getValue()))
+            .sorted((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()))
+            .forEach(e -> {
+                keys.add(e.getKey());
+                postings.add(e.getValue().stream().mapToInt(Integer::intValue).sorted().distinct().toArray());
+            });
+
+        int bucketCount = keys.size();
+        long keyBytes = keys.stream().mapToLong(k -> k.length).sum();
+        long docIdCount = postings.stream().mapToLong(p -> p.length).sum();
+        long docIdsStart = align((int) Math.min(Integer.MAX_VALUE,
+            HEADER_BYTES + 2L * (bucketCount + 1) * Integer.BYTES + keyBytes));
+        int dateCount = documentDates.keySet().stream().mapToInt(id -> id + 1).max().orElse(0);
+        long size = docIdsStart + (docIdCount + dateCount) * Integer.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Nash index would exceed 2GB");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(bucketCount).putInt((int) docIdCount).putInt(dateCount);
+        int offset = 0;
+        for (byte[] key : keys) {
+            buffer.putInt(offset);
+            offset += key.length;
+        }
+        buffer.putInt(offset);
+        offset = 0;
+        for (int[] ids : postings) {
+            buffer.putInt(offset);
+            offset += ids.length;
+        }
+        buffer.putInt(offset);
+        for (byte[] key : keys) {
+            buffer.put(key);
+        }
+        buffer.position((int) docIdsStart);
+        for (int[] ids : postings) {
+            for (int id : ids) {
+                buffer.putInt(id);
+            }
+        }
+        int[] days = new int[dateCount];
+        Arrays.fill(days, NO_DATE);
+        documentDates.forEach((id, date) -> days[id] = Math.toIntExact(date.toEpochDay()));
+        for (int day : days) {
+            buffer.putInt(day);
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.index;
+
+import com.example.core.IndexAccessException;
+import com.example.core.IndexAccessInterface;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.SegmentedIndexAccess;
+import org.apache.pig.impl.util.MultiMap;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import no.ntnu.sandbox.Nash;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds the {@link NashIndex} of an index set from its ner_date index.
+ * Every date key becomes a single-day Nash interval and every interval key (see
+ * {@link DateIntervals}) its own [start, end] interval; {@code Nash.invert} maps the
+ * intervals to hash prefixes, and each prefix collects the documents of its intervals.
+ * The document timestamps stored with the postings are kept alongside.
+ * Unlike the other generators this one reads LevelDB rather than SQLite, so it must
+ * run after the ner_date index has been built.
+ */
+public final class NashIndexGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(NashIndexGenerator.class);
+    private static final DateTimeFormatter KEY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter NASH_INTERVAL_FORMAT = DateTimeFormatter.ISO_DATE;
+
+    private NashIndexGenerator() {
+    }
+
+    /**
+     * Builds the Nash index file of an index set.
+     *
+     * @param indexSetDir The directory holding the ner_date index
+     * @return The number of hash prefixes written
+     * @throws IOException if the ner_date index cannot be read or the file cannot be written
+     */
+    public static int generate(Path indexSetDir) throws IOException {
+        Options options = new Options();
+        options.createIfMissing(false);
+        Map<String, Set<Integer>> buckets;
+        Map<Integer, LocalDate> documentDates = new HashMap<>();
+        try (IndexAccessInterface dateIndex = SegmentedIndexAccess.open(indexSetDir.resolve("ner_date"), "ner_date", options)) {
+            buckets = buildBuckets(dateIndex, documentDates);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to read ner_date index: " + e.getMessage(), e);
+        }
+        Path file = NashIndex.path(indexSetDir);
+        NashIndex.write(buckets, documentDates, file);
+        logger.info("Wrote Nash index with {} hash prefixes to {}", buckets.size(), file);
+        return buckets.size();
+    }
+
+    /**
+     * Computes the document ids of every Nash hash prefix of a ner_date index.
+     *
+     * @param dateIndex The ner_date index
+     * @param documentDates Receives the timestamp of each document with a date mention
+     * @return Document ids per hash prefix
+     * @throws IndexAccessException if the index cannot be read
+     * @throws IOException if the Nash inversion fails
+     */
+    public static Map<String, Set<Integer>> buildBuckets(IndexAccessInterface dateIndex,
+            Map<Integer, LocalDate> documentDates) throws IndexAccessException, IOException {
+        List<String> intervals = new ArrayList<>();
+        List<Set<Integer>> intervalDocIds = new ArrayList<>();
+
+        try (DBIterator iterator = dateIndex.iterator()) {
+            iterator.seekToFirst();
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                String key = new String(entry.getKey(), StandardCharsets.UTF_8);
+                if (DateIntervals.isIntervalKey(key)) {
+                    Optional<DateIntervals.Interval> interval = DateIntervals.fromKey(key);
+                    if (interval.isEmpty()) {
+                        logger.warn("Skipping invalid interval key during Nash index generation: {}", key);
+                        continue;
+                    }
+                    intervals.add("[" + NASH_INTERVAL_FORMAT.format(interval.get().start()) + " , "
+                        + NASH_INTERVAL_FORMAT.format(interval.get().end()) + "]");
+                } else if (DateRollups.isRollupKey(entry.getKey())) {
+                    // Roll-up lists sort after every day and interval and repeat their positions
+                    break;
+                } else {
+                    LocalDate date;
+                    try {
+                        date = LocalDate.parse(key.trim(), KEY_FORMAT);
+                    } catch (DateTimeParseException e) {
+                        logger.warn("Skipping invalid date key during Nash index generation: {}", key);
+                        continue;
+                    }
+                    String day = NASH_INTERVAL_FORMAT.format(date);
+                    intervals.add("[" + day + " , " + day + "]");
+                }
+
+                Set<Integer> docIds = new TreeSet<>();
+                for (Position position : PositionList.deserialize(entry.getValue()).getPositions()) {
+                    docIds.add(position.getDocumentId());
+                    if (position.getTimestamp() != null) {
+                        documentDates.putIfAbsent(position.getDocumentId(), position.getTimestamp());
+                    }
+                }
+                intervalDocIds.add(docIds);
+            }
+        }
+
+        Map<String, Set<Integer>> buckets = new HashMap<>();
+        if (intervals.isEmpty()) {
+            return buckets;
+        }
+
+        MultiMap<String, Integer> inverted;
+        try {
+            inverted = Nash.invert(intervals);
+        } catch (Exception e) {
+            throw new IOException("Failed to generate Nash hash prefixes: " + e.getMessage(), e);
+        }
+        for (String prefix : inverted.keySet()) {
+            Set<Integer> docIds = new TreeSet<>();
+            for (Integer interval : inverted.get(prefix)) {
+                docIds.addAll(intervalDocIds.get(interval));
+            }
+            if (!docIds.isEmpty()) {
+                buckets.put(prefix, docIds);
+            }
+        }
+        logger.debug("Inverted {} date keys into {} Nash hash prefixes", intervals.size(), buckets.size());
+        return buckets;
+    }
+}
@@ -8,12 +8,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.example.logging.ProgressTracker;
@@ -33,6 +33,13 @@ import com.example.core.PositionList;
  *   <li>This index generator extracts those normalized dates and converts them to YYYYMMDD format for storage</li>
  *   <li>For each date mention, the document ID, sentence ID, and character position are recorded</li>
  * </ol>
+ * <p>Every mention is also added to the roll-up lists of its year and month (see
+ * {@link DateRollups}), so a range query reads a handful of roll-up lists plus the days
+ * at its edges instead of one list per day in the range. Roll-up positions are
+ * {@link DatedPosition}s, so a match from a roll-up still knows its day.
+ * <p>Mentions that cover more than a day (a month, a year, "the 1990s", an explicit range)
+ * are stored as [start, end] intervals under the keys of {@link DateIntervals} rather than
+ * being pinned to one day or dropped.
  * 
  * <h2>Relationship with DATE Operator in Queries</h2>
  * <p>When querying with the DATE operator (e.g., DATE(CONTAINS [2023, 2024])), the system will:
@@ -53,8 +60,6 @@ import com.example.core.PositionList;
  */
 public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry> {
     private static final Logger logger = LoggerFactory.getLogger(NerDateIndexGenerator.class);
-    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter KEY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
 
     public NerDateIndexGenerator(String levelDbPath, String stopwordsPath,
             Connection sqliteConn, ProgressTracker progress) throws IOException {
@@ -69,12 +74,18 @@ public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry>
     @Override
     protected List<AnnotationEntry> fetchBatch(int offset) throws SQLException {
         List<AnnotationEntry> batch = new ArrayList<>();
-        String query = "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
-                      "a.token, a.normalized_ner, a.ner, d.timestamp " +
-                      "FROM annotations a " +
-                      "JOIN documents d ON a.document_id = d.document_id " +
-                      "WHERE a.ner = 'DATE' " +
-                      "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
+        String query = useCompactAnnotations()
+            ? "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
+              "a.normalized_ner, a.day " +
+              "FROM " + CompactAnnotations.ANNOTATIONS + " a " +
+              "WHERE a.ner = " + CompactAnnotations.DATE_CODE + " " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?"
+            : "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
+              "a.token, a.normalized_ner, a.ner, d.timestamp " +
+              "FROM annotations a " +
+              "JOIN documents d ON a.document_id = d.document_id " +
+              "WHERE a.ner = 'DATE' " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
         
         try (PreparedStatement stmt = sqliteConn.prepareStatement(query)) {
             stmt.setInt(1, config.getBatchSize());
@@ -83,7 +94,7 @@ public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry>
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     String normalizedDate = rs.getString("normalized_ner");
-                    if (normalizedDate == null || !normalizedDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                    if (DateIntervals.parse(normalizedDate).isEmpty()) {
                         logger.debug("Skipping invalid date format: {}", normalizedDate);
                         continue;
                     }
@@ -96,7 +107,7 @@ public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry>
                         rs.getInt("end_char"),
                         normalizedDate, // Store normalized date in lemma field
                         "DATE", // Store NER type in pos field
-                        LocalDate.parse(rs.getString("timestamp").substring(0, 10))
+                        getDocumentDate(rs)
                     ));
                 }
             }
@@ -110,8 +121,8 @@ public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry>
         Map<String, PositionList> positionLists = new HashMap<>();
         
         for (AnnotationEntry entry : batch) {
-            String normalizedDate = normalizeDate(entry.getLemma());
-            if (normalizedDate == null) {
+            Optional<DateIntervals.Interval> interval = DateIntervals.parse(entry.getLemma());
+            if (interval.isEmpty()) {
                 logger.debug("Skipping invalid date format: {}", entry.getLemma());
                 continue;
             }
@@ -124,9 +135,23 @@ public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry>
                 entry.getTimestamp()
             );
 
+            if (!interval.get().isSingleDay()) {
+                // Months, years, decades and ranges keep their extent instead of being dropped
+                positionLists.computeIfAbsent(interval.get().key(), k -> new PositionList()).add(position);
+                continue;
+            }
+
             // Get or create position list for this date
-            PositionList posList = positionLists.computeIfAbsent(normalizedDate, k -> new PositionList());
+            LocalDate date = interval.get().start();
+            PositionList posList = positionLists.computeIfAbsent(DateRollups.dayKey(date), k -> new PositionList());
             posList.add(position);
+
+            // Roll-up keys only name the period, so their positions keep the day
+            DatedPosition dated = DatedPosition.fromPosition(position, date);
+            positionLists.computeIfAbsent(DateRollups.yearKey(date.getYear()), k -> new PositionList())
+                .add(dated);
+            positionLists.computeIfAbsent(DateRollups.monthKey(YearMonth.from(date)), k -> new PositionList())
+                .add(dated);
         }
         
         // Add all position lists to result
@@ -138,19 +163,15 @@ public final class NerDateIndexGenerator extends IndexGenerator<AnnotationEntry>
     }
 
     /**
-     * Normalizes a date string from YYYY-MM-DD format to YYYYMMDD format.
-     * Returns null if the input is not a valid date or not in the expected format.
+     * Segments ner_date by the mentioned date rather than the document timestamp, so a
+     * temporal condition only reads the segments of the years it covers. Roll-up lists
+     * fall into the segment of their year and intervals into the segment of their start.
      */
-    private String normalizeDate(String date) {
-        if (date == null || !date.matches("\\d{4}-\\d{2}-\\d{2}")) {
-            return null;
-        }
-        try {
-            LocalDate parsed = LocalDate.parse(date, INPUT_FORMAT);
-            return parsed.format(KEY_FORMAT);
-        } catch (DateTimeParseException e) {
-            return null;
-        }
+    @Override
+    protected LocalDate segmentTime(String key, Position position) {
+        return DateRollups.period(key).map(DateRollups.Segment::start)
+            .or(() -> DateIntervals.fromKey(key).map(DateIntervals.Interval::start))
+            .orElse(position.getTimestamp());
     }
 
     @Override
@@ -27,7 +27,7 @@ import java.util.Map;
  * Creates composite keys of the form "entityType\0entityValue" for efficient retrieval.
  * Uses streaming processing and external sorting for efficient memory usage.
  */
-public final class NerIndexGenerator extends IndexGenerator<AnnotationEntry> {
+public class NerIndexGenerator extends IndexGenerator<AnnotationEntry> {
     private static final Logger logger = LoggerFactory.getLogger(NerIndexGenerator.class);
     
     public NerIndexGenerator(String levelDbPath, String stopwordsPath,
@@ -43,12 +43,19 @@ public final class NerIndexGenerator extends IndexGenerator<AnnotationEntry> {
     @Override
     protected List<AnnotationEntry> fetchBatch(int offset) throws SQLException {
         List<AnnotationEntry> batch = new ArrayList<>();
-        String query = "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
-                      "a.token, a.ner, d.timestamp " +
-                      "FROM annotations a " +
-                      "JOIN documents d ON a.document_id = d.document_id " +
-                      "WHERE a.ner IS NOT NULL AND a.ner != '' AND a.ner != 'DATE' AND a.ner != 'O' " +
-                      "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
+        // Codes above DATE_CODE are entity types other than O and DATE
+        String query = useCompactAnnotations()
+            ? "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
+              "a.token, a.ner, a.day " +
+              "FROM " + CompactAnnotations.ANNOTATIONS + " a " +
+              "WHERE a.ner > " + CompactAnnotations.DATE_CODE + " " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?"
+            : "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, " +
+              "a.token, a.ner, d.timestamp " +
+              "FROM annotations a " +
+              "JOIN documents d ON a.document_id = d.document_id " +
+              "WHERE a.ner IS NOT NULL AND a.ner != '' AND a.ner != 'DATE' AND a.ner != 'O' " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
         
         try (PreparedStatement stmt = sqliteConn.prepareStatement(query)) {
             stmt.setInt(1, config.getBatchSize());
@@ -56,7 +63,7 @@ public final class NerIndexGenerator extends IndexGenerator<AnnotationEntry> {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    String nerType = rs.getString("ner");
+                    String nerType = getLabel(rs, "ner");
                     String entityText = rs.getString("token");
                     
                     if (nerType == null || entityText == null || nerType.isEmpty() || entityText.isEmpty()) {
@@ -71,7 +78,7 @@ public final class NerIndexGenerator extends IndexGenerator<AnnotationEntry> {
                         rs.getInt("end_char"),
                         entityText.toLowerCase(), // Store entity text in lemma field (lowercased)
                         nerType, // Store NER type in pos field
-                        LocalDate.parse(rs.getString("timestamp").substring(0, 10))
+                        getDocumentDate(rs)
                     ));
                 }
             }
@@ -0,0 +1,41 @@
+package com.example.index;
+
+import com.example.logging.ProgressTracker;
+
+import java.io.IOException;
+import java.sql.Connection;
+
+/**
+ * Generates the entity timeline index: the same "entityType\0entityValue" keys as the
+ * ner index, but each posting list is stored in document timestamp order (see
+ * {@link com.example.core.PositionList#serializeByTime()}).
+ * <p>
+ * "When is X mentioned" then reads one key and gets the mentions already in time order,
+ * without joining ner_date or looking up document timestamps. NerExecutor marks such a
+ * result as time-ordered, so ORDER BY timestamp LIMIT reads its leading units.
+ * <p>
+ * Lists carry no per-block time fences and are always decoded whole: the query language
+ * has no predicate on document time, so no reader could skip blocks by them.
+ */
+public final class NerTimelineIndexGenerator extends NerIndexGenerator {
+
+    public NerTimelineIndexGenerator(String levelDbPath, String stopwordsPath,
+            Connection sqliteConn, ProgressTracker progress) throws IOException {
+        super(levelDbPath, stopwordsPath, sqliteConn, progress);
+    }
+
+    public NerTimelineIndexGenerator(String levelDbPath, String stopwordsPath,
+            Connection sqliteConn, ProgressTracker progress, IndexConfig config) throws IOException {
+        super(levelDbPath, stopwordsPath, sqliteConn, progress, config);
+    }
+
+    @Override
+    protected boolean isTimeOrdered() {
+        return true;
+    }
+
+    @Override
+    protected String getIndexName() {
+        return "ner_timeline";
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.index;
+
+import com.example.core.IndexAccess;
+import com.example.core.IndexAccessException;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.SegmentManifest;
+import org.iq80.leveldb.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes an index as one LevelDB per year, plus the {@link SegmentManifest} that lists the
+ * years with their earliest and latest time.
+ * <p>
+ * A segment is cleared the first time this writer touches it, so rebuilding a subset of
+ * years rewrites those segments and leaves every other segment and its manifest entry as
+ * it was. Selected years that end up without data are removed.
+ */
+final class SegmentedIndexWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedIndexWriter.class);
+    static final String UNDATED = "undated";
+
+    private final Path indexDir;
+    private final String indexType;
+    private final Options options;
+    // Years to write, or null for all
+    private final Set<Integer> years;
+    private final Map<String, IndexAccess> open = new TreeMap<>();
+    private final Map<String, LocalDate[]> bounds = new TreeMap<>();
+    private final Map<String, Long> keyCounts = new TreeMap<>();
+
+    SegmentedIndexWriter(Path indexDir, String indexType, Options options, Set<Integer> years) {
+        this.indexDir = indexDir;
+        this.indexType = indexType;
+        this.options = options;
+        this.years = years == null || years.isEmpty() ? null : Set.copyOf(years);
+    }
+
+    /**
+     * Writes the positions of a key, each to the segment of its time.
+     *
+     * @param key The index key
+     * @param positions The positions of the key
+     * @param timeOf Gets the time that places a position in a segment, or null if undated
+     */
+    void put(byte[] key, PositionList positions, Function<Position, LocalDate> timeOf) throws IOException {
+        put(key, positions, timeOf, false);
+    }
+
+    /**
+     * Writes the positions of a key, each to the segment of its time.
+     *
+     * @param key The index key
+     * @param positions The positions of the key
+     * @param timeOf Gets the time that places a position in a segment, or null if undated
+     * @param timeOrdered Whether to store the positions in timestamp order
+     */
+    void put(byte[] key, PositionList positions, Function<Position, LocalDate> timeOf, boolean timeOrdered)
+            throws IOException {
+        Map<String, PositionList> bySegment = new LinkedHashMap<>();
+        for (Position position : positions.getPositions()) {
+            LocalDate time = timeOf.apply(position);
+            if (time != null && years != null && !years.contains(time.getYear())) {
+                continue;
+            }
+            String segment = time == null ? UNDATED : String.format("%04d", time.getYear());
+            bySegment.computeIfAbsent(segment, s -> new PositionList()).add(position);
+            if (time != null) {
+                LocalDate[] range = bounds.computeIfAbsent(segment, s -> new LocalDate[] {time, time});
+                if (time.isBefore(range[0])) {
+                    range[0] = time;
+                }
+                if (time.isAfter(range[1])) {
+                    range[1] = time;
+                }
+            }
+        }
+        for (Map.Entry<String, PositionList> entry : bySegment.entrySet()) {
+            try {
+                segment(entry.getKey()).put(key, entry.getValue(), timeOrdered);
+            } catch (IndexAccessException e) {
+                throw new IOException("Failed to write segment " + entry.getKey() + " of " + indexType, e);
+            }
+            keyCounts.merge(entry.getKey(), 1L, Long::sum);
+        }
+    }
+
+    private IndexAccess segment(String name) throws IOException, IndexAccessException {
+        IndexAccess index = open.get(name);
+        if (index == null) {
+            Path dir = indexDir.resolve(name);
+            deleteRecursively(dir);
+            index = new IndexAccess(dir, indexType, options);
+            open.put(name, index);
+        }
+        return index;
+    }
+
+    /**
+     * Closes the written segments and records them in the manifest.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Map.Entry<String, IndexAccess> entry : open.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IndexAccessException e) {
+                failure = new IOException("Failed to close segment " + entry.getKey() + " of " + indexType, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        SegmentManifest manifest = SegmentManifest.exists(indexDir)
+            ? SegmentManifest.read(indexDir) : new SegmentManifest(List.of());
+        List<String> emptied = new ArrayList<>();
+        for (SegmentManifest.Segment existing : manifest.segments()) {
+            if (!open.containsKey(existing.name()) && isSelected(existing.name())) {
+                emptied.add(existing.name());
+                deleteRecursively(indexDir.resolve(existing.name()));
+            }
+        }
+        List<SegmentManifest.Segment> written = new ArrayList<>();
+        for (String name : open.keySet()) {
+            LocalDate[] range = bounds.get(name);
+            written.add(new SegmentManifest.Segment(name, range == null ? null : range[0],
+                range == null ? null : range[1], keyCounts.getOrDefault(name, 0L)));
+        }
+        manifest.without(emptied).with(written).write(indexDir);
+        logger.info("Wrote {} segments of {} index ({} removed)", written.size(), indexType, emptied.size());
+    }
+
+    private boolean isSelected(String segment) {
+        if (years == null) {
+            return true;
+        }
+        try {
+            return years.contains(Integer.parseInt(segment));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.time.LocalDate;
 /**
  * Represents an entry in the stitch index, containing a unigram and its associated annotation.
  * The annotation type (DATE, NER, POS, DEPENDENCY) determines how this entry is processed.
+ * A mention entry instead spans one entity mention in a sentence of the unigram, with the
+ * NER type as its synonym, and is stored under the {@link #MENTION_KEY_TYPE} key of the unigram.
  */
 public record StitchEntry(
     int documentId,
@@ -14,8 +16,26 @@ public record StitchEntry(
     LocalDate timestamp,
     String value,         // The unigram text
     AnnotationType type,  // The type of annotation (DATE, NER, POS, DEPENDENCY)
-    int synonymId         // ID from the appropriate synonym table
+    int synonymId,        // ID from the appropriate synonym table
+    boolean mention       // Spans an entity mention rather than the unigram
 ) implements IndexEntry {
+    /**
+     * Key suffix of the entity mentions in the sentences of a unigram ({@code unigram\0NER_MENTION}).
+     */
+    public static final String MENTION_KEY_TYPE = "NER_MENTION";
+
+    public StitchEntry(int documentId, int sentenceId, int beginChar, int endChar, LocalDate timestamp,
+                       String value, AnnotationType type, int synonymId) {
+        this(documentId, sentenceId, beginChar, endChar, timestamp, value, type, synonymId, false);
+    }
+
+    /**
+     * Gets the index key of the entry: the unigram and its annotation type, or the mention suffix.
+     */
+    public String key() {
+        return value + "\0" + (mention ? MENTION_KEY_TYPE : type.name());
+    }
+
     @Override
     public int getDocumentId() {
         return documentId;
@@ -18,10 +18,12 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.regex.Pattern;
 
@@ -29,11 +31,18 @@ import java.util.regex.Pattern;
  * Generates a stitch index that connects unigrams with various types of annotations.
  * The index enables efficient querying of relationships between words and 
  * different annotation types (DATE, NER, POS, DEPENDENCY) in the document collection.
+ * <p>
+ * Batches are document id ranges. The annotations and dependencies of a range are read
+ * with one ordered query each and grouped per document in memory, instead of querying
+ * every document separately; the documents and unigrams are then expanded into postings
+ * by parallel workers.
  */
 public class StitchIndexGenerator extends IndexGenerator<StitchEntry> {
     private static final Logger logger = LoggerFactory.getLogger(StitchIndexGenerator.class);
     private final MultiAnnotationSynonyms annotationSynonyms;
     private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    // Last document id of the previous batch
+    private int lastDocumentId = Integer.MIN_VALUE;
 
     public StitchIndexGenerator(String indexBaseDir, String stopwordsPath,
             java.sql.Connection sqliteConn, ProgressTracker progress) throws IOException {
@@ -254,330 +263,224 @@ public class StitchIndexGenerator extends IndexGenerator<StitchEntry> {
         }
     }
 
+    @Override
+    protected boolean fetchesByOffset() {
+        return false;
+    }
+
     @Override
     protected List<StitchEntry> fetchBatch(int offset) throws SQLException {
-        // Start by fetching a batch of documents to process
-        List<Integer> documentIds = fetchDocumentBatch(offset, config.getBatchSize());
-        if (documentIds.isEmpty()) {
+        // The base class advances the offset by the number of entries, not documents, so
+        // batches continue after the last document id instead; offset 0 starts over
+        if (offset == 0) {
+            lastDocumentId = Integer.MIN_VALUE;
+        }
+        Map<Integer, DocumentAnnotations> documents = fetchDocumentBatch(lastDocumentId, config.getBatchSize());
+        if (documents.isEmpty()) {
             return List.of(); // No more documents to process
         }
 
-        List<StitchEntry> entries = new ArrayList<>();
-        
-        // Process one document at a time to avoid memory issues
-        for (Integer documentId : documentIds) {
-            processDocumentForStitchIndex(documentId, entries);
-        }
-        
-        return entries;
+        int firstId = documents.keySet().iterator().next();
+        lastDocumentId = documents.values().stream().mapToInt(d -> d.documentId).max().getAsInt();
+
+        // One ordered scan per table for the whole range, grouped per document in memory
+        fetchAnnotations(firstId, lastDocumentId, documents);
+        fetchDependencies(firstId, lastDocumentId, documents);
+
+        // Synonym ids are resolved while reading, so documents expand independently
+        return documents.values().parallelStream()
+            .flatMap(document -> document.entries().stream())
+            .toList();
     }
 
     /**
-     * Fetches a batch of document IDs to process
+     * Fetches the next batch of documents after a document id, in id order.
      */
-    private List<Integer> fetchDocumentBatch(int offset, int batchSize) throws SQLException {
-        List<Integer> documentIds = new ArrayList<>();
-        String sql = "SELECT document_id, timestamp FROM documents ORDER BY document_id LIMIT ? OFFSET ?";
-        
+    private Map<Integer, DocumentAnnotations> fetchDocumentBatch(int afterDocumentId, int batchSize)
+            throws SQLException {
+        Map<Integer, DocumentAnnotations> documents = new LinkedHashMap<>();
+        String sql = "SELECT document_id, timestamp FROM documents WHERE document_id > ? ORDER BY document_id LIMIT ?";
+
         try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, batchSize);
-            stmt.setInt(2, offset);
+            stmt.setInt(1, afterDocumentId);
+            stmt.setInt(2, batchSize);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    documentIds.add(rs.getInt("document_id"));
+                    int documentId = rs.getInt("document_id");
+                    String timestamp = rs.getString("timestamp");
+                    // Documents without a timestamp are skipped but still advance the batch
+                    LocalDate date = timestamp == null ? null : LocalDate.parse(timestamp.substring(0, 10));
+                    documents.put(documentId, new DocumentAnnotations(documentId, date));
                 }
             }
         }
-        
-        return documentIds;
+
+        return documents;
     }
 
     /**
-     * Processes a single document, fetching its unigrams and annotations separately
-     * and then joining them in memory to create StitchEntries
+     * Simple data class to hold unigram information
      */
-    private void processDocumentForStitchIndex(int documentId, List<StitchEntry> entries) throws SQLException {
-        // Step 1: Get document timestamp
-        LocalDate documentTimestamp = getDocumentTimestamp(documentId);
-        if (documentTimestamp == null) {
-            return; // Skip if we can't get timestamp
-        }
-        
-        // Step 2: Fetch unigrams for this document
-        Map<Integer, List<UnigramData>> unigramsBySentence = fetchUnigrams(documentId);
-        if (unigramsBySentence.isEmpty()) {
-            return; // No unigrams to process
-        }
-        
-        // Step 3: Fetch and process each annotation type separately
-        processDateAnnotations(documentId, documentTimestamp, unigramsBySentence, entries);
-        processNerAnnotations(documentId, documentTimestamp, unigramsBySentence, entries);
-        processPosAnnotations(documentId, documentTimestamp, unigramsBySentence, entries);
-        processDependencyAnnotations(documentId, documentTimestamp, unigramsBySentence, entries);
-    }
+    private record UnigramData(int beginChar, int endChar, String token) {}
 
     /**
-     * Gets the timestamp for a document
+     * An annotation of a sentence that every unigram of the sentence is stitched to.
      */
-    private LocalDate getDocumentTimestamp(int documentId) throws SQLException {
-        String sql = "SELECT timestamp FROM documents WHERE document_id = ?";
-        try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, documentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return LocalDate.parse(rs.getString("timestamp").substring(0, 10));
-                }
-            }
-        }
-        return null;
-    }
+    private record SentenceAnnotation(int sentenceId, AnnotationType type, int synonymId) {}
 
     /**
-     * Simple data class to hold unigram information
+     * An entity mention: a run of consecutive tokens of one NER type in a sentence.
      */
-    private static class UnigramData {
-        final int beginChar;
-        final int endChar;
-        final String token;
-        
-        UnigramData(int beginChar, int endChar, String token) {
-            this.beginChar = beginChar;
-            this.endChar = endChar;
-            this.token = token;
-        }
-    }
+    private record Mention(int sentenceId, int beginChar, int endChar, int synonymId) {}
 
     /**
-     * Fetches unigrams for a document and organizes them by sentence
+     * The unigrams and annotations of one document, collected from the batch scans.
      */
-    private Map<Integer, List<UnigramData>> fetchUnigrams(int documentId) throws SQLException {
-        Map<Integer, List<UnigramData>> unigramsBySentence = new HashMap<>();
-        
-        // Get all tokens from annotations table only, we don't want to get tokens from dependencies
-        String sql = """
-            SELECT sentence_id, begin_char, end_char, token, lemma
-            FROM annotations
-            WHERE 
-                document_id = ?
-                AND token IS NOT NULL
-                AND LENGTH(token) > 0
-        """;
-        
-        try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, documentId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int sentenceId = rs.getInt("sentence_id");
-                    String token = rs.getString("token");
-                    if (token == null || token.isEmpty()) {
-                        continue;
-                    }
-                    
-                    // Use lemma if available, fall back to token
-                    String lemma = rs.getString("lemma");
-                    String normalizedToken = (lemma != null && !lemma.isEmpty()) ? lemma.toLowerCase() : token.toLowerCase();
-                    
-                    // Skip stopwords
-                    if (isStopword(normalizedToken)) {
-                            continue;
-                        }
-                        
-                    UnigramData unigramData = new UnigramData(
-                        rs.getInt("begin_char"),
-                        rs.getInt("end_char"),
-                        normalizedToken
-                    );
-                    
-                    unigramsBySentence.computeIfAbsent(sentenceId, k -> new ArrayList<>())
-                                   .add(unigramData);
-                }
+    private static final class DocumentAnnotations {
+        final int documentId;
+        final LocalDate timestamp;
+        final Map<Integer, List<UnigramData>> unigramsBySentence = new HashMap<>();
+        final List<SentenceAnnotation> annotations = new ArrayList<>();
+        // Sentence and synonym id of each date seen; a date on several tokens stitches once
+        final Set<Long> dates = new HashSet<>();
+        final List<Mention> mentions = new ArrayList<>();
+        int lastMentionAnnotationId = -1;
+
+        DocumentAnnotations(int documentId, LocalDate timestamp) {
+            this.documentId = documentId;
+            this.timestamp = timestamp;
+        }
+
+        void addAnnotation(int sentenceId, AnnotationType type, int synonymId) {
+            if (type == AnnotationType.DATE && !dates.add(((long) sentenceId << 32) | (synonymId & 0xffffffffL))) {
+                return;
             }
+            annotations.add(new SentenceAnnotation(sentenceId, type, synonymId));
         }
-        
-        return unigramsBySentence;
-    }
 
-    /**
-     * Process DATE annotations for a document
-     */
-    private void processDateAnnotations(
-            int documentId, 
-            LocalDate documentTimestamp,
-            Map<Integer, List<UnigramData>> unigramsBySentence,
-            List<StitchEntry> entries) throws SQLException {
-        
-        String sql = """
-            SELECT sentence_id, begin_char, end_char, normalized_ner
-            FROM annotations
-            WHERE 
-                document_id = ?
-                AND ner = 'DATE' 
-                AND normalized_ner IS NOT NULL
-                AND normalized_ner LIKE '____-__-__'
-        """;
-        
-        try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, documentId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                // Track which unigram-date combinations we've already processed
-                Map<Integer, Set<Integer>> processedCombinations = new HashMap<>();
-                
-                while (rs.next()) {
-                    int sentenceId = rs.getInt("sentence_id");
-                    String dateValue = rs.getString("normalized_ner");
-                    
-                    // Skip invalid dates (should be caught by SQL WHERE clause, but just in case)
-                    if (dateValue == null || !dateValue.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                        continue;
-                    }
-                        
-                    // Try to parse the date to validate it
-                    try {
-                        LocalDate.parse(dateValue);
-                    } catch (Exception e) {
-                        // Skip invalid dates
-                        logger.debug("Skipping invalid date: {}", dateValue);
-                        continue;
-                    }
-                        
-                    // Get the synonym ID for this date
-                    int synonymId = annotationSynonyms.getOrCreateId(dateValue, AnnotationType.DATE);
-                    
-                    // Find unigrams in the same sentence and create stitch entries
-                    List<UnigramData> unigrams = unigramsBySentence.getOrDefault(sentenceId, List.of());
-                    for (UnigramData unigram : unigrams) {
-                        // Skip if we've already processed this unigram-date combination
-                        Set<Integer> processedDates = processedCombinations
-                            .computeIfAbsent(sentenceId, k -> new HashSet<>());
-                        
-                        // Create a unique identifier for this unigram-date combination
-                        int combinationId = Objects.hash(unigram.beginChar, unigram.endChar, synonymId);
-                        if (!processedDates.add(combinationId)) {
-                            continue;
-                        }
-                        
-                        entries.add(new StitchEntry(
-                            documentId,
-                            sentenceId,
-                            unigram.beginChar,
-                            unigram.endChar,
-                            documentTimestamp,
-                            unigram.token,
-                            AnnotationType.DATE,
-                            synonymId
-                        ));
-                    }
-                }
+        /**
+         * Adds an NER token, extending the last mention if the token continues it: same
+         * sentence and type, and the next annotation after the mention's last token.
+         */
+        void addMention(int annotationId, int sentenceId, int beginChar, int endChar, int synonymId) {
+            Mention last = mentions.isEmpty() ? null : mentions.get(mentions.size() - 1);
+            if (last != null && last.sentenceId() == sentenceId && last.synonymId() == synonymId
+                    && annotationId == lastMentionAnnotationId + 1) {
+                mentions.set(mentions.size() - 1, new Mention(sentenceId, last.beginChar(), endChar, synonymId));
+            } else {
+                mentions.add(new Mention(sentenceId, beginChar, endChar, synonymId));
             }
+            lastMentionAnnotationId = annotationId;
         }
-    }
 
-    /**
-     * Process NER annotations for a document
-     */
-    private void processNerAnnotations(
-            int documentId, 
-            LocalDate documentTimestamp,
-            Map<Integer, List<UnigramData>> unigramsBySentence,
-            List<StitchEntry> entries) throws SQLException {
-        
-        String sql = """
-            SELECT sentence_id, begin_char, end_char, ner
-            FROM annotations
-            WHERE 
-                document_id = ?
-                AND ner IS NOT NULL
-                AND ner != 'DATE'
-                AND ner != 'O'
-                AND LENGTH(ner) > 0
-        """;
-        
-        try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, documentId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int sentenceId = rs.getInt("sentence_id");
-                    String nerValue = rs.getString("ner");
-                    
-                    // Skip if the NER value is invalid
-                    if (nerValue == null || nerValue.isEmpty()) {
-                        continue;
-                    }
-                    
-                    // Get the synonym ID for this NER tag
-                    int synonymId = annotationSynonyms.getOrCreateId(nerValue, AnnotationType.NER);
-                    
-                    // Find unigrams in the same sentence and create stitch entries
-                    List<UnigramData> unigrams = unigramsBySentence.getOrDefault(sentenceId, List.of());
-                    for (UnigramData unigram : unigrams) {
-                        entries.add(new StitchEntry(
-                            documentId,
-                            sentenceId,
-                            unigram.beginChar,
-                            unigram.endChar,
-                            documentTimestamp,
-                            unigram.token,
-                            AnnotationType.NER,
-                            synonymId
-                        ));
-                    }
+        /**
+         * Stitches every annotation to the unigrams of its sentence, and lists the entity
+         * mentions of a sentence once under each distinct unigram of it.
+         */
+        List<StitchEntry> entries() {
+            if (timestamp == null || unigramsBySentence.isEmpty()) {
+                return List.of();
+            }
+            List<StitchEntry> entries = new ArrayList<>();
+            for (SentenceAnnotation annotation : annotations) {
+                for (UnigramData unigram : unigramsBySentence.getOrDefault(annotation.sentenceId(), List.of())) {
+                    entries.add(new StitchEntry(
+                        documentId,
+                        annotation.sentenceId(),
+                        unigram.beginChar(),
+                        unigram.endChar(),
+                        timestamp,
+                        unigram.token(),
+                        annotation.type(),
+                        annotation.synonymId()
+                    ));
                 }
             }
+            Map<Integer, Set<String>> tokensBySentence = new HashMap<>();
+            for (Mention mention : mentions) {
+                Set<String> tokens = tokensBySentence.computeIfAbsent(mention.sentenceId(), sentence ->
+                    unigramsBySentence.getOrDefault(sentence, List.of()).stream()
+                        .map(UnigramData::token)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+                for (String token : tokens) {
+                    entries.add(new StitchEntry(
+                        documentId,
+                        mention.sentenceId(),
+                        mention.beginChar(),
+                        mention.endChar(),
+                        timestamp,
+                        token,
+                        AnnotationType.NER,
+                        mention.synonymId(),
+                        true
+                    ));
+                }
+            }
+            return entries;
         }
     }
 
     /**
-     * Process POS annotations for a document
+     * Reads the unigrams and the DATE, NER and POS annotations of a document id range.
+     * They are columns of the same annotations rows, so one scan serves all of them.
+     * Consecutive NER tokens of one type form an entity mention, as in the ner index.
      */
-    private void processPosAnnotations(
-            int documentId, 
-            LocalDate documentTimestamp,
-            Map<Integer, List<UnigramData>> unigramsBySentence,
-            List<StitchEntry> entries) throws SQLException {
-        
+    private void fetchAnnotations(int firstId, int lastId, Map<Integer, DocumentAnnotations> documents)
+            throws SQLException {
         String sql = """
-            SELECT sentence_id, begin_char, end_char, pos
+            SELECT annotation_id, document_id, sentence_id, begin_char, end_char, token, lemma, pos, ner, normalized_ner
             FROM annotations
-            WHERE 
-                document_id = ?
-                AND pos IS NOT NULL
-                AND pos NOT IN ('PUNCT', 'SYM')
-                AND LENGTH(pos) > 0
+            WHERE document_id BETWEEN ? AND ?
+            ORDER BY document_id, sentence_id, begin_char
         """;
-        
+
         try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, documentId);
-            
+            stmt.setInt(1, firstId);
+            stmt.setInt(2, lastId);
+
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    int sentenceId = rs.getInt("sentence_id");
-                    String posValue = rs.getString("pos");
-                    
-                    // Skip if the POS value is invalid
-                    if (posValue == null || posValue.isEmpty()) {
+                    DocumentAnnotations document = documents.get(rs.getInt("document_id"));
+                    if (document == null) {
                         continue;
                     }
-                    
-                    // Get the synonym ID for this POS tag
-                    int synonymId = annotationSynonyms.getOrCreateId(posValue, AnnotationType.POS);
-                    
-                    // Find unigrams in the same sentence and create stitch entries
-                    List<UnigramData> unigrams = unigramsBySentence.getOrDefault(sentenceId, List.of());
-                    for (UnigramData unigram : unigrams) {
-                        entries.add(new StitchEntry(
-                            documentId,
-                            sentenceId,
-                            unigram.beginChar,
-                            unigram.endChar,
-                            documentTimestamp,
-                            unigram.token,
-                            AnnotationType.POS,
-                            synonymId
-                        ));
+                    int sentenceId = rs.getInt("sentence_id");
+
+                    String token = rs.getString("token");
+                    if (token != null && !token.isEmpty()) {
+                        // Use lemma if available, fall back to token
+                        String lemma = rs.getString("lemma");
+                        String normalizedToken = (lemma != null && !lemma.isEmpty()) ? lemma.toLowerCase() : token.toLowerCase();
+                        if (!isStopword(normalizedToken)) {
+                            document.unigramsBySentence.computeIfAbsent(sentenceId, k -> new ArrayList<>())
+                                .add(new UnigramData(rs.getInt("begin_char"), rs.getInt("end_char"), normalizedToken));
+                        }
+                    }
+
+                    String ner = rs.getString("ner");
+                    if ("DATE".equals(ner)) {
+                        String dateValue = rs.getString("normalized_ner");
+                        if (dateValue != null && DATE_PATTERN.matcher(dateValue).matches()) {
+                            try {
+                                LocalDate.parse(dateValue);
+                                document.addAnnotation(sentenceId, AnnotationType.DATE,
+                                    annotationSynonyms.getOrCreateId(dateValue, AnnotationType.DATE));
+                            } catch (DateTimeParseException e) {
+                                logger.debug("Skipping invalid date: {}", dateValue);
+                            }
+                        }
+                    } else if (ner != null && !ner.isEmpty() && !"O".equals(ner)) {
+                        int synonymId = annotationSynonyms.getOrCreateId(ner, AnnotationType.NER);
+                        document.addAnnotation(sentenceId, AnnotationType.NER, synonymId);
+                        document.addMention(rs.getInt("annotation_id"), sentenceId,
+                            rs.getInt("begin_char"), rs.getInt("end_char"), synonymId);
+                    }
+
+                    String pos = rs.getString("pos");
+                    if (pos != null && !pos.isEmpty() && !"PUNCT".equals(pos) && !"SYM".equals(pos)) {
+                        document.addAnnotation(sentenceId, AnnotationType.POS,
+                            annotationSynonyms.getOrCreateId(pos, AnnotationType.POS));
                     }
                 }
             }
@@ -585,53 +488,32 @@ public class StitchIndexGenerator extends IndexGenerator<StitchEntry> {
     }
 
     /**
-     * Process dependency annotations for a document
+     * Reads the dependency relations of a document id range.
      */
-    private void processDependencyAnnotations(
-            int documentId, 
-            LocalDate documentTimestamp,
-            Map<Integer, List<UnigramData>> unigramsBySentence,
-            List<StitchEntry> entries) throws SQLException {
-        
+    private void fetchDependencies(int firstId, int lastId, Map<Integer, DocumentAnnotations> documents)
+            throws SQLException {
         String sql = """
-            SELECT sentence_id, begin_char, end_char, relation
+            SELECT document_id, sentence_id, relation
             FROM dependencies
-            WHERE 
-                document_id = ?
+            WHERE
+                document_id BETWEEN ? AND ?
                 AND relation IS NOT NULL
                 AND LENGTH(relation) > 0
+            ORDER BY document_id, sentence_id
         """;
-        
+
         try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
-            stmt.setInt(1, documentId);
-            
+            stmt.setInt(1, firstId);
+            stmt.setInt(2, lastId);
+
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    int sentenceId = rs.getInt("sentence_id");
-                    String relationValue = rs.getString("relation");
-                    
-                    // Skip if the relation value is invalid
-                    if (relationValue == null || relationValue.isEmpty()) {
+                    DocumentAnnotations document = documents.get(rs.getInt("document_id"));
+                    if (document == null) {
                         continue;
                     }
-                    
-                    // Get the synonym ID for this dependency relation
-                    int synonymId = annotationSynonyms.getOrCreateId(relationValue, AnnotationType.DEPENDENCY);
-                    
-                    // Find unigrams in the same sentence and create stitch entries
-                    List<UnigramData> unigrams = unigramsBySentence.getOrDefault(sentenceId, List.of());
-                    for (UnigramData unigram : unigrams) {
-                        entries.add(new StitchEntry(
-                            documentId,
-                            sentenceId,
-                            unigram.beginChar,
-                            unigram.endChar,
-                            documentTimestamp,
-                            unigram.token,
-                            AnnotationType.DEPENDENCY,
-                            synonymId
-                        ));
-                    }
+                    document.addAnnotation(rs.getInt("sentence_id"), AnnotationType.DEPENDENCY,
+                        annotationSynonyms.getOrCreateId(rs.getString("relation"), AnnotationType.DEPENDENCY));
                 }
             }
         }
@@ -639,53 +521,32 @@ public class StitchIndexGenerator extends IndexGenerator<StitchEntry> {
 
     @Override
     protected ListMultimap<String, PositionList> processBatch(List<StitchEntry> batch) {
-        ListMultimap<String, PositionList> index = ArrayListMultimap.create();
-        
-        // Group entries by unigram value
-        Map<String, List<StitchEntry>> groupedEntries = batch.stream()
-            .collect(Collectors.groupingBy(StitchEntry::value));
-        
-        // Process each unigram group
-        for (Map.Entry<String, List<StitchEntry>> entry : groupedEntries.entrySet()) {
-            String unigram = entry.getKey();
-            List<StitchEntry> entries = entry.getValue();
-            
-            // Create maps to group positions by annotation type
-            Map<AnnotationType, PositionList> positionsByType = new HashMap<>();
-            
-            // Process entries
-            for (StitchEntry e : entries) {
-                // Get or create position list for this unigram and annotation type
-                PositionList positions = positionsByType.computeIfAbsent(
-                    e.type(), 
-                    type -> new PositionList()
-                );
-                
+        // Group entries by their composite key, "unigram\0type" or "unigram\0NER_MENTION"
+        Map<String, List<StitchEntry>> groupedEntries = batch.parallelStream()
+            .collect(Collectors.groupingBy(StitchEntry::key));
+
+        // Build the posting lists of the keys in parallel workers
+        Map<String, PositionList> postings = new ConcurrentHashMap<>();
+        groupedEntries.entrySet().parallelStream().forEach(entry -> {
+            PositionList positions = new PositionList();
+            for (StitchEntry e : entry.getValue()) {
                 // Create position with annotation details
-                StitchPosition position = new StitchPosition(
-                    e.documentId(), 
+                positions.add(new StitchPosition(
+                    e.documentId(),
                     e.sentenceId(),
-                    e.beginChar(), 
+                    e.beginChar(),
                     e.endChar(),
-                    e.timestamp(), 
+                    e.timestamp(),
                     e.type(),
                     e.synonymId()
-                );
-                
-                positions.add(position);
-            }
-            
-            // Add position lists to index with composite keys
-            for (Map.Entry<AnnotationType, PositionList> typeEntry : positionsByType.entrySet()) {
-                AnnotationType type = typeEntry.getKey();
-                PositionList positions = typeEntry.getValue();
-                
-                // Create composite key with format "unigram\0type"
-                String compositeKey = unigram + "\0" + type.name();
-                index.put(compositeKey, positions);
+                ));
             }
-        }
-        
+            postings.put(entry.getKey(), positions);
+        });
+
+        ListMultimap<String, PositionList> index = ArrayListMultimap.create();
+        postings.forEach(index::put);
+
         logger.debug("Processed batch with {} unique unigram-annotation combinations", index.keySet().size());
         return index;
     }
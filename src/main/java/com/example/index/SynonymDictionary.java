@@ -0,0 +1,287 @@
+package com.example.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable on-disk dictionary between annotation values and synonym IDs.
+ * <p>
+ * The file holds the UTF-8 values as one block sorted by their bytes, the ID of each value
+ * in the same order, and the value order sorted by ID. It is memory-mapped when opened, so
+ * loading costs no deserialization and the entries stay off the heap. Both directions are
+ * binary searches over the mapped buffer using absolute reads only, so lookups need no locks.
+ * <p>
+ * Layout, all integers big-endian:
+ * <pre>
+ * int magic, int version, int count, int maxId
+ * int[count + 1] value offsets into the value block
+ * int[count]     IDs, in value order
+ * int[count]     value positions, in ID order
+ * byte[]         value block
+ * </pre>
+ */
+public final class SynonymDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(SynonymDictionary.class);
+    private static final int MAGIC = 0x53594E44; // "SYND"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final SynonymDictionary EMPTY = new SynonymDictionary(null, 0, 0);
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int maxId;
+    private final int minId;
+    private final int offsetsStart;
+    private final int idsStart;
+    private final int idOrderStart;
+    private final int valuesStart;
+
+    private SynonymDictionary(ByteBuffer buffer, int count, int maxId) {
+        this.buffer = buffer;
+        this.count = count;
+        this.maxId = maxId;
+        this.offsetsStart = HEADER_BYTES;
+        this.idsStart = offsetsStart + (count + 1) * Integer.BYTES;
+        this.idOrderStart = idsStart + count * Integer.BYTES;
+        this.valuesStart = idOrderStart + count * Integer.BYTES;
+        this.minId = count == 0 ? 0 : idAt(positionOfIdRank(0));
+    }
+
+    /**
+     * Returns a dictionary without entries.
+     */
+    public static SynonymDictionary empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Memory-maps a dictionary written by {@link #write(Path, Map)}.
+     *
+     * @param file The dictionary file
+     * @return The mapped dictionary
+     * @throws IOException if the file cannot be mapped or is not a synonym dictionary
+     */
+    public static SynonymDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Synonym dictionary is truncated: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a synonym dictionary: " + file);
+            }
+            int count = buffer.getInt(8);
+            return count == 0 ? EMPTY : new SynonymDictionary(buffer, count, buffer.getInt(12));
+        }
+    }
+
+    /**
+     * Writes the given mappings as a dictionary file, replacing any existing file atomically.
+     *
+     * @param file The dictionary file
+     * @param valueToId The mappings to write; IDs must be unique
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, Map<String, Integer> valueToId) throws IOException {
+        int count = valueToId.size();
+        byte[][] values = new byte[count][];
+        int[] ids = new int[count];
+
+        Integer[] order = new Integer[count];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : valueToId.entrySet()) {
+            values[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            ids[i] = entry.getValue();
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(values[a], values[b]));
+
+        Integer[] idOrder = new Integer[count];
+        for (int rank = 0; rank < count; rank++) {
+            idOrder[rank] = rank;
+        }
+        Arrays.sort(idOrder, Comparator.comparingInt(rank -> ids[order[rank]]));
+
+        int maxId = count == 0 ? 0 : ids[order[idOrder[count - 1]]];
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(maxId);
+
+            int offset = 0;
+            for (int rank = 0; rank < count; rank++) {
+                out.writeInt(offset);
+                offset += values[order[rank]].length;
+            }
+            out.writeInt(offset);
+            for (int rank = 0; rank < count; rank++) {
+                out.writeInt(ids[order[rank]]);
+            }
+            for (int rank = 0; rank < count; rank++) {
+                out.writeInt(idOrder[rank]);
+            }
+            for (int rank = 0; rank < count; rank++) {
+                out.write(values[order[rank]]);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Wrote {} synonyms to {}", count, file);
+    }
+
+    /**
+     * Returns the ID of a value.
+     *
+     * @param value The value to look up
+     * @return The ID, or -1 if the value is not in the dictionary
+     */
+    public int getId(String value) {
+        if (count == 0 || value == null) {
+            return -1;
+        }
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        int position = lowerBound(key);
+        return position < count && compareValueAt(position, key) == 0 ? idAt(position) : -1;
+    }
+
+    /**
+     * Returns the value of an ID.
+     *
+     * @param id The ID to look up
+     * @return The value, or null if the ID is not in the dictionary
+     */
+    public String getValue(int id) {
+        if (count == 0 || id < minId || id > maxId) {
+            return null;
+        }
+        if (maxId - minId + 1 == count) {
+            // Dense IDs, as assigned by the synonym classes: the rank is the offset from the first ID
+            return valueAt(positionOfIdRank(id - minId));
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = positionOfIdRank(mid);
+            int midId = idAt(position);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return valueAt(position);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the highest ID, or 0 if the dictionary is empty.
+     */
+    public int maxId() {
+        return maxId;
+    }
+
+    /**
+     * Calls the consumer with every value and its ID, in value order.
+     */
+    public void forEach(ObjIntConsumer<String> consumer) {
+        for (int position = 0; position < count; position++) {
+            consumer.accept(valueAt(position), idAt(position));
+        }
+    }
+
+    /**
+     * Calls the consumer with every value that starts with a prefix and its ID, in value order.
+     */
+    public void forEachWithPrefix(String prefix, ObjIntConsumer<String> consumer) {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        for (int position = lowerBound(key); position < count && startsWith(position, key); position++) {
+            consumer.accept(valueAt(position), idAt(position));
+        }
+    }
+
+    // First position whose value is not below the key
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareValueAt(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean startsWith(int position, byte[] prefix) {
+        int start = valuesStart + buffer.getInt(offsetsStart + position * Integer.BYTES);
+        int end = valuesStart + buffer.getInt(offsetsStart + (position + 1) * Integer.BYTES);
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int idAt(int position) {
+        return buffer.getInt(idsStart + position * Integer.BYTES);
+    }
+
+    private int positionOfIdRank(int rank) {
+        return buffer.getInt(idOrderStart + rank * Integer.BYTES);
+    }
+
+    private String valueAt(int position) {
+        int start = buffer.getInt(offsetsStart + position * Integer.BYTES);
+        int end = buffer.getInt(offsetsStart + (position + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(valuesStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int compareValueAt(int position, byte[] key) {
+        int start = valuesStart + buffer.getInt(offsetsStart + position * Integer.BYTES);
+        int end = valuesStart + buffer.getInt(offsetsStart + (position + 1) * Integer.BYTES);
+        int length = Math.min(end - start, key.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = Byte.toUnsignedInt(buffer.get(start + i)) - Byte.toUnsignedInt(key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return (end - start) - key.length;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Corpus-wide dictionary of the terms that make up index keys (lemmas, relations), each
+ * mapped to a dense integer ID starting at 1.
+ * <p>
+ * Indexes built with term IDs store each {@code \0}-joined key as the tuple of its term IDs,
+ * every ID written as a varint. Varints are self-delimiting, so the encoded tuple of a key's
+ * leading terms is a byte prefix of the encoded key, and prefix scans over whole terms keep
+ * working. Such indexes carry a {@link #MARKER_FILE} in their directory; indexes without it
+ * are keyed by the UTF-8 strings themselves.
+ * <p>
+ * The dictionary lives in {@link #FILE_NAME} in the index set directory as a memory-mapped
+ * {@link SynonymDictionary}, shared by all term-keyed indexes of the set. Terms added while
+ * building are kept in memory and merged into the file on close.
+ */
+public final class TermDictionary implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TermDictionary.class);
+    public static final String FILE_NAME = "terms.dict";
+    public static final String MARKER_FILE = "term_keys";
+    private static final String DELIMITER = IndexGenerator.DELIMITER;
+
+    private final Path file;
+    private final SynonymDictionary saved;
+    private final Map<String, Integer> added = new ConcurrentHashMap<>();
+    private final Map<Integer, String> addedById = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId;
+    private volatile boolean closed = false;
+
+    private TermDictionary(Path file, SynonymDictionary saved) {
+        this.file = file;
+        this.saved = saved;
+        this.nextId = new AtomicInteger(saved.maxId() + 1);
+    }
+
+    /**
+     * Opens the term dictionary of an index set, mapping the saved terms if there are any.
+     *
+     * @param indexSetDir The index set directory
+     * @return The dictionary
+     * @throws IOException if the saved terms cannot be mapped
+     */
+    public static TermDictionary open(Path indexSetDir) throws IOException {
+        Path file = indexSetDir.resolve(FILE_NAME);
+        SynonymDictionary saved = Files.exists(file) ? SynonymDictionary.open(file) : SynonymDictionary.empty();
+        logger.info("Opened term dictionary at {} with {} terms", file, saved.size());
+        return new TermDictionary(file, saved);
+    }
+
+    /**
+     * Checks whether the index in a directory is keyed by term IDs.
+     */
+    public static boolean isTermKeyed(Path indexDir) {
+        return Files.exists(indexDir.resolve(MARKER_FILE));
+    }
+
+    /**
+     * Records whether the index in a directory is keyed by term IDs.
+     */
+    public static void setTermKeyed(Path indexDir, boolean termKeyed) throws IOException {
+        Path marker = indexDir.resolve(MARKER_FILE);
+        if (termKeyed) {
+            Files.createDirectories(indexDir);
+            Files.writeString(marker, FILE_NAME + "\n");
+        } else {
+            Files.deleteIfExists(marker);
+        }
+    }
+
+    /**
+     * Gets the ID of a term.
+     *
+     * @return The ID, or -1 if the term is unknown
+     */
+    public int getId(String term) {
+        int id = saved.getId(term);
+        if (id >= 0) {
+            return id;
+        }
+        Integer addedId = added.get(term);
+        return addedId == null ? -1 : addedId;
+    }
+
+    /**
+     * Gets or assigns the ID of a term.
+     *
+     * @throws IllegalStateException if the dictionary is closed
+     */
+    public int getOrCreateId(String term) {
+        int id = getId(term);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("TermDictionary is closed");
+            }
+            Integer existing = added.get(term);
+            if (existing != null) {
+                return existing;
+            }
+            int newId = nextId.getAndIncrement();
+            added.put(term, newId);
+            addedById.put(newId, term);
+            return newId;
+        }
+    }
+
+    /**
+     * Gets the term of an ID.
+     *
+     * @return The term, or null if the ID is unknown
+     */
+    public String getTerm(int id) {
+        String term = saved.getValue(id);
+        return term != null ? term : addedById.get(id);
+    }
+
+    /**
+     * Calls the consumer with every term that starts with a prefix and its ID.
+     */
+    public void forEachTermWithPrefix(String prefix, ObjIntConsumer<String> consumer) {
+        saved.forEachWithPrefix(prefix, consumer);
+        added.forEach((term, id) -> {
+            if (term.startsWith(prefix)) {
+                consumer.accept(term, id);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of terms.
+     */
+    public int size() {
+        return saved.size() + added.size();
+    }
+
+    /**
+     * Encodes a {@code \0}-joined key as its tuple of term IDs.
+     *
+     * @param key The string key
+     * @return The encoded key, or null if one of its terms is unknown, in which case no
+     *         term-keyed index holds the key
+     */
+    public byte[] encodeKey(String key) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(key.length());
+        for (String term : key.split(DELIMITER, -1)) {
+            int id = getId(term);
+            if (id < 0) {
+                return null;
+            }
+            writeVarint(out, id);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes a {@code \0}-joined key as its tuple of term IDs, assigning IDs to new terms.
+     */
+    public byte[] assignKey(String key) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(key.length());
+        for (String term : key.split(DELIMITER, -1)) {
+            writeVarint(out, getOrCreateId(term));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a key encoded by {@link #encodeKey(String)} back to its string form.
+     *
+     * @throws IllegalArgumentException if the key is malformed or holds an unknown ID
+     */
+    public String decodeKey(byte[] key) {
+        StringBuilder decoded = new StringBuilder();
+        int index = 0;
+        while (index < key.length) {
+            if (index > 0) {
+                decoded.append(DELIMITER);
+            }
+            int id = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (index == key.length || shift > 28) {
+                    throw new IllegalArgumentException("Malformed term-keyed index key");
+                }
+                b = key[index++];
+                id |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            String term = getTerm(id);
+            if (term == null) {
+                throw new IllegalArgumentException("Unknown term id " + id + " in index key");
+            }
+            decoded.append(term);
+        }
+        return decoded.toString();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (added.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> merged = new HashMap<>(added);
+        saved.forEach(merged::put);
+        SynonymDictionary.write(file, merged);
+        logger.info("Saved {} terms ({} new) to {}", merged.size(), added.size(), file);
+    }
+}
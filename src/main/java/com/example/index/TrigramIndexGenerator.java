@@ -7,7 +7,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -37,10 +36,14 @@ public final class TrigramIndexGenerator extends IndexGenerator<AnnotationEntry>
     @Override
     protected List<AnnotationEntry> fetchBatch(int offset) throws SQLException {
         List<AnnotationEntry> batch = new ArrayList<>();
-        String query = "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, a.lemma, a.pos, d.timestamp " +
-                      "FROM annotations a " +
-                      "JOIN documents d ON a.document_id = d.document_id " +
-                      "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
+        String query = useCompactAnnotations()
+            ? "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, a.lemma, a.pos, a.day " +
+              "FROM " + CompactAnnotations.ANNOTATIONS + " a " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?"
+            : "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, a.lemma, a.pos, d.timestamp " +
+              "FROM annotations a " +
+              "JOIN documents d ON a.document_id = d.document_id " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
         
         try (PreparedStatement stmt = sqliteConn.prepareStatement(query)) {
             stmt.setInt(1, config.getBatchSize());
@@ -55,8 +58,8 @@ public final class TrigramIndexGenerator extends IndexGenerator<AnnotationEntry>
                         rs.getInt("begin_char"),
                         rs.getInt("end_char"),
                         rs.getString("lemma"),
-                        rs.getString("pos"),
-                        LocalDate.parse(rs.getString("timestamp").substring(0, 10))
+                        getLabel(rs, "pos"),
+                        getDocumentDate(rs)
                     );
                     batch.add(entry);
                 }
@@ -120,4 +123,9 @@ public final class TrigramIndexGenerator extends IndexGenerator<AnnotationEntry>
     protected String getIndexName() {
         return "trigram";
     }
+
+    @Override
+    protected boolean supportsTermIds() {
+        return true;
+    }
 } 
\ No newline at end of file
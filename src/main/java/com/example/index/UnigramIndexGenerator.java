@@ -7,7 +7,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +32,11 @@ public final class UnigramIndexGenerator extends IndexGenerator<AnnotationEntry>
         return "unigram";
     }
 
+    @Override
+    protected boolean supportsTermIds() {
+        return true;
+    }
+
     public UnigramIndexGenerator(String indexBaseDir, String stopwordsPath,
             Connection sqliteConn, ProgressTracker progress) throws IOException {
         super(indexBaseDir, stopwordsPath, sqliteConn, progress);
@@ -46,11 +50,16 @@ public final class UnigramIndexGenerator extends IndexGenerator<AnnotationEntry>
     @Override
     protected List<AnnotationEntry> fetchBatch(int offset) throws SQLException {
         List<AnnotationEntry> entries = new ArrayList<>();
-        String sql = "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, a.lemma, a.pos, d.timestamp " +
-                    "FROM annotations a " +
-                    "JOIN documents d ON a.document_id = d.document_id " +
-                    "WHERE a.lemma IS NOT NULL " +
-                    "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
+        String sql = useCompactAnnotations()
+            ? "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, a.lemma, a.pos, a.day " +
+              "FROM " + CompactAnnotations.ANNOTATIONS + " a " +
+              "WHERE a.lemma IS NOT NULL " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?"
+            : "SELECT a.annotation_id, a.document_id, a.sentence_id, a.begin_char, a.end_char, a.lemma, a.pos, d.timestamp " +
+              "FROM annotations a " +
+              "JOIN documents d ON a.document_id = d.document_id " +
+              "WHERE a.lemma IS NOT NULL " +
+              "ORDER BY a.document_id, a.sentence_id, a.begin_char LIMIT ? OFFSET ?";
                     
         try (PreparedStatement stmt = sqliteConn.prepareStatement(sql)) {
             stmt.setInt(1, config.getBatchSize());
@@ -70,8 +79,8 @@ public final class UnigramIndexGenerator extends IndexGenerator<AnnotationEntry>
                         rs.getInt("begin_char"),
                         rs.getInt("end_char"),
                         lemma,
-                        sanitizeText(rs.getString("pos")),
-                        LocalDate.parse(rs.getString("timestamp").substring(0, 10))
+                        sanitizeText(getLabel(rs, "pos")),
+                        getDocumentDate(rs)
                     ));
                 }
             }
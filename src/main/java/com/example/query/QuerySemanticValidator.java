@@ -5,7 +5,10 @@ import com.example.query.binding.VariableRegistry;
 import com.example.query.binding.Variable;
 import com.example.query.binding.VariableType;
 import com.example.query.model.condition.Condition;
+import com.example.query.model.condition.Hypernym;
+import com.example.query.model.condition.Logical;
 import com.example.query.model.condition.Ner;
+import com.example.query.model.condition.Not;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,12 +53,14 @@ public class QuerySemanticValidator {
         
         // Validate NER types in conditions *before* validating variable usage
         validateNerTypes(query.conditions());
+        validateHypernyms(query.conditions());
         
         // Validate variable dependencies and types
         validateVariableDependencies(registry);
         
         // Validate select columns
         validateSelectColumns(query, registry);
+        validateHistogram(query);
         
         // Validate limit value
         query.limit().ifPresent(limit -> {
@@ -107,6 +112,30 @@ public class QuerySemanticValidator {
         }
     }
     
+    /**
+     * Validates that HYPERNYM conditions name a single-word category. The hypernym index
+     * is keyed by the lemma of the category's head word, so a phrase can never match.
+     *
+     * @param conditions The conditions to check, including nested ones
+     * @throws QueryParseException If a category is empty or has more than one word
+     */
+    private void validateHypernyms(List<Condition> conditions) throws QueryParseException {
+        for (Condition condition : conditions) {
+            if (condition instanceof Hypernym hypernym) {
+                String category = hypernym.category().trim();
+                if (category.isEmpty() || category.contains(" ")) {
+                    throw new QueryParseException(String.format(
+                        "HYPERNYM category must be a single word, but got '%s' in condition %s",
+                        hypernym.category(), hypernym));
+                }
+            } else if (condition instanceof Logical logical) {
+                validateHypernyms(logical.conditions());
+            } else if (condition instanceof Not not) {
+                validateHypernyms(List.of(not.condition()));
+            }
+        }
+    }
+
     /**
      * Validates variable dependencies ensuring all consumed variables are produced.
      * Also performs type checking on variable usage.
@@ -223,6 +252,35 @@ public class QuerySemanticValidator {
         }
     }
     
+    /**
+     * Validates that a COUNT BY histogram is the only selected column and that ordering
+     * only refers to its bucket or count column, since the result holds nothing else.
+     */
+    private void validateHistogram(Query query) throws QueryParseException {
+        Optional<HistogramColumn> histogram = query.selectColumns().stream()
+            .filter(HistogramColumn.class::isInstance)
+            .map(HistogramColumn.class::cast)
+            .findFirst();
+        if (histogram.isEmpty()) {
+            return;
+        }
+        if (query.selectColumns().size() > 1) {
+            throw new QueryParseException(histogram.get() + " cannot be combined with other SELECT columns");
+        }
+        if (query.joinCondition().isPresent()) {
+            throw new QueryParseException(histogram.get() + " is not supported on JOIN queries");
+        }
+        Set<String> columns = Set.of(histogram.get().getColumnName(), HistogramColumn.COUNT_COLUMN);
+        for (String orderColumn : query.orderBy()) {
+            String columnName = orderColumn.startsWith("-") ? orderColumn.substring(1) : orderColumn;
+            if (!columns.contains(columnName.toLowerCase())) {
+                throw new QueryParseException(String.format(
+                    "Cannot order %s by '%s'; order by %s or %s",
+                    histogram.get(), columnName, histogram.get().getColumnName(), HistogramColumn.COUNT_COLUMN));
+            }
+        }
+    }
+
     /**
      * Helper method to validate that a variable exists and is produced within a specific registry.
      * 
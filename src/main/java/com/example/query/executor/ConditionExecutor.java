@@ -17,10 +17,12 @@ import java.util.Map;
 public sealed interface ConditionExecutor<T extends Condition> 
     permits ContainsExecutor,
             DependencyExecutor,
+            HypernymExecutor,
             LogicalExecutor,
             NerExecutor,
             PosExecutor,
             NotExecutor,
+            StitchExecutor,
             TemporalExecutor {
     
     /**
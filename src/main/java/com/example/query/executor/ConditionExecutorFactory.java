@@ -4,6 +4,8 @@ import com.example.query.model.condition.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+
 /**
  * Factory for condition executors using pattern matching and singleton instances.
  * Maintains type safety through sealed interfaces.
@@ -13,30 +15,66 @@ public final class ConditionExecutorFactory {
     
     // Executors are now all singletons since they don't need variable names
     private final LogicalExecutor logicalExecutor;
+    private final StitchExecutor stitchExecutor;
     private final NerExecutor nerExecutor;
     private final ContainsExecutor containsExecutor;
     private final PosExecutor posExecutor;
     private final DependencyExecutor dependencyExecutor;
+    private final HypernymExecutor hypernymExecutor;
     private final TemporalExecutor temporalExecutor;
     private final NotExecutor notExecutor;
+    private final QueryResultCache resultCache;
     
     /**
-     * Creates a new ConditionExecutorFactory with singleton executor instances.
+     * Creates a new ConditionExecutorFactory with singleton executor instances
+     * and a default-sized result cache.
      */
     public ConditionExecutorFactory() {
+        this(new QueryResultCache());
+    }
+
+    /**
+     * Creates a new ConditionExecutorFactory with singleton executor instances.
+     *
+     * @param resultCache Cache for condition results shared by all executors, or null to disable caching
+     */
+    public ConditionExecutorFactory(QueryResultCache resultCache) {
+        this.resultCache = resultCache;
+
         // Logical executor needs this factory for recursive execution
         this.logicalExecutor = new LogicalExecutor(this);
+        // Eligible AND patterns go to the stitch index, falling back to the logical executor
+        this.stitchExecutor = new StitchExecutor(logicalExecutor);
         
         // Other executors are now also singletons
         this.nerExecutor = new NerExecutor();
         this.containsExecutor = new ContainsExecutor();
         this.posExecutor = new PosExecutor();
         this.dependencyExecutor = new DependencyExecutor();
+        this.hypernymExecutor = new HypernymExecutor();
         this.temporalExecutor = new TemporalExecutor();
         this.notExecutor = new NotExecutor(this);
         
         logger.debug("Initialized condition executor factory");
     }
+
+    /**
+     * Gets the result cache shared by the executors of this factory.
+     *
+     * @return The result cache, or empty if caching is disabled
+     */
+    public Optional<QueryResultCache> getResultCache() {
+        return Optional.ofNullable(resultCache);
+    }
+
+    /**
+     * Gets the executor that answers eligible AND patterns from the stitch index.
+     *
+     * @return The stitch executor
+     */
+    public StitchExecutor getStitchExecutor() {
+        return stitchExecutor;
+    }
     
     /**
      * Gets the appropriate executor for a condition using pattern matching.
@@ -57,7 +95,8 @@ public final class ConditionExecutorFactory {
             case Ner c -> nerExecutor;
             case Pos c -> posExecutor;
             case Dependency c -> dependencyExecutor;
-            case Logical c -> logicalExecutor;
+            case Hypernym c -> hypernymExecutor;
+            case Logical c -> StitchExecutor.isEligible(c) ? stitchExecutor : logicalExecutor;
             case Temporal c -> temporalExecutor;
             case Not c -> notExecutor;
             default -> throw new IllegalArgumentException("Unsupported condition type: " + condition.getClass().getSimpleName());
@@ -1,5 +1,7 @@
 package com.example.query.executor;
 
+import com.example.core.DecodedPostings;
+import com.example.core.DocumentIdSet;
 import com.example.core.IndexAccessInterface;
 import com.example.core.Position;
 import com.example.core.PositionList;
@@ -31,7 +33,7 @@ import org.slf4j.LoggerFactory;
  *
  * @see com.example.query.model.condition.Contains
  */
-public final class ContainsExecutor implements ConditionExecutor<Contains> {
+public final class ContainsExecutor implements ConditionExecutor<Contains>, DocumentPrefilter<Contains> {
     private static final Logger logger = LoggerFactory.getLogger(ContainsExecutor.class);
     
     private static final String UNIGRAM_INDEX = "unigram";
@@ -52,6 +54,42 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
                                int granularitySize,
                                String corpusName)
         throws QueryExecutionException {
+        return execute(condition, indexes, granularity, granularitySize, corpusName, null);
+    }
+
+    /**
+     * Looks up the n-gram posting of the exact (wildcard-free) pattern.
+     */
+    @Override
+    public Optional<DecodedPostings> postings(Contains condition, Map<String, IndexAccessInterface> indexes)
+        throws QueryExecutionException {
+        List<String> terms = condition.terms();
+        // Wildcard and prefix terms such as "app*" have no single posting to probe
+        if (terms.isEmpty() || terms.size() > 3 || terms.stream().anyMatch(term -> term.contains("*"))) {
+            return Optional.empty();
+        }
+        IndexAccessInterface index = indexes.get(
+            terms.size() == 1 ? UNIGRAM_INDEX : (terms.size() == 2 ? BIGRAM_INDEX : TRIGRAM_INDEX));
+        if (index == null) {
+            return Optional.empty();
+        }
+
+        String pattern = constructSearchPatterns(terms).iterator().next();
+        try {
+            Optional<DecodedPostings> postings = index.getDecoded(pattern.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            return Optional.of(postings.orElse(DecodedPostings.empty()));
+        } catch (IndexAccessException e) {
+            throw new QueryExecutionException("Index access error during CONTAINS prefilter", e, condition.toString(), QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR);
+        }
+    }
+
+    @Override
+    public QueryResult execute(Contains condition, Map<String, IndexAccessInterface> indexes,
+                               Query.Granularity granularity,
+                               int granularitySize,
+                               String corpusName,
+                               DocumentIdSet documents)
+        throws QueryExecutionException {
         
         logger.debug("Executing CONTAINS condition with {} terms at {} granularity with size {} (corpus: {})", 
                 condition.terms().size(), granularity, granularitySize, corpusName);
@@ -115,7 +153,7 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
             // Execute search for each pattern and collect MatchDetail results
             for (String pattern : patterns) {
                 List<MatchDetail> patternDetails = executePatternSearch(
-                    pattern, isVariable, variableName, index, granularity, condition);
+                    pattern, isVariable, variableName, index, granularity, condition, documents);
                 
                 if (!patternDetails.isEmpty()) {
                     allDetails.addAll(patternDetails);
@@ -230,11 +268,12 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
      * @param index The index to search in
      * @param granularity The query granularity (for logging)
      * @param condition The condition object (used for ID)
+     * @param documents Documents to restrict the matches to, or null for all documents
      * @return List of MatchDetail objects found for the pattern
      */
     private List<MatchDetail> executePatternSearch(String pattern, boolean isVariable, String variableName,
                                         IndexAccessInterface index, Query.Granularity granularity,
-                                        Contains condition)
+                                        Contains condition, DocumentIdSet documents)
         throws QueryExecutionException, IndexAccessException {
         
         List<MatchDetail> details = new ArrayList<>();
@@ -249,7 +288,7 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
             if (pattern.endsWith("*")) {
                 String prefix = pattern.substring(0, pattern.length() - 1).toLowerCase();
                 logger.debug("Searching for prefix pattern '{}' in index type {}", prefix, index.getIndexType());
-                return executePrefixSearch(prefix, isVariable, variableName, index, condition);
+                return executePrefixSearch(prefix, isVariable, variableName, index, condition, documents);
             } else {
                  logger.warn("Wildcard patterns ('{}') other than suffix ('*') are not implemented yet.", pattern);
                 return details;
@@ -261,7 +300,9 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
                     normalizedPattern, index.getIndexType(), granularity);
         
         byte[] patternBytes = normalizedPattern.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-        Optional<PositionList> positionsOpt = index.get(patternBytes);
+        Optional<PositionList> positionsOpt = documents == null
+            ? index.get(patternBytes)
+            : index.getDecoded(patternBytes).map(postings -> postings.toPositionList(documents));
         
         if (!positionsOpt.isPresent()) {
             logger.debug("Pattern '{}' not found in any documents", normalizedPattern);
@@ -293,7 +334,7 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
     
     // Added method for prefix search to handle suffix wildcard
     private List<MatchDetail> executePrefixSearch(String prefix, boolean isVariable, String variableName,
-                                        IndexAccessInterface index, Contains condition)
+                                        IndexAccessInterface index, Contains condition, DocumentIdSet documents)
         throws QueryExecutionException, IndexAccessException {
             
         List<MatchDetail> details = new ArrayList<>();
@@ -310,7 +351,7 @@ public final class ContainsExecutor implements ConditionExecutor<Contains> {
                     break; // Moved past relevant keys
                 }
                 
-                PositionList positionList = PositionList.deserialize(entry.getValue());
+                PositionList positionList = PositionList.deserialize(entry.getValue(), documents);
                 
                 // Reconstruct the human-readable value (space-separated)
                 String valueString = reconstructValue(key, DELIMITER);
@@ -0,0 +1,150 @@
+package com.example.query.executor;
+
+import com.example.core.DecodedPostings;
+import com.example.query.binding.MatchDetail;
+import com.example.query.model.HistogramColumn;
+import com.example.query.model.Query;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bucket counts of a query result for COUNT BY YEAR (or MONTH, DAY): the number of result
+ * units per bucket of document timestamps.
+ * <p>
+ * Counting reads the timestamp stored with each match, without grouping details into rows
+ * or looking up timestamps in SQLite. When a single posting list answers the query, the
+ * counts come from its decoded columns and no positions or details are created. Otherwise
+ * the condition result is materialized first and memory grows with the number of matches;
+ * only the counting itself is small. Every document has one timestamp, so it is counted
+ * once, in one bucket; a bit set of the document ids seen is all the state needed per
+ * unit. Sentence granularity counts distinct (document, sentence) pairs. Details without
+ * a timestamp do not decide the bucket: a unit is undated only if none of its details has one.
+ *
+ * @param bucket The bucket size
+ * @param counts Unit counts by bucket label, in bucket order with {@link HistogramColumn#UNDATED} last
+ */
+public record DateHistogram(HistogramColumn.Bucket bucket, Map<String, Long> counts) {
+
+    public DateHistogram {
+        counts = Collections.unmodifiableMap(new LinkedHashMap<>(counts));
+    }
+
+    /**
+     * Counts the units of match details per bucket.
+     *
+     * @param details The match details of a query
+     * @param granularity Whether units are documents or sentences
+     * @param bucket The bucket size
+     * @return The histogram
+     */
+    public static DateHistogram of(List<MatchDetail> details, Query.Granularity granularity,
+                                   HistogramColumn.Bucket bucket) {
+        // Units counted in a bucket, and units seen so far only without a timestamp
+        BitSet datedDocuments = new BitSet();
+        BitSet undatedDocuments = new BitSet();
+        Set<Long> datedSentences = new HashSet<>();
+        Set<Long> undatedSentences = new HashSet<>();
+        Map<Long, long[]> byBucket = new HashMap<>();
+        boolean sentences = granularity == Query.Granularity.SENTENCE;
+
+        for (MatchDetail detail : details) {
+            int documentId = detail.getDocumentId();
+            long sentenceKey = ((long) documentId << 32) | (detail.getSentenceId() & 0xffffffffL);
+            LocalDate day = detail.getDocumentDate();
+            if (day == null) {
+                if (sentences) {
+                    undatedSentences.add(sentenceKey);
+                } else {
+                    undatedDocuments.set(documentId);
+                }
+                continue;
+            }
+            boolean first;
+            if (sentences) {
+                first = datedSentences.add(sentenceKey);
+            } else {
+                first = !datedDocuments.get(documentId);
+                datedDocuments.set(documentId);
+            }
+            if (first) {
+                byBucket.computeIfAbsent(bucket.bucketOf(day), b -> new long[1])[0]++;
+            }
+        }
+        long undated;
+        if (sentences) {
+            undatedSentences.removeAll(datedSentences);
+            undated = undatedSentences.size();
+        } else {
+            undatedDocuments.andNot(datedDocuments);
+            undated = undatedDocuments.cardinality();
+        }
+
+        return new DateHistogram(bucket, labelled(bucket, byBucket, undated));
+    }
+
+    /**
+     * Counts the units of a posting list per bucket from its document, sentence and
+     * timestamp columns, without creating positions. Every position is dated.
+     *
+     * @param postings The posting list that answers a query
+     * @param granularity Whether units are documents or sentences
+     * @param bucket The bucket size
+     * @return The histogram
+     */
+    public static DateHistogram of(DecodedPostings postings, Query.Granularity granularity,
+                                   HistogramColumn.Bucket bucket) {
+        BitSet documents = new BitSet();
+        Set<Long> sentences = new HashSet<>();
+        Map<Long, long[]> byBucket = new HashMap<>();
+        boolean sentenceUnits = granularity == Query.Granularity.SENTENCE;
+
+        // Consecutive positions mostly share a day, so the bucket is looked up once per run
+        long lastDay = Long.MIN_VALUE;
+        long[] lastCount = null;
+        for (int i = 0; i < postings.size(); i++) {
+            int documentId = postings.documentId(i);
+            boolean first;
+            if (sentenceUnits) {
+                first = sentences.add(((long) documentId << 32) | (postings.sentenceId(i) & 0xffffffffL));
+            } else {
+                first = !documents.get(documentId);
+                documents.set(documentId);
+            }
+            if (!first) {
+                continue;
+            }
+            long day = postings.epochDay(i);
+            if (lastCount == null || day != lastDay) {
+                lastCount = byBucket.computeIfAbsent(bucket.bucketOf(LocalDate.ofEpochDay(day)), b -> new long[1]);
+                lastDay = day;
+            }
+            lastCount[0]++;
+        }
+        return new DateHistogram(bucket, labelled(bucket, byBucket, 0));
+    }
+
+    private static Map<String, Long> labelled(HistogramColumn.Bucket bucket, Map<Long, long[]> byBucket, long undated) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        new TreeMap<>(byBucket).forEach((b, count) -> counts.put(bucket.label(b), count[0]));
+        if (undated > 0) {
+            counts.put(HistogramColumn.UNDATED, undated);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the number of units over all buckets.
+     */
+    public long total() {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
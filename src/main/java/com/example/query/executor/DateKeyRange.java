@@ -0,0 +1,75 @@
+package com.example.query.executor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import com.example.query.model.TemporalPredicate;
+
+/**
+ * Inclusive range of document dates that satisfy a temporal predicate, expressed in the
+ * {@code yyyyMMdd} keys of the ner_date index. Those keys sort chronologically, so a scan
+ * can seek to {@link #seekKey()} and stop at the first date past {@link #isPastEnd(LocalDate)}.
+ * A null bound means the range is open on that side.
+ */
+record DateKeyRange(LocalDate from, LocalDate to) {
+    static final DateTimeFormatter KEY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * Computes the dates d whose single-day interval [d, d] satisfies the predicate against
+     * the query interval [queryStart, queryEnd]. Document dates compare at start of day.
+     *
+     * @return The range, or empty if the predicate cannot be evaluated against single dates
+     */
+    static Optional<DateKeyRange> of(TemporalPredicate type, LocalDateTime queryStart, LocalDateTime queryEnd) {
+        LocalDate startCeil = ceil(queryStart);
+        LocalDate endFloor = queryEnd.toLocalDate();
+        DateKeyRange range = switch (type) {
+            // Query interval contains the date, or the two overlap
+            case CONTAINS, INTERSECT, EQUAL -> new DateKeyRange(startCeil, endFloor);
+            // The date contains the query interval, so the interval must be that one day
+            case CONTAINED_BY -> new DateKeyRange(ceil(queryEnd), queryStart.toLocalDate());
+            case BEFORE -> new DateKeyRange(null, startCeil.minusDays(1));
+            case BEFORE_EQUAL -> new DateKeyRange(null, endFloor);
+            case AFTER -> new DateKeyRange(endFloor.plusDays(1), null);
+            case AFTER_EQUAL -> new DateKeyRange(startCeil, null);
+            default -> null;
+        };
+        return Optional.ofNullable(range);
+    }
+
+    /**
+     * Smallest date whose start of day is not before the given time.
+     */
+    static LocalDate ceil(LocalDateTime time) {
+        LocalDate date = time.toLocalDate();
+        return time.toLocalTime().equals(LocalTime.MIDNIGHT) ? date : date.plusDays(1);
+    }
+
+    boolean isEmpty() {
+        return from != null && to != null && from.isAfter(to);
+    }
+
+    boolean contains(LocalDate date) {
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    /**
+     * Key to seek to before scanning, or empty to start at the first key.
+     */
+    Optional<byte[]> seekKey() {
+        return from == null ? Optional.empty()
+            : Optional.of(from.format(KEY_FORMATTER).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a date lies after every date of this range. Keys are visited in date order,
+     * so the scan can stop at the first such key.
+     */
+    boolean isPastEnd(LocalDate date) {
+        return to != null && date.isAfter(to);
+    }
+}
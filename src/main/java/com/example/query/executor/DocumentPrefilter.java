@@ -0,0 +1,68 @@
+package com.example.query.executor;
+
+import com.example.core.DecodedPostings;
+import com.example.core.DocumentIdSet;
+import com.example.core.IndexAccessInterface;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Condition;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Optional capability of condition executors that can answer at document level
+ * without decoding positions. LogicalExecutor uses it to intersect document sets
+ * first and to decode positions only for the documents that survive. QueryExecutor
+ * uses it to pick the LIMIT units of a single-condition query from the posting columns.
+ *
+ * @param <T> The specific condition type handled by the executor
+ */
+interface DocumentPrefilter<T extends Condition> {
+
+    /**
+     * Returns the decoded posting list that alone answers the condition: every position
+     * in it is one match. The postings go through the posting cache, so the execution
+     * that follows does not decode them again.
+     *
+     * @param condition The condition to probe
+     * @param indexes Map of index name to IndexAccessInterface
+     * @return The postings (without positions if the key is absent), or empty if the
+     *         condition is not answered by a single posting list
+     * @throws QueryExecutionException if index access fails
+     */
+    Optional<DecodedPostings> postings(T condition, Map<String, IndexAccessInterface> indexes)
+        throws QueryExecutionException;
+
+    /**
+     * Returns the documents that contain at least one match for the condition, from the
+     * decoded postings without creating positions.
+     *
+     * @param condition The condition to probe
+     * @param indexes Map of index name to IndexAccessInterface
+     * @return The matching documents, or empty if this condition cannot be probed cheaply
+     * @throws QueryExecutionException if index access fails
+     */
+    default Optional<DocumentIdSet> matchingDocuments(T condition, Map<String, IndexAccessInterface> indexes)
+        throws QueryExecutionException {
+        return postings(condition, indexes).map(DecodedPostings::documentIds);
+    }
+
+    /**
+     * Executes the condition, materializing matches only for the given documents.
+     *
+     * @param condition The condition to execute
+     * @param indexes Map of index name to IndexAccessInterface
+     * @param granularity Whether to return document or sentence level matches
+     * @param granularitySize Window size for sentence granularity
+     * @param corpusName The name of the corpus being queried
+     * @param documents Documents to restrict the result to
+     * @return QueryResult with matches in the given documents only
+     * @throws QueryExecutionException if execution fails
+     */
+    QueryResult execute(T condition, Map<String, IndexAccessInterface> indexes,
+                        Query.Granularity granularity,
+                        int granularitySize,
+                        String corpusName,
+                        DocumentIdSet documents)
+        throws QueryExecutionException;
+}
@@ -0,0 +1,98 @@
+package com.example.query.executor;
+
+import com.example.core.IndexAccessInterface;
+import com.example.core.PositionList;
+import com.example.index.HypernymIndexGenerator;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Hypernym;
+import org.iq80.leveldb.DBIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Executor for HYPERNYM conditions.
+ * <p>
+ * A category is resolved with one lookup of its roll-up entry in the hypernym index,
+ * which holds the positions of every instance of the category, instead of one CONTAINS
+ * lookup per instance. Binding a variable needs the instance of each match, so it scans
+ * the category's {@code category\0instance} entries instead; so do indexes built before
+ * roll-up entries existed.
+ */
+public final class HypernymExecutor implements ConditionExecutor<Hypernym> {
+    private static final Logger logger = LoggerFactory.getLogger(HypernymExecutor.class);
+    private static final String HYPERNYM_INDEX_NAME = "hypernym";
+
+    public HypernymExecutor() {}
+
+    @Override
+    public QueryResult execute(Hypernym condition, Map<String, IndexAccessInterface> indexes,
+                               Query.Granularity granularity,
+                               int granularitySize,
+                               String corpusName)
+        throws QueryExecutionException {
+
+        logger.debug("Executing HYPERNYM condition: {} (corpus: {})", condition, corpusName);
+
+        IndexAccessInterface hypernymIndex = indexes.get(HYPERNYM_INDEX_NAME);
+        if (hypernymIndex == null) {
+            throw new QueryExecutionException(
+                "Hypernym index ('" + HYPERNYM_INDEX_NAME + "') not found.",
+                condition.toString(),
+                QueryExecutionException.ErrorType.MISSING_INDEX);
+        }
+
+        String category = condition.category().trim().toLowerCase();
+        String conditionId = String.valueOf(condition.hashCode());
+        List<MatchDetail> details = new ArrayList<>();
+
+        try {
+            if (!condition.isVariable()) {
+                byte[] key = HypernymIndexGenerator.categoryKey(category).getBytes(StandardCharsets.UTF_8);
+                Optional<PositionList> positions = hypernymIndex.get(key);
+                if (positions.isPresent()) {
+                    positions.get().getPositions().forEach(pos ->
+                        details.add(new MatchDetail(category, ValueType.TERM, pos, conditionId, null)));
+                    return new QueryResult(granularity, granularitySize, details);
+                }
+            }
+            scanInstances(hypernymIndex, category, condition.variableName(), conditionId, details);
+        } catch (Exception e) {
+            throw new QueryExecutionException(
+                "Error accessing hypernym index: " + e.getMessage(),
+                e,
+                condition.toString(),
+                QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR);
+        }
+
+        return new QueryResult(granularity, granularitySize, details);
+    }
+
+    /**
+     * Adds the matches of every {@code category\0instance} entry, with the instance as value.
+     */
+    private void scanInstances(IndexAccessInterface index, String category, String variableName,
+                               String conditionId, List<MatchDetail> details) throws Exception {
+        String prefix = category + IndexAccessInterface.DELIMITER;
+        try (DBIterator iterator = index.iterator()) {
+            iterator.seek(prefix.getBytes(StandardCharsets.UTF_8));
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                String key = new String(entry.getKey(), StandardCharsets.UTF_8);
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                String instance = key.substring(prefix.length());
+                PositionList.deserialize(entry.getValue()).getPositions().forEach(pos ->
+                    details.add(new MatchDetail(instance, ValueType.TERM, pos, conditionId, variableName)));
+            }
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.example.query.executor;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -17,6 +21,11 @@ import tech.tablesaw.api.Table;
 import tech.tablesaw.columns.Column;
 import tech.tablesaw.selection.Selection;
 
+import com.example.query.executor.strategies.HashDateJoinStrategy;
+import com.example.query.executor.strategies.NaiveContainsJoinStrategy;
+import com.example.query.executor.strategies.NaiveProximityJoinStrategy;
+import com.example.query.executor.strategies.SortMergeDateJoinStrategy;
+import com.example.query.executor.strategies.SweepLineJoinStrategy;
 import com.example.query.model.JoinCondition;
 import com.example.query.model.TemporalPredicate;
 import com.example.query.result.ResultGenerationException;
@@ -34,6 +43,27 @@ public class JoinExecutor {
     // Currently selected strategy for each predicate
     private final Map<TemporalPredicate, String> activeStrategies = new HashMap<>();
     
+    // Chooses a strategy per join from the input shape; null to always use the active strategy
+    private JoinStrategySelector selector;
+    
+    // Most recent join runs, oldest first, for tuning the selector thresholds
+    private final Deque<JoinRun> recordedRuns = new ArrayDeque<>();
+    
+    static final int MAX_RECORDED_RUNS = 1000;
+    
+    /**
+     * Timing of one strategy execution.
+     * 
+     * @param predicate The join predicate
+     * @param strategy The name of the strategy that ran
+     * @param profile The shape of the join inputs
+     * @param nanos The execution time in nanoseconds
+     * @param outputRows The number of joined rows
+     * @param selected Whether the selector chose the strategy (false for active strategies and benchmarks)
+     */
+    public record JoinRun(TemporalPredicate predicate, String strategy, JoinStrategySelector.InputProfile profile,
+                          long nanos, int outputRows, boolean selected) {}
+    
     /**
      * Creates a JoinExecutor without any registered strategies.
      * Strategies must be registered before joins can be executed.
@@ -42,6 +72,68 @@ public class JoinExecutor {
         // Empty constructor - strategies must be registered separately
     }
     
+    /**
+     * Creates a JoinExecutor with the built-in strategies registered and adaptive
+     * strategy selection enabled. Every interval predicate gets the hash, sort-merge and
+     * sweep-line strategies; CONTAINS and PROXIMITY also keep their naive strategy for
+     * tiny inputs. The sweep-line strategies are active when selection is turned off.
+     * 
+     * @return A new JoinExecutor instance
+     */
+    public static JoinExecutor withDefaultStrategies() {
+        JoinExecutor executor = new JoinExecutor();
+        executor.registerStrategy(TemporalPredicate.CONTAINS, JoinStrategySelector.NAIVE,
+                new NaiveContainsJoinStrategy(), false);
+        executor.registerStrategy(TemporalPredicate.PROXIMITY, JoinStrategySelector.NAIVE,
+                new NaiveProximityJoinStrategy(), false);
+        for (TemporalPredicate predicate : new TemporalPredicate[] {
+                TemporalPredicate.CONTAINS, TemporalPredicate.CONTAINED_BY,
+                TemporalPredicate.INTERSECT, TemporalPredicate.PROXIMITY}) {
+            executor.registerStrategy(predicate, JoinStrategySelector.HASH, new HashDateJoinStrategy(predicate), false);
+            executor.registerStrategy(predicate, JoinStrategySelector.SORT_MERGE,
+                    new SortMergeDateJoinStrategy(predicate), false);
+            executor.registerStrategy(predicate, JoinStrategySelector.SWEEP, new SweepLineJoinStrategy(predicate), true);
+        }
+        return executor.setStrategySelector(new JoinStrategySelector());
+    }
+    
+    /**
+     * Enables adaptive strategy selection. Each join then runs the strategy the selector
+     * picks for its inputs instead of the active strategy of the predicate.
+     * 
+     * @param selector The selector, or null to always use the active strategy
+     * @return This JoinExecutor instance for method chaining
+     */
+    public JoinExecutor setStrategySelector(JoinStrategySelector selector) {
+        this.selector = selector;
+        return this;
+    }
+    
+    /**
+     * Gets the adaptive strategy selector.
+     * 
+     * @return The selector, or empty if joins use the active strategies
+     */
+    public Optional<JoinStrategySelector> getStrategySelector() {
+        return Optional.ofNullable(selector);
+    }
+    
+    /**
+     * Gets the most recent join and benchmark runs, oldest first.
+     * 
+     * @return A copy of the recorded runs
+     */
+    public synchronized List<JoinRun> getRecordedRuns() {
+        return new ArrayList<>(recordedRuns);
+    }
+    
+    private synchronized void record(JoinRun run) {
+        if (recordedRuns.size() == MAX_RECORDED_RUNS) {
+            recordedRuns.removeFirst();
+        }
+        recordedRuns.addLast(run);
+    }
+    
     /**
      * Registers a join strategy for a specific temporal predicate with the default name and sets it as active.
      * This is a convenience method for simple cases where only one implementation per predicate is needed.
@@ -173,15 +265,38 @@ public class JoinExecutor {
             throws ResultGenerationException {
         
         TemporalPredicate predicate = joinCondition.temporalPredicate();
-        TemporalJoinStrategy strategy = getActiveStrategy(predicate, joinCondition);
+        Optional<JoinStrategySelector.InputProfile> profile =
+                JoinStrategySelector.InputProfile.of(leftTable, rightTable, joinCondition);
+        
+        // Invalid inputs go to the active strategy, which reports the error
+        Optional<String> selected = selector == null || profile.isEmpty()
+                ? Optional.empty()
+                : selector.select(profile.get(), getStrategyNames(predicate));
+        
+        String strategyName;
+        TemporalJoinStrategy strategy;
+        if (selected.isPresent()) {
+            strategyName = selected.get();
+            strategy = getStrategy(predicate, strategyName);
+        } else {
+            strategy = getActiveStrategy(predicate, joinCondition);
+            strategyName = getActiveStrategy(predicate);
+        }
         
         logger.debug("Executing {} join with temporal predicate {} between {}.{} and {}.{} using strategy {}",
                 joinCondition.type(), predicate, 
                 leftTable.name(), joinCondition.leftColumn(), 
                 rightTable.name(), joinCondition.rightColumn(),
-                getActiveStrategy(predicate));
+                strategyName);
+        
+        long startTime = System.nanoTime();
+        Table result = strategy.execute(leftTable, rightTable, joinCondition);
+        long nanos = System.nanoTime() - startTime;
+        
+        profile.ifPresent(p -> record(new JoinRun(
+                predicate, strategyName, p, nanos, result.rowCount(), selected.isPresent())));
         
-        return strategy.execute(leftTable, rightTable, joinCondition);
+        return result;
     }
     
     /**
@@ -196,6 +311,27 @@ public class JoinExecutor {
     public Map<String, Long> benchmark(
             Table leftTable, Table rightTable, JoinCondition joinCondition) 
             throws ResultGenerationException {
+        return benchmark(leftTable, rightTable, joinCondition, 1);
+    }
+    
+    /**
+     * Benchmarks all registered strategies for a join operation, reporting the fastest
+     * of several timed runs per strategy. The strategies must agree on the number of
+     * joined rows, otherwise the comparison is meaningless and an exception is thrown.
+     * The fastest run of each strategy is recorded with the input profile, so selector
+     * thresholds can be tuned from {@link #getRecordedRuns()}.
+     * 
+     * @param leftTable The left table
+     * @param rightTable The right table
+     * @param joinCondition The join condition
+     * @param runs The number of timed runs per strategy
+     * @return A map of strategy names to execution times in milliseconds
+     * @throws ResultGenerationException if any strategy execution fails or the strategies
+     *         produce different row counts
+     */
+    public Map<String, Long> benchmark(
+            Table leftTable, Table rightTable, JoinCondition joinCondition, int runs) 
+            throws ResultGenerationException {
         
         TemporalPredicate predicate = joinCondition.temporalPredicate();
         Map<String, TemporalJoinStrategy> impls = strategies.getOrDefault(predicate, Map.of());
@@ -206,24 +342,46 @@ public class JoinExecutor {
             return results;
         }
         
+        String referenceName = null;
+        int referenceRows = -1;
+        Optional<JoinStrategySelector.InputProfile> profile =
+                JoinStrategySelector.InputProfile.of(leftTable, rightTable, joinCondition);
+        
         for (Map.Entry<String, TemporalJoinStrategy> entry : impls.entrySet()) {
             String name = entry.getKey();
             TemporalJoinStrategy strategy = entry.getValue();
             
             logger.info("Benchmarking strategy {} for predicate {}", name, predicate);
             
-            // Warm-up run (ignore results)
-            strategy.execute(leftTable, rightTable, joinCondition);
+            // Warm-up run, also used to compare the result sizes
+            int rows = strategy.execute(leftTable, rightTable, joinCondition).rowCount();
+            if (referenceName == null) {
+                referenceName = name;
+                referenceRows = rows;
+            } else if (rows != referenceRows) {
+                throw new ResultGenerationException(
+                    String.format("Strategy '%s' returned %d rows but '%s' returned %d for predicate %s",
+                        name, rows, referenceName, referenceRows, predicate),
+                    "join_executor",
+                    ResultGenerationException.ErrorType.INTERNAL_ERROR
+                );
+            }
             
-            // Timed run
-            long startTime = System.nanoTime();
-            strategy.execute(leftTable, rightTable, joinCondition);
-            long endTime = System.nanoTime();
+            // Timed runs
+            long bestNanos = Long.MAX_VALUE;
+            for (int run = 0; run < Math.max(1, runs); run++) {
+                long startTime = System.nanoTime();
+                strategy.execute(leftTable, rightTable, joinCondition);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - startTime);
+            }
+            if (profile.isPresent()) {
+                record(new JoinRun(predicate, name, profile.get(), bestNanos, rows, false));
+            }
             
-            long executionTimeMs = (endTime - startTime) / 1_000_000; // Convert to ms
+            long executionTimeMs = bestNanos / 1_000_000; // Convert to ms
             results.put(name, executionTimeMs);
             
-            logger.info("Strategy {} completed in {} ms", name, executionTimeMs);
+            logger.info("Strategy {} completed in {} ms ({} rows)", name, executionTimeMs, rows);
         }
         
         return results;
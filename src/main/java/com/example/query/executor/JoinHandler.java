@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,9 @@ import java.util.stream.Collectors;
 public class JoinHandler {
     private static final Logger logger = LoggerFactory.getLogger(JoinHandler.class);
 
+    /** Below this many candidate pairs, building a hash table or sorting costs more than it saves. */
+    private static final long NESTED_LOOP_MAX_PAIRS = 4096;
+
     /**
      * Creates a new JoinHandler.
      * Constructor might become empty or take different dependencies later
@@ -101,82 +105,7 @@ public class JoinHandler {
             logger.debug("Performing INNER JOIN with predicate {} on keys: {}.{} {} {}.{}",
                          predicate, leftAlias, leftKey, predicate, rightAlias, rightKey);
 
-            for (MatchDetail left : leftDetails) {
-                for (MatchDetail right : rightDetails) {
-                    Object leftVal = extractValueForKey(left, leftKey);
-                    Object rightVal = extractValueForKey(right, rightKey);
-                    ValueType leftType = extractTypeForKey(left, leftKey); 
-                    ValueType rightType = extractTypeForKey(right, rightKey); 
-
-                    boolean match = false;
-                    // Special handling for structural keys first
-                    if (Objects.equals(leftKey, "document_id") && Objects.equals(rightKey, "document_id")) {
-                         if (Objects.equals(leftVal, rightVal)) { match = true; }
-                    } else if (Objects.equals(leftKey, "sentence_id") && Objects.equals(rightKey, "sentence_id")) {
-                         if (leftVal != null && rightVal != null && Objects.equals(leftVal, rightVal)) { match = true; }
-                    }
-                    // Handle temporal predicates based on extracted keys
-                    else if (leftType == ValueType.DATE && rightType == ValueType.DATE && 
-                             leftVal instanceof LocalDate && rightVal instanceof LocalDate) {
-                        LocalDate leftDate = (LocalDate) leftVal;
-                        LocalDate rightDate = (LocalDate) rightVal;
-                        
-                        switch (predicate) {
-                            case EQUAL:
-                                match = leftDate.isEqual(rightDate);
-                                break;
-                            case INTERSECT: 
-                                // For single dates, INTERSECT is the same as EQUAL
-                                match = leftDate.isEqual(rightDate);
-                                break;
-                            case CONTAINS: // Does leftDate contain rightDate? (Only true if equal)
-                                match = leftDate.isEqual(rightDate);
-                                break;
-                            case CONTAINED_BY: // Is leftDate contained by rightDate? (Only true if equal)
-                                match = leftDate.isEqual(rightDate);
-                                break;
-                             case BEFORE:
-                                match = leftDate.isBefore(rightDate);
-                                break;
-                             case AFTER:
-                                match = leftDate.isAfter(rightDate);
-                                break;
-                             case BEFORE_EQUAL:
-                                match = !leftDate.isAfter(rightDate);
-                                break;
-                             case AFTER_EQUAL:
-                                match = !leftDate.isBefore(rightDate);
-                                break;
-                            case PROXIMITY:
-                                if (proximityWindow.isPresent()) {
-                                    long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(leftDate, rightDate);
-                                    match = Math.abs(daysBetween) <= proximityWindow.get();
-                                } else {
-                                    logger.warn("PROXIMITY predicate used without window size.");
-                                }
-                                break;
-                        }
-                    } 
-                    // Handle other value types if necessary (only EQUAL currently supported implicitly)
-                    else if (leftType == rightType && predicate == TemporalPredicate.EQUAL) {
-                        if (Objects.equals(leftVal, rightVal)) {
-                           match = true;
-                        }
-                    } else {
-                        // Types are different or predicate not supported for these types
-                        logger.trace("Skipping join comparison for predicate {} between keys/types: '{}' ({}) vs '{}' ({})", 
-                                     predicate, leftKey, leftType, rightKey, rightType);
-                    }
-
-                    if (match) {
-                        // Create a new MatchDetail containing info from both sides
-                        MatchDetail joinedDetail = new MatchDetail(left, right); 
-                        joinedDetails.add(joinedDetail);
-                        
-                        // REMOVED: break; // Allow multiple matches per left detail (standard INNER JOIN)
-                    }
-                }
-            }
+            joinedDetails = innerJoin(leftDetails, rightDetails, leftKey, rightKey, predicate, proximityWindow);
         } else {
              logger.warn("Join type {} not yet implemented. Returning empty result.", joinType);
         }
@@ -187,6 +116,241 @@ public class JoinHandler {
         return new QueryResult(resultGranularity, granularitySize, joinedDetails);
     }
 
+    /**
+     * Joins two detail lists, picking the algorithm from the input sizes and the predicate:
+     * small inputs use nested loops, equality-style predicates a hash join built on the
+     * smaller side, and ordered date predicates a sort-merge join. All three produce the
+     * same pairs in the same (left-major) order.
+     */
+    private List<MatchDetail> innerJoin(List<MatchDetail> leftDetails, List<MatchDetail> rightDetails,
+                                        String leftKey, String rightKey,
+                                        TemporalPredicate predicate, Optional<Integer> proximityWindow) {
+        JoinSide left = new JoinSide(leftDetails, leftKey);
+        JoinSide right = new JoinSide(rightDetails, rightKey);
+        JoinMode mode = JoinMode.of(leftKey, rightKey, predicate);
+
+        long pairs = (long) leftDetails.size() * rightDetails.size();
+        List<MatchDetail> joined;
+        if (pairs <= NESTED_LOOP_MAX_PAIRS) {
+            logger.debug("Using nested loop join for {} candidate pairs", pairs);
+            joined = nestedLoopJoin(left, right, mode, predicate, proximityWindow);
+        } else if (mode != JoinMode.DATE_RANGE) {
+            logger.debug("Using hash join ({} x {} details, mode {})", leftDetails.size(), rightDetails.size(), mode);
+            joined = hashJoin(left, right, mode, predicate);
+        } else {
+            logger.debug("Using sort-merge join ({} x {} details, predicate {})", leftDetails.size(), rightDetails.size(), predicate);
+            joined = sortMergeJoin(left, right, predicate, proximityWindow);
+        }
+        return joined;
+    }
+
+    private List<MatchDetail> nestedLoopJoin(JoinSide left, JoinSide right, JoinMode mode,
+                                             TemporalPredicate predicate, Optional<Integer> proximityWindow) {
+        List<MatchDetail> joined = new ArrayList<>();
+        for (int i = 0; i < left.size(); i++) {
+            for (int j = 0; j < right.size(); j++) {
+                if (matches(left, i, right, j, mode, predicate, proximityWindow)) {
+                    joined.add(new MatchDetail(left.details.get(i), right.details.get(j)));
+                }
+            }
+        }
+        return joined;
+    }
+
+    /**
+     * Pair predicate of the join. Structural keys (document_id, sentence_id on both sides)
+     * compare by equality regardless of the predicate; dates are compared with the temporal
+     * predicate; any other values only join on EQUAL with matching types.
+     */
+    private boolean matches(JoinSide left, int i, JoinSide right, int j, JoinMode mode,
+                            TemporalPredicate predicate, Optional<Integer> proximityWindow) {
+        Object leftVal = left.values[i];
+        Object rightVal = right.values[j];
+        switch (mode) {
+            case DOCUMENT:
+                return Objects.equals(leftVal, rightVal);
+            case SENTENCE:
+                return leftVal != null && rightVal != null && Objects.equals(leftVal, rightVal);
+            default:
+                break;
+        }
+        if (left.isDate(i) && right.isDate(j)) {
+            LocalDate leftDate = (LocalDate) leftVal;
+            LocalDate rightDate = (LocalDate) rightVal;
+            switch (predicate) {
+                // For single dates, INTERSECT, CONTAINS and CONTAINED_BY are the same as EQUAL
+                case EQUAL, INTERSECT, CONTAINS, CONTAINED_BY:
+                    return leftDate.isEqual(rightDate);
+                case BEFORE:
+                    return leftDate.isBefore(rightDate);
+                case AFTER:
+                    return leftDate.isAfter(rightDate);
+                case BEFORE_EQUAL:
+                    return !leftDate.isAfter(rightDate);
+                case AFTER_EQUAL:
+                    return !leftDate.isBefore(rightDate);
+                case PROXIMITY:
+                    if (proximityWindow.isPresent()) {
+                        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(leftDate, rightDate);
+                        return Math.abs(daysBetween) <= proximityWindow.get();
+                    }
+                    logger.warn("PROXIMITY predicate used without window size.");
+                    return false;
+                default:
+                    return false;
+            }
+        }
+        // Handle other value types if necessary (only EQUAL currently supported implicitly)
+        if (left.types[i] == right.types[j] && predicate == TemporalPredicate.EQUAL) {
+            return Objects.equals(leftVal, rightVal);
+        }
+        logger.trace("Skipping join comparison for predicate {} between types {} and {}",
+                     predicate, left.types[i], right.types[j]);
+        return false;
+    }
+
+    /**
+     * Hash join for equality-style predicates. The smaller side is hashed on its join key and
+     * the larger side probes it, so memory follows the smaller input.
+     */
+    private List<MatchDetail> hashJoin(JoinSide left, JoinSide right, JoinMode mode, TemporalPredicate predicate) {
+        boolean buildLeft = left.size() < right.size();
+        JoinSide build = buildLeft ? left : right;
+        JoinSide probe = buildLeft ? right : left;
+
+        Map<Object, List<Integer>> table = new HashMap<>();
+        for (int i = 0; i < build.size(); i++) {
+            Object key = hashKey(build, i, mode, predicate);
+            if (key != NO_MATCH) {
+                table.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        PairCollector pairs = new PairCollector();
+        for (int p = 0; p < probe.size(); p++) {
+            Object key = hashKey(probe, p, mode, predicate);
+            if (key == NO_MATCH) {
+                continue;
+            }
+            List<Integer> bucket = table.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            for (int b : bucket) {
+                if (buildLeft) {
+                    pairs.add(b, p);
+                } else {
+                    pairs.add(p, b);
+                }
+            }
+        }
+        return pairs.toDetails(left, right, buildLeft);
+    }
+
+    /**
+     * Key under which a detail joins in {@link #hashJoin}, or {@link #NO_MATCH} if it cannot
+     * match anything. Mirrors {@link #matches} for the equality-style modes.
+     */
+    private Object hashKey(JoinSide side, int i, JoinMode mode, TemporalPredicate predicate) {
+        Object value = side.values[i];
+        return switch (mode) {
+            case DOCUMENT -> value;
+            case SENTENCE -> value != null ? value : NO_MATCH;
+            case DATE_EQUALITY -> side.isDate(i) ? value : NO_MATCH;
+            case TYPED_EQUALITY -> side.isDate(i) ? value : new TypedValue(side.types[i], value);
+            case DATE_RANGE -> throw new IllegalStateException("Range predicate " + predicate + " has no hash key");
+        };
+    }
+
+    /**
+     * Sort-merge join for ordered date predicates. The smaller side is sorted by epoch day;
+     * for every detail of the other side the matching dates form one contiguous run, found
+     * by binary search.
+     */
+    private List<MatchDetail> sortMergeJoin(JoinSide left, JoinSide right, TemporalPredicate predicate,
+                                            Optional<Integer> proximityWindow) {
+        if (predicate == TemporalPredicate.PROXIMITY && proximityWindow.isEmpty()) {
+            logger.warn("PROXIMITY predicate used without window size.");
+            return new ArrayList<>();
+        }
+        boolean sortLeft = left.size() < right.size();
+        JoinSide sorted = sortLeft ? left : right;
+        JoinSide probe = sortLeft ? right : left;
+
+        int count = 0;
+        int[] order = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.isDate(i)) {
+                order[count++] = i;
+            }
+        }
+        long[] days = new long[count];
+        int[] indices = Arrays.stream(order, 0, count)
+            .boxed()
+            .sorted((a, b) -> Long.compare(sorted.epochDay(a), sorted.epochDay(b)))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        for (int k = 0; k < count; k++) {
+            days[k] = sorted.epochDay(indices[k]);
+        }
+
+        // Express the predicate as "sorted-side day lies in [from, to]" relative to the probe day
+        TemporalPredicate relative = sortLeft ? mirror(predicate) : predicate;
+        PairCollector pairs = new PairCollector();
+        for (int p = 0; p < probe.size(); p++) {
+            if (!probe.isDate(p)) {
+                continue;
+            }
+            long day = probe.epochDay(p);
+            long from;
+            long to;
+            switch (relative) {
+                case BEFORE -> { from = day + 1; to = Long.MAX_VALUE; }          // probe < other
+                case BEFORE_EQUAL -> { from = day; to = Long.MAX_VALUE; }        // probe <= other
+                case AFTER -> { from = Long.MIN_VALUE; to = day - 1; }           // probe > other
+                case AFTER_EQUAL -> { from = Long.MIN_VALUE; to = day; }         // probe >= other
+                case PROXIMITY -> { from = day - proximityWindow.get(); to = day + proximityWindow.get(); }
+                default -> throw new IllegalStateException("Unexpected range predicate: " + relative);
+            }
+            for (int k = lowerBound(days, from); k < count && days[k] <= to; k++) {
+                if (sortLeft) {
+                    pairs.add(indices[k], p);
+                } else {
+                    pairs.add(p, indices[k]);
+                }
+            }
+        }
+        // Runs come out in date order; restore the nested loop's left-major order
+        return pairs.toDetails(left, right, true);
+    }
+
+    /**
+     * Swaps the operands of an ordered predicate: "a BEFORE b" holds iff "b AFTER a".
+     */
+    private static TemporalPredicate mirror(TemporalPredicate predicate) {
+        return switch (predicate) {
+            case BEFORE -> TemporalPredicate.AFTER;
+            case AFTER -> TemporalPredicate.BEFORE;
+            case BEFORE_EQUAL -> TemporalPredicate.AFTER_EQUAL;
+            case AFTER_EQUAL -> TemporalPredicate.BEFORE_EQUAL;
+            default -> predicate;
+        };
+    }
+
+    private static int lowerBound(long[] sortedDays, long target) {
+        int low = 0;
+        int high = sortedDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedDays[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     /**
      * Extracts the alias part from a column name in the format "alias.key".
      *
@@ -299,4 +463,100 @@ public class JoinHandler {
             default -> null; // Return null for any standard keys passed here
         };
     }
-} 
\ No newline at end of file
+
+    /**
+     * How the join keys are compared, derived from the key names and the predicate.
+     */
+    private enum JoinMode {
+        /** document_id on both sides, equality regardless of predicate */
+        DOCUMENT,
+        /** sentence_id on both sides, equality of known sentence ids */
+        SENTENCE,
+        /** INTERSECT, CONTAINS, CONTAINED_BY: only dates join, on equal days */
+        DATE_EQUALITY,
+        /** EQUAL: dates on equal days, other values on equal type and value */
+        TYPED_EQUALITY,
+        /** BEFORE, AFTER, BEFORE_EQUAL, AFTER_EQUAL, PROXIMITY: ordered date comparison */
+        DATE_RANGE;
+
+        static JoinMode of(String leftKey, String rightKey, TemporalPredicate predicate) {
+            if (Objects.equals(leftKey, "document_id") && Objects.equals(rightKey, "document_id")) {
+                return DOCUMENT;
+            }
+            if (Objects.equals(leftKey, "sentence_id") && Objects.equals(rightKey, "sentence_id")) {
+                return SENTENCE;
+            }
+            return switch (predicate) {
+                case EQUAL -> TYPED_EQUALITY;
+                case INTERSECT, CONTAINS, CONTAINED_BY -> DATE_EQUALITY;
+                default -> DATE_RANGE;
+            };
+        }
+    }
+
+    /** Marks details that cannot take part in a hash join. */
+    private static final Object NO_MATCH = new Object();
+
+    /** Hash key for non-date values, which only join when their types agree. */
+    private record TypedValue(ValueType type, Object value) {}
+
+    /**
+     * Join key values and types of one input, extracted once per detail.
+     */
+    private final class JoinSide {
+        final List<MatchDetail> details;
+        final Object[] values;
+        final ValueType[] types;
+
+        JoinSide(List<MatchDetail> details, String key) {
+            this.details = details;
+            this.values = new Object[details.size()];
+            this.types = new ValueType[details.size()];
+            for (int i = 0; i < details.size(); i++) {
+                values[i] = extractValueForKey(details.get(i), key);
+                types[i] = extractTypeForKey(details.get(i), key);
+            }
+        }
+
+        int size() {
+            return details.size();
+        }
+
+        boolean isDate(int i) {
+            return types[i] == ValueType.DATE && values[i] instanceof LocalDate;
+        }
+
+        long epochDay(int i) {
+            return ((LocalDate) values[i]).toEpochDay();
+        }
+    }
+
+    /**
+     * Collects (left index, right index) pairs and emits the joined details in the order
+     * of the nested loop join.
+     */
+    private static final class PairCollector {
+        private long[] pairs = new long[16];
+        private int size = 0;
+
+        void add(int leftIndex, int rightIndex) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            pairs[size++] = ((long) leftIndex << 32) | (rightIndex & 0xFFFFFFFFL);
+        }
+
+        List<MatchDetail> toDetails(JoinSide left, JoinSide right, boolean needsSort) {
+            if (needsSort) {
+                Arrays.sort(pairs, 0, size);
+            }
+            List<MatchDetail> joined = new ArrayList<>(size);
+            for (int k = 0; k < size; k++) {
+                int leftIndex = (int) (pairs[k] >>> 32);
+                int rightIndex = (int) pairs[k];
+                joined.add(new MatchDetail(left.details.get(leftIndex), right.details.get(rightIndex)));
+            }
+            return joined;
+        }
+    }
+}
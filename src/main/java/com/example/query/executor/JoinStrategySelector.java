@@ -0,0 +1,174 @@
+package com.example.query.executor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import tech.tablesaw.api.DateColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+import com.example.query.model.JoinCondition;
+import com.example.query.model.TemporalPredicate;
+
+/**
+ * Chooses a join strategy from the shape of the join inputs.
+ *
+ * The choice depends on the number of candidate pairs, whether both inputs are already
+ * sorted by date, the proximity window, and the density of the inputs (rows per day of
+ * the combined time span):
+ * <ul>
+ *   <li>Inputs with few candidate pairs use the naive nested loop, which has no setup cost.</li>
+ *   <li>Inputs that are both sorted use sort-merge, which then skips its sort.</li>
+ *   <li>Equality-like predicates and narrow windows use the hash join. So do wide windows
+ *       over dense inputs, where most probed days have rows.</li>
+ *   <li>All remaining inputs, i.e. wide windows over sparse data, use the sweep line.</li>
+ * </ul>
+ * Above the naive limit the naive strategy is never chosen while any other strategy is
+ * registered. The thresholds can be tuned from the runs recorded by {@link JoinExecutor}.
+ */
+public class JoinStrategySelector {
+    public static final String NAIVE = "naive";
+    public static final String HASH = "hash";
+    public static final String SORT_MERGE = "sort-merge";
+    public static final String SWEEP = "sweep";
+
+    // Preference order when the chosen strategy is not registered for a predicate
+    private static final List<String> FALLBACK_ORDER = List.of(SWEEP, SORT_MERGE, HASH);
+
+    /**
+     * Tunable limits of the selection rules.
+     *
+     * @param naiveMaxPairs Largest left x right row product joined with the naive strategy
+     * @param hashMaxProbeDays Largest number of days (2 * window + 1) a hash probe may look up
+     *                         on sparse inputs
+     * @param hashMinDensity Rows per day from which the hash join is used for any window
+     */
+    public record Thresholds(long naiveMaxPairs, int hashMaxProbeDays, double hashMinDensity) {
+        public static final Thresholds DEFAULT = new Thresholds(4096, 15, 1.0);
+    }
+
+    /**
+     * Shape of the inputs of one join.
+     *
+     * @param leftRows Rows of the left table
+     * @param rightRows Rows of the right table
+     * @param spanDays Days between the earliest and the latest date of both join columns
+     * @param leftSorted Whether the left join column is in ascending date order
+     * @param rightSorted Whether the right join column is in ascending date order
+     * @param window The proximity window in days, 0 for other predicates
+     */
+    public record InputProfile(int leftRows, int rightRows, long spanDays,
+                               boolean leftSorted, boolean rightSorted, int window) {
+
+        public long candidatePairs() {
+            return (long) leftRows * rightRows;
+        }
+
+        /**
+         * Average number of rows per day of the combined span.
+         */
+        public double density() {
+            return (double) (leftRows + rightRows) / (spanDays + 1);
+        }
+
+        /**
+         * Profiles the join columns of two tables in a single pass over each.
+         *
+         * @return The profile, or empty if a join column is missing or not a date column
+         */
+        public static Optional<InputProfile> of(Table leftTable, Table rightTable, JoinCondition joinCondition) {
+            Optional<DateColumn> left = dateColumn(leftTable, joinCondition.leftColumn());
+            Optional<DateColumn> right = dateColumn(rightTable, joinCondition.rightColumn());
+            if (left.isEmpty() || right.isEmpty()) {
+                return Optional.empty();
+            }
+            long[] leftStats = scan(left.get());
+            long[] rightStats = scan(right.get());
+            long min = Math.min(leftStats[0], rightStats[0]);
+            long max = Math.max(leftStats[1], rightStats[1]);
+            long span = max >= min ? max - min : 0;
+            int window = joinCondition.temporalPredicate() == TemporalPredicate.PROXIMITY
+                    ? joinCondition.proximityWindow().orElse(0) : 0;
+            return Optional.of(new InputProfile(leftTable.rowCount(), rightTable.rowCount(), span,
+                    leftStats[2] == 1, rightStats[2] == 1, window));
+        }
+
+        private static Optional<DateColumn> dateColumn(Table table, String name) {
+            if (!table.columnNames().contains(name)) {
+                return Optional.empty();
+            }
+            Column<?> column = table.column(name);
+            return column instanceof DateColumn dates ? Optional.of(dates) : Optional.empty();
+        }
+
+        /**
+         * Returns {min epoch day, max epoch day, 1 if sorted else 0}, ignoring missing values.
+         */
+        private static long[] scan(DateColumn column) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long previous = Long.MIN_VALUE;
+            boolean sorted = true;
+            for (int i = 0; i < column.size(); i++) {
+                if (column.isMissing(i)) {
+                    continue;
+                }
+                long day = column.get(i).toEpochDay();
+                sorted &= day >= previous;
+                previous = day;
+                min = Math.min(min, day);
+                max = Math.max(max, day);
+            }
+            return new long[] {min, max, sorted ? 1 : 0};
+        }
+    }
+
+    private final Thresholds thresholds;
+
+    public JoinStrategySelector() {
+        this(Thresholds.DEFAULT);
+    }
+
+    public JoinStrategySelector(Thresholds thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    public Thresholds getThresholds() {
+        return thresholds;
+    }
+
+    /**
+     * Picks the strategy for a join.
+     *
+     * @param profile The shape of the join inputs
+     * @param registered Names of the strategies registered for the join predicate
+     * @return The strategy name, or empty if none of the known strategies is registered
+     */
+    public Optional<String> select(InputProfile profile, Set<String> registered) {
+        String preferred = preferred(profile);
+        if (registered.contains(preferred)) {
+            return Optional.of(preferred);
+        }
+        for (String name : FALLBACK_ORDER) {
+            if (registered.contains(name)) {
+                return Optional.of(name);
+            }
+        }
+        return registered.contains(NAIVE) ? Optional.of(NAIVE) : Optional.empty();
+    }
+
+    private String preferred(InputProfile profile) {
+        if (profile.candidatePairs() <= thresholds.naiveMaxPairs()) {
+            return NAIVE;
+        }
+        if (profile.leftSorted() && profile.rightSorted()) {
+            return SORT_MERGE;
+        }
+        long probeDays = 2L * profile.window() + 1;
+        if (probeDays <= thresholds.hashMaxProbeDays() || profile.density() >= thresholds.hashMinDensity()) {
+            return HASH;
+        }
+        return SWEEP;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.query.executor;
 
+import com.example.core.DocumentIdSet;
 import com.example.core.IndexAccessInterface;
 import com.example.query.model.condition.Condition;
 import com.example.query.model.condition.Logical;
@@ -78,7 +79,13 @@ public final class LogicalExecutor implements ConditionExecutor<Logical> {
     
     /**
      * Executes a logical AND, operating on QueryResult.
+     * Evaluation runs in two phases: document sets of all subconditions are intersected
+     * first (from docId-only posting reads where the executor supports it), then positions
+     * are materialized and sentence/window logic applied only for the surviving documents.
+     * A document missing from any subcondition can never appear in the intersection, so
+     * the result is identical to intersecting the full results.
      */
+    @SuppressWarnings("unchecked")
     private QueryResult executeAnd(
             List<Condition> conditions, 
             Map<String, IndexAccessInterface> indexes,
@@ -89,11 +96,60 @@ public final class LogicalExecutor implements ConditionExecutor<Logical> {
         
         logger.debug("Executing AND internally with {} subconditions (corpus: {})", conditions.size(), corpusName);
 
-        QueryResult combinedResult = null;
+        // Phase 1: document-level prefilter
+        QueryResult[] executedResults = new QueryResult[conditions.size()];
+        DocumentIdSet survivingDocs = null;
 
-        for (Condition condition : conditions) {
+        for (int i = 0; i < conditions.size(); i++) {
+            Condition condition = conditions.get(i);
             ConditionExecutor executor = executorFactory.getExecutor(condition);
-            QueryResult currentResult = executor.execute(condition, indexes, granularity, granularitySize, corpusName);
+
+            // A cached full result is cheaper than probing the postings again
+            Optional<QueryResult> cached = executorFactory.getResultCache()
+                .flatMap(cache -> cache.getIfPresent(condition, granularity, granularitySize, corpusName));
+
+            Optional<DocumentIdSet> probedDocs = Optional.empty();
+            if (cached.isEmpty() && conditions.size() > 1 && executor instanceof DocumentPrefilter prefilter) {
+                probedDocs = prefilter.matchingDocuments(condition, indexes);
+            }
+
+            DocumentIdSet conditionDocs;
+            if (probedDocs != null && probedDocs.isPresent()) {
+                conditionDocs = probedDocs.get();
+            } else {
+                executedResults[i] = cached.isPresent()
+                    ? cached.get()
+                    : QueryResultCache.execute(executorFactory, condition, indexes, granularity, granularitySize, corpusName);
+                conditionDocs = executedResults[i].getDocumentIds();
+            }
+
+            if (conditionDocs.isEmpty()) {
+                logger.debug("Condition {} has no matches, short-circuiting AND", condition);
+                return new QueryResult(granularity, granularitySize, Collections.emptyList());
+            }
+
+            survivingDocs = survivingDocs == null ? conditionDocs : survivingDocs.intersect(conditionDocs);
+            if (survivingDocs.isEmpty()) {
+                logger.debug("Document-level intersection is empty, short-circuiting AND");
+                return new QueryResult(granularity, granularitySize, Collections.emptyList());
+            }
+        }
+        logger.debug("AND prefilter kept {} documents", survivingDocs != null ? survivingDocs.size() : 0);
+
+        // Phase 2: positional evaluation restricted to the surviving documents
+        QueryResult combinedResult = null;
+
+        for (int i = 0; i < conditions.size(); i++) {
+            Condition condition = conditions.get(i);
+            QueryResult currentResult;
+            if (executedResults[i] != null) {
+                currentResult = conditions.size() > 1
+                    ? executedResults[i].restrictToDocuments(survivingDocs)
+                    : executedResults[i];
+            } else {
+                DocumentPrefilter prefilter = (DocumentPrefilter) executorFactory.getExecutor(condition);
+                currentResult = prefilter.execute(condition, indexes, granularity, granularitySize, corpusName, survivingDocs);
+            }
 
             if (currentResult.getAllDetails().isEmpty()) {
                 logger.debug("Condition {} has no matches, short-circuiting AND", condition);
@@ -129,8 +185,8 @@ public final class LogicalExecutor implements ConditionExecutor<Logical> {
         QueryResult combinedResult = null;
         
         for (Condition condition : conditions) {
-            ConditionExecutor executor = executorFactory.getExecutor(condition);
-            QueryResult currentResult = executor.execute(condition, indexes, granularity, granularitySize, corpusName);
+            QueryResult currentResult = QueryResultCache.execute(
+                executorFactory, condition, indexes, granularity, granularitySize, corpusName);
 
             if (currentResult.getAllDetails().isEmpty()) {
                 continue; // Skip empty results for OR
@@ -162,20 +218,13 @@ public final class LogicalExecutor implements ConditionExecutor<Logical> {
         Query.Granularity resultGranularity = r1.getGranularity();
         int resultGranularitySize = r1.getGranularitySize();
 
-        // Combine details - simple concatenation for now
-        List<MatchDetail> combinedDetails = Stream.concat(
-                r1.getAllDetails().stream(),
-                r2.getAllDetails().stream()
-        ).distinct() // Use distinct() based on MatchDetail record equality
-         .collect(Collectors.toList());
+        // Sorted merge of both sides; equal details meet in the same run and are emitted once
+        List<MatchDetail> combinedDetails = SortedMatchMerger.union(r1.getAllDetails(), r2.getAllDetails());
 
         logger.debug("Union resulted in {} details", combinedDetails.size());
         return new QueryResult(resultGranularity, resultGranularitySize, combinedDetails);
     }
 
-    // Define SentenceKey within LogicalExecutor or ensure it's accessible
-    record SentenceKey(int documentId, int sentenceId) {}
-
     /**
      * Computes the intersection of two QueryResult objects.
      */
@@ -214,87 +263,17 @@ public final class LogicalExecutor implements ConditionExecutor<Logical> {
             // --- End: Document Granularity Logic --- 
 
         } else { // Granularity.SENTENCE
-            // --- Start: NEW Sentence Granularity Logic --- 
-            Map<Integer, Map<Integer, List<MatchDetail>>> map1 = r1.getDetailsBySentence();
-            Map<Integer, Map<Integer, List<MatchDetail>>> map2 = r2.getDetailsBySentence();
-            
-            Set<SentenceKey> matchingSentenceUnits = new HashSet<>();
-            List<MatchDetail> combinedDetails = new ArrayList<>();
-
-            // Find common document IDs
-            Set<Integer> commonDocIds = new HashSet<>(map1.keySet());
-            commonDocIds.retainAll(map2.keySet());
-
             // Calculate the allowed distance for the window
             int allowedDistance = (windowSize > 0) ? (windowSize - 1) / 2 : 0;
 
-            for (int docId : commonDocIds) {
-                Map<Integer, List<MatchDetail>> sentMap1 = map1.get(docId);
-                Map<Integer, List<MatchDetail>> sentMap2 = map2.get(docId);
-                Set<Integer> sentIds1 = sentMap1.keySet();
-                Set<Integer> sentIds2 = sentMap2.keySet();
-                
-                 // <<< --- Add Debug Logging Here (Optional but helpful) --- >>>
-                if (logger.isDebugEnabled()) { // Check if debug is enabled to avoid overhead
-                    logger.debug("[intersectQueryResults] Doc {} - sentMap1 keys (r1): {}", docId, sentIds1);
-                    logger.debug("[intersectQueryResults] Doc {} - sentMap2 keys (r2): {}", docId, sentIds2);
-                }
-                // <<< --- End Debug Logging --- >>>
-
-                // Check from map1's perspective
-                for (int sentId1 : sentIds1) {
-                    boolean foundMatchInWindow = false;
-                    for (int sentId2 : sentIds2) {
-                        if (Math.abs(sentId1 - sentId2) <= allowedDistance) {
-                            foundMatchInWindow = true;
-                            break;
-                        }
-                    }
-                    if (foundMatchInWindow) {
-                        matchingSentenceUnits.add(new SentenceKey(docId, sentId1));
-                    }
-                }
-
-                // Check from map2's perspective
-                for (int sentId2 : sentIds2) {
-                    boolean foundMatchInWindow = false;
-                    for (int sentId1 : sentIds1) {
-                        if (Math.abs(sentId1 - sentId2) <= allowedDistance) {
-                            foundMatchInWindow = true;
-                            break;
-                        }
-                    }
-                    if (foundMatchInWindow) {
-                        matchingSentenceUnits.add(new SentenceKey(docId, sentId2));
-                    }
-                }
-            } // End loop through commonDocIds
-
-            // Collect all details for the identified matching sentence units
-            for (SentenceKey unit : matchingSentenceUnits) {
-                 int docId = unit.documentId();
-                 int sentId = unit.sentenceId();
-                 
-                 // Add details from r1 for this unit
-                 List<MatchDetail> details1 = map1.getOrDefault(docId, Collections.emptyMap()).get(sentId);
-                 if (details1 != null) {
-                      combinedDetails.addAll(details1);
-                 }
-                 
-                 // Add details from r2 for this unit
-                 List<MatchDetail> details2 = map2.getOrDefault(docId, Collections.emptyMap()).get(sentId);
-                 if (details2 != null) {
-                      combinedDetails.addAll(details2);
-                 }
-            }
-            
-            // Remove potential duplicates if a detail was present in both r1 and r2 for the same sentence
-            List<MatchDetail> finalUniqueDetails = new ArrayList<>(new HashSet<>(combinedDetails));
+            // Two-pointer merge over (docId, sentenceId)-ordered details; a sentence unit of
+            // either side is kept when the other side has a unit within the window
+            List<MatchDetail> finalUniqueDetails = SortedMatchMerger.intersectSentences(
+                    r1.getAllDetails(), r2.getAllDetails(), allowedDistance);
 
-            logger.trace("Intersection (SENTENCE, window={}, distance={}) resulted in {} final details from {} matching units", 
-                     windowSize, allowedDistance, finalUniqueDetails.size(), matchingSentenceUnits.size());
+            logger.trace("Intersection (SENTENCE, window={}, distance={}) resulted in {} final details",
+                     windowSize, allowedDistance, finalUniqueDetails.size());
             return new QueryResult(granularity, windowSize, finalUniqueDetails);
-            // --- End: NEW Sentence Granularity Logic --- 
         }
     }
 } 
\ No newline at end of file
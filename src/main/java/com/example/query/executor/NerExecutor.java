@@ -1,5 +1,6 @@
 package com.example.query.executor;
 
+import com.example.core.DecodedPostings;
 import com.example.core.IndexAccessInterface;
 import com.example.core.Position;
 import com.example.core.PositionList;
@@ -31,6 +32,7 @@ public final class NerExecutor implements ConditionExecutor<Ner> {
     
     private static final String NER_INDEX_NAME = "ner";
     private static final String NER_DATE_INDEX_NAME = "ner_date";
+    private static final String NER_TIMELINE_INDEX_NAME = "ner_timeline";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE;
 
     /**
@@ -86,7 +88,12 @@ public final class NerExecutor implements ConditionExecutor<Ner> {
         List<MatchDetail> details = new ArrayList<>();
         
         try {
-            if (isVariable) {
+            IndexAccessInterface timeline = indexes.get(NER_TIMELINE_INDEX_NAME);
+            if (targetValue != null && timeline != null && !"DATE".equals(normalizedEntityType)) {
+                // One key of the timeline index holds every mention of the value, oldest first
+                return executeTimelineLookup(normalizedEntityType, isVariable ? variableName : null,
+                    timeline, condition, granularity, granularitySize);
+            } else if (isVariable) {
                 // Variable binding mode - extract entities of the given type
                 details = executeVariableExtraction(normalizedEntityType, variableName, index, condition);
             } else {
@@ -114,6 +121,39 @@ public final class NerExecutor implements ConditionExecutor<Ner> {
         }
     }
     
+    /**
+     * Looks up the mentions of one entity value in the ner_timeline index. Its keys are
+     * those of the ner index, so this is a single get instead of a scan over every value
+     * of the type. A list stored in timestamp order yields a result marked as such, so a
+     * timestamp LIMIT takes its leading units without sorting or checking the order.
+     *
+     * @param entityType The normalized entity type
+     * @param variableName The variable to bind, or null
+     * @param timeline The ner_timeline index
+     * @param condition The original condition object (for ID and target)
+     * @param granularity The query granularity
+     * @param granularitySize The window size for sentence granularity
+     * @return QueryResult with the mentions in stored order
+     */
+    private QueryResult executeTimelineLookup(String entityType, String variableName,
+                                              IndexAccessInterface timeline, Ner condition,
+                                              Query.Granularity granularity, int granularitySize)
+        throws Exception {
+        String value = condition.target().toLowerCase();
+        String key = entityType + IndexAccessInterface.DELIMITER + value;
+        String conditionId = String.valueOf(condition.hashCode());
+
+        Optional<DecodedPostings> postings = timeline.getDecoded(key.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        List<MatchDetail> details = new ArrayList<>();
+        postings.ifPresent(decoded -> decoded.toPositionList(null).getPositions().forEach(pos ->
+            details.add(new MatchDetail(value, ValueType.ENTITY, pos, conditionId, variableName))));
+        logger.debug("Timeline lookup found {} mentions of {} '{}'", details.size(), entityType, value);
+        if (postings.map(DecodedPostings::isTimeOrdered).orElse(true)) {
+            return QueryResult.inTimestampOrder(granularity, granularitySize, details);
+        }
+        return new QueryResult(granularity, granularitySize, details);
+    }
+
     /**
      * Executes variable extraction for a specific entity type.
      * Finds all entities of the given type and creates MatchDetail objects.
@@ -50,10 +50,9 @@ public final class NotExecutor implements ConditionExecutor<Not> {
                      condition, granularity, granularitySize, corpusName);
 
         Condition operand = condition.condition();
-        ConditionExecutor<Condition> subExecutor = factory.getExecutor(operand);
 
         // Execute the sub-condition
-        QueryResult subResult = subExecutor.execute(operand, indexes, granularity, granularitySize, corpusName);
+        QueryResult subResult = QueryResultCache.execute(factory, operand, indexes, granularity, granularitySize, corpusName);
 
         // Extract IDs based on granularity from the sub-result
         Set<?> subResultIds = extractIds(subResult, granularity);
@@ -1,5 +1,8 @@
 package com.example.query.executor;
 
+import com.example.core.DecodedPostings;
+import com.example.core.DocumentIdSet;
+import com.example.core.IndexAccessException;
 import com.example.core.IndexAccessInterface;
 import com.example.core.Position;
 import com.example.core.PositionList;
@@ -27,7 +30,7 @@ import org.slf4j.LoggerFactory;
  * Handles part-of-speech pattern matching and variable binding.
  * Returns QueryResult containing MatchDetail objects.
  */
-public final class PosExecutor implements ConditionExecutor<Pos> {
+public final class PosExecutor implements ConditionExecutor<Pos>, DocumentPrefilter<Pos> {
     private static final Logger logger = LoggerFactory.getLogger(PosExecutor.class);
     
     private static final String POS_INDEX = "pos";
@@ -46,6 +49,37 @@ public final class PosExecutor implements ConditionExecutor<Pos> {
                                int granularitySize,
                                String corpusName)
         throws QueryExecutionException {
+        return execute(condition, indexes, granularity, granularitySize, corpusName, null);
+    }
+
+    /**
+     * Looks up the POS posting of the term with the tag.
+     * Variable extraction scans many keys and has no single posting.
+     */
+    @Override
+    public Optional<DecodedPostings> postings(Pos condition, Map<String, IndexAccessInterface> indexes)
+        throws QueryExecutionException {
+        IndexAccessInterface index = indexes.get(POS_INDEX);
+        if (index == null || condition.isVariable() || condition.term() == null) {
+            return Optional.empty();
+        }
+
+        String searchKey = condition.posTag().toLowerCase() + IndexAccessInterface.DELIMITER + condition.term().toLowerCase();
+        try {
+            Optional<DecodedPostings> postings = index.getDecoded(searchKey.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            return Optional.of(postings.orElse(DecodedPostings.empty()));
+        } catch (IndexAccessException e) {
+            throw new QueryExecutionException("Index access error during POS prefilter", e, condition.toString(), QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR);
+        }
+    }
+
+    @Override
+    public QueryResult execute(Pos condition, Map<String, IndexAccessInterface> indexes,
+                               Query.Granularity granularity,
+                               int granularitySize,
+                               String corpusName,
+                               DocumentIdSet documents)
+        throws QueryExecutionException {
         
         logger.debug("Executing POS condition for tag {} at {} granularity with size {} (corpus: {})", 
                 condition.posTag(), granularity, granularitySize, corpusName);
@@ -100,7 +134,7 @@ public final class PosExecutor implements ConditionExecutor<Pos> {
                         "Term cannot be null when not in variable extraction mode for POS condition",
                         condition.toString(), QueryExecutionException.ErrorType.INVALID_CONDITION);
                 }
-                details = executeTermSearch(normalizedPosTag, normalizedTerm, index, condition);
+                details = executeTermSearch(normalizedPosTag, normalizedTerm, index, condition, documents);
             }
             
             logger.debug("POS condition produced {} MatchDetail objects. Returning QueryResult.",
@@ -197,10 +231,11 @@ public final class PosExecutor implements ConditionExecutor<Pos> {
      * @param term The normalized term to search for
      * @param index The index to search in
      * @param condition The original condition object (for ID)
+     * @param documents Documents to restrict the matches to, or null for all documents
      * @return List of MatchDetail objects
      */
     private List<MatchDetail> executeTermSearch(String posTag, String term, IndexAccessInterface index,
-                                           Pos condition)
+                                           Pos condition, DocumentIdSet documents)
         throws Exception {
         
         // Use original term/tag from condition for the MatchDetail value, 
@@ -214,7 +249,9 @@ public final class PosExecutor implements ConditionExecutor<Pos> {
         String searchKey = posTag + IndexAccessInterface.DELIMITER + term;
         byte[] keyBytes = searchKey.getBytes(java.nio.charset.StandardCharsets.UTF_8);
         
-        Optional<PositionList> positionsOpt = index.get(keyBytes);
+        Optional<PositionList> positionsOpt = documents == null
+            ? index.get(keyBytes)
+            : index.getDecoded(keyBytes).map(postings -> postings.toPositionList(documents));
         
         if (!positionsOpt.isPresent()) {
             logger.debug("Term '{}' with POS tag '{}' not found", term, posTag);
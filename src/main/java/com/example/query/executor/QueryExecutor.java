@@ -1,7 +1,10 @@
 package com.example.query.executor;
 
+import com.example.core.DecodedPostings;
+import com.example.core.DocumentIdSet;
 import com.example.core.IndexAccessInterface;
 import com.example.query.model.DocSentenceMatch;
+import com.example.query.model.HistogramColumn;
 import com.example.query.model.condition.Condition;
 import com.example.query.model.condition.Logical;
 import com.example.query.model.condition.Logical.LogicalOperator;
@@ -25,6 +28,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -51,7 +55,7 @@ public class QueryExecutor {
      * @param executorFactory Factory for creating condition executors
      */
     public QueryExecutor(ConditionExecutorFactory executorFactory) {
-        this(executorFactory, new JoinExecutor(), new TableResultService());
+        this(executorFactory, JoinExecutor.withDefaultStrategies(), new TableResultService());
     }
 
     /**
@@ -100,20 +104,134 @@ public class QueryExecutor {
         }
     }
     
+    /**
+     * Loads the stitch index synonyms of a corpus, so AND patterns of lemmas and entity
+     * types are answered from the stitch index. Without a stitch index they keep using the
+     * logical executor.
+     *
+     * @param corpusName The corpus/source name
+     * @param indexManager The index manager for the corpus
+     */
+    public void initializeStitchIndex(String corpusName, com.example.query.index.IndexManager indexManager) {
+        if (executorFactory.getStitchExecutor().initializeForCorpus(corpusName, indexManager)) {
+            logger.info("Stitch index enabled for corpus: {}", corpusName);
+        }
+    }
+
+    /**
+     * Registers the version of the index set a corpus is served from. Cached condition
+     * results of the corpus are only used while this version stays the same; a different
+     * version (a rebuilt index set) invalidates them.
+     *
+     * @param corpusName The corpus/source name
+     * @param indexManager The index manager for the corpus
+     */
+    public void registerIndexVersion(String corpusName, com.example.query.index.IndexManager indexManager) {
+        executorFactory.getResultCache().ifPresent(cache -> {
+            cache.updateIndexVersion(corpusName, indexManager.getIndexVersion());
+            logger.debug("Result cache stats: {}", cache.stats());
+        });
+    }
+
     /**
      * Executes a query against the provided indexes
      *
      * @param query The query to execute
      * @param indexes Map of index name to IndexAccessInterface
-     * @return Set of matches (document or sentence level based on query granularity)
+     * @return Set of matches (document or sentence level based on query granularity),
+     *         reduced to the LIMIT result units when the limit can be pushed down,
+     *         or only the bucket counts for a COUNT BY query
      * @throws QueryExecutionException if execution fails
      */
     public QueryResult execute(Query query, Map<String, IndexAccessInterface> indexes) 
             throws QueryExecutionException {
-        // Call executeWithContext, which now returns QueryResult
-        return executeWithContext(query, indexes, new SubqueryContext());
+        Optional<HistogramColumn> histogram = query.selectColumns().stream()
+            .filter(HistogramColumn.class::isInstance)
+            .map(HistogramColumn.class::cast)
+            .findFirst();
+        boolean limited = ResultLimiter.canPushDown(query);
+        Optional<DecodedPostings> postings = histogram.isPresent() || limited
+            ? singlePostings(query, indexes)
+            : Optional.empty();
+        if (histogram.isPresent() && postings.isPresent()) {
+            // Count from the posting columns, so no positions or details are created
+            DateHistogram counts = DateHistogram.of(postings.get(), query.granularity(), histogram.get().getBucket());
+            logger.debug("Counted {} units from {} postings into {} buckets",
+                counts.total(), postings.get().size(), counts.counts().size());
+            return QueryResult.ofHistogram(query.granularity(), query.granularitySize().orElse(0), counts);
+        }
+        if (limited && postings.isPresent()) {
+            return executeLimited(query, indexes, postings.get());
+        }
+
+        QueryResult result = executeWithContext(query, indexes, new SubqueryContext());
+        if (histogram.isPresent()) {
+            // Other conditions count from their materialized details, which are not grouped into rows
+            DateHistogram counts = DateHistogram.of(result.getAllDetails(), query.granularity(),
+                histogram.get().getBucket());
+            logger.debug("Counted {} units from {} details into {} buckets",
+                counts.total(), result.getAllDetails().size(), counts.counts().size());
+            return QueryResult.ofHistogram(result.getGranularity(), result.getGranularitySize(), counts);
+        }
+        // Apply LIMIT here so only the surviving units reach table generation and enrichment.
+        // Subqueries are left whole since joins need all of their units.
+        return ResultLimiter.apply(query, result);
     }
     
+    /**
+     * Gets the posting list that alone answers a query: one condition whose executor
+     * can read it without creating positions, no subqueries, and no cached full result
+     * of the condition (which is cheaper to reuse).
+     *
+     * @param query The query to check
+     * @param indexes Map of index name to IndexAccessInterface
+     * @return The postings, or empty if the query takes the regular path
+     * @throws QueryExecutionException if index access fails
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<DecodedPostings> singlePostings(Query query, Map<String, IndexAccessInterface> indexes)
+            throws QueryExecutionException {
+        Query.Granularity granularity = query.granularity();
+        int granularitySize = query.granularitySize().orElse(0);
+        // Out of range sizes are rejected by the regular path
+        if (query.hasSubqueries() || query.conditions().size() != 1 || granularitySize < 0 || granularitySize > 10) {
+            return Optional.empty();
+        }
+        Condition condition = query.conditions().get(0);
+        if (!(executorFactory.getExecutor(condition) instanceof DocumentPrefilter prefilter)) {
+            return Optional.empty();
+        }
+        boolean cached = executorFactory.getResultCache()
+            .flatMap(cache -> cache.getIfPresent(condition, granularity, granularitySize, query.source()))
+            .isPresent();
+        if (cached) {
+            return Optional.empty();
+        }
+        return prefilter.postings(condition, indexes);
+    }
+
+    /**
+     * Executes a single-condition query by picking the LIMIT units from the decoded
+     * posting columns, so that positions are created for their documents only.
+     *
+     * @param query A query whose limit can be pushed down
+     * @param indexes Map of index name to IndexAccessInterface
+     * @param postings The posting list that answers the query's only condition
+     * @return The limited result
+     * @throws QueryExecutionException if execution fails
+     */
+    private QueryResult executeLimited(Query query, Map<String, IndexAccessInterface> indexes,
+                                       DecodedPostings postings) throws QueryExecutionException {
+        Condition condition = query.conditions().get(0);
+        DocumentPrefilter prefilter = (DocumentPrefilter) executorFactory.getExecutor(condition);
+        DocumentIdSet documents = ResultLimiter.candidateDocuments(query, postings);
+        logger.debug("LIMIT {} pushdown materializes {} documents of a {} position posting list",
+            query.limit().get(), documents.size(), postings.size());
+        QueryResult result = prefilter.execute(condition, indexes, query.granularity(),
+            query.granularitySize().orElse(0), query.source(), documents);
+        return ResultLimiter.apply(query, result);
+    }
+
     /**
      * Executes a query with an existing subquery context.
      * This allows for recursive execution of subqueries.
@@ -277,9 +395,7 @@ public class QueryExecutor {
                 condition, granularity, granularitySize);
         
         try {
-            ConditionExecutor executor = executorFactory.getExecutor(condition);
-            
-            return executor.execute(condition, indexes, granularity, granularitySize, source);
+            return QueryResultCache.execute(executorFactory, condition, indexes, granularity, granularitySize, source);
         } catch (QueryExecutionException e) {
             throw e;
         } catch (Exception e) {
@@ -292,80 +408,6 @@ public class QueryExecutor {
         }
     }
     
-    /**
-     * Computes the intersection of two QueryResult objects.
-     * (Copied from LogicalExecutor)
-     */
-    private QueryResult intersectQueryResults(QueryResult r1, QueryResult r2) {
-        if (r1 == null || r2 == null || r1.getAllDetails().isEmpty() || r2.getAllDetails().isEmpty()) {
-            Query.Granularity defaultGranularity = (r1 != null) ? r1.getGranularity() : ((r2 != null) ? r2.getGranularity() : Query.Granularity.DOCUMENT);
-            int defaultSize = (r1 != null) ? r1.getGranularitySize() : ((r2 != null) ? r2.getGranularitySize() : 0);
-            return new QueryResult(defaultGranularity, defaultSize, Collections.emptyList());
-        }
-        Query.Granularity granularity = r1.getGranularity();
-        if (r1.getGranularity() != r2.getGranularity() || r1.getGranularitySize() != r2.getGranularitySize()) {
-            logger.error("Intersection of QueryResults with different granularities/sizes is not supported. ({},{}) vs ({},{})", r1.getGranularity(), r1.getGranularitySize(), r2.getGranularity(), r2.getGranularitySize());
-            return new QueryResult(granularity, r1.getGranularitySize(), Collections.emptyList());
-        }
-
-        List<MatchDetail> intersectionDetails;
-        int windowSize = r1.getGranularitySize();
-
-        if (granularity == Query.Granularity.DOCUMENT) {
-            Map<Integer, List<MatchDetail>> map1 = r1.getDetailsByDocId();
-            Map<Integer, List<MatchDetail>> map2 = r2.getDetailsByDocId();
-            Map<Integer, List<MatchDetail>> smallerMap = map1.size() < map2.size() ? map1 : map2;
-            Map<Integer, List<MatchDetail>> largerMap = smallerMap == map1 ? map2 : map1;
-            List<MatchDetail> combinedDocDetails = new ArrayList<>();
-            for (Map.Entry<Integer, List<MatchDetail>> entry : smallerMap.entrySet()) {
-                int docId = entry.getKey();
-                if (largerMap.containsKey(docId)) {
-                    List<MatchDetail> merged = new ArrayList<>(entry.getValue());
-                    merged.addAll(largerMap.get(docId));
-                    combinedDocDetails.addAll(merged);
-                }
-            }
-            intersectionDetails = combinedDocDetails;
-        } else {
-            Map<Integer, Map<Integer, List<MatchDetail>>> map1 = r1.getDetailsBySentence();
-            Map<Integer, Map<Integer, List<MatchDetail>>> map2 = r2.getDetailsBySentence();
-
-            Set<MatchDetail> representativeDetails = new HashSet<>();
-
-            Map<Integer, Map<Integer, List<MatchDetail>>> smallerMap = map1.size() < map2.size() ? map1 : map2;
-            Map<Integer, Map<Integer, List<MatchDetail>>> largerMap = smallerMap == map1 ? map2 : map1;
-
-            for (Map.Entry<Integer, Map<Integer, List<MatchDetail>>> docEntry : smallerMap.entrySet()) {
-                int docId = docEntry.getKey();
-                if (largerMap.containsKey(docId)) {
-                    Map<Integer, List<MatchDetail>> smallerSentMap = docEntry.getValue();
-                    Map<Integer, List<MatchDetail>> largerSentMap = largerMap.get(docId);
-
-                    for (Map.Entry<Integer, List<MatchDetail>> sentEntry1 : smallerSentMap.entrySet()) {
-                        int sentId1 = sentEntry1.getKey();
-
-                        for (Map.Entry<Integer, List<MatchDetail>> sentEntry2 : largerSentMap.entrySet()) {
-                            int sentId2 = sentEntry2.getKey();
-
-                            if (Math.abs(sentId1 - sentId2) <= windowSize) {
-                                int representativeSentId = Math.max(sentId1, sentId2);
-                                List<MatchDetail> detailsFromRep1 = smallerSentMap.get(representativeSentId);
-                                List<MatchDetail> detailsFromRep2 = largerSentMap.get(representativeSentId);
-                                
-                                if (detailsFromRep1 != null) representativeDetails.addAll(detailsFromRep1);
-                                if (detailsFromRep2 != null) representativeDetails.addAll(detailsFromRep2);
-                            }
-                        }
-                    }
-                }
-            }
-            intersectionDetails = new ArrayList<>(representativeDetails);
-        }
-
-        logger.trace("Intersection resulted in {} details", intersectionDetails.size());
-        return new QueryResult(granularity, windowSize, intersectionDetails);
-    }
-    
     /**
      * Utility method to apply windowing if required by the query.
      * Uses a simple approach for now.
@@ -1,5 +1,6 @@
 package com.example.query.executor;
 
+import com.example.core.DocumentIdSet;
 import com.example.query.binding.MatchDetail;
 import com.example.query.model.Query;
 
@@ -17,12 +18,17 @@ public class QueryResult {
     private final Query.Granularity granularity;
     private final int granularitySize;
     private final List<MatchDetail> allDetails;
+    // Bucket counts of a COUNT BY query, which replace the details
+    private final DateHistogram histogram;
+    // Details are in ascending document timestamp order, as read from a time-ordered index
+    private final boolean timeOrdered;
 
     // Lazily initialized maps for efficient access
     private Map<String, List<Object>> variableBindings = null;
     private Map<LocalDate, List<MatchDetail>> detailsByMatchedDate = null;
     private Map<Integer, List<MatchDetail>> detailsByDocId = null;
     private Map<Integer, Map<Integer, List<MatchDetail>>> detailsBySentence = null; // docId -> sentenceId -> details
+    private DocumentIdSet documentIds = null;
 
     /**
      * Constructs a QueryResult.
@@ -32,10 +38,49 @@ public class QueryResult {
      * @param allDetails  The list of MatchDetail objects representing the raw results.
      */
     public QueryResult(Query.Granularity granularity, int granularitySize, List<MatchDetail> allDetails) {
+        this(granularity, granularitySize, allDetails, false);
+    }
+
+    private QueryResult(Query.Granularity granularity, int granularitySize, List<MatchDetail> allDetails,
+                        boolean timeOrdered) {
         this.granularity = Objects.requireNonNull(granularity, "granularity cannot be null");
         this.granularitySize = granularitySize;
         // Store an immutable copy
         this.allDetails = allDetails != null ? List.copyOf(allDetails) : List.of();
+        this.histogram = null;
+        this.timeOrdered = timeOrdered;
+    }
+
+    private QueryResult(Query.Granularity granularity, int granularitySize, DateHistogram histogram) {
+        this.granularity = Objects.requireNonNull(granularity, "granularity cannot be null");
+        this.granularitySize = granularitySize;
+        this.allDetails = List.of();
+        this.histogram = Objects.requireNonNull(histogram, "histogram cannot be null");
+        this.timeOrdered = false;
+    }
+
+    /**
+     * Constructs a result whose details are in ascending document timestamp order, such as
+     * the mentions read from a time-ordered posting list. The caller guarantees the order.
+     *
+     * @param granularity The granularity of the query (DOCUMENT or SENTENCE).
+     * @param granularitySize The window size used for sentence granularity.
+     * @param allDetails The details, oldest document first.
+     */
+    public static QueryResult inTimestampOrder(Query.Granularity granularity, int granularitySize,
+                                               List<MatchDetail> allDetails) {
+        return new QueryResult(granularity, granularitySize, allDetails, true);
+    }
+
+    /**
+     * Constructs the result of a COUNT BY query, which holds only bucket counts.
+     *
+     * @param granularity The granularity of the counted units.
+     * @param granularitySize The window size used for sentence granularity.
+     * @param histogram The bucket counts.
+     */
+    public static QueryResult ofHistogram(Query.Granularity granularity, int granularitySize, DateHistogram histogram) {
+        return new QueryResult(granularity, granularitySize, histogram);
     }
 
     /**
@@ -75,6 +120,24 @@ public class QueryResult {
         return allDetails; // Already immutable
     }
 
+    /**
+     * Gets the bucket counts of a COUNT BY query.
+     *
+     * @return The histogram, or empty if this result holds match details.
+     */
+    public Optional<DateHistogram> getHistogram() {
+        return Optional.ofNullable(histogram);
+    }
+
+    /**
+     * Checks whether the details are in ascending document timestamp order.
+     *
+     * @return true if the result was created by {@link #inTimestampOrder}.
+     */
+    public boolean isInTimestampOrder() {
+        return timeOrdered;
+    }
+
     /**
      * Gets all bound values for a specific variable name.
      * Ensures the variable name starts with '?'.
@@ -198,12 +261,54 @@ public class QueryResult {
             ));
     }
 
+    /**
+     * Gets the distinct document IDs present in this result.
+     *
+     * @return The sorted set of document IDs.
+     */
+    public DocumentIdSet getDocumentIds() {
+        if (documentIds == null) {
+            initializeDocumentIds();
+        }
+        return documentIds;
+    }
+
+    private synchronized void initializeDocumentIds() {
+        if (documentIds != null) return;
+
+        int[] ids = new int[allDetails.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = allDetails.get(i).getDocumentId();
+        }
+        this.documentIds = DocumentIdSet.of(ids);
+    }
+
+    /**
+     * Returns a result containing only the details whose document is in the given set.
+     *
+     * @param documents The documents to keep.
+     * @return This result if nothing is filtered out, otherwise a new filtered result.
+     */
+    public QueryResult restrictToDocuments(DocumentIdSet documents) {
+        List<MatchDetail> kept = new ArrayList<>();
+        for (MatchDetail detail : allDetails) {
+            if (documents.contains(detail.getDocumentId())) {
+                kept.add(detail);
+            }
+        }
+        if (kept.size() == allDetails.size()) {
+            return this;
+        }
+        return new QueryResult(granularity, granularitySize, kept, timeOrdered);
+    }
+
     @Override
     public String toString() {
         return "QueryResult{" +
                 "granularity=" + granularity +
                 ", granularitySize=" + granularitySize +
                 ", detailCount=" + allDetails.size() +
+                (histogram != null ? ", buckets=" + histogram.counts().size() : "") +
                 // Optionally add more info, like number of unique docs/sentences
                 '}';
     }
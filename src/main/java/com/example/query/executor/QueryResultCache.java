@@ -0,0 +1,313 @@
+package com.example.query.executor;
+
+import com.example.core.IndexAccessInterface;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Condition;
+import com.example.query.model.condition.Logical;
+import com.example.query.model.condition.Logical.LogicalOperator;
+import com.example.query.model.condition.Not;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Size-bounded LRU cache of condition results, shared by all executors of a factory.
+ * Entries are keyed by a canonical form of the condition subtree together with the
+ * granularity, window size, corpus and index-set version, so a subtree that appears in
+ * several different queries is computed once.
+ * <p>
+ * Results are only cached for corpora whose index version has been registered with
+ * {@link #updateIndexVersion(String, String)}; registering a different version for a corpus
+ * (a rebuilt index set) drops all of its entries. The cache is bounded by the total number
+ * of match details it holds.
+ */
+public final class QueryResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+
+    public static final long DEFAULT_MAX_DETAILS = 500_000;
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /**
+     * Results larger than this fraction of the capacity are not admitted, so a single broad
+     * query cannot flush the whole cache.
+     */
+    private static final int MAX_ENTRY_FRACTION = 8;
+
+    private final long maxDetails;
+    private final int maxEntries;
+    private final LinkedHashMap<CacheKey, QueryResult> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, String> indexVersions = new HashMap<>();
+
+    private long cachedDetails = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /**
+     * Supplies a result on a cache miss.
+     */
+    @FunctionalInterface
+    interface ResultSupplier {
+        QueryResult get() throws QueryExecutionException;
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int entries, long details) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Creates a cache with the default capacity.
+     */
+    public QueryResultCache() {
+        this(DEFAULT_MAX_DETAILS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache with the given capacity.
+     *
+     * @param maxDetails Maximum total number of match details held
+     * @param maxEntries Maximum number of cached results
+     */
+    public QueryResultCache(long maxDetails, int maxEntries) {
+        if (maxDetails <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.maxDetails = maxDetails;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Executes a condition through the factory's executor, consulting the factory's result
+     * cache first when it has one.
+     *
+     * @param factory The factory supplying the executor and cache
+     * @param condition The condition to execute
+     * @param indexes Map of index name to IndexAccessInterface
+     * @param granularity Whether to return document or sentence level matches
+     * @param granularitySize Window size for sentence granularity
+     * @param corpusName The name of the corpus being queried
+     * @return The (possibly cached) result
+     * @throws QueryExecutionException if execution fails
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static QueryResult execute(ConditionExecutorFactory factory, Condition condition,
+                               Map<String, IndexAccessInterface> indexes,
+                               Query.Granularity granularity,
+                               int granularitySize,
+                               String corpusName) throws QueryExecutionException {
+        ConditionExecutor executor = factory.getExecutor(condition);
+        Optional<QueryResultCache> cache = factory.getResultCache();
+        if (cache == null || cache.isEmpty()) {
+            return executor.execute(condition, indexes, granularity, granularitySize, corpusName);
+        }
+        return cache.get().getOrExecute(condition, granularity, granularitySize, corpusName,
+            () -> executor.execute(condition, indexes, granularity, granularitySize, corpusName));
+    }
+
+    /**
+     * Registers the current version of a corpus' index set. If a different version was
+     * registered before, the index set has been rebuilt and all of its entries are dropped.
+     *
+     * @param corpusName The corpus (index set) name
+     * @param indexVersion Fingerprint of the index files, see IndexManager#getIndexVersion()
+     * @return true if cached entries were invalidated
+     */
+    public synchronized boolean updateIndexVersion(String corpusName, String indexVersion) {
+        Objects.requireNonNull(corpusName, "corpusName cannot be null");
+        Objects.requireNonNull(indexVersion, "indexVersion cannot be null");
+        String previous = indexVersions.put(corpusName, indexVersion);
+        if (previous == null || previous.equals(indexVersion)) {
+            return false;
+        }
+        int removed = invalidate(corpusName);
+        logger.info("Index set '{}' was rebuilt, invalidated {} cached results", corpusName, removed);
+        return true;
+    }
+
+    /**
+     * Drops all entries of a corpus.
+     *
+     * @param corpusName The corpus name
+     * @return Number of entries removed
+     */
+    public synchronized int invalidate(String corpusName) {
+        int removed = 0;
+        Iterator<Map.Entry<CacheKey, QueryResult>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<CacheKey, QueryResult> entry = it.next();
+            if (entry.getKey().corpusName().equals(corpusName)) {
+                cachedDetails -= weight(entry.getValue());
+                it.remove();
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        cachedDetails = 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), cachedDetails);
+    }
+
+    /**
+     * Looks up a cached result without executing anything on a miss.
+     */
+    synchronized Optional<QueryResult> getIfPresent(Condition condition, Query.Granularity granularity,
+                                                    int granularitySize, String corpusName) {
+        CacheKey key = keyFor(condition, granularity, granularitySize, corpusName);
+        if (key == null) {
+            return Optional.empty();
+        }
+        QueryResult result = entries.get(key);
+        if (result != null) {
+            hits++;
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Returns the cached result for a condition, or executes and caches it.
+     * Execution happens outside the cache lock.
+     */
+    QueryResult getOrExecute(Condition condition, Query.Granularity granularity, int granularitySize,
+                             String corpusName, ResultSupplier supplier) throws QueryExecutionException {
+        CacheKey key;
+        synchronized (this) {
+            key = keyFor(condition, granularity, granularitySize, corpusName);
+            if (key == null) {
+                return supplier.get();
+            }
+            QueryResult cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                logger.debug("Result cache hit for {}", condition);
+                return cached;
+            }
+            misses++;
+        }
+
+        QueryResult result = supplier.get();
+        put(key, result);
+        return result;
+    }
+
+    private synchronized void put(CacheKey key, QueryResult result) {
+        // The index set may have been rebuilt while the result was computed
+        if (!key.indexVersion().equals(indexVersions.get(key.corpusName()))) {
+            return;
+        }
+        long weight = weight(result);
+        if (weight > maxDetails / MAX_ENTRY_FRACTION) {
+            logger.debug("Not caching result with {} details for {}", result.getAllDetails().size(), key.condition());
+            return;
+        }
+        QueryResult previous = entries.put(key, result);
+        if (previous != null) {
+            cachedDetails -= weight(previous);
+        }
+        cachedDetails += weight;
+
+        Iterator<Map.Entry<CacheKey, QueryResult>> it = entries.entrySet().iterator();
+        while ((cachedDetails > maxDetails || entries.size() > maxEntries) && it.hasNext()) {
+            Map.Entry<CacheKey, QueryResult> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            cachedDetails -= weight(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private CacheKey keyFor(Condition condition, Query.Granularity granularity, int granularitySize, String corpusName) {
+        String version = corpusName == null ? null : indexVersions.get(corpusName);
+        if (version == null) {
+            return null;
+        }
+        return new CacheKey(canonicalForm(condition, granularity, granularitySize), granularity, granularitySize,
+            corpusName, version);
+    }
+
+    private static long weight(QueryResult result) {
+        return result.getAllDetails().size() + 1L;
+    }
+
+    /**
+     * Builds a structural key for a condition tree. Leaf conditions are records and already
+     * compare by value. OR children, and AND children where the intersection does not depend
+     * on operand order, are flattened into sets so that reordered or re-nested but equivalent
+     * trees share an entry. Windowed sentence ANDs keep their operand order.
+     */
+    static Object canonicalForm(Condition condition, Query.Granularity granularity, int granularitySize) {
+        if (condition instanceof Not not) {
+            return new NotKey(canonicalForm(not.condition(), granularity, granularitySize));
+        }
+        if (!(condition instanceof Logical logical)) {
+            return condition;
+        }
+        boolean orderFree = logical.operator() == LogicalOperator.OR
+            || granularity == Query.Granularity.DOCUMENT
+            || granularitySize <= 1;
+        if (!orderFree) {
+            List<Object> children = new ArrayList<>();
+            for (Condition child : logical.conditions()) {
+                children.add(canonicalForm(child, granularity, granularitySize));
+            }
+            return new LogicalKey(logical.operator(), children);
+        }
+        List<Object> children = new ArrayList<>();
+        collectFlattened(logical, logical.operator(), granularity, granularitySize, children);
+        Set<Object> distinct = Set.copyOf(children);
+        if (distinct.size() == 1) {
+            return distinct.iterator().next();
+        }
+        return new LogicalKey(logical.operator(), distinct);
+    }
+
+    private static void collectFlattened(Logical logical, LogicalOperator operator, Query.Granularity granularity,
+                                         int granularitySize, List<Object> out) {
+        for (Condition child : logical.conditions()) {
+            if (child instanceof Logical nested && nested.operator() == operator) {
+                collectFlattened(nested, operator, granularity, granularitySize, out);
+            } else {
+                out.add(canonicalForm(child, granularity, granularitySize));
+            }
+        }
+    }
+
+    private record LogicalKey(LogicalOperator operator, Object children) {}
+
+    private record NotKey(Object operand) {}
+
+    private record CacheKey(Object condition, Query.Granularity granularity, int granularitySize,
+                            String corpusName, String indexVersion) {}
+}
@@ -0,0 +1,287 @@
+package com.example.query.executor;
+
+import com.example.core.DecodedPostings;
+import com.example.core.DocumentIdSet;
+import com.example.query.binding.MatchDetail;
+import com.example.query.model.CountColumn;
+import com.example.query.model.HistogramColumn;
+import com.example.query.model.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Applies a query's LIMIT to the condition result before table generation, so that only
+ * k result units (documents or sentences) reach table generation and metadata enrichment.
+ * When a single condition is answered by one posting list, {@link #candidateDocuments}
+ * picks the documents holding those units from the decoded columns, and the executor
+ * materializes positions for those documents only. Other conditions materialize every
+ * detail and this only truncates their result.
+ * Unordered queries keep the details of the first k units. {@code ORDER BY timestamp}
+ * queries select the k earliest (or latest) units with a bounded heap keyed on the
+ * epoch-day stored in each position, or take the leading k units when the executor marked
+ * its result as time-ordered (see {@link QueryResult#isInTimestampOrder()}).
+ * Any other ordering, COUNT aggregation, COUNT BY histogram or JOIN leaves the result
+ * untouched, since those need every unit before the limit can be applied.
+ */
+final class ResultLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(ResultLimiter.class);
+
+    private static final String TIMESTAMP_COLUMN = "timestamp";
+
+    private ResultLimiter() {
+        // Static helpers only
+    }
+
+    /**
+     * Checks whether the limit of a query can be applied before table generation.
+     *
+     * @param query The query to check
+     * @return true if the limit can be pushed down
+     */
+    static boolean canPushDown(Query query) {
+        if (query.limit().isEmpty() || query.limit().get() <= 0) {
+            return false;
+        }
+        if (query.joinCondition().isPresent()) {
+            return false;
+        }
+        if (query.selectColumns().stream().anyMatch(col -> col instanceof CountColumn || col instanceof HistogramColumn)) {
+            return false;
+        }
+        List<String> orderBy = query.orderBy();
+        return orderBy.isEmpty() || (orderBy.size() == 1 && isTimestampOrder(orderBy.get(0)));
+    }
+
+    /**
+     * Reduces a result to the details of at most {@code LIMIT} result units.
+     *
+     * @param query The query whose limit and ordering apply
+     * @param result The full query result
+     * @return The limited result, or the input if no pushdown applies
+     */
+    static QueryResult apply(Query query, QueryResult result) {
+        if (!canPushDown(query) || result.getAllDetails().isEmpty()) {
+            return result;
+        }
+        int limit = query.limit().get();
+        boolean sentenceUnits = query.granularity() == Query.Granularity.SENTENCE;
+        List<MatchDetail> details = result.getAllDetails();
+
+        List<MatchDetail> kept = query.orderBy().isEmpty()
+            ? firstUnits(details, limit, sentenceUnits)
+            : topUnitsByTimestamp(details, limit, sentenceUnits, query.orderBy().get(0).startsWith("-"),
+                result.isInTimestampOrder());
+
+        logger.debug("LIMIT {} pushdown kept {} of {} details", limit, kept.size(), details.size());
+        if (kept.size() == details.size()) {
+            return result;
+        }
+        return new QueryResult(result.getGranularity(), result.getGranularitySize(), kept);
+    }
+
+    /**
+     * Selects the documents of a single posting list that hold the LIMIT result units, with
+     * the same ordering and tie-breaking as {@link #apply}. At sentence granularity the
+     * first (or top) k documents contain the first (or top) k sentences, since every
+     * document has at least one sentence and all of them share its timestamp; apply
+     * trims the sentences of the materialized result.
+     *
+     * @param query A query whose limit can be pushed down
+     * @param postings The posting list that answers the query's only condition
+     * @return The documents to materialize
+     */
+    static DocumentIdSet candidateDocuments(Query query, DecodedPostings postings) {
+        int limit = query.limit().get();
+        if (query.orderBy().isEmpty()) {
+            return postings.firstDocuments(limit);
+        }
+        return postings.topDocumentsByTime(limit, query.orderBy().get(0).startsWith("-"));
+    }
+
+    private static boolean isTimestampOrder(String orderSpec) {
+        String column = orderSpec.startsWith("-") ? orderSpec.substring(1) : orderSpec;
+        return TIMESTAMP_COLUMN.equalsIgnoreCase(column);
+    }
+
+    /**
+     * Keeps the details of the first k units encountered. When the details are grouped by
+     * unit, the walk over the detail list stops at the first detail of unit k + 1.
+     */
+    private static List<MatchDetail> firstUnits(List<MatchDetail> details, int limit, boolean sentenceUnits) {
+        boolean grouped = isGroupedByUnit(details, sentenceUnits);
+        Set<Long> selected = new HashSet<>();
+        List<MatchDetail> kept = new ArrayList<>();
+        for (MatchDetail detail : details) {
+            long key = unitKey(detail, sentenceUnits);
+            if (selected.contains(key)) {
+                kept.add(detail);
+            } else if (selected.size() < limit) {
+                selected.add(key);
+                kept.add(detail);
+            } else if (grouped) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Keeps the details of the k units with the smallest (or largest) document timestamp,
+     * ties broken by unit key. The heap holds at most k candidates. Results the executor
+     * marked as time-ordered are read from their best end instead.
+     */
+    private static List<MatchDetail> topUnitsByTimestamp(List<MatchDetail> details, int limit,
+                                                         boolean sentenceUnits, boolean descending,
+                                                         boolean timeOrdered) {
+        if (timeOrdered) {
+            return leadingUnitsByTimestamp(descending ? reversed(details) : details, limit, sentenceUnits, descending);
+        }
+        Comparator<UnitRank> order = Comparator.comparingLong(UnitRank::epochDay).thenComparingLong(UnitRank::key);
+        if (descending) {
+            order = Comparator.comparingLong(UnitRank::epochDay).reversed().thenComparingLong(UnitRank::key);
+        }
+        // Heap head is the worst of the current top-k
+        PriorityQueue<UnitRank> heap = new PriorityQueue<>(limit + 1, order.reversed());
+
+        boolean grouped = isGroupedByUnit(details, sentenceUnits);
+        Set<Long> seen = grouped ? null : new HashSet<>();
+        long previousKey = 0;
+        for (int i = 0; i < details.size(); i++) {
+            MatchDetail detail = details.get(i);
+            long key = unitKey(detail, sentenceUnits);
+            boolean newUnit = grouped ? (i == 0 || key != previousKey) : seen.add(key);
+            previousKey = key;
+            if (!newUnit) {
+                continue;
+            }
+            UnitRank rank = new UnitRank(key, epochDay(detail.getDocumentDate(), descending));
+            if (heap.size() < limit) {
+                heap.add(rank);
+            } else if (order.compare(rank, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(rank);
+            }
+        }
+
+        Set<Long> selected = new HashSet<>();
+        for (UnitRank rank : heap) {
+            selected.add(rank.key());
+        }
+        List<MatchDetail> kept = new ArrayList<>();
+        for (MatchDetail detail : details) {
+            if (selected.contains(unitKey(detail, sentenceUnits))) {
+                kept.add(detail);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Keeps the details of the k best units of a result that is already in the requested
+     * timestamp order (a descending order views a time-ordered result back to front), without a heap: the scan stops at the first day after the k-th unit. Only
+     * units sharing the k-th unit's day are ranked, by unit key as in the heap path.
+     * Every detail of a unit shares its document's timestamp, so all of them lie before
+     * the point where the scan stops.
+     */
+    private static List<MatchDetail> leadingUnitsByTimestamp(List<MatchDetail> details, int limit,
+                                                             boolean sentenceUnits, boolean descending) {
+        Map<Long, Long> unitDays = new LinkedHashMap<>();
+        int end = 0;
+        long lastDay = 0;
+        for (; end < details.size(); end++) {
+            MatchDetail detail = details.get(end);
+            long key = unitKey(detail, sentenceUnits);
+            if (unitDays.containsKey(key)) {
+                continue;
+            }
+            long day = epochDay(detail.getDocumentDate(), descending);
+            if (unitDays.size() >= limit && day != lastDay) {
+                break;
+            }
+            unitDays.put(key, day);
+            lastDay = day;
+        }
+
+        Set<Long> selected = new HashSet<>();
+        List<Long> tied = new ArrayList<>();
+        for (Map.Entry<Long, Long> unit : unitDays.entrySet()) {
+            if (unit.getValue() == lastDay) {
+                tied.add(unit.getKey());
+            } else {
+                selected.add(unit.getKey());
+            }
+        }
+        tied.sort(null);
+        for (int i = 0; selected.size() < limit && i < tied.size(); i++) {
+            selected.add(tied.get(i));
+        }
+
+        List<MatchDetail> kept = new ArrayList<>();
+        for (MatchDetail detail : details.subList(0, end)) {
+            if (selected.contains(unitKey(detail, sentenceUnits))) {
+                kept.add(detail);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Views a list back to front without copying it.
+     */
+    private static <T> List<T> reversed(List<T> list) {
+        return new AbstractList<>() {
+            @Override
+            public T get(int index) {
+                return list.get(list.size() - 1 - index);
+            }
+
+            @Override
+            public int size() {
+                return list.size();
+            }
+        };
+    }
+
+    /**
+     * Missing timestamps sort after all others in either direction.
+     */
+    private static long epochDay(LocalDate date, boolean descending) {
+        if (date == null) {
+            return descending ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return date.toEpochDay();
+    }
+
+    private static boolean isGroupedByUnit(List<MatchDetail> details, boolean sentenceUnits) {
+        for (int i = 1; i < details.size(); i++) {
+            MatchDetail prev = details.get(i - 1);
+            MatchDetail curr = details.get(i);
+            int docCompare = Integer.compare(prev.getDocumentId(), curr.getDocumentId());
+            if (docCompare > 0 || (docCompare == 0 && sentenceUnits && prev.getSentenceId() > curr.getSentenceId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long unitKey(MatchDetail detail, boolean sentenceUnits) {
+        if (!sentenceUnits) {
+            return detail.getDocumentId();
+        }
+        return ((long) detail.getDocumentId() << 32) | (detail.getSentenceId() & 0xFFFFFFFFL);
+    }
+
+    private record UnitRank(long key, long epochDay) {}
+}
@@ -0,0 +1,187 @@
+package com.example.query.executor;
+
+import com.example.query.binding.MatchDetail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Linear-time set operators over MatchDetail lists ordered by (documentId, sentenceId).
+ * Both inputs are brought into that order once (a no-op pass for the already sorted
+ * output of PositionList) and are then combined with two-pointer merges instead of
+ * nested doc/sentence maps and hash-based de-duplication.
+ */
+final class SortedMatchMerger {
+
+    /**
+     * Total order used by the merge operators. Positions are compared after the unit key so
+     * identical details always end up adjacent, which lets de-duplication look only at the
+     * current run of equal positions.
+     */
+    static final Comparator<MatchDetail> UNIT_ORDER = Comparator
+            .comparingInt(MatchDetail::getDocumentId)
+            .thenComparingInt(MatchDetail::getSentenceId)
+            .thenComparingInt(MatchDetail::getStartPosition)
+            .thenComparingInt(MatchDetail::getEndPosition);
+
+    private SortedMatchMerger() {
+        // Static helpers only
+    }
+
+    /**
+     * Returns the details in {@link #UNIT_ORDER}, copying only when the input is out of order.
+     */
+    static List<MatchDetail> sorted(List<MatchDetail> details) {
+        for (int i = 1; i < details.size(); i++) {
+            if (UNIT_ORDER.compare(details.get(i - 1), details.get(i)) > 0) {
+                List<MatchDetail> copy = new ArrayList<>(details);
+                copy.sort(UNIT_ORDER);
+                return copy;
+            }
+        }
+        return details;
+    }
+
+    /**
+     * Merges two lists into one sorted, duplicate-free list (set union).
+     */
+    static List<MatchDetail> union(List<MatchDetail> left, List<MatchDetail> right) {
+        List<MatchDetail> a = sorted(left);
+        List<MatchDetail> b = sorted(right);
+        List<MatchDetail> out = new ArrayList<>(a.size() + b.size());
+        int runStart = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            MatchDetail next;
+            if (j >= b.size() || (i < a.size() && UNIT_ORDER.compare(a.get(i), b.get(j)) <= 0)) {
+                next = a.get(i++);
+            } else {
+                next = b.get(j++);
+            }
+            runStart = appendDistinct(out, next, runStart);
+        }
+        return out;
+    }
+
+    /**
+     * Intersects two results at sentence granularity. A sentence unit of either side survives
+     * when the other side has a unit in the same document whose sentence id lies within
+     * {@code allowedDistance}; all details of surviving units are returned, de-duplicated.
+     */
+    static List<MatchDetail> intersectSentences(List<MatchDetail> left, List<MatchDetail> right,
+                                                int allowedDistance) {
+        List<MatchDetail> a = sorted(left);
+        List<MatchDetail> b = sorted(right);
+        long[] unitsA = distinctUnits(a);
+        long[] unitsB = distinctUnits(b);
+        boolean[] keepA = markUnitsInWindow(unitsA, unitsB, allowedDistance);
+        boolean[] keepB = markUnitsInWindow(unitsB, unitsA, allowedDistance);
+
+        List<MatchDetail> out = new ArrayList<>();
+        int runStart = 0;
+        int i = 0;
+        int j = 0;
+        int unitA = -1;
+        int unitB = -1;
+        long lastKeyA = Long.MIN_VALUE;
+        long lastKeyB = Long.MIN_VALUE;
+        while (i < a.size() || j < b.size()) {
+            boolean takeA = j >= b.size() || (i < a.size() && UNIT_ORDER.compare(a.get(i), b.get(j)) <= 0);
+            MatchDetail next;
+            boolean keep;
+            if (takeA) {
+                next = a.get(i++);
+                long key = unitKey(next);
+                if (key != lastKeyA) {
+                    lastKeyA = key;
+                    unitA++;
+                }
+                keep = keepA[unitA];
+            } else {
+                next = b.get(j++);
+                long key = unitKey(next);
+                if (key != lastKeyB) {
+                    lastKeyB = key;
+                    unitB++;
+                }
+                keep = keepB[unitB];
+            }
+            if (keep) {
+                runStart = appendDistinct(out, next, runStart);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Packs (documentId, sentenceId) into a single long key.
+     */
+    static long unitKey(MatchDetail detail) {
+        return ((long) detail.getDocumentId() << 32) | (detail.getSentenceId() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Collects the distinct sentence units of a sorted list, in order.
+     */
+    private static long[] distinctUnits(List<MatchDetail> sortedDetails) {
+        long[] units = new long[sortedDetails.size()];
+        int count = 0;
+        for (MatchDetail detail : sortedDetails) {
+            long key = unitKey(detail);
+            if (count == 0 || units[count - 1] != key) {
+                units[count++] = key;
+            }
+        }
+        return Arrays.copyOf(units, count);
+    }
+
+    /**
+     * Marks every unit of {@code probe} that has a unit of {@code other} in the same document
+     * within the sentence window. The window's lower edge only moves forward, so the sweep is
+     * linear in the number of units on both sides.
+     */
+    private static boolean[] markUnitsInWindow(long[] probe, long[] other, int allowedDistance) {
+        boolean[] keep = new boolean[probe.length];
+        int low = 0;
+        for (int p = 0; p < probe.length; p++) {
+            int doc = (int) (probe[p] >> 32);
+            int sent = (int) probe[p];
+            // Drop units of the other side that fall before this unit's window
+            while (low < other.length) {
+                int otherDoc = (int) (other[low] >> 32);
+                int otherSent = (int) other[low];
+                if (otherDoc < doc || (otherDoc == doc && (long) otherSent < (long) sent - allowedDistance)) {
+                    low++;
+                } else {
+                    break;
+                }
+            }
+            if (low < other.length) {
+                int otherDoc = (int) (other[low] >> 32);
+                int otherSent = (int) other[low];
+                keep[p] = otherDoc == doc && (long) otherSent <= (long) sent + allowedDistance;
+            }
+        }
+        return keep;
+    }
+
+    /**
+     * Appends {@code detail} unless an equal detail is already in the current run of details
+     * sharing its unit and span. Returns the start index of the run after the append.
+     */
+    private static int appendDistinct(List<MatchDetail> out, MatchDetail detail, int runStart) {
+        if (runStart < out.size() && UNIT_ORDER.compare(out.get(runStart), detail) != 0) {
+            runStart = out.size();
+        }
+        for (int k = runStart; k < out.size(); k++) {
+            if (out.get(k).equals(detail)) {
+                return runStart;
+            }
+        }
+        out.add(detail);
+        return runStart;
+    }
+}
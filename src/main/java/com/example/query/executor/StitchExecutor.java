@@ -0,0 +1,303 @@
+package com.example.query.executor;
+
+import com.example.core.DecodedPostings;
+import com.example.core.DocumentIdSet;
+import com.example.core.IndexAccessInterface;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.index.AnnotationSynonyms;
+import com.example.index.AnnotationType;
+import com.example.index.MultiAnnotationSynonyms;
+import com.example.index.StitchEntry;
+import com.example.index.StitchPosition;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.index.IndexManager;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Condition;
+import com.example.query.model.condition.Contains;
+import com.example.query.model.condition.Logical;
+import com.example.query.model.condition.Logical.LogicalOperator;
+import com.example.query.model.condition.Ner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Executor for AND patterns of lemmas and entity-type slots, such as
+ * {@code CONTAINS("merger") AND NER(ORGANIZATION) AND NER(PERSON)}, answered from the stitch
+ * index at sentence granularity.
+ * <p>
+ * The stitch index keys each lemma with an annotation type ({@code lemma\0NER}) and lists,
+ * for every sentence the lemma occurs in, the annotation values of that sentence as
+ * synonym ids. One posting walk per lemma therefore gives the sentences where the lemma
+ * co-occurs with every requested entity type, instead of reading the unigram index and
+ * intersecting it with the ner index. The entity details come from a second stitch posting
+ * of the lemma, {@code lemma\0NER_MENTION}, which lists the entity mentions of its sentences
+ * with their spans, read once for the matched documents.
+ * <p>
+ * Only patterns whose answer is identical to the {@link LogicalExecutor}'s, detail for
+ * detail, are routed here (see {@link #isEligible(Logical)}); everything else, and every
+ * query on a corpus without a stitch or ner index, falls back to the logical executor.
+ */
+public final class StitchExecutor implements ConditionExecutor<Logical> {
+    private static final Logger logger = LoggerFactory.getLogger(StitchExecutor.class);
+
+    static final String STITCH_INDEX = "stitch";
+    static final String NER_INDEX = "ner";
+
+    private final LogicalExecutor fallback;
+    // Annotation synonyms of each corpus with a usable stitch index
+    private final Map<String, AnnotationSynonyms> synonymsByCorpus = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new stitch executor.
+     *
+     * @param fallback The executor for queries the stitch index cannot answer
+     */
+    public StitchExecutor(LogicalExecutor fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Checks whether a condition has the shape this executor answers: an AND of single-term
+     * CONTAINS conditions and NER type slots, none of them binding a variable. Wildcard terms
+     * such as {@code "app*"} are excluded because stitch keys hold whole lemmas. DATE slots are
+     * excluded because the stitch index only records day-precision dates, while NER(DATE)
+     * also matches months, years and ranges.
+     *
+     * @param condition The logical condition
+     * @return true if the stitch index can answer the condition
+     */
+    public static boolean isEligible(Logical condition) {
+        if (condition.operator() != LogicalOperator.AND) {
+            return false;
+        }
+        boolean hasLemma = false;
+        boolean hasSlot = false;
+        for (Condition sub : condition.conditions()) {
+            if (sub instanceof Contains contains && !contains.isVariable() && contains.terms().size() == 1
+                    && !contains.terms().get(0).contains("*")) {
+                hasLemma = true;
+            } else if (sub instanceof Ner ner && isEntitySlot(ner)) {
+                hasSlot = true;
+            } else {
+                return false;
+            }
+        }
+        return hasLemma && hasSlot;
+    }
+
+    private static boolean isEntitySlot(Ner ner) {
+        return !ner.isVariable() && ner.target() == null
+            && !"*".equals(ner.entityType()) && !"DATE".equalsIgnoreCase(ner.entityType());
+    }
+
+    /**
+     * Loads the annotation synonyms of a corpus's stitch index. Queries on corpora that were
+     * not initialized, or have no stitch index, use the fallback executor.
+     *
+     * @param corpusName The corpus/source name
+     * @param indexManager The index manager of the corpus
+     * @return true if the stitch index can be used
+     */
+    public boolean initializeForCorpus(String corpusName, IndexManager indexManager) {
+        if (synonymsByCorpus.containsKey(corpusName)) {
+            return true;
+        }
+        Path stitchDir = Path.of(indexManager.getIndexBaseDir()).resolve(STITCH_INDEX);
+        if (indexManager.getIndex(STITCH_INDEX).isEmpty() || !Files.isDirectory(stitchDir)) {
+            logger.debug("No stitch index for corpus {}; AND patterns use the logical executor", corpusName);
+            return false;
+        }
+        try {
+            AnnotationSynonyms synonyms = new MultiAnnotationSynonyms(stitchDir);
+            if (synonyms.size(AnnotationType.NER) == 0) {
+                logger.warn("Stitch index of corpus {} has no NER synonyms; not using it", corpusName);
+                synonyms.close();
+                return false;
+            }
+            synonymsByCorpus.put(corpusName, synonyms);
+            logger.info("Loaded {} stitch annotation synonyms for corpus {}", synonyms.size(), corpusName);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Could not load stitch synonyms for corpus {}: {}", corpusName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Uses already loaded annotation synonyms for a corpus.
+     */
+    void registerSynonyms(String corpusName, AnnotationSynonyms synonyms) {
+        synonymsByCorpus.put(corpusName, synonyms);
+    }
+
+    @Override
+    public QueryResult execute(Logical condition, Map<String, IndexAccessInterface> indexes,
+                               Query.Granularity granularity,
+                               int granularitySize,
+                               String corpusName)
+        throws QueryExecutionException {
+        IndexAccessInterface stitch = indexes.get(STITCH_INDEX);
+        IndexAccessInterface nerIndex = indexes.get(NER_INDEX);
+        AnnotationSynonyms synonyms = synonymsByCorpus.get(corpusName);
+        // Stitch postings pair a lemma with the annotations of its own sentence only. The ner
+        // index is not read here, but backs the fallback for stitch indexes without mentions.
+        if (stitch == null || nerIndex == null || synonyms == null || !isEligible(condition)
+                || granularity != Query.Granularity.SENTENCE || granularitySize != 0) {
+            return fallback.execute(condition, indexes, granularity, granularitySize, corpusName);
+        }
+
+        Map<String, Ner> entityTypes = new LinkedHashMap<>();
+        Map<String, Contains> lemmas = new LinkedHashMap<>();
+        for (Condition sub : condition.conditions()) {
+            if (sub instanceof Ner ner) {
+                entityTypes.putIfAbsent(ner.entityType().toUpperCase(), ner);
+            } else if (sub instanceof Contains contains) {
+                lemmas.putIfAbsent(contains.terms().get(0).toLowerCase(), contains);
+            }
+        }
+
+        try {
+            Map<Integer, String> nerValues = new HashMap<>();
+            Set<Long> sentences = null;
+            Map<String, Map<Long, List<Position>>> occurrences = new LinkedHashMap<>();
+            for (String lemma : lemmas.keySet()) {
+                String key = lemma + IndexAccessInterface.DELIMITER + AnnotationType.NER.name();
+                Optional<PositionList> postings = stitch.get(key.getBytes(StandardCharsets.UTF_8));
+                if (postings.isEmpty()) {
+                    return new QueryResult(granularity, granularitySize, Collections.emptyList());
+                }
+                Map<Long, List<Position>> lemmaOccurrences = new HashMap<>();
+                Set<Long> matching = walk(postings.get(), entityTypes.keySet(), synonyms, nerValues, lemmaOccurrences);
+                if (sentences == null) {
+                    sentences = matching;
+                } else {
+                    sentences.retainAll(matching);
+                }
+                if (sentences.isEmpty()) {
+                    return new QueryResult(granularity, granularitySize, Collections.emptyList());
+                }
+                occurrences.put(lemma, lemmaOccurrences);
+            }
+
+            List<MatchDetail> details = new ArrayList<>();
+            for (Map.Entry<String, Map<Long, List<Position>>> entry : occurrences.entrySet()) {
+                String conditionId = String.valueOf(lemmas.get(entry.getKey()).hashCode());
+                for (Long sentence : sentences) {
+                    for (Position position : entry.getValue().get(sentence)) {
+                        details.add(new MatchDetail(entry.getKey(), ValueType.TERM, position, conditionId, null));
+                    }
+                }
+            }
+            DocumentIdSet documents = DocumentIdSet.of(sentences.stream()
+                .mapToInt(sentence -> (int) (sentence >>> 32)).toArray());
+            if (!collectEntities(stitch, lemmas.keySet().iterator().next(), entityTypes, synonyms, nerValues,
+                    documents, sentences, details)) {
+                logger.debug("Stitch index of corpus {} has no entity mentions; using the logical executor", corpusName);
+                return fallback.execute(condition, indexes, granularity, granularitySize, corpusName);
+            }
+            details.sort(Comparator.comparingInt(MatchDetail::getDocumentId)
+                .thenComparingInt(MatchDetail::getSentenceId)
+                .thenComparingInt(MatchDetail::getStartPosition));
+            logger.debug("Stitch index matched {} sentences for {}", sentences.size(), condition);
+            return new QueryResult(granularity, granularitySize, details);
+        } catch (Exception e) {
+            throw new QueryExecutionException(
+                "Error executing stitch pattern: " + e.getMessage(),
+                e,
+                condition.toString(),
+                QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR
+            );
+        }
+    }
+
+    /**
+     * Reads the entity mentions of the matched sentences from the stitch index, which keys
+     * them under every lemma of their sentence ({@code lemma\0NER_MENTION}), and adds those of
+     * the requested types as the {@link NerExecutor} reports them for a type slot.
+     *
+     * @return false if the stitch index predates mention postings
+     */
+    private static boolean collectEntities(IndexAccessInterface stitch, String lemma, Map<String, Ner> entityTypes,
+                                           AnnotationSynonyms synonyms, Map<Integer, String> nerValues,
+                                           DocumentIdSet documents, Set<Long> sentences,
+                                           List<MatchDetail> details) throws Exception {
+        String key = lemma + IndexAccessInterface.DELIMITER + StitchEntry.MENTION_KEY_TYPE;
+        Optional<DecodedPostings> mentions = stitch.getDecoded(key.getBytes(StandardCharsets.UTF_8));
+        if (mentions.isEmpty()) {
+            return false;
+        }
+        for (Position position : mentions.get().toPositionList(documents).getPositions()) {
+            long sentence = ((long) position.getDocumentId() << 32) | (position.getSentenceId() & 0xffffffffL);
+            if (!sentences.contains(sentence) || !(position instanceof StitchPosition stitchPosition)) {
+                continue;
+            }
+            String type = typeOf(stitchPosition.getSynonymId(), synonyms, nerValues);
+            Ner slot = entityTypes.get(type);
+            if (slot != null) {
+                details.add(new MatchDetail(type, ValueType.ENTITY,
+                    new Position(position.getDocumentId(), position.getSentenceId(),
+                        position.getBeginPosition(), position.getEndPosition(), position.getTimestamp()),
+                    String.valueOf(slot.hashCode()), null));
+            }
+        }
+        return true;
+    }
+
+    private static String typeOf(int synonymId, AnnotationSynonyms synonyms, Map<Integer, String> nerValues) {
+        return nerValues.computeIfAbsent(synonymId, id -> {
+            String value = synonyms.getValue(id, AnnotationType.NER);
+            return value == null ? "" : value.toUpperCase();
+        });
+    }
+
+    /**
+     * Walks the stitch postings of one lemma once, collecting the lemma's occurrences per
+     * sentence and the sentences that hold every requested entity type.
+     *
+     * @return The keys of the sentences with all entity types
+     */
+    private static Set<Long> walk(PositionList postings, Set<String> entityTypes, AnnotationSynonyms synonyms,
+                                  Map<Integer, String> nerValues, Map<Long, List<Position>> occurrences) {
+        Map<Long, Set<String>> typesBySentence = new HashMap<>();
+        Map<Long, Set<Long>> spansBySentence = new HashMap<>();
+        for (Position position : postings.getPositions()) {
+            long sentence = ((long) position.getDocumentId() << 32) | (position.getSentenceId() & 0xffffffffL);
+            long span = ((long) position.getBeginPosition() << 32) | (position.getEndPosition() & 0xffffffffL);
+            if (spansBySentence.computeIfAbsent(sentence, s -> new HashSet<>()).add(span)) {
+                occurrences.computeIfAbsent(sentence, s -> new ArrayList<>())
+                    .add(new Position(position.getDocumentId(), position.getSentenceId(),
+                        position.getBeginPosition(), position.getEndPosition(), position.getTimestamp()));
+            }
+            if (position instanceof StitchPosition stitchPosition) {
+                String type = typeOf(stitchPosition.getSynonymId(), synonyms, nerValues);
+                if (entityTypes.contains(type)) {
+                    typesBySentence.computeIfAbsent(sentence, s -> new HashSet<>()).add(type);
+                }
+            }
+        }
+        Set<Long> matching = new HashSet<>();
+        typesBySentence.forEach((sentence, types) -> {
+            if (types.size() == entityTypes.size()) {
+                matching.add(sentence);
+            }
+        });
+        return matching;
+    }
+}
@@ -9,9 +9,13 @@ import com.example.query.model.Query;
 import com.example.query.model.TemporalPredicate;
 import com.example.query.model.condition.Temporal;
 import com.example.query.index.IndexManager;
+import com.example.index.DateIntervals;
+import com.example.index.DatedPosition;
+import com.example.index.DateRollups;
+import com.example.index.NashIndex;
+import com.example.index.NashIndexGenerator;
 import com.example.query.executor.QueryResult;
 
-import org.apache.pig.impl.util.MultiMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +28,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -33,8 +38,9 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Executor for temporal conditions in queries.
@@ -47,11 +53,9 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
     
     // Formatter for parsing keys from the ner_date index (YYYYMMDD)
     private static final DateTimeFormatter INDEX_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
-    // Formatter for creating interval strings for Nash.invert ([YYYY-MM-DD , YYYY-MM-DD])
-    private static final DateTimeFormatter NASH_INTERVAL_FORMATTER = DateTimeFormatter.ISO_DATE;
     
-    // Store Nash indices per corpus: Map<CorpusName, Map<NashHashPrefix, Set<DocID>>>
-    private final Map<String, Map<String, Set<Integer>>> nashIndices = new HashMap<>();
+    // Nash indices per corpus, mapped from disk or rebuilt on the heap
+    private final Map<String, NashIndex> nashIndices = new HashMap<>();
     
     /**
      * Creates a new TemporalExecutor.
@@ -60,9 +64,10 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
     }
     
     /**
-     * Initializes the Nash index structure for a specific corpus by reading from the DATE_INDEX.
-     * It iterates through the DATE_INDEX, creates interval strings, generates Nash hashes,
-     * and stores a mapping from Nash hash prefixes to the document IDs associated with those intervals.
+     * Initializes the Nash index structure for a specific corpus.
+     * Maps the index file written by IndexRunner when it exists and is not older than the
+     * ner_date index. Otherwise the structure is rebuilt in memory from the DATE_INDEX,
+     * which takes a full scan of that index and a Nash inversion.
      */
     public boolean initializeNashIndexForCorpus(String corpusName, IndexManager indexManager) {
         if (nashIndices.containsKey(corpusName)) {
@@ -72,91 +77,65 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
 
         logger.info("Initializing Nash index for corpus: {}", corpusName);
 
+        Path indexSetDir = Path.of(indexManager.getIndexBaseDir());
+        Path nashFile = NashIndex.path(indexSetDir);
+        if (isUpToDate(nashFile, indexSetDir.resolve(DATE_INDEX))) {
+            try {
+                NashIndex nashIndex = NashIndex.open(nashFile);
+                nashIndices.put(corpusName, nashIndex);
+                logger.info("Mapped Nash index with {} hash prefixes for corpus: {}", nashIndex.bucketCount(), corpusName);
+                return true;
+            } catch (IOException e) {
+                logger.warn("Could not map Nash index {}, rebuilding it in memory: {}", nashFile, e.getMessage());
+            }
+        } else {
+            logger.warn("No up-to-date Nash index at {}; rebuilding it in memory. Run IndexRunner with --type nash to persist it.", nashFile);
+        }
+
         Optional<IndexAccessInterface> indexOpt = indexManager.getIndex(DATE_INDEX);
         if (indexOpt.isEmpty()) {
             logger.error("Cannot initialize Nash index: '{}' index not found via IndexManager for corpus '{}'.", DATE_INDEX, corpusName);
             return false;
         }
-        IndexAccessInterface dateIndex = indexOpt.get();
-
-        // Prepare data for Nash.invert
-        List<String> intervalStrings = new ArrayList<>();
-        // Temporary map to link list index back to document IDs
-        Map<Integer, Set<Integer>> listIndexToDocIds = new HashMap<>();
-        int intervalIndex = 0;
-
-        try (var iterator = dateIndex.iterator()) {
-            iterator.seekToFirst();
-            while (iterator.hasNext()) {
-                Entry<byte[], byte[]> entry = iterator.next(); // Use next() to get and advance
-                String dateStr = new String(entry.getKey(), StandardCharsets.UTF_8);
-                LocalDate docDate = parseDateKey(dateStr); // Reuse existing parsing logic
-
-                if (docDate != null) {
-                    // Format as "[YYYY-MM-DD , YYYY-MM-DD]" for Nash
-                    String interval = String.format("[%s , %s]",
-                            NASH_INTERVAL_FORMATTER.format(docDate),
-                            NASH_INTERVAL_FORMATTER.format(docDate));
-                    intervalStrings.add(interval);
-
-                    // Extract document IDs from the value (PositionList)
-                    PositionList positions = PositionList.deserialize(entry.getValue());
-                    Set<Integer> docIds = positions.getPositions().stream()
-                                                    .map(Position::getDocumentId)
-                                                    .collect(Collectors.toSet());
 
-                    listIndexToDocIds.put(intervalIndex, docIds);
-                    intervalIndex++;
-                } else {
-                    logger.warn("Skipping invalid date key during Nash initialization: {}", dateStr);
-                }
+        try {
+            Map<Integer, LocalDate> documentDates = new HashMap<>();
+            Map<String, Set<Integer>> buckets = NashIndexGenerator.buildBuckets(indexOpt.get(), documentDates);
+            if (buckets.isEmpty()) {
+                logger.warn("No valid date intervals found in '{}' index for corpus '{}'. Nash index will be empty.", DATE_INDEX, corpusName);
             }
+            nashIndices.put(corpusName, NashIndex.of(buckets, documentDates));
+
+            // Log the number of unique prefixes, not date ranges
+            logger.info("Nash index initialized with {} unique hash prefixes for corpus: {}", buckets.size(), corpusName);
+            return true;
         } catch (Exception e) {
-            logger.error("Error reading from '{}' index during Nash initialization for corpus '{}': {}", DATE_INDEX, corpusName, e.getMessage(), e);
+            logger.error("Failed to generate Nash index structure for corpus '{}': {}", corpusName, e.getMessage(), e);
             return false;
         }
+    }
 
-        logger.debug("Prepared {} interval strings from '{}' index for Nash inversion.", intervalStrings.size(), DATE_INDEX);
-
-        if (intervalStrings.isEmpty()) {
-            logger.warn("No valid date intervals found in '{}' index for corpus '{}'. Nash index will be empty.", DATE_INDEX, corpusName);
-            // Initialize with an empty map to avoid checks failing later
-            nashIndices.put(corpusName, Collections.emptyMap());
-            return true; // Technically initialized, just empty.
+    /**
+     * Checks that the Nash index file exists and was written after the last change to the
+     * LevelDB files of the ner_date index.
+     */
+    private boolean isUpToDate(Path nashFile, Path dateIndexDir) {
+        if (!Files.exists(nashFile)) {
+            return false;
         }
-
-        try {
-            // Generate Nash structure: MultiMap<NashHashPrefix, IntervalListIndex>
-            MultiMap<String, Integer> invertedIndex = Nash.invert(intervalStrings);
-
-            // Convert to final structure: Map<NashHashPrefix, Set<DocID>>
-            Map<String, Set<Integer>> corpusNashIndex = new HashMap<>();
-            for (String nashPrefix : invertedIndex.keySet()) {
-                Set<Integer> docIdSet = new HashSet<>();
-                // For each prefix, get the list indices it maps to
-                for (Integer listIdx : invertedIndex.get(nashPrefix)) {
-                    // Use the temporary map to find the actual doc IDs for that list index
-                    Set<Integer> ids = listIndexToDocIds.get(listIdx);
-                    if (ids != null) {
-                        docIdSet.addAll(ids);
-                    } else {
-                         logger.warn("Inconsistency: Nash prefix '{}' mapped to list index {} which has no associated doc IDs.", nashPrefix, listIdx);
-                    }
+        // Walks into the segment directories of a time-segmented index
+        try (Stream<Path> files = Files.walk(dateIndexDir)) {
+            long nashModified = Files.getLastModifiedTime(nashFile).toMillis();
+            return files.allMatch(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis() <= nashModified
+                        || !(file.toString().endsWith(".ldb") || file.toString().endsWith(".sst"));
+                } catch (IOException e) {
+                    return false;
                 }
-                 if (!docIdSet.isEmpty()) {
-                    corpusNashIndex.put(nashPrefix, docIdSet);
-                 }
-            }
-
-            // Store the final index for the corpus
-            nashIndices.put(corpusName, corpusNashIndex);
-
-            // Log the number of unique prefixes, not date ranges
-            logger.info("Nash index initialized with {} unique hash prefixes for corpus: {}", corpusNashIndex.size(), corpusName);
-            return true;
-
-        } catch (Exception e) { // Catch potential exceptions from Nash.invert
-            logger.error("Failed to generate Nash index structure for corpus '{}': {}", corpusName, e.getMessage(), e);
+            });
+        } catch (IOException e) {
+            logger.debug("Could not compare Nash index with {}: {}", dateIndexDir, e.getMessage());
             return false;
         }
     }
@@ -222,7 +201,7 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
             String corpus)
             throws QueryExecutionException {
         
-        Map<String, Set<Integer>> nashIndex = nashIndices.get(corpus);
+        NashIndex nashIndex = nashIndices.get(corpus);
         if (nashIndex == null) {
             logger.error("Nash index unexpectedly null for corpus: {}. Returning empty list.", corpus);
             return Collections.emptyList(); 
@@ -238,17 +217,14 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
             String[] hashPrefixes = Nash.generateTimeHash(interval, nashPredicate);
             Set<Integer> matchingDocIds = new HashSet<>();
             for (String hashPrefix : hashPrefixes) {
-                 Set<Integer> docIds = nashIndex.get(hashPrefix);
-                 if (docIds != null) {
-                     matchingDocIds.addAll(docIds);
-                 }
+                 nashIndex.collectDocIds(hashPrefix, matchingDocIds);
             }
             
             logger.debug("Nash query found {} matching document IDs", matchingDocIds.size());
             
-            // Create placeholder MatchDetail for each doc ID
+            // Create placeholder MatchDetail for each doc ID, dated like the document
             for (Integer docId : matchingDocIds) {
-                 Position placeholderPos = new Position(docId, -1, -1, -1, null);
+                 Position placeholderPos = new Position(docId, -1, -1, -1, nashIndex.documentDate(docId));
                  // Use interval string as placeholder value? Yes, for consistency
                  details.add(new MatchDetail(interval, ValueType.DATE, placeholderPos, conditionId, null));
             }
@@ -266,40 +242,20 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
             Map<String, IndexAccessInterface> indexes)
             throws QueryExecutionException {
         
-        List<MatchDetail> details = new ArrayList<>();
-        String conditionId = String.valueOf(condition.hashCode());
-        IndexAccessInterface dateIndex = indexes.get(DATE_INDEX);
-        TemporalPredicate type = condition.temporalType();
-        LocalDateTime queryStart = condition.startDate();
-        LocalDateTime queryEnd = condition.endDate().orElse(queryStart);
-
-        logger.debug("Scanning DATE index directly for condition: {} ({} to {})", type, queryStart, queryEnd);
+        logger.debug("Scanning DATE index directly for condition: {} ({} to {})",
+                condition.temporalType(), condition.startDate(), condition.endDate().orElse(condition.startDate()));
 
-        try (var iterator = dateIndex.iterator()) {
-            iterator.seekToFirst(); // Start scan from the beginning
-            while (iterator.hasNext()) {
-                 Entry<byte[], byte[]> currentEntry = iterator.peekNext();
-                 String dateStr = new String(currentEntry.getKey(), StandardCharsets.UTF_8);
-                 LocalDate docDate = parseDateKey(dateStr);
-                
-                 iterator.next(); // Consume entry
-                
-                 if (docDate != null) {
-                     // Evaluate the condition using helper method
-                     if (evaluateTemporalCondition(type, docDate.atStartOfDay(), queryStart, queryEnd)) {
-                         PositionList positions = PositionList.deserialize(currentEntry.getValue());
-                         for (Position position : positions.getPositions()) {
-                             // Create MatchDetail for each position matching the date criteria
-                             details.add(new MatchDetail(docDate, ValueType.DATE, position, conditionId, null));
-                         }
-                     }
-                 }
-            }
+        try {
+            IndexAccessInterface dateIndex = indexes.get(DATE_INDEX);
+            List<MatchDetail> details = hasRollups(dateIndex)
+                ? scanRollupCover(condition, dateIndex)
+                : scanDateRange(condition, dateIndex, null);
+            details.addAll(scanIntervals(condition, dateIndex, null));
+            logger.debug("DATE index scan found {} matching details", details.size());
+            return details;
         } catch (Exception e) {
              throw new QueryExecutionException("Error scanning DATE index: " + e.getMessage(), e, condition.toString(), QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR);
         }
-        logger.debug("DATE index scan found {} matching details", details.size());
-        return details;
     }
     
     /**
@@ -310,46 +266,271 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
             Map<String, IndexAccessInterface> indexes)
             throws QueryExecutionException {
         
-        List<MatchDetail> details = new ArrayList<>();
-        String conditionId = String.valueOf(condition.hashCode());
         String variableName = condition.variable().orElse(null);
         if (variableName == null) {
              logger.warn("Variable name missing in temporal variable extraction mode. Condition: {}", condition);
-             return details;
+             return new ArrayList<>();
         }
 
-        IndexAccessInterface dateIndex = indexes.get(DATE_INDEX);
+        logger.debug("Scanning DATE index for variable '{}' extraction: {} ({} to {})", variableName,
+                condition.temporalType(), condition.startDate(), condition.endDate().orElse(condition.startDate()));
+
+        try {
+            IndexAccessInterface dateIndex = indexes.get(DATE_INDEX);
+            List<MatchDetail> details = scanDateRange(condition, dateIndex, variableName);
+            details.addAll(scanIntervals(condition, dateIndex, variableName));
+            logger.debug("DATE index variable extraction found {} details for '{}'", details.size(), variableName);
+            return details;
+        } catch (Exception e) {
+             throw new QueryExecutionException("Error scanning DATE index for variable extraction: " + e.getMessage(), e, condition.toString(), QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR);
+        }
+    }
+    
+    /**
+     * Collects the positions of all ner_date keys that satisfy the condition.
+     * The yyyyMMdd keys sort chronologically, so the scan seeks to the first date of the
+     * matching range and stops after its last date instead of visiting every key.
+     *
+     * @param variableName The variable to bind, or null
+     */
+    private List<MatchDetail> scanDateRange(Temporal condition, IndexAccessInterface dateIndex, String variableName)
+            throws Exception {
+        List<MatchDetail> details = new ArrayList<>();
+        String conditionId = String.valueOf(condition.hashCode());
         TemporalPredicate type = condition.temporalType();
         LocalDateTime queryStart = condition.startDate();
         LocalDateTime queryEnd = condition.endDate().orElse(queryStart);
-        
-        logger.debug("Scanning DATE index for variable '{}' extraction: {} ({} to {})", variableName, type, queryStart, queryEnd);
 
-        try (var iterator = dateIndex.iterator()) {
-             iterator.seekToFirst();
-             while (iterator.hasNext()) {
-                 Entry<byte[], byte[]> currentEntry = iterator.peekNext();
-                 String dateStr = new String(currentEntry.getKey(), StandardCharsets.UTF_8);
-                 LocalDate docDate = parseDateKey(dateStr);
-                
-                 iterator.next(); // Consume entry
-                
-                 if (docDate != null) {
-                     if (evaluateTemporalCondition(type, docDate.atStartOfDay(), queryStart, queryEnd)) {
-                         PositionList positions = PositionList.deserialize(currentEntry.getValue());
-                         for (Position position : positions.getPositions()) {
-                             details.add(new MatchDetail(docDate, ValueType.DATE, position, conditionId, variableName));
-                         }
-                     }
-                 }
-             }
-        } catch (Exception e) {
-             throw new QueryExecutionException("Error scanning DATE index for variable extraction: " + e.getMessage(), e, condition.toString(), QueryExecutionException.ErrorType.INDEX_ACCESS_ERROR);
+        Optional<DateKeyRange> range = DateKeyRange.of(type, queryStart, queryEnd);
+        if (range.isEmpty()) {
+            logger.warn("Unsupported TemporalPredicate type: {}", type);
+            return details;
+        }
+        if (range.get().isEmpty()) {
+            return details;
+        }
+
+        int keysVisited = 0;
+        // Time-segmented indexes skip the years outside the range
+        try (var iterator = dateIndex.restrictTo(range.get().from(), range.get().to()).iterator()) {
+            Optional<byte[]> seekKey = range.get().seekKey();
+            if (seekKey.isPresent()) {
+                iterator.seek(seekKey.get());
+            } else {
+                iterator.seekToFirst();
+            }
+            while (iterator.hasNext()) {
+                Entry<byte[], byte[]> currentEntry = iterator.next();
+                keysVisited++;
+                if (DateRollups.isRollupKey(currentEntry.getKey())) {
+                    // Roll-up keys sort after every day
+                    break;
+                }
+                LocalDate docDate = parseDateKey(new String(currentEntry.getKey(), StandardCharsets.UTF_8));
+                if (docDate == null) {
+                    continue;
+                }
+                if (range.get().isPastEnd(docDate)) {
+                    break;
+                }
+                if (range.get().contains(docDate)) {
+                    PositionList positions = PositionList.deserialize(currentEntry.getValue());
+                    for (Position position : positions.getPositions()) {
+                        details.add(new MatchDetail(docDate, ValueType.DATE, position, conditionId, variableName));
+                    }
+                }
+            }
         }
-        logger.debug("DATE index variable extraction found {} details for '{}'", details.size(), variableName);
+        logger.debug("Visited {} DATE index keys for range {}", keysVisited, range.get());
         return details;
     }
     
+    /**
+     * Checks whether the date index holds year and month roll-up lists whose positions
+     * know their day. Indexes built before roll-ups were introduced only hold daily keys,
+     * and roll-ups of plain positions cannot give the matched date, so both are scanned
+     * day by day instead.
+     */
+    private boolean hasRollups(IndexAccessInterface dateIndex) throws Exception {
+        try (var iterator = dateIndex.iterator()) {
+            // Interval keys sort between the days and the month roll-ups
+            iterator.seek(DateRollups.MONTH_PREFIX.getBytes(StandardCharsets.UTF_8));
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            Entry<byte[], byte[]> first = iterator.next();
+            return DateRollups.isRollupKey(first.getKey()) && PositionList.hasTypedPositions(first.getValue());
+        }
+    }
+
+    /**
+     * Collects the positions of the interval mentions (months, years, decades, ranges)
+     * that satisfy a CONTAINS, CONTAINED_BY or INTERSECT condition. Each length class of
+     * {@link DateIntervals} is read with one seek and a scan over the starts that can
+     * match, so the cost follows the matches rather than the days of the query.
+     * <p>
+     * The value of a match is its interval, in the same form as the values of the Nash path.
+     * Other predicates compare single days and are answered by the daily keys alone. Days
+     * compare at their start, as in {@link DateKeyRange}, so a query bound within a day
+     * rounds the same way for single days and intervals.
+     *
+     * @param variableName The variable to bind, or null
+     */
+    private List<MatchDetail> scanIntervals(Temporal condition, IndexAccessInterface dateIndex, String variableName)
+            throws Exception {
+        List<MatchDetail> details = new ArrayList<>();
+        TemporalPredicate type = condition.temporalType();
+        if (type != TemporalPredicate.CONTAINS && type != TemporalPredicate.CONTAINED_BY
+                && type != TemporalPredicate.INTERSECT) {
+            return details;
+        }
+        String conditionId = String.valueOf(condition.hashCode());
+        LocalDateTime startTime = condition.startDate();
+        LocalDateTime endTime = condition.endDate().orElse(startTime);
+        // An interval containing the query must start by its first day and reach past its end;
+        // otherwise the query's first and last whole days bound the interval
+        LocalDate queryStart = type == TemporalPredicate.CONTAINED_BY
+            ? startTime.toLocalDate() : DateKeyRange.ceil(startTime);
+        LocalDate queryEnd = type == TemporalPredicate.CONTAINED_BY
+            ? DateKeyRange.ceil(endTime) : endTime.toLocalDate();
+        if (queryEnd.isBefore(queryStart)) {
+            return details;
+        }
+        long queryLength = queryEnd.toEpochDay() - queryStart.toEpochDay() + 1;
+
+        int keysVisited = 0;
+        for (int lengthClass = 1; lengthClass <= DateIntervals.MAX_LENGTH_CLASS; lengthClass++) {
+            long maxLength = DateIntervals.maxLength(lengthClass);
+            // Window of interval starts that can satisfy the predicate in this class
+            LocalDate firstStart;
+            LocalDate lastStart;
+            switch (type) {
+                case CONTAINS -> {
+                    if (DateIntervals.minLength(lengthClass) > queryLength) {
+                        continue;
+                    }
+                    firstStart = queryStart;
+                    lastStart = queryEnd;
+                }
+                case CONTAINED_BY -> {
+                    if (maxLength < queryLength) {
+                        continue;
+                    }
+                    firstStart = queryEnd.minusDays(maxLength - 1);
+                    lastStart = queryStart;
+                }
+                default -> {
+                    firstStart = queryStart.minusDays(maxLength - 1);
+                    lastStart = queryEnd;
+                }
+            }
+            if (firstStart.isBefore(DateRollups.MIN_DATE)) {
+                firstStart = DateRollups.MIN_DATE;
+            }
+
+            String classPrefix = DateIntervals.classPrefix(lengthClass);
+            try (var iterator = dateIndex.restrictTo(firstStart, lastStart).iterator()) {
+                iterator.seek(DateIntervals.seekKey(lengthClass, firstStart).getBytes(StandardCharsets.UTF_8));
+                while (iterator.hasNext()) {
+                    Entry<byte[], byte[]> currentEntry = iterator.next();
+                    String key = new String(currentEntry.getKey(), StandardCharsets.UTF_8);
+                    if (!key.startsWith(classPrefix)) {
+                        break;
+                    }
+                    keysVisited++;
+                    Optional<DateIntervals.Interval> interval = DateIntervals.fromKey(key);
+                    if (interval.isEmpty()) {
+                        logger.trace("Skipping unexpected interval key '{}'", key);
+                        continue;
+                    }
+                    LocalDate start = interval.get().start();
+                    LocalDate end = interval.get().end();
+                    if (start.isAfter(lastStart)) {
+                        break;
+                    }
+                    boolean matches = switch (type) {
+                        case CONTAINS -> !end.isAfter(queryEnd);
+                        case CONTAINED_BY -> !end.isBefore(queryEnd);
+                        default -> !end.isBefore(queryStart);
+                    };
+                    if (!matches) {
+                        continue;
+                    }
+                    String value = "[" + start + " , " + end + "]";
+                    for (Position position : PositionList.deserialize(currentEntry.getValue()).getPositions()) {
+                        details.add(new MatchDetail(value, ValueType.DATE, position, conditionId, variableName));
+                    }
+                }
+            }
+        }
+        logger.debug("Visited {} interval keys for {} [{} , {}]", keysVisited, type, queryStart, queryEnd);
+        return details;
+    }
+
+    /**
+     * Collects the positions matching the condition from the fewest year, month and day
+     * lists that cover its date range, like a segment tree lookup. A range of any length
+     * reads at most two runs of days and two runs of months besides its whole years.
+     * <p>
+     * Positions from a roll-up list are {@link DatedPosition}s, so every match has the
+     * mentioned day as its value, as on the daily path. Variable bindings keep using
+     * {@link #scanDateRange}.
+     */
+    private List<MatchDetail> scanRollupCover(Temporal condition, IndexAccessInterface dateIndex)
+            throws Exception {
+        List<MatchDetail> details = new ArrayList<>();
+        String conditionId = String.valueOf(condition.hashCode());
+        TemporalPredicate type = condition.temporalType();
+        LocalDateTime queryStart = condition.startDate();
+        LocalDateTime queryEnd = condition.endDate().orElse(queryStart);
+
+        Optional<DateKeyRange> range = DateKeyRange.of(type, queryStart, queryEnd);
+        if (range.isEmpty()) {
+            logger.warn("Unsupported TemporalPredicate type: {}", type);
+            return details;
+        }
+        if (range.get().isEmpty()) {
+            return details;
+        }
+        LocalDate from = Objects.requireNonNullElse(range.get().from(), DateRollups.MIN_DATE);
+        LocalDate to = Objects.requireNonNullElse(range.get().to(), DateRollups.MAX_DATE);
+        List<DateRollups.Segment> segments = DateRollups.cover(from, to);
+
+        int keysVisited = 0;
+        try (var iterator = dateIndex.restrictTo(from, to).iterator()) {
+            for (DateRollups.Segment segment : segments) {
+                byte[] lastKey = segment.lastKey().getBytes(StandardCharsets.UTF_8);
+                iterator.seek(segment.firstKey().getBytes(StandardCharsets.UTF_8));
+                while (iterator.hasNext()) {
+                    Entry<byte[], byte[]> currentEntry = iterator.next();
+                    if (Arrays.compareUnsigned(currentEntry.getKey(), lastKey) > 0) {
+                        break;
+                    }
+                    keysVisited++;
+                    String key = new String(currentEntry.getKey(), StandardCharsets.UTF_8);
+                    Optional<DateRollups.Segment> period = DateRollups.period(key);
+                    if (period.isEmpty() || period.get().level() != segment.level()) {
+                        logger.trace("Skipping unexpected date key '{}'", key);
+                        continue;
+                    }
+                    for (Position position : PositionList.deserialize(currentEntry.getValue()).getPositions()) {
+                        LocalDate date = period.get().start();
+                        if (position instanceof DatedPosition dated) {
+                            date = dated.getMentionDate();
+                            // Plain positions, like those of the daily path
+                            position = new Position(position.getDocumentId(), position.getSentenceId(),
+                                position.getBeginPosition(), position.getEndPosition(), position.getTimestamp());
+                        }
+                        details.add(new MatchDetail(date, ValueType.DATE, position, conditionId, null));
+                    }
+                }
+            }
+        }
+        logger.debug("Visited {} DATE index keys in {} roll-up segments for range {}",
+            keysVisited, segments.size(), range.get());
+        return details;
+    }
+
     /**
      * Parses a date string from the index key.
      * Expects format like 'YYYY-MM-DD'. Returns null if parsing fails.
@@ -363,33 +544,4 @@ public final class TemporalExecutor implements ConditionExecutor<Temporal> {
             return null;
         }
     }
-    
-    /**
-     * Evaluates if a document date satisfies the temporal condition.
-     * @param type The TemporalPredicate (CONTAINS, INTERSECT, etc.)
-     * @param docDate The start date associated with the document/entry.
-     * @param queryStart The start of the query interval.
-     * @param queryEnd The end of the query interval.
-     * @return true if the condition is met, false otherwise.
-     */
-     private boolean evaluateTemporalCondition(TemporalPredicate type, LocalDateTime docDateTime, LocalDateTime queryStart, LocalDateTime queryEnd) {
-         // Assuming ner_date only stores single dates, not ranges.
-         // So docStart = docEnd = docDateTime
-         LocalDateTime docStart = docDateTime;
-         LocalDateTime docEnd = docDateTime;
-
-         return switch (type) {
-             case CONTAINS -> // Query interval [queryStart, queryEnd] must contain doc interval [docStart, docEnd]
-                 !queryStart.isAfter(docStart) && !queryEnd.isBefore(docEnd);
-             case CONTAINED_BY -> // Doc interval [docStart, docEnd] must contain query interval [queryStart, queryEnd]
-                 !docStart.isAfter(queryStart) && !docEnd.isBefore(queryEnd);
-             case INTERSECT -> // Intervals overlap
-                 !queryStart.isAfter(docEnd) && !queryEnd.isBefore(docStart);
-             // Add other cases like BEFORE, AFTER, EQUALS if needed
-             default -> {
-                 logger.warn("Unsupported TemporalPredicate type: {}", type);
-                 yield false;
-             }
-         };
-     }
-} 
\ No newline at end of file
+}
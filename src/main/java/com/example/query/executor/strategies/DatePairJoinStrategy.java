@@ -0,0 +1,298 @@
+package com.example.query.executor.strategies;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import tech.tablesaw.api.DateColumn;
+import tech.tablesaw.api.Row;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+import com.example.query.executor.TemporalJoinStrategy;
+import com.example.query.model.JoinCondition;
+import com.example.query.model.TemporalPredicate;
+import com.example.query.result.ResultGenerationException;
+
+/**
+ * Base class of the date join strategies that first compute the matching row pairs
+ * and then materialize them. Subclasses only implement {@link #findPairs}; validation,
+ * column naming and outer join rows behave exactly like the naive strategies.
+ *
+ * On single date columns the interval predicates reduce to simple day comparisons:
+ * CONTAINS, CONTAINED_BY and INTERSECT match equal days, PROXIMITY matches days at most
+ * the proximity window apart.
+ */
+abstract class DatePairJoinStrategy implements TemporalJoinStrategy {
+
+    static final Set<TemporalPredicate> SUPPORTED_PREDICATES = Set.of(
+            TemporalPredicate.CONTAINS, TemporalPredicate.CONTAINED_BY,
+            TemporalPredicate.INTERSECT, TemporalPredicate.PROXIMITY);
+
+    protected final TemporalPredicate predicate;
+    private final String component;
+
+    DatePairJoinStrategy(TemporalPredicate predicate, String component) {
+        if (!SUPPORTED_PREDICATES.contains(predicate)) {
+            throw new IllegalArgumentException(
+                    "Join strategy " + component + " does not support temporal predicate " + predicate);
+        }
+        this.predicate = predicate;
+        this.component = component;
+    }
+
+    /**
+     * Finds all matching (left row, right row) pairs.
+     *
+     * @param left Epoch days of the left join column
+     * @param right Epoch days of the right join column
+     * @param window Maximum distance in days for PROXIMITY, 0 otherwise
+     * @return Pairs packed as (left << 32 | right), sorted left-major
+     */
+    abstract long[] findPairs(Dates left, Dates right, int window);
+
+    @Override
+    public Table execute(Table leftTable, Table rightTable, JoinCondition joinCondition)
+            throws ResultGenerationException {
+
+        validateInputs(leftTable, rightTable, joinCondition);
+
+        int window = predicate == TemporalPredicate.PROXIMITY ? joinCondition.proximityWindow().get() : 0;
+        long[] pairs = findPairs(
+                Dates.of(leftTable.dateColumn(joinCondition.leftColumn())),
+                Dates.of(rightTable.dateColumn(joinCondition.rightColumn())),
+                window);
+
+        Table joinedTable = createJoinedTable(leftTable, rightTable);
+        boolean[] matchedLeftRows = new boolean[leftTable.rowCount()];
+        boolean[] matchedRightRows = new boolean[rightTable.rowCount()];
+
+        for (long pair : pairs) {
+            int i = (int) (pair >>> 32);
+            int j = (int) pair;
+            int rowIndex = joinedTable.rowCount();
+            joinedTable.appendRow();
+            copyRow(leftTable.row(i), leftTable, joinedTable, rowIndex, null);
+            copyRow(rightTable.row(j), rightTable, joinedTable, rowIndex, leftTable);
+            matchedLeftRows[i] = true;
+            matchedRightRows[j] = true;
+        }
+
+        // Handle outer joins if needed
+        if (joinCondition.type() == JoinCondition.JoinType.LEFT) {
+            for (int i = 0; i < matchedLeftRows.length; i++) {
+                if (!matchedLeftRows[i]) {
+                    int rowIndex = joinedTable.rowCount();
+                    joinedTable.appendRow();
+                    copyRow(leftTable.row(i), leftTable, joinedTable, rowIndex, null);
+                }
+            }
+        } else if (joinCondition.type() == JoinCondition.JoinType.RIGHT) {
+            for (int j = 0; j < matchedRightRows.length; j++) {
+                if (!matchedRightRows[j]) {
+                    int rowIndex = joinedTable.rowCount();
+                    joinedTable.appendRow();
+                    copyRow(rightTable.row(j), rightTable, joinedTable, rowIndex, leftTable);
+                }
+            }
+        }
+
+        return joinedTable;
+    }
+
+    /**
+     * Validates that inputs meet the requirements for this join strategy.
+     */
+    private void validateInputs(Table leftTable, Table rightTable, JoinCondition joinCondition)
+            throws ResultGenerationException {
+
+        String leftColumn = joinCondition.leftColumn();
+        String rightColumn = joinCondition.rightColumn();
+
+        if (joinCondition.temporalPredicate() != predicate) {
+            throw new ResultGenerationException(
+                "Strategy for " + predicate + " cannot execute a "
+                    + joinCondition.temporalPredicate() + " join",
+                component,
+                ResultGenerationException.ErrorType.INTERNAL_ERROR
+            );
+        }
+
+        // Check if columns exist
+        if (!leftTable.columnNames().contains(leftColumn)) {
+            throw new ResultGenerationException(
+                "Left join column '" + leftColumn + "' not found in table " + leftTable.name(),
+                component,
+                ResultGenerationException.ErrorType.INTERNAL_ERROR
+            );
+        }
+
+        if (!rightTable.columnNames().contains(rightColumn)) {
+            throw new ResultGenerationException(
+                "Right join column '" + rightColumn + "' not found in table " + rightTable.name(),
+                component,
+                ResultGenerationException.ErrorType.INTERNAL_ERROR
+            );
+        }
+
+        // Check column types
+        if (!(leftTable.column(leftColumn) instanceof DateColumn)) {
+            throw new ResultGenerationException(
+                "Left join column '" + leftColumn + "' must be a date column",
+                component,
+                ResultGenerationException.ErrorType.INTERNAL_ERROR
+            );
+        }
+
+        if (!(rightTable.column(rightColumn) instanceof DateColumn)) {
+            throw new ResultGenerationException(
+                "Right join column '" + rightColumn + "' must be a date column",
+                component,
+                ResultGenerationException.ErrorType.INTERNAL_ERROR
+            );
+        }
+
+        // PROXIMITY join requires a window parameter
+        if (predicate == TemporalPredicate.PROXIMITY && joinCondition.proximityWindow().isEmpty()) {
+            throw new ResultGenerationException(
+                "PROXIMITY join requires a proximityWindow parameter",
+                component,
+                ResultGenerationException.ErrorType.INTERNAL_ERROR
+            );
+        }
+    }
+
+    /**
+     * Creates an empty table with the columns of both inputs. Right columns whose name
+     * also occurs on the left are prefixed with the right table name.
+     */
+    private Table createJoinedTable(Table leftTable, Table rightTable) {
+        Table joinedTable = Table.create("Joined_" + leftTable.name() + "_" + rightTable.name());
+
+        for (Column<?> column : leftTable.columns()) {
+            joinedTable.addColumns(column.emptyCopy());
+        }
+
+        for (Column<?> column : rightTable.columns()) {
+            Column<?> copy = column.emptyCopy();
+            if (leftTable.columnNames().contains(column.name())) {
+                copy.setName(rightTable.name() + "_" + column.name());
+            }
+            joinedTable.addColumns(copy);
+        }
+        return joinedTable;
+    }
+
+    /**
+     * Copies all values of a source row into a row of the joined table.
+     *
+     * @param leftTable The left table when copying a right row (to resolve renamed
+     *                  columns), or null when copying a left row
+     */
+    private void copyRow(Row sourceRow, Table sourceTable, Table joinedTable, int rowIndex, Table leftTable) {
+        for (String colName : sourceTable.columnNames()) {
+            String targetColName = leftTable != null && leftTable.columnNames().contains(colName)
+                ? sourceTable.name() + "_" + colName
+                : colName;
+            copyValue(sourceRow, sourceTable.column(colName), joinedTable.column(targetColName), rowIndex);
+        }
+    }
+
+    /**
+     * Copies a value from one row/column to another row/column.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void copyValue(Row sourceRow, Column<?> sourceCol, Column<?> targetCol, int targetRow) {
+        if (sourceRow.isMissing(sourceCol.name())) {
+            return;
+        }
+
+        if (targetCol instanceof DateColumn && sourceCol instanceof DateColumn) {
+            ((DateColumn) targetCol).set(targetRow, sourceRow.getDate(sourceCol.name()));
+        } else {
+            Object value = sourceCol.get(sourceRow.getRowNumber());
+            ((Column) targetCol).set(targetRow, value);
+        }
+    }
+
+    /**
+     * Epoch days of a date column. Missing values never match and are left out of
+     * {@link #rows}.
+     */
+    static final class Dates {
+        /** Epoch day per row; undefined for missing rows */
+        final long[] days;
+        /** Row numbers of the non-missing values, in table order */
+        final int[] rows;
+        /** Whether the non-missing values are already in ascending order */
+        final boolean sorted;
+
+        Dates(long[] days, int[] rows, boolean sorted) {
+            this.days = days;
+            this.rows = rows;
+            this.sorted = sorted;
+        }
+
+        static Dates of(DateColumn column) {
+            int size = column.size();
+            long[] days = new long[size];
+            int[] rows = new int[size];
+            int count = 0;
+            boolean sorted = true;
+            for (int i = 0; i < size; i++) {
+                if (column.isMissing(i)) {
+                    continue;
+                }
+                days[i] = column.get(i).toEpochDay();
+                if (count > 0 && days[i] < days[rows[count - 1]]) {
+                    sorted = false;
+                }
+                rows[count++] = i;
+            }
+            return new Dates(days, count == size ? rows : Arrays.copyOf(rows, count), sorted);
+        }
+
+        /**
+         * Returns the non-missing row numbers ordered by day, then row number.
+         */
+        int[] rowsByDay() {
+            if (sorted) {
+                return rows;
+            }
+            Integer[] boxed = new Integer[rows.length];
+            for (int k = 0; k < rows.length; k++) {
+                boxed[k] = rows[k];
+            }
+            // Stable sort keeps equal days in row order
+            Arrays.sort(boxed, (a, b) -> Long.compare(days[a], days[b]));
+            int[] order = new int[boxed.length];
+            for (int k = 0; k < boxed.length; k++) {
+                order[k] = boxed[k];
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Growable buffer of packed row pairs.
+     */
+    static final class PairBuffer {
+        private long[] pairs = new long[16];
+        private int size = 0;
+
+        void add(int left, int right) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            pairs[size++] = ((long) left << 32) | right;
+        }
+
+        /**
+         * Returns the pairs in left-major order, the order of a nested loop over both tables.
+         */
+        long[] sorted() {
+            long[] result = Arrays.copyOf(pairs, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.query.executor.strategies;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.example.query.model.TemporalPredicate;
+
+/**
+ * Hash join on the epoch day of the join columns.
+ *
+ * Builds a day-to-rows table over the smaller input and probes it with every row of the
+ * larger one. For PROXIMITY each probe looks up all 2 * window + 1 days of its window,
+ * so this strategy is only a good choice for small windows.
+ *
+ * Runs in O(n + m + output) for CONTAINS, CONTAINED_BY and INTERSECT and needs no sort.
+ */
+public class HashDateJoinStrategy extends DatePairJoinStrategy {
+
+    /**
+     * Creates a hash join strategy for one temporal predicate.
+     *
+     * @param predicate CONTAINS, CONTAINED_BY, INTERSECT or PROXIMITY
+     * @throws IllegalArgumentException for predicates that are not interval based
+     */
+    public HashDateJoinStrategy(TemporalPredicate predicate) {
+        super(predicate, "hash_join");
+    }
+
+    @Override
+    long[] findPairs(Dates left, Dates right, int window) {
+        boolean buildLeft = left.rows.length <= right.rows.length;
+        Dates build = buildLeft ? left : right;
+        Dates probe = buildLeft ? right : left;
+
+        // Rows of each day, in row order
+        Map<Long, int[]> table = new HashMap<>();
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int row : build.rows) {
+            counts.merge(build.days[row], 1, Integer::sum);
+        }
+        for (int row : build.rows) {
+            long day = build.days[row];
+            int[] rows = table.computeIfAbsent(day, d -> new int[counts.get(d) + 1]);
+            // Slot 0 holds the fill count
+            rows[++rows[0]] = row;
+        }
+
+        PairBuffer pairs = new PairBuffer();
+        for (int row : probe.rows) {
+            long day = probe.days[row];
+            for (long d = day - window; d <= day + window; d++) {
+                int[] rows = table.get(d);
+                if (rows == null) {
+                    continue;
+                }
+                for (int k = 1; k <= rows[0]; k++) {
+                    if (buildLeft) {
+                        pairs.add(rows[k], row);
+                    } else {
+                        pairs.add(row, rows[k]);
+                    }
+                }
+            }
+        }
+        return pairs.sorted();
+    }
+}
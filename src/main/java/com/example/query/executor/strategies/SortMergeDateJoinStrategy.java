@@ -0,0 +1,43 @@
+package com.example.query.executor.strategies;
+
+import com.example.query.model.TemporalPredicate;
+
+/**
+ * Sort-merge band join on the epoch day of the join columns.
+ *
+ * Both inputs are ordered by day (a no-op when they already are) and merged with a
+ * window of right rows whose days lie within [day - window, day + window] of the
+ * current left row. The window only ever moves forward, so after sorting the merge is
+ * O(n + m + output). This is the cheapest choice when both inputs arrive sorted.
+ */
+public class SortMergeDateJoinStrategy extends DatePairJoinStrategy {
+
+    /**
+     * Creates a sort-merge strategy for one temporal predicate.
+     *
+     * @param predicate CONTAINS, CONTAINED_BY, INTERSECT or PROXIMITY
+     * @throws IllegalArgumentException for predicates that are not interval based
+     */
+    public SortMergeDateJoinStrategy(TemporalPredicate predicate) {
+        super(predicate, "sort_merge_join");
+    }
+
+    @Override
+    long[] findPairs(Dates left, Dates right, int window) {
+        int[] leftOrder = left.rowsByDay();
+        int[] rightOrder = right.rowsByDay();
+
+        PairBuffer pairs = new PairBuffer();
+        int first = 0;
+        for (int l : leftOrder) {
+            long day = left.days[l];
+            while (first < rightOrder.length && right.days[rightOrder[first]] < day - window) {
+                first++;
+            }
+            for (int k = first; k < rightOrder.length && right.days[rightOrder[k]] <= day + window; k++) {
+                pairs.add(l, rightOrder[k]);
+            }
+        }
+        return pairs.sorted();
+    }
+}
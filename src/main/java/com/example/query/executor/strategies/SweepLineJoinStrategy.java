@@ -0,0 +1,106 @@
+package com.example.query.executor.strategies;
+
+import java.util.PriorityQueue;
+
+import com.example.query.model.TemporalPredicate;
+
+/**
+ * Sweep-line implementation of the interval temporal join predicates
+ * (CONTAINS, CONTAINED_BY, INTERSECT and PROXIMITY).
+ *
+ * Every row is treated as an interval of epoch days. A date column value d is the
+ * interval [d, d]; for PROXIMITY the left interval is widened to [d - window, d + window],
+ * so overlap means the two dates are at most window days apart. Both inputs are sorted
+ * by interval start and swept in one pass. Each side keeps an active set ordered by
+ * interval end; when a row starts, rows of the other side that ended earlier are expired
+ * and all remaining active rows overlap it. CONTAINS and CONTAINED_BY additionally check
+ * the interval bounds of each overlapping pair.
+ *
+ * Runs in O((n + m) log(n + m) + output) instead of the O(n * m) of the naive strategies.
+ * Output rows are emitted in the same left-major order as the naive strategies.
+ */
+public class SweepLineJoinStrategy extends DatePairJoinStrategy {
+
+    /**
+     * Creates a sweep-line strategy for one temporal predicate.
+     *
+     * @param predicate CONTAINS, CONTAINED_BY, INTERSECT or PROXIMITY
+     * @throws IllegalArgumentException for predicates that are not interval based
+     */
+    public SweepLineJoinStrategy(TemporalPredicate predicate) {
+        super(predicate, "sweep_line_join");
+    }
+
+    @Override
+    long[] findPairs(Dates leftDates, Dates rightDates, int window) {
+        long[] leftStart = new long[leftDates.days.length];
+        long[] leftEnd = new long[leftDates.days.length];
+        for (int l : leftDates.rows) {
+            leftStart[l] = leftDates.days[l] - window;
+            leftEnd[l] = leftDates.days[l] + window;
+        }
+        long[] rightStart = rightDates.days;
+        long[] rightEnd = rightDates.days;
+        // Widening every left interval by the same amount keeps the order by day
+        int[] leftOrder = leftDates.rowsByDay();
+        int[] rightOrder = rightDates.rowsByDay();
+
+        PriorityQueue<Integer> activeLeft = new PriorityQueue<>(
+                (a, b) -> Long.compare(leftEnd[a], leftEnd[b]));
+        PriorityQueue<Integer> activeRight = new PriorityQueue<>(
+                (a, b) -> Long.compare(rightEnd[a], rightEnd[b]));
+
+        PairBuffer pairs = new PairBuffer();
+        int li = 0;
+        int ri = 0;
+
+        while (li < leftOrder.length || ri < rightOrder.length) {
+            // On equal starts the left row goes first; the right row then sees it as active
+            boolean takeLeft = ri >= rightOrder.length
+                    || (li < leftOrder.length
+                        && leftStart[leftOrder[li]] <= rightStart[rightOrder[ri]]);
+
+            if (takeLeft) {
+                int l = leftOrder[li++];
+                expire(activeRight, rightEnd, leftStart[l]);
+                for (int r : activeRight) {
+                    if (matches(leftStart[l], leftEnd[l], rightStart[r], rightEnd[r])) {
+                        pairs.add(l, r);
+                    }
+                }
+                activeLeft.add(l);
+            } else {
+                int r = rightOrder[ri++];
+                expire(activeLeft, leftEnd, rightStart[r]);
+                for (int l : activeLeft) {
+                    if (matches(leftStart[l], leftEnd[l], rightStart[r], rightEnd[r])) {
+                        pairs.add(l, r);
+                    }
+                }
+                activeRight.add(r);
+            }
+        }
+
+        return pairs.sorted();
+    }
+
+    /**
+     * Removes active rows whose interval ends before the given start.
+     */
+    private static void expire(PriorityQueue<Integer> active, long[] end, long start) {
+        while (!active.isEmpty() && end[active.peek()] < start) {
+            active.poll();
+        }
+    }
+
+    /**
+     * Checks an overlapping pair of intervals against the predicate.
+     */
+    private boolean matches(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+        return switch (predicate) {
+            case CONTAINS -> leftStart <= rightStart && rightEnd <= leftEnd;
+            case CONTAINED_BY -> rightStart <= leftStart && leftEnd <= rightEnd;
+            default -> true;
+        };
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.query.index;
 
+import com.example.core.CachingIndexAccess;
 import com.example.core.IndexAccessInterface;
 import com.example.core.IndexAccess;
 import com.example.core.IndexAccessException;
+import com.example.core.PostingCache;
+import com.example.core.SegmentManifest;
+import com.example.core.SegmentedIndexAccess;
+import com.example.core.TermKeyedIndexAccess;
+import com.example.index.TermDictionary;
 import com.example.query.model.condition.Condition;
 import com.example.query.model.condition.Contains;
 import com.example.query.model.condition.Dependency;
+import com.example.query.model.condition.Hypernym;
 import com.example.query.model.condition.Ner;
 import com.example.query.model.condition.Temporal;
 
@@ -14,11 +21,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 /**
  * Manages access to LevelDB indexes for a specific index set.
@@ -30,6 +43,9 @@ public class IndexManager implements AutoCloseable {
     private final Map<String, IndexAccessInterface> indexes;
     private final Path indexBaseDir;
     private final String indexSetName;
+    private final String indexVersion;
+    // Opened with the first term-keyed index, shared by all of them
+    private TermDictionary termDictionary;
     private boolean isClosed = false;
 
     /**
@@ -53,6 +69,19 @@ public class IndexManager implements AutoCloseable {
         }
         
         initializeIndexes();
+        this.indexVersion = computeIndexVersion();
+        enablePostingCache(PostingCache.shared());
+    }
+
+    /**
+     * Routes point lookups of all indexes through the shared posting cache. Entries are
+     * namespaced by index path and version, so a rebuilt index never sees stale postings.
+     */
+    private void enablePostingCache(PostingCache cache) {
+        for (Map.Entry<String, IndexAccessInterface> entry : indexes.entrySet()) {
+            String namespace = indexBaseDir.resolve(entry.getKey()) + "@" + indexVersion;
+            entry.setValue(new CachingIndexAccess(entry.getValue(), cache, namespace));
+        }
     }
 
     /**
@@ -68,12 +97,17 @@ public class IndexManager implements AutoCloseable {
         // Initialize all required indexes
         String[] indexTypes = {
             "unigram", "bigram", "trigram", "pos", "ner", "ner_date", 
-            "dependency"
+            "dependency", "ner_timeline", "stitch", "hypernym"
         };
 
         for (String type : indexTypes) {
             try {
                 Path indexPath = indexBaseDir.resolve(type);
+                if (SegmentManifest.exists(indexPath)) {
+                    indexes.put(type, withStringKeys(indexPath, SegmentedIndexAccess.open(indexPath, type, options)));
+                    logger.info("Initialized {} index from time segments", type);
+                    continue;
+                }
                 if (!Files.exists(indexPath) || !Files.exists(indexPath.resolve("CURRENT"))) {
                     if (!Files.exists(indexPath)) {
                         logger.warn("Index directory {} does not exist", indexPath);
@@ -96,7 +130,7 @@ public class IndexManager implements AutoCloseable {
                     continue;
                 }
 
-                indexes.put(type, new IndexAccess(indexPath, type, options));
+                indexes.put(type, withStringKeys(indexPath, new IndexAccess(indexPath, type, options)));
                 logger.info("Initialized {} index", type);
                 
             } catch (Exception e) {
@@ -115,6 +149,33 @@ public class IndexManager implements AutoCloseable {
         }
     }
 
+    /**
+     * Returns a view of an index keyed by term IDs that takes string keys, so executors can
+     * read it like the other indexes. Indexes keyed by strings are returned as they are.
+     */
+    private IndexAccessInterface withStringKeys(Path indexPath, IndexAccessInterface index) throws Exception {
+        if (!TermDictionary.isTermKeyed(indexPath)) {
+            return index;
+        }
+        if (!Files.exists(indexBaseDir.resolve(TermDictionary.FILE_NAME))) {
+            index.close();
+            throw new IndexAccessException(
+                "Index " + indexPath + " is keyed by term IDs but " + TermDictionary.FILE_NAME + " is missing",
+                index.getIndexType(),
+                IndexAccessException.ErrorType.INITIALIZATION_ERROR
+            );
+        }
+        try {
+            if (termDictionary == null) {
+                termDictionary = TermDictionary.open(indexBaseDir);
+            }
+        } catch (IOException e) {
+            index.close();
+            throw e;
+        }
+        return new TermKeyedIndexAccess(index, termDictionary);
+    }
+
     /**
      * Gets an index by name
      *
@@ -162,12 +223,68 @@ public class IndexManager implements AutoCloseable {
             return Optional.of(indexes.get("ner_date"));
         } else if (condition instanceof Dependency && indexes.containsKey("dependency")) {
             return Optional.of(indexes.get("dependency"));
+        } else if (condition instanceof Hypernym && indexes.containsKey("hypernym")) {
+            return Optional.of(indexes.get("hypernym"));
         }
         
         logger.warn("No appropriate index found for condition type: {}", condition.getClass().getSimpleName());
         return Optional.empty();
     }
 
+    /**
+     * Gets a fingerprint of the index files that were opened. It changes whenever one of the
+     * indexes is rebuilt, so callers holding derived data (such as cached query results)
+     * can detect that it is stale.
+     *
+     * @return The index set version
+     */
+    public String getIndexVersion() {
+        return indexVersion;
+    }
+
+    /**
+     * Builds the version from the names and sizes of each opened index's table files,
+     * including those of its time segments. Opening a database may roll its MANIFEST and
+     * log, but only a rewrite of the index produces new table files.
+     */
+    private String computeIndexVersion() {
+        Map<String, String> parts = new TreeMap<>();
+        for (String type : indexes.keySet()) {
+            Path indexPath = indexBaseDir.resolve(type);
+            CRC32 checksum = new CRC32();
+            try (Stream<Path> files = Files.walk(indexPath)) {
+                List<Path> tables = files
+                    .filter(p -> p.getFileName().toString().endsWith(".ldb") || p.getFileName().toString().endsWith(".sst"))
+                    .sorted()
+                    .collect(Collectors.toList());
+                for (Path table : tables) {
+                    checksum.update((indexPath.relativize(table) + ":" + Files.size(table) + ";").getBytes(StandardCharsets.UTF_8));
+                }
+                parts.put(type, tables.size() + "/" + Long.toHexString(checksum.getValue()));
+            } catch (IOException e) {
+                // Unknown state: make the version unique so nothing stale is reused
+                logger.warn("Could not list table files of {} index: {}", type, e.getMessage());
+                parts.put(type, "unknown-" + System.nanoTime());
+            }
+        }
+        return parts.toString();
+    }
+
+    /**
+     * Gets the posting cache counters of each index in this set.
+     *
+     * @return Map of index name to hit, miss and eviction counts
+     */
+    public Map<String, PostingCache.Stats> getPostingCacheStats() {
+        Map<String, PostingCache.Stats> stats = new TreeMap<>();
+        for (Map.Entry<String, IndexAccessInterface> entry : indexes.entrySet()) {
+            if (entry.getValue() instanceof CachingIndexAccess caching) {
+                stats.put(entry.getKey(), caching.getCacheStats());
+            }
+        }
+        return stats;
+    }
+
     /**
      * Gets all available indexes
      *
@@ -201,6 +318,7 @@ public class IndexManager implements AutoCloseable {
     @Override
     public void close() throws Exception {
         if (!isClosed) {
+            logger.debug("Posting cache stats for index set '{}': {}", indexSetName, getPostingCacheStats());
             for (IndexAccessInterface index : indexes.values()) {
                 try {
                     index.close();
@@ -0,0 +1,92 @@
+package com.example.query.model;
+
+import com.example.core.IndexAccessInterface;
+import com.example.query.binding.MatchDetail;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a COUNT BY YEAR (or MONTH, DAY) expression in the SELECT clause of a query.
+ * The query result is a histogram: one row per bucket of document timestamps with the
+ * number of result units (documents or sentences, following the granularity) in it.
+ * <p>
+ * The counts are computed during execution from the timestamps stored in the postings, so
+ * no per-match rows are built and no timestamps are read from the database. This column
+ * names the bucket column; the count column is {@link #COUNT_COLUMN}.
+ */
+public class HistogramColumn implements SelectColumn {
+    public static final String COUNT_COLUMN = "count";
+    /** Bucket label of units whose document has no timestamp */
+    public static final String UNDATED = "undated";
+
+    public enum Bucket {
+        YEAR,
+        MONTH,
+        DAY;
+
+        /**
+         * Gets a number identifying the bucket of a day, ordered like the days.
+         */
+        public long bucketOf(LocalDate day) {
+            return switch (this) {
+                case YEAR -> day.getYear();
+                case MONTH -> day.getYear() * 12L + day.getMonthValue() - 1;
+                case DAY -> day.toEpochDay();
+            };
+        }
+
+        /**
+         * Formats a bucket number from {@link #bucketOf(LocalDate)} as yyyy, yyyy-MM or yyyy-MM-dd.
+         */
+        public String label(long bucket) {
+            return switch (this) {
+                case YEAR -> String.format("%04d", bucket);
+                case MONTH -> String.format("%04d-%02d", Math.floorDiv(bucket, 12), Math.floorMod(bucket, 12) + 1);
+                case DAY -> LocalDate.ofEpochDay(bucket).toString();
+            };
+        }
+    }
+
+    private final Bucket bucket;
+
+    /**
+     * Creates a new histogram column.
+     *
+     * @param bucket The size of the buckets
+     */
+    public HistogramColumn(Bucket bucket) {
+        this.bucket = bucket;
+    }
+
+    public Bucket getBucket() {
+        return bucket;
+    }
+
+    @Override
+    public String getColumnName() {
+        return bucket.name().toLowerCase();
+    }
+
+    @Override
+    public Column<?> createColumn() {
+        return StringColumn.create(getColumnName());
+    }
+
+    @Override
+    public void populateColumn(Table table, int rowIndex, List<MatchDetail> detailsForUnit,
+                               String source,
+                               Map<String, IndexAccessInterface> indexes) {
+        // Histogram queries never produce per-unit rows; the buckets are filled from the
+        // histogram computed during execution.
+    }
+
+    @Override
+    public String toString() {
+        return "COUNT BY " + bucket.name();
+    }
+}
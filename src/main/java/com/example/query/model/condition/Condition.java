@@ -15,6 +15,7 @@ import com.example.query.binding.VariableType;
 public sealed interface Condition 
     permits Contains, 
             Dependency,
+            Hypernym,
             Logical,
             Ner,
             Not,
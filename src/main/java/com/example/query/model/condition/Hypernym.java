@@ -0,0 +1,84 @@
+package com.example.query.model.condition;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+import com.example.query.binding.VariableRegistry;
+import com.example.query.binding.VariableType;
+
+/**
+ * Represents a HYPERNYM condition in the query language.
+ * This condition matches mentions of any instance of a category, such as every vehicle
+ * named in a "vehicles such as cars and trucks" construction, using the hypernym index.
+ */
+public record Hypernym(
+    String category,
+    String variableName,
+    boolean isVariable
+) implements Condition {
+
+    /**
+     * Creates a new hypernym condition with validation.
+     */
+    public Hypernym {
+        Objects.requireNonNull(category, "category cannot be null");
+
+        if (isVariable) {
+            Objects.requireNonNull(variableName, "variableName cannot be null when isVariable is true");
+        }
+    }
+
+    /**
+     * Creates a new hypernym condition without variable binding.
+     *
+     * @param category The category (hypernym) whose instances to match
+     */
+    public Hypernym(String category) {
+        this(category, null, false);
+    }
+
+    /**
+     * Returns whether this condition uses variable binding.
+     */
+    public boolean isVariable() {
+        return isVariable;
+    }
+
+    /**
+     * Returns the variable name if this is a variable binding condition.
+     */
+    public String getVariableName() {
+        return variableName;
+    }
+
+    @Override
+    public String getType() {
+        return "HYPERNYM";
+    }
+
+    @Override
+    public Set<String> getProducedVariables() {
+        return isVariable ? Set.of(variableName) : Collections.emptySet();
+    }
+
+    @Override
+    public VariableType getProducedVariableType() {
+        return VariableType.TEXT_SPAN;
+    }
+
+    @Override
+    public void registerVariables(VariableRegistry registry) {
+        if (isVariable) {
+            registry.registerProducer(variableName, getProducedVariableType(), getType());
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (isVariable) {
+            return String.format("HYPERNYM(\"%s\") AS ?%s", category, variableName);
+        }
+        return String.format("HYPERNYM(\"%s\")", category);
+    }
+}
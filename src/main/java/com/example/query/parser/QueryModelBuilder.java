@@ -4,6 +4,7 @@ import com.example.query.model.*;
 import com.example.query.model.condition.Condition;
 import com.example.query.model.condition.Contains;
 import com.example.query.model.condition.Dependency;
+import com.example.query.model.condition.Hypernym;
 import com.example.query.model.condition.Logical;
 import com.example.query.model.condition.Logical.LogicalOperator;
 import com.example.query.model.condition.Ner;
@@ -193,6 +194,11 @@ public class QueryModelBuilder extends QueryLangBaseVisitor<Object> {
         return CountColumn.countDocuments();
     }
 
+    @Override
+    public Object visitCountByExpression(QueryLangParser.CountByExpressionContext ctx) {
+        return new HistogramColumn(HistogramColumn.Bucket.valueOf(ctx.bucket.getText()));
+    }
+
     @Override
     public List<Condition> visitConditionList(QueryLangParser.ConditionListContext ctx) {
         if (ctx.condition().size() == 1) {
@@ -671,6 +677,23 @@ public class QueryModelBuilder extends QueryLangBaseVisitor<Object> {
         return new Pos(posTag, termValue, variableName, isVariable);
     }
 
+    @Override
+    public Object visitHypernymExpression(QueryLangParser.HypernymExpressionContext ctx) {
+        String category = unquote(ctx.category.getText());
+
+        String variableName = null;
+        boolean isVariable = false;
+
+        if (ctx.var != null) {
+            variableName = (String) visit(ctx.var);
+            isVariable = true;
+            // Instances are bound as text spans, like CONTAINS
+            variableRegistry.registerProducer(variableName, VariableType.TEXT_SPAN, "HYPERNYM");
+        }
+
+        return new Hypernym(category, variableName, isVariable);
+    }
+
     @Override
     public Object visitPosTag(QueryLangParser.PosTagContext ctx) {
         if (ctx.STRING() != null) {
@@ -1,10 +1,12 @@
 package com.example.query.result;
 
+import com.example.query.executor.DateHistogram;
 import com.example.query.executor.QueryResult;
 import com.example.query.executor.SubqueryContext;
 import com.example.query.model.Query;
 import com.example.query.model.SelectColumn;
 import com.example.query.model.CountColumn;
+import com.example.query.model.HistogramColumn;
 import com.example.query.model.VariableColumn;
 import com.example.core.IndexAccessInterface;
 import com.example.query.binding.MatchDetail;
@@ -91,6 +93,10 @@ public class TableResultService {
         logger.info("Processing {} initial matching details at {} granularity",
                 initialDetailCount, granularity);
 
+        if (result != null && result.getHistogram().isPresent()) {
+            return generateHistogramTable(query, result.getHistogram().get());
+        }
+
         if (result == null || result.getAllDetails() == null || result.getAllDetails().isEmpty()) {
              logger.warn("Input QueryResult is null or empty, returning empty table.");
              return Table.create("EmptyQueryResults"); // Return an empty table
@@ -312,6 +318,33 @@ public class TableResultService {
         }
     }
 
+    /**
+     * Builds the table of a COUNT BY query: one row per bucket, in bucket order unless the
+     * query orders by the bucket or count column.
+     *
+     * @param query The original query
+     * @param histogram The bucket counts computed during execution
+     * @return A table with the bucket and count columns
+     */
+    private Table generateHistogramTable(Query query, DateHistogram histogram) {
+        String bucketColumnName = histogram.bucket().name().toLowerCase();
+        StringColumn buckets = StringColumn.create(bucketColumnName);
+        LongColumn counts = LongColumn.create(HistogramColumn.COUNT_COLUMN);
+        histogram.counts().forEach((bucket, count) -> {
+            buckets.append(bucket);
+            counts.append(count);
+        });
+        Table table = Table.create("QueryResults", buckets, counts);
+
+        List<String> orderColumns = query.orderBy().stream().map(String::toLowerCase).toList();
+        table = applyOrdering(table, orderColumns);
+        if (query.limit().isPresent() && query.limit().get() > 0 && query.limit().get() < table.rowCount()) {
+            table = table.first(query.limit().get());
+        }
+        logger.info("Generated histogram with {} buckets counting {} units", table.rowCount(), histogram.total());
+        return table;
+    }
+
     /**
      * Applies ordering to a Tablesaw table based on order specifications.
      *
@@ -1,5 +1,6 @@
 package com.example.query.sqlite;
 
+import com.example.index.DocumentOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +12,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Provides access to SQLite databases for different sources.
@@ -28,6 +30,9 @@ public class SqliteAccessor {
     
     // Cache of database paths to avoid repeated file existence checks
     private final Map<String, String> dbPathCache = new HashMap<>();
+
+    // Timestamp-ordered id mapping per source, empty for sources indexed with SQLite ids
+    private final Map<String, Optional<DocumentOrder>> documentOrders = new HashMap<>();
     
     /**
      * Creates a new SqliteAccessor with the specified index base directory.
@@ -101,6 +106,7 @@ public class SqliteAccessor {
         String value = null;
         
         try (Connection conn = getConnection(source)) {
+            int sqliteId = toSqliteId(source, conn, documentId);
             // Query to get metadata from the database
             String sql;
             if (fieldName == null) {
@@ -112,7 +118,7 @@ public class SqliteAccessor {
             }
             
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, documentId);
+                stmt.setInt(1, sqliteId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
                         if (fieldName == null) {
@@ -160,7 +166,7 @@ public class SqliteAccessor {
             String sql = "SELECT text FROM documents WHERE document_id = ?";
             
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, documentId);
+                stmt.setInt(1, toSqliteId(source, conn, documentId));
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
                         text = rs.getString(1);
@@ -180,6 +186,24 @@ public class SqliteAccessor {
         return text;
     }
     
+    /**
+     * Translates a document id found in the index to the SQLite id of the document.
+     */
+    private int toSqliteId(String source, Connection conn, int documentId) throws SQLException {
+        Optional<DocumentOrder> order = documentOrder(source, conn);
+        return order.isPresent() ? order.get().documentId(documentId) : documentId;
+    }
+
+    private synchronized Optional<DocumentOrder> documentOrder(String source, Connection conn) throws SQLException {
+        Optional<DocumentOrder> order = documentOrders.get(source);
+        if (order == null) {
+            order = DocumentOrder.load(conn);
+            order.ifPresent(o -> logger.info("Source {} uses timestamp-ordered ids for {} documents", source, o.size()));
+            documentOrders.put(source, order);
+        }
+        return order;
+    }
+    
     /**
      * Gets the path to the SQLite database for the specified source.
      *
@@ -0,0 +1,38 @@
+package com.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentIdSetTest {
+
+    @Test
+    void testOfSortsAndDeduplicates() {
+        DocumentIdSet set = DocumentIdSet.of(new int[]{5, 1, 5, 3, 1});
+        assertArrayEquals(new int[]{1, 3, 5}, set.toArray());
+    }
+
+    @Test
+    void testIntersect() {
+        DocumentIdSet a = DocumentIdSet.of(new int[]{1, 4, 7, 10, 200, 5000});
+        DocumentIdSet b = DocumentIdSet.of(new int[]{2, 4, 10, 11, 12, 13, 14, 15, 5000});
+        assertArrayEquals(new int[]{4, 10, 5000}, a.intersect(b).toArray());
+        assertArrayEquals(new int[]{4, 10, 5000}, b.intersect(a).toArray());
+        assertTrue(a.intersect(DocumentIdSet.empty()).isEmpty());
+    }
+
+    @Test
+    void testCursorAdvanceTo() {
+        int[] ids = new int[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i * 2;
+        }
+        DocumentIdSet.Cursor cursor = DocumentIdSet.of(ids).cursor();
+        assertEquals(0, cursor.advanceTo(0));
+        assertEquals(10, cursor.advanceTo(9));
+        assertEquals(10, cursor.advanceTo(10));
+        assertEquals(1500, cursor.advanceTo(1499));
+        assertEquals(1998, cursor.advanceTo(1998));
+        assertEquals(DocumentIdSet.NO_MORE_DOCS, cursor.advanceTo(1999));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PostingCacheTest {
+
+    private static byte[] key(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decoded postings whose estimated size is at most {@code bytes}, within one position.
+     */
+    private static DecodedPostings postings(int bytes) {
+        int count = Math.max(0, (bytes - 128) / 24);
+        return new DecodedPostings(new int[count], new int[count], new int[count], new int[count],
+            new long[count], null, null, false);
+    }
+
+    @Test
+    void testValuesAreCachedPerIndex() {
+        PostingCache cache = new PostingCache(100_000);
+        DecodedPostings apple = postings(200);
+
+        assertNull(cache.getDecoded("ns", "unigram", key("apple")));
+        cache.putDecoded("ns", "unigram", key("apple"), apple);
+
+        assertSame(apple, cache.getDecoded("ns", "unigram", key("apple")));
+        assertNull(cache.getDecoded("other", "unigram", key("apple")));
+        assertEquals(1, cache.stats("unigram").hits());
+        assertEquals(2, cache.stats("unigram").misses());
+    }
+
+    @Test
+    void testScanDoesNotEvictFrequentlyUsedKeys() {
+        PostingCache cache = new PostingCache(100_000);
+        for (int round = 0; round < 10; round++) {
+            for (int k = 0; k < 50; k++) {
+                if (cache.getDecoded("ns", "ner", key("hot" + k)) == null) {
+                    cache.putDecoded("ns", "ner", key("hot" + k), postings(1000));
+                }
+            }
+        }
+        for (int k = 0; k < 5000; k++) {
+            if (cache.getDecoded("ns", "unigram", key("scan" + k)) == null) {
+                cache.putDecoded("ns", "unigram", key("scan" + k), postings(1000));
+            }
+        }
+
+        long hitsBefore = cache.stats("ner").hits();
+        for (int k = 0; k < 50; k++) {
+            cache.getDecoded("ns", "ner", key("hot" + k));
+        }
+        assertEquals(50, cache.stats("ner").hits() - hitsBefore);
+        assertTrue(cache.stats("unigram").evictions() > 0);
+        assertTrue(cache.sizeInBytes() <= 100_000);
+    }
+
+    @Test
+    void testRejectedCandidateKeepsColderVictims() {
+        // Window of 1000 bytes, main region of 99000 bytes
+        PostingCache cache = new PostingCache(100_000);
+        cache.putDecoded("ns", "ner", key("cold1"), postings(1000));
+        cache.putDecoded("ns", "ner", key("hot"), postings(49_000));
+        for (int i = 0; i < 5; i++) {
+            cache.getDecoded("ns", "ner", key("hot"));
+        }
+        cache.putDecoded("ns", "ner", key("filler"), postings(2000));
+        cache.getDecoded("ns", "unigram", key("mid"));
+        cache.getDecoded("ns", "unigram", key("mid"));
+        cache.putDecoded("ns", "unigram", key("mid"), postings(49_000));
+
+        // Promoting "mid" would need both "cold1" and the more frequent "hot" to leave
+        cache.putDecoded("ns", "ner", key("tiny"), postings(10));
+
+        assertEquals(0, cache.stats("ner").evictions());
+        assertEquals(1, cache.stats("unigram").evictions());
+        assertNotNull(cache.getDecoded("ns", "ner", key("cold1")));
+        assertNotNull(cache.getDecoded("ns", "ner", key("hot")));
+        assertNull(cache.getDecoded("ns", "unigram", key("mid")));
+    }
+
+    @Test
+    void testCachingIndexAccessDecodesOnce() throws Exception {
+        PositionList list = new PositionList();
+        list.add(new Position(1, 0, 0, 5, LocalDate.of(2020, 1, 1)));
+        list.add(new Position(2, 3, 4, 9, LocalDate.of(2021, 1, 1)));
+        byte[] serialized = list.serialize();
+
+        IndexAccessInterface delegate = mock(IndexAccessInterface.class);
+        when(delegate.getIndexType()).thenReturn("unigram");
+        when(delegate.getRaw(key("apple"))).thenReturn(Optional.of(serialized));
+        CachingIndexAccess index = new CachingIndexAccess(delegate, new PostingCache(100_000), "ns");
+
+        PositionList first = index.get(key("apple")).orElseThrow();
+        PositionList second = index.get(key("apple")).orElseThrow();
+
+        assertEquals(first.getPositions(), second.getPositions());
+        assertNotSame(first, second);
+        assertEquals(1, index.getCacheStats().hits());
+        verify(delegate, times(1)).getRaw(key("apple"));
+    }
+
+    @Test
+    void testRawAndDecodedReadsShareOneEntry() throws Exception {
+        PositionList list = new PositionList();
+        list.add(new Position(4, 0, 0, 5, LocalDate.of(2020, 1, 1)));
+        IndexAccessInterface delegate = mock(IndexAccessInterface.class);
+        when(delegate.getIndexType()).thenReturn("unigram");
+        when(delegate.getRaw(key("apple"))).thenReturn(Optional.of(list.serialize()));
+        PostingCache cache = new PostingCache(100_000);
+        CachingIndexAccess index = new CachingIndexAccess(delegate, cache, "ns");
+
+        DecodedPostings decoded = index.getDecoded(key("apple")).orElseThrow();
+        assertSame(decoded, index.getDecoded(key("apple")).orElseThrow());
+        assertEquals(list.getPositions(), index.get(key("apple")).orElseThrow().getPositions());
+        assertEquals(decoded.sizeInBytes() + key("apple").length, cache.sizeInBytes());
+        verify(delegate, times(1)).getRaw(key("apple"));
+
+        // Raw reads are not cached
+        index.getRaw(key("apple"));
+        index.getRaw(key("apple"));
+        verify(delegate, times(3)).getRaw(key("apple"));
+    }
+
+    @Test
+    void testWritesInvalidateIndexEntries() throws Exception {
+        PositionList list = new PositionList();
+        list.add(new Position(1, 0, 0, 5, LocalDate.of(2020, 1, 1)));
+        IndexAccessInterface delegate = mock(IndexAccessInterface.class);
+        when(delegate.getIndexType()).thenReturn("unigram");
+        when(delegate.getRaw(key("apple"))).thenReturn(Optional.of(list.serialize()));
+        CachingIndexAccess index = new CachingIndexAccess(delegate, new PostingCache(100_000), "ns");
+
+        index.get(key("apple"));
+        index.put(key("apple"), new byte[]{8});
+        index.get(key("apple"));
+
+        verify(delegate, times(2)).getRaw(key("apple"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.core;
+
+import com.example.core.index.MockIndexAccess;
+import org.iq80.leveldb.DBIterator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedIndexAccessTest {
+    private static final SegmentManifest.Segment Y2019 =
+        new SegmentManifest.Segment("2019", LocalDate.of(2019, 2, 1), LocalDate.of(2019, 11, 30), 2);
+    private static final SegmentManifest.Segment Y2020 =
+        new SegmentManifest.Segment("2020", LocalDate.of(2020, 1, 5), LocalDate.of(2020, 12, 1), 2);
+
+    private SegmentedIndexAccess index;
+
+    @BeforeEach
+    void setUp() {
+        MockIndexAccess first = new MockIndexAccess("unigram");
+        first.addTestData("apple", 1, 0, 0, 5);
+        first.addTestData("cherry", 2, 0, 0, 6);
+        MockIndexAccess second = new MockIndexAccess("unigram");
+        second.addTestData("apple", 7, 1, 3, 8);
+        second.addTestData("banana", 8, 0, 0, 6);
+        index = new SegmentedIndexAccess("unigram", List.of(
+            new SegmentedIndexAccess.Part(Y2019, first),
+            new SegmentedIndexAccess.Part(Y2020, second)));
+    }
+
+    @Test
+    void testGetJoinsSegments() throws Exception {
+        PositionList apple = index.get(bytes("apple")).orElseThrow();
+        assertEquals(List.of(1, 7), apple.getPositions().stream().map(Position::getDocumentId).toList());
+        assertEquals(1, index.get(bytes("banana")).orElseThrow().size());
+        assertTrue(index.getRaw(bytes("durian")).isEmpty());
+    }
+
+    @Test
+    void testIteratorMergesKeysInOrder() throws Exception {
+        List<String> keys = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        try (DBIterator iterator = index.iterator()) {
+            iterator.seekToFirst();
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                keys.add(new String(entry.getKey(), StandardCharsets.UTF_8));
+                sizes.add(PositionList.deserialize(entry.getValue()).size());
+            }
+        }
+        assertEquals(List.of("apple", "banana", "cherry"), keys);
+        assertEquals(List.of(2, 1, 1), sizes);
+
+        try (DBIterator iterator = index.iterator()) {
+            iterator.seek(bytes("b"));
+            assertEquals("banana", new String(iterator.next().getKey(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testRestrictToPrunesSegments() throws Exception {
+        SegmentedIndexAccess only2020 = (SegmentedIndexAccess) index.restrictTo(LocalDate.of(2020, 1, 1), null);
+        assertEquals(List.of(Y2020), only2020.getSegments());
+        assertEquals(1, only2020.get(bytes("apple")).orElseThrow().size());
+        assertTrue(only2020.get(bytes("cherry")).isEmpty());
+
+        assertSame(index, index.restrictTo(null, null));
+        assertEquals(List.of(), ((SegmentedIndexAccess) index.restrictTo(
+            LocalDate.of(2019, 12, 1), LocalDate.of(2020, 1, 4))).getSegments());
+
+        // Closing a view keeps the shared segments open
+        only2020.close();
+        assertTrue(index.isOpen());
+    }
+
+    @Test
+    void testIsReadOnly() {
+        assertThrows(IndexAccessException.class, () -> index.put(bytes("apple"), new byte[0]));
+    }
+
+    @Test
+    void testManifestRoundTrip(@TempDir Path dir) throws Exception {
+        SegmentManifest.Segment undated = new SegmentManifest.Segment("undated", null, null, 3);
+        new SegmentManifest(List.of(Y2020, undated, Y2019)).write(dir);
+
+        SegmentManifest read = SegmentManifest.read(dir);
+        assertEquals(List.of(Y2019, Y2020, undated), read.segments());
+        assertTrue(undated.overlaps(LocalDate.of(1900, 1, 1), LocalDate.of(1900, 1, 1)));
+
+        SegmentManifest.Segment rebuilt = new SegmentManifest.Segment("2020", LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 2), 1);
+        assertEquals(List.of(rebuilt, undated), read.without(List.of("2019")).with(List.of(rebuilt)).segments());
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.core;
+
+import com.example.core.index.MockIndexAccess;
+import com.example.index.TermDictionary;
+import org.iq80.leveldb.DBIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermKeyedIndexAccessTest {
+    private static final char D = IndexAccessInterface.DELIMITER;
+
+    @TempDir
+    Path tempDir;
+
+    private TermDictionary terms;
+    private MockIndexAccess encoded;
+    private TermKeyedIndexAccess index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        terms = TermDictionary.open(tempDir);
+        encoded = new MockIndexAccess("dependency");
+        int doc = 1;
+        for (String key : List.of("animal" + D + "cat", "animal" + D + "dog", "animal",
+                "vehicle" + D + "car", "cart", "cat")) {
+            PositionList positions = new PositionList();
+            positions.add(new Position(doc++, 0, 0, 3, LocalDate.of(2024, 1, 1)));
+            encoded.addTestData(terms.assignKey(key), positions.serialize());
+        }
+        index = new TermKeyedIndexAccess(encoded, terms);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        terms.close();
+    }
+
+    @Test
+    void testGetTranslatesStringKeys() throws Exception {
+        assertEquals(2, index.get(bytes("animal" + D + "dog")).orElseThrow().getPositions().get(0).getDocumentId());
+        assertTrue(index.getRaw(bytes("vehicle" + D + "car")).isPresent());
+        assertTrue(index.get(bytes("animal" + D + "horse")).isEmpty(), "Unknown terms have no postings");
+        assertTrue(index.get(bytes("vehicle" + D + "cat")).isEmpty());
+    }
+
+    @Test
+    void testSeekToWholeTermsReturnsDecodedKeys() throws Exception {
+        assertEquals(List.of("animal" + D + "cat", "animal" + D + "dog"), keysWithPrefix("animal" + D));
+        assertEquals(List.of(), keysWithPrefix("horse" + D));
+    }
+
+    @Test
+    void testSeekInsideTermVisitsMatchingTerms() throws Exception {
+        assertEquals(List.of("cart", "cat"), keysWithPrefix("ca"));
+        assertEquals(List.of("vehicle" + D + "car"), keysWithPrefix("vehicle" + D + "ca"));
+    }
+
+    @Test
+    void testSeekToFirstVisitsEveryKey() throws Exception {
+        int count = 0;
+        try (DBIterator iterator = index.iterator()) {
+            iterator.seekToFirst();
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+        }
+        assertEquals(6, count);
+    }
+
+    /**
+     * Scans like the executors do: seek, then read until a key leaves the prefix.
+     */
+    private List<String> keysWithPrefix(String prefix) throws Exception {
+        List<String> keys = new ArrayList<>();
+        try (DBIterator iterator = index.iterator()) {
+            iterator.seek(bytes(prefix));
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                String key = new String(entry.getKey(), StandardCharsets.UTF_8);
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
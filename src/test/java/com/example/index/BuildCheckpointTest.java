@@ -0,0 +1,248 @@
+package com.example.index;
+
+import com.example.core.IndexAccess;
+import com.example.logging.ProgressTracker;
+import org.iq80.leveldb.DBIterator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that interrupted index builds resume from their {@link BuildCheckpoint} to the
+ * same index a clean build writes.
+ */
+public class BuildCheckpointTest extends BaseIndexTest {
+    private static final int DOCUMENTS = 600;
+    private static final int ANNOTATIONS_PER_DOCUMENT = 100;
+    // More distinct lemmas than BuildCheckpoint.WRITE_INTERVAL, so the write phase checkpoints too
+    private static final int LEMMAS = 25000;
+    private static final int BATCH_SIZE = 500;
+
+    @BeforeEach
+    @Override
+    void setUp() throws Exception {
+        super.setUp();
+        sqliteConn.setAutoCommit(false);
+        try (PreparedStatement documents = sqliteConn.prepareStatement(
+                "INSERT INTO documents (document_id, timestamp) VALUES (?, ?)");
+             PreparedStatement annotations = sqliteConn.prepareStatement(
+                "INSERT INTO annotations (document_id, sentence_id, begin_char, end_char, token, lemma, pos) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 'NN')")) {
+            int annotation = 0;
+            for (int doc = 1; doc <= DOCUMENTS; doc++) {
+                documents.setInt(1, doc);
+                documents.setString(2, String.format("20%02d-%02d-15", doc % 20, doc % 12 + 1));
+                documents.executeUpdate();
+                for (int i = 0; i < ANNOTATIONS_PER_DOCUMENT; i++, annotation++) {
+                    String lemma = "w" + (annotation * 7919L % LEMMAS);
+                    annotations.setInt(1, doc);
+                    annotations.setInt(2, i / 20);
+                    annotations.setInt(3, i * 10);
+                    annotations.setInt(4, i * 10 + 5);
+                    annotations.setString(5, lemma);
+                    annotations.setString(6, lemma);
+                    annotations.executeUpdate();
+                }
+            }
+        }
+        sqliteConn.commit();
+        sqliteConn.setAutoCommit(true);
+    }
+
+    @Test
+    void testInterruptedBuildsResumeToTheCleanIndex() throws Exception {
+        Map<String, String> clean = cleanBuild();
+
+        // Before a spilled run is recorded, before a finished merge is published, and
+        // between two write checkpoints
+        Map<BuildCheckpoint.Phase, Long> stops = Map.of(
+            BuildCheckpoint.Phase.SPILL, 40L * BATCH_SIZE,
+            BuildCheckpoint.Phase.MERGE, 0L,
+            BuildCheckpoint.Phase.WRITE, BuildCheckpoint.WRITE_INTERVAL + 17L);
+        for (Map.Entry<BuildCheckpoint.Phase, Long> stop : stops.entrySet()) {
+            Path indexDir = tempDir.resolve(stop.getKey().name()).resolve("unigram");
+            IndexConfig config = new IndexConfig.Builder().withBatchSize(BATCH_SIZE).withCheckpoints(true).build();
+            assertThrows(Interrupted.class, () -> build(indexDir, config, stopAt(stop.getKey(), stop.getValue())),
+                "Build did not reach " + stop);
+
+            build(indexDir, resumeConfig(), BuildCheckpoint.Interruption.NONE);
+
+            assertEquals(clean, contents(indexDir), "Interrupted in " + stop.getKey());
+            assertEquals(List.of(BuildCheckpoint.FILE_NAME), checkpointFiles(indexDir),
+                "A completed build leaves only its manifest");
+        }
+    }
+
+    @Test
+    void testInterruptedResumeResumesAgain() throws Exception {
+        Map<String, String> clean = cleanBuild();
+        Path indexDir = indexBaseDir.resolve("unigram");
+
+        assertThrows(Interrupted.class, () -> build(
+            indexDir, new IndexConfig.Builder().withBatchSize(BATCH_SIZE).withCheckpoints(true).build(),
+            stopAt(BuildCheckpoint.Phase.SPILL, 20L * BATCH_SIZE)));
+        assertThrows(Interrupted.class, () -> build(
+            indexDir, resumeConfig(), stopAt(BuildCheckpoint.Phase.WRITE, 2L * BuildCheckpoint.WRITE_INTERVAL + 1)));
+        build(indexDir, resumeConfig(), BuildCheckpoint.Interruption.NONE);
+
+        assertEquals(clean, contents(indexDir));
+    }
+
+    @Test
+    void testKilledBuildResumesToTheCleanIndex() throws Exception {
+        long start = System.currentTimeMillis();
+        Map<String, String> clean = cleanBuild();
+        int buildMillis = (int) (System.currentTimeMillis() - start);
+
+        // A real kill leaves LevelDB and the run files unclosed, which the hooks above do not;
+        // where it lands depends on timing, so the phase tests cover the individual points
+        Path indexDir = indexBaseDir.resolve("unigram");
+        Process child = startBuild(indexDir, false);
+        if (child.waitFor(new Random(42).nextInt(buildMillis + 1000), TimeUnit.MILLISECONDS)) {
+            assertEquals(0, child.exitValue(), "Build finished before it was killed");
+        } else {
+            child.destroyForcibly().waitFor();
+        }
+
+        build(indexDir, resumeConfig(), BuildCheckpoint.Interruption.NONE);
+
+        assertEquals(clean, contents(indexDir));
+        assertEquals(List.of(BuildCheckpoint.FILE_NAME), checkpointFiles(indexDir),
+            "A completed build leaves only its manifest");
+    }
+
+    @Test
+    void testResumeKeepsCompletedBuild() throws Exception {
+        Path indexDir = indexBaseDir.resolve("unigram");
+        build(indexDir, new IndexConfig.Builder().withBatchSize(BATCH_SIZE).withCheckpoints(true).build(),
+            BuildCheckpoint.Interruption.NONE);
+        Map<String, String> built = contents(indexDir);
+
+        try (UnigramIndexGenerator generator = new UnigramIndexGenerator(
+                indexDir.toString(), TEST_STOPWORDS_PATH, sqliteConn, new ProgressTracker(), resumeConfig())) {
+            generator.generateIndex();
+            assertEquals(0, generator.getTotalNGramsGenerated());
+        }
+        assertEquals(built, contents(indexDir));
+    }
+
+    @Test
+    void testOpeningDeletesOrphansAndStaleCheckpoints() throws Exception {
+        Path indexDir = indexBaseDir.resolve("unigram");
+        BuildCheckpoint checkpoint = BuildCheckpoint.open(indexDir, "batch=500", false);
+        File run = Files.createFile(checkpoint.getDirectory().resolve("batch-1.tmp")).toFile();
+        checkpoint.addRun(run, 500);
+        // A run spilled after the last recorded batch
+        Files.createFile(checkpoint.getDirectory().resolve("batch-2.tmp"));
+
+        BuildCheckpoint resumed = BuildCheckpoint.open(indexDir, "batch=500", true);
+        assertEquals(BuildCheckpoint.Phase.SPILL, resumed.getPhase());
+        assertEquals(500, resumed.getOffset());
+        assertEquals(List.of(run), resumed.getRunFiles());
+        assertEquals(List.of("batch-1.tmp", BuildCheckpoint.FILE_NAME), checkpointFiles(indexDir));
+
+        BuildCheckpoint changed = BuildCheckpoint.open(indexDir, "batch=1000", true);
+        assertEquals(0, changed.getOffset());
+        assertEquals(List.of(), changed.getRunFiles());
+        assertEquals(List.of(BuildCheckpoint.FILE_NAME), checkpointFiles(indexDir));
+        assertTrue(BuildCheckpoint.exists(indexDir));
+    }
+
+    private static IndexConfig resumeConfig() {
+        return new IndexConfig.Builder().withBatchSize(BATCH_SIZE).withResume(true).build();
+    }
+
+    private Map<String, String> cleanBuild() throws Exception {
+        Path cleanDir = tempDir.resolve("clean").resolve("unigram");
+        build(cleanDir, new IndexConfig.Builder().withBatchSize(BATCH_SIZE).build(), BuildCheckpoint.Interruption.NONE);
+        Map<String, String> clean = contents(cleanDir);
+        assertEquals(LEMMAS, clean.size());
+        return clean;
+    }
+
+    private void build(Path indexDir, IndexConfig config, BuildCheckpoint.Interruption interruption)
+            throws Exception {
+        try (UnigramIndexGenerator generator = new UnigramIndexGenerator(
+                indexDir.toString(), TEST_STOPWORDS_PATH, sqliteConn, new ProgressTracker(), config)) {
+            generator.setInterruption(interruption);
+            generator.generateIndex();
+        }
+    }
+
+    private static BuildCheckpoint.Interruption stopAt(BuildCheckpoint.Phase stopPhase, long stopProgress) {
+        return (phase, progress) -> {
+            if (phase == stopPhase && progress == stopProgress) {
+                throw new Interrupted();
+            }
+        };
+    }
+
+    private Process startBuild(Path indexDir, boolean resume) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                KilledBuild.class.getName(), tempDir.resolve("test.db").toString(), indexDir.toString(),
+                Path.of(TEST_STOPWORDS_PATH).toAbsolutePath().toString(), String.valueOf(resume))
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    }
+
+    private static Map<String, String> contents(Path indexDir) throws Exception {
+        Map<String, String> contents = new TreeMap<>();
+        try (IndexAccess index = new IndexAccess(indexDir, "unigram", new org.iq80.leveldb.Options());
+             DBIterator iterator = index.iterator()) {
+            iterator.seekToFirst();
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                contents.put(new String(entry.getKey(), StandardCharsets.UTF_8),
+                    Base64.getEncoder().encodeToString(entry.getValue()));
+            }
+        }
+        return contents;
+    }
+
+    private static List<String> checkpointFiles(Path indexDir) throws Exception {
+        try (var files = Files.list(indexDir.resolve(BuildCheckpoint.DIRECTORY))) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    /**
+     * Thrown by an interruption hook to stop a build where a kill would.
+     */
+    private static final class Interrupted extends RuntimeException {
+    }
+
+    /**
+     * Runs a checkpointed unigram build in its own JVM, so the test can kill it.
+     */
+    public static final class KilledBuild {
+        public static void main(String[] args) throws Exception {
+            IndexConfig config = new IndexConfig.Builder()
+                .withBatchSize(BATCH_SIZE)
+                .withCheckpoints(true)
+                .withResume(Boolean.parseBoolean(args[3]))
+                .build();
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + args[0]);
+                 UnigramIndexGenerator generator = new UnigramIndexGenerator(
+                     args[1], args[2], conn, new ProgressTracker(), config)) {
+                generator.generateIndex();
+            }
+        }
+    }
+}
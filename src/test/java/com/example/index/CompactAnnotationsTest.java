@@ -0,0 +1,181 @@
+package com.example.index;
+
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.logging.ProgressTracker;
+import com.google.common.collect.ListMultimap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactAnnotationsTest extends BaseIndexTest {
+
+    @BeforeEach
+    @Override
+    void setUp() throws Exception {
+        super.setUp();
+        try (Statement stmt = sqliteConn.createStatement()) {
+            stmt.execute("INSERT INTO documents (document_id, timestamp) VALUES (1, '2024-01-28')");
+            stmt.execute("INSERT INTO documents (document_id, timestamp) VALUES (2, '1999-12-31T10:00:00')");
+        }
+
+        String[][] annotations = {
+            {"1", "0", "0", "10", "John Smith", "john smith", "NNP", "PERSON", null},
+            {"1", "0", "11", "16", "works", "work", "VBZ", "O", null},
+            {"1", "0", "17", "23", "Google", "google", "NNP", "ORGANIZATION", null},
+            {"1", "0", "24", "28", "2020", "2020", "CD", "DATE", "2020-05-01"},
+            {"2", "0", "0", "7", "animals", "animal", "NNS", "", null},
+            {"2", "0", "8", "15", "such_as", "such_as", "IN", "O", null},
+            {"2", "0", "16", "20", "cats", "cat", "NNS", null, null},
+            {"2", "1", "0", "4", "dogs", "dog", "NNS", "O", null}
+        };
+        try (PreparedStatement pstmt = sqliteConn.prepareStatement(
+                "INSERT INTO annotations (document_id, sentence_id, begin_char, end_char, token, lemma, pos, ner, normalized_ner) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (String[] row : annotations) {
+                for (int i = 0; i < row.length; i++) {
+                    pstmt.setString(i + 1, row[i]);
+                }
+                pstmt.executeUpdate();
+            }
+        }
+
+        String[][] dependencies = {
+            {"1", "0", "0", "23", "works", "John Smith", "nsubj"},
+            {"1", "0", "11", "23", "works", "Google", "obl"},
+            {"2", "0", "0", "20", "animals", "cats", "nmod:such_as"}
+        };
+        try (PreparedStatement pstmt = sqliteConn.prepareStatement(
+                "INSERT INTO dependencies (document_id, sentence_id, begin_char, end_char, head_token, dependent_token, relation) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (String[] row : dependencies) {
+                for (int i = 0; i < row.length; i++) {
+                    pstmt.setString(i + 1, row[i]);
+                }
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    void testMigrationKeepsOldColumnsReadable() throws Exception {
+        List<List<Object>> annotations = rows("SELECT * FROM annotations ORDER BY annotation_id");
+        List<List<Object>> dependencies = rows("SELECT * FROM dependencies ORDER BY dependency_id");
+        assertFalse(CompactAnnotations.exists(sqliteConn));
+
+        CompactAnnotations codes = CompactAnnotations.create(sqliteConn);
+
+        assertTrue(CompactAnnotations.exists(sqliteConn));
+        assertEquals(List.of(List.of("view"), List.of("view")),
+            rows("SELECT type FROM sqlite_master WHERE name IN ('annotations', 'dependencies')"));
+        assertEquals(annotations, rows("SELECT * FROM annotations ORDER BY annotation_id"));
+        assertEquals(dependencies, rows("SELECT * FROM dependencies ORDER BY dependency_id"));
+
+        assertEquals("DATE", codes.decode(CompactAnnotations.DATE_CODE));
+        assertEquals("O", codes.decode(CompactAnnotations.OUTSIDE_CODE));
+        try (Statement stmt = sqliteConn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT DISTINCT day FROM " + CompactAnnotations.ANNOTATIONS + " WHERE document_id = 2")) {
+            assertTrue(rs.next());
+            assertEquals(LocalDate.of(1999, 12, 31), CompactAnnotations.day(rs));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    void testGeneratorsReadTheSamePostings() throws Exception {
+        Map<String, Map<String, List<Position>>> wide = postingsOfGenerators("wide");
+
+        CompactAnnotations.create(sqliteConn);
+        Map<String, Map<String, List<Position>>> compact = postingsOfGenerators("compact");
+
+        assertFalse(wide.get("ner").isEmpty());
+        assertFalse(wide.get("ner_date").isEmpty());
+        assertFalse(wide.get("hypernym").isEmpty());
+        assertEquals(wide, compact);
+    }
+
+    @Test
+    void testNewLabelsGetCodes() throws Exception {
+        try (Statement stmt = sqliteConn.createStatement()) {
+            stmt.execute("DROP TABLE annotations");
+            stmt.execute("DROP TABLE dependencies");
+        }
+        CompactAnnotations codes = CompactAnnotations.create(sqliteConn);
+
+        int code = codes.encode(sqliteConn, "NNP");
+        assertTrue(code > CompactAnnotations.DATE_CODE);
+        assertEquals(code, (int) codes.encode(sqliteConn, "NNP"));
+        assertEquals(CompactAnnotations.DATE_CODE, (int) codes.encode(sqliteConn, "DATE"));
+        assertNull(codes.encode(sqliteConn, null));
+
+        CompactAnnotations reloaded = CompactAnnotations.load(sqliteConn).orElseThrow();
+        assertEquals("NNP", reloaded.decode(code));
+        assertNull(reloaded.decode(code + 1));
+        assertEquals(List.of(), rows("SELECT * FROM annotations"));
+    }
+
+    private Map<String, Map<String, List<Position>>> postingsOfGenerators(String layout) throws Exception {
+        String dir = tempDir.resolve(layout).toString();
+        ProgressTracker progress = new ProgressTracker();
+        Map<String, Map<String, List<Position>>> postings = new LinkedHashMap<>();
+        try (UnigramIndexGenerator generator = new UnigramIndexGenerator(
+                dir + "/unigram", TEST_STOPWORDS_PATH, sqliteConn, progress)) {
+            postings.put("unigram", postings(generator.processBatch(generator.fetchBatch(0))));
+        }
+        try (NerIndexGenerator generator = new NerIndexGenerator(
+                dir + "/ner", TEST_STOPWORDS_PATH, sqliteConn, progress)) {
+            postings.put("ner", postings(generator.processBatch(generator.fetchBatch(0))));
+        }
+        try (NerDateIndexGenerator generator = new NerDateIndexGenerator(
+                dir + "/ner_date", TEST_STOPWORDS_PATH, sqliteConn, progress)) {
+            postings.put("ner_date", postings(generator.processBatch(generator.fetchBatch(0))));
+        }
+        try (DependencyIndexGenerator generator = new DependencyIndexGenerator(
+                dir + "/dependency", TEST_STOPWORDS_PATH, sqliteConn, progress)) {
+            postings.put("dependency", postings(generator.processBatch(generator.fetchBatch(0))));
+        }
+        try (HypernymIndexGenerator generator = new HypernymIndexGenerator(
+                dir + "/hypernym", TEST_STOPWORDS_PATH, sqliteConn, progress)) {
+            postings.put("hypernym", postings(generator.processBatch(generator.fetchBatch(0))));
+        }
+        return postings;
+    }
+
+    private static Map<String, List<Position>> postings(ListMultimap<String, PositionList> batch) {
+        Map<String, List<Position>> postings = new TreeMap<>();
+        for (Map.Entry<String, PositionList> entry : batch.entries()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new ArrayList<>())
+                .addAll(entry.getValue().getPositions());
+        }
+        return postings;
+    }
+
+    private List<List<Object>> rows(String sql) throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+        try (Statement stmt = sqliteConn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                List<Object> row = new ArrayList<>();
+                for (int i = 1; i <= columns; i++) {
+                    row.add(rs.getObject(i));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateIntervalsTest {
+
+    private static DateIntervals.Interval interval(String value) {
+        return DateIntervals.parse(value).orElseThrow(() -> new AssertionError("Could not parse " + value));
+    }
+
+    private static DateIntervals.Interval of(int y1, int m1, int d1, int y2, int m2, int d2) {
+        return new DateIntervals.Interval(LocalDate.of(y1, m1, d1), LocalDate.of(y2, m2, d2));
+    }
+
+    @Test
+    void testParseNormalizedValues() {
+        assertEquals(of(2024, 1, 15, 2024, 1, 15), interval("2024-01-15"));
+        assertEquals(of(2024, 1, 15, 2024, 1, 15), interval("2024-01-15T10:00"));
+        assertEquals(of(2024, 2, 1, 2024, 2, 29), interval("2024-02"));
+        assertEquals(of(1990, 1, 1, 1990, 12, 31), interval("1990"));
+        assertEquals(of(1990, 1, 1, 1999, 12, 31), interval("199X"));
+        assertEquals(of(1900, 1, 1, 1999, 12, 31), interval("19XX"));
+        assertEquals(of(2020, 12, 28, 2021, 1, 3), interval("2020-W53"));
+        assertEquals(of(2023, 4, 1, 2023, 6, 30), interval("2023-Q2"));
+        assertEquals(of(2023, 7, 1, 2023, 12, 31), interval("2023-H2"));
+        assertEquals(of(2023, 12, 1, 2024, 2, 29), interval("2023-WI"));
+        assertEquals(of(1990, 1, 1, 1995, 12, 31), interval("1990/1995"));
+    }
+
+    @Test
+    void testRejectsRelativeAndInvalidValues() {
+        for (String value : new String[] {null, "PRESENT_REF", "XXXX-05-03", "2024-13", "2024-02-30", "1995/1990", "000X"}) {
+            assertEquals(Optional.empty(), DateIntervals.parse(value), "Should reject " + value);
+        }
+    }
+
+    @Test
+    void testLengthClasses() {
+        assertEquals(0, DateIntervals.lengthClass(1));
+        assertEquals(1, DateIntervals.lengthClass(2));
+        assertEquals(5, DateIntervals.lengthClass(31));
+        assertEquals(9, DateIntervals.lengthClass(366));
+        for (int lengthClass = 1; lengthClass <= DateIntervals.MAX_LENGTH_CLASS; lengthClass++) {
+            assertEquals(lengthClass, DateIntervals.lengthClass(DateIntervals.minLength(lengthClass)));
+            assertEquals(lengthClass, DateIntervals.lengthClass(DateIntervals.maxLength(lengthClass)));
+        }
+        long longest = DateRollups.MAX_DATE.toEpochDay() - DateRollups.MIN_DATE.toEpochDay() + 1;
+        assertEquals(DateIntervals.MAX_LENGTH_CLASS, DateIntervals.lengthClass(longest));
+    }
+
+    @Test
+    void testKeysRoundTripAndSortBetweenDaysAndRollups() {
+        DateIntervals.Interval nineties = interval("199X");
+        String key = nineties.key();
+
+        assertEquals("~i1219900101" + "19991231", key);
+        assertEquals(Optional.of(nineties), DateIntervals.fromKey(key));
+        assertTrue(key.startsWith(DateIntervals.classPrefix(12)));
+        assertTrue(key.compareTo(DateIntervals.seekKey(12, LocalDate.of(1990, 1, 1))) >= 0);
+        assertTrue(key.compareTo(DateRollups.dayKey(DateRollups.MAX_DATE)) > 0);
+        assertTrue(key.compareTo(DateRollups.monthKey(YearMonth.of(1, 1))) < 0);
+        assertTrue(DateRollups.isRollupKey(key.getBytes()));
+        assertEquals(Optional.empty(), DateIntervals.fromKey(DateRollups.yearKey(1990)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateRollupsTest {
+
+    @Test
+    void testKeysSortAfterDays() {
+        assertEquals("~y1990", DateRollups.yearKey(1990));
+        assertEquals("~m199002", DateRollups.monthKey(YearMonth.of(1990, 2)));
+        assertTrue(DateRollups.yearKey(1).compareTo(DateRollups.dayKey(DateRollups.MAX_DATE)) > 0);
+        assertTrue(DateRollups.isRollupKey("~m199002".getBytes()));
+        assertFalse(DateRollups.isRollupKey("19900201".getBytes()));
+    }
+
+    @Test
+    void testCoverUsesWholeYearsAndMonths() {
+        List<DateRollups.Segment> segments = DateRollups.cover(LocalDate.of(1989, 11, 20), LocalDate.of(1995, 3, 4));
+
+        assertEquals(List.of(
+            new DateRollups.Segment(DateRollups.Level.DAY, LocalDate.of(1989, 11, 20), LocalDate.of(1989, 11, 30)),
+            new DateRollups.Segment(DateRollups.Level.MONTH, LocalDate.of(1989, 12, 1), LocalDate.of(1989, 12, 31)),
+            new DateRollups.Segment(DateRollups.Level.YEAR, LocalDate.of(1990, 1, 1), LocalDate.of(1994, 12, 31)),
+            new DateRollups.Segment(DateRollups.Level.MONTH, LocalDate.of(1995, 1, 1), LocalDate.of(1995, 2, 28)),
+            new DateRollups.Segment(DateRollups.Level.DAY, LocalDate.of(1995, 3, 1), LocalDate.of(1995, 3, 4))
+        ), segments);
+        assertEquals("~y1990", segments.get(2).firstKey());
+        assertEquals("~y1994", segments.get(2).lastKey());
+    }
+
+    @Test
+    void testCoverOfOpenRangeIsOneYearRun() {
+        List<DateRollups.Segment> segments = DateRollups.cover(LocalDate.of(1991, 1, 1), LocalDate.MAX);
+
+        assertEquals(1, segments.size());
+        assertEquals("~y1991", segments.get(0).firstKey());
+        assertEquals("~y9999", segments.get(0).lastKey());
+    }
+
+    @Test
+    void testCoverIsExactAndDisjoint() {
+        LocalDate from = LocalDate.of(2000, 2, 27);
+        for (int length = 0; length < 800; length += 7) {
+            LocalDate to = from.plusDays(length);
+            LocalDate next = from;
+            for (DateRollups.Segment segment : DateRollups.cover(from, to)) {
+                assertEquals(next, segment.start());
+                next = segment.end().plusDays(1);
+            }
+            assertEquals(to.plusDays(1), next);
+        }
+        assertTrue(DateRollups.cover(from, from.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void testPeriodOfKey() {
+        assertEquals(Optional.of(new DateRollups.Segment(DateRollups.Level.MONTH,
+            LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29))), DateRollups.period("~m202402"));
+        assertEquals(Optional.of(new DateRollups.Segment(DateRollups.Level.YEAR,
+            LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))), DateRollups.period("~y1990"));
+        assertEquals(LocalDate.of(1990, 5, 6), DateRollups.period("19900506").orElseThrow().start());
+        assertTrue(DateRollups.period("~yabc").isEmpty());
+    }
+}
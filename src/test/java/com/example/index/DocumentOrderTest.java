@@ -0,0 +1,126 @@
+package com.example.index;
+
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.logging.ProgressTracker;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentOrderTest extends BaseIndexTest {
+
+    @BeforeEach
+    @Override
+    void setUp() throws Exception {
+        super.setUp();
+        // Inserted out of timestamp order
+        String[][] documents = {
+            {"10", "2021-05-01"},
+            {"11", "1999-12-31"},
+            {"12", "2010-07-15T08:00:00"},
+            {"13", "1999-12-31"}
+        };
+        try (PreparedStatement pstmt = sqliteConn.prepareStatement(
+                "INSERT INTO documents (document_id, timestamp) VALUES (?, ?)")) {
+            for (String[] document : documents) {
+                pstmt.setInt(1, Integer.parseInt(document[0]));
+                pstmt.setString(2, document[1]);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    void testIdsFollowTimestamps() throws Exception {
+        assertEquals(Optional.empty(), DocumentOrder.load(sqliteConn));
+
+        DocumentOrder order = DocumentOrder.create(sqliteConn);
+
+        assertEquals(4, order.size());
+        assertEquals(0, order.internalId(11));
+        assertEquals(1, order.internalId(13));
+        assertEquals(2, order.internalId(12));
+        assertEquals(3, order.internalId(10));
+        assertEquals(-1, order.internalId(99));
+        assertEquals(12, order.documentId(2));
+        assertEquals(-1, order.documentId(4));
+
+        DocumentOrder loaded = DocumentOrder.load(sqliteConn).orElseThrow();
+        for (int id : new int[]{10, 11, 12, 13}) {
+            assertEquals(order.internalId(id), loaded.internalId(id));
+        }
+    }
+
+    @Test
+    void testDropRemovesMapping() throws Exception {
+        assertFalse(DocumentOrder.drop(sqliteConn));
+
+        DocumentOrder.create(sqliteConn);
+
+        assertTrue(DocumentOrder.drop(sqliteConn));
+        assertEquals(Optional.empty(), DocumentOrder.load(sqliteConn));
+    }
+
+    @Test
+    void testGeneratorWritesInternalIds() throws Exception {
+        DocumentOrder.create(sqliteConn);
+        IndexConfig config = new IndexConfig.Builder().withTimestampOrderedIds(true).build();
+        ListMultimap<String, PositionList> batch = ArrayListMultimap.create();
+        PositionList positions = new PositionList();
+        positions.add(new Position(10, 0, 0, 4, LocalDate.of(2021, 5, 1)));
+        positions.add(new Position(11, 0, 0, 4, LocalDate.of(1999, 12, 31)));
+        batch.put("20000101", positions);
+
+        try (NerDateIndexGenerator generator = new NerDateIndexGenerator(
+                tempDir.resolve("ner_date").toString(), TEST_STOPWORDS_PATH, sqliteConn,
+                new ProgressTracker(), config)) {
+            File file = generator.writeBatchToTempFile(batch);
+            String[] line = Files.readAllLines(file.toPath()).get(0).split("\t", 2);
+            List<Position> written = PositionList.deserialize(Base64.getDecoder().decode(line[1])).getPositions();
+
+            assertEquals(List.of(0, 3), written.stream().map(Position::getDocumentId).sorted().toList());
+        }
+    }
+
+    @Test
+    void testRollupMentionsKeepTheirDay() throws Exception {
+        DocumentOrder.create(sqliteConn);
+        IndexConfig config = new IndexConfig.Builder().withTimestampOrderedIds(true).build();
+        ListMultimap<String, PositionList> batch = ArrayListMultimap.create();
+        PositionList positions = new PositionList();
+        positions.add(new DatedPosition(12, 0, 0, 4, LocalDate.of(2010, 7, 15), LocalDate.of(2024, 3, 9)));
+        batch.put(DateRollups.yearKey(2024), positions);
+
+        try (NerDateIndexGenerator generator = new NerDateIndexGenerator(
+                tempDir.resolve("ner_date").toString(), TEST_STOPWORDS_PATH, sqliteConn,
+                new ProgressTracker(), config)) {
+            File file = generator.writeBatchToTempFile(batch);
+            String[] line = Files.readAllLines(file.toPath()).get(0).split("\t", 2);
+            Position written = PositionList.deserialize(Base64.getDecoder().decode(line[1])).getPositions().get(0);
+
+            assertEquals(2, written.getDocumentId());
+            DatedPosition dated = assertInstanceOf(DatedPosition.class, written);
+            assertEquals(LocalDate.of(2024, 3, 9), dated.getMentionDate());
+        }
+    }
+
+    @Test
+    void testGeneratorRequiresMapping() {
+        IndexConfig config = new IndexConfig.Builder().withTimestampOrderedIds(true).build();
+        assertThrows(IOException.class, () -> new NerDateIndexGenerator(
+            tempDir.resolve("ner_date").toString(), TEST_STOPWORDS_PATH, sqliteConn,
+            new ProgressTracker(), config));
+    }
+}
@@ -122,6 +122,32 @@ public class HypernymIndexGeneratorTest extends BaseIndexTest {
         assertTrue(result.containsKey(key2), "Should contain animal->dog hypernym");
         assertEquals(1, result.get(key2).get(0).getPositions().size(), 
             "Should have one position for animal->dog hypernym");
+
+        // Verify the category roll-up holds every instance
+        String rollup = HypernymIndexGenerator.categoryKey("Animal");
+        assertEquals("animal", rollup);
+        assertEquals(2, result.get(rollup).get(0).getPositions().size(),
+            "Roll-up should have the positions of both animal instances");
+    }
+
+    @Test
+    public void testBatchesContinueOneCursor() throws Exception {
+        IndexConfig config = new IndexConfig.Builder().withBatchSize(1).build();
+        try (HypernymIndexGenerator batched = new HypernymIndexGenerator(
+                tempDir.resolve("test-leveldb-hyp-batched").toString(),
+                TEST_STOPWORDS_PATH, sqliteConn, new ProgressTracker(), config)) {
+            var first = batched.fetchBatch(0);
+            var second = batched.fetchBatch(1);
+            var third = batched.fetchBatch(2);
+
+            assertEquals(1, first.size());
+            assertEquals(1, second.size());
+            assertTrue(third.isEmpty(), "Cursor should be exhausted after both relations");
+            assertNotEquals(first.get(0).getDependentToken(), second.get(0).getDependentToken());
+
+            // Offset 0 starts a new pass
+            assertEquals(1, batched.fetchBatch(0).size());
+        }
     }
 
     @Test
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -141,6 +145,48 @@ public class MultiAnnotationSynonymsTest {
         assertEquals(1, synonyms.size(AnnotationType.DEPENDENCY));
     }
     
+    @Test
+    public void testPersistenceMapsSavedDictionaries() throws Exception {
+        int nerId = synonyms.getOrCreateId("PERSON", AnnotationType.NER);
+        int dateId = synonyms.getOrCreateId("2023-01-01", AnnotationType.DATE);
+        synonyms.close();
+
+        assertTrue(Files.exists(tempDir.resolve("ner_synonyms.dict")));
+        synonyms = new MultiAnnotationSynonyms(tempDir);
+
+        assertEquals(nerId, synonyms.getOrCreateId("PERSON", AnnotationType.NER));
+        assertEquals("2023-01-01", synonyms.getValue(dateId, AnnotationType.DATE));
+
+        // New IDs continue after the saved ones and are merged on the next close
+        int newId = synonyms.getOrCreateId("LOCATION", AnnotationType.NER);
+        assertTrue(newId > nerId);
+        assertEquals(2, synonyms.size(AnnotationType.NER));
+        synonyms.close();
+
+        synonyms = new MultiAnnotationSynonyms(tempDir);
+        assertEquals("PERSON", synonyms.getValue(nerId, AnnotationType.NER));
+        assertEquals("LOCATION", synonyms.getValue(newId, AnnotationType.NER));
+    }
+
+    @Test
+    public void testLoadsLegacySerializedMappings() throws Exception {
+        synonyms.close();
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                Files.newOutputStream(tempDir.resolve("pos_synonyms.ser")))) {
+            oos.writeObject(new HashMap<>(Map.of("NN", 20000, "VB", 20001)));
+        }
+
+        synonyms = new MultiAnnotationSynonyms(tempDir);
+        assertEquals("VB", synonyms.getValue(20001, AnnotationType.POS));
+        assertEquals(20000, synonyms.getOrCreateId("NN", AnnotationType.POS));
+        synonyms.close();
+
+        // Closing rewrites the legacy mappings as a dictionary
+        assertTrue(Files.exists(tempDir.resolve("pos_synonyms.dict")));
+        synonyms = new MultiAnnotationSynonyms(tempDir);
+        assertEquals(20002, synonyms.getOrCreateId("JJ", AnnotationType.POS));
+    }
+
     @Test
     public void testNamespaceIsolation() {
         // Same string used for different annotation types
@@ -0,0 +1,80 @@
+package com.example.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NashIndexTest {
+    @TempDir
+    Path tempDir;
+
+    private static Map<String, List<Integer>> sampleBuckets() {
+        Map<String, List<Integer>> buckets = new TreeMap<>();
+        buckets.put("0101", List.of(7, 3, 3, 12));
+        buckets.put("01", List.of(1));
+        buckets.put("1", List.of(42, 5));
+        buckets.put("0110", List.of());
+        return buckets;
+    }
+
+    private static Map<Integer, LocalDate> sampleDates() {
+        return Map.of(3, LocalDate.of(2001, 9, 11), 42, LocalDate.of(1990, 1, 1));
+    }
+
+    @Test
+    void testWrittenIndexIsMappedAndSearchable() throws IOException {
+        Path file = NashIndex.path(tempDir);
+        NashIndex.write(sampleBuckets(), sampleDates(), file);
+
+        NashIndex index = NashIndex.open(file);
+
+        assertEquals(4, index.bucketCount());
+        assertArrayEquals(new int[]{3, 7, 12}, index.docIds("0101"));
+        assertArrayEquals(new int[]{1}, index.docIds("01"));
+        assertArrayEquals(new int[]{5, 42}, index.docIds("1"));
+        assertArrayEquals(new int[0], index.docIds("0110"));
+        assertArrayEquals(new int[0], index.docIds("010"));
+        assertEquals(LocalDate.of(2001, 9, 11), index.documentDate(3));
+        assertEquals(LocalDate.of(1990, 1, 1), index.documentDate(42));
+        assertNull(index.documentDate(7));
+        assertNull(index.documentDate(43));
+        assertFalse(Files.exists(file.resolveSibling(NashIndex.FILE_NAME + ".tmp")));
+    }
+
+    @Test
+    void testCollectDocIdsMergesBuckets() {
+        NashIndex index = NashIndex.of(sampleBuckets(), sampleDates());
+        Set<Integer> docIds = new HashSet<>();
+
+        assertEquals(3, index.collectDocIds("0101", docIds));
+        assertEquals(2, index.collectDocIds("1", docIds));
+        assertEquals(0, index.collectDocIds("missing", docIds));
+        assertEquals(Set.of(3, 7, 12, 5, 42), docIds);
+    }
+
+    @Test
+    void testEmptyIndex() {
+        NashIndex index = NashIndex.of(Map.of(), Map.of());
+        assertEquals(0, index.bucketCount());
+        assertArrayEquals(new int[0], index.docIds("0"));
+        assertNull(index.documentDate(0));
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("garbage.idx");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> NashIndex.open(file));
+    }
+}
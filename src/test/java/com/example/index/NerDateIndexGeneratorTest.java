@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.*;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Map;
 import com.example.logging.ProgressTracker;
 import com.google.common.collect.ListMultimap;
@@ -152,4 +154,53 @@ public class NerDateIndexGeneratorTest extends BaseIndexTest {
         assertEquals(4, result.get(key3).get(0).getPositions().size(), 
             "Should have four positions for normalized January date (one from setupTestData and three from mixed formats)");
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testRollupKeys() throws Exception {
+        var result = generator.processBatch(generator.fetchBatch(0));
+
+        assertEquals(2, result.get(DateRollups.yearKey(2024)).get(0).getPositions().size(),
+            "Year roll-up should hold both mentions of 2024");
+        assertEquals(1, result.get(DateRollups.monthKey(YearMonth.of(2024, 1))).get(0).getPositions().size(),
+            "January roll-up should hold only the January mention");
+        assertEquals(1, result.get(DateRollups.monthKey(YearMonth.of(2024, 2))).get(0).getPositions().size(),
+            "February roll-up should hold only the February mention");
+
+        Position january = result.get(DateRollups.monthKey(YearMonth.of(2024, 1))).get(0).getPositions().get(0);
+        assertInstanceOf(DatedPosition.class, january, "Roll-up positions should keep their day");
+        assertEquals(LocalDate.of(2024, 1, 15), ((DatedPosition) january).getMentionDate());
+    }
+
+    @Test
+    public void testIntervalMentions() throws Exception {
+        String[][] rangedWords = {
+            { "1", "2", "68", "78", "March 2024", "March", "DATE", "2024-03", "DATE" },
+            { "1", "2", "79", "89", "the 1990s", "1990s", "DATE", "199X", "DATE" },
+            { "1", "2", "90", "95", "today", "today", "DATE", "PRESENT_REF", "DATE" }
+        };
+        try (PreparedStatement pstmt = sqliteConn.prepareStatement(
+                "INSERT INTO annotations (document_id, sentence_id, begin_char, end_char, token, lemma, pos, normalized_ner, ner) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (String[] word : rangedWords) {
+                for (int i = 0; i < word.length; i++) {
+                    if (i < 4) {
+                        pstmt.setInt(i + 1, Integer.parseInt(word[i]));
+                    } else {
+                        pstmt.setString(i + 1, word[i]);
+                    }
+                }
+                pstmt.executeUpdate();
+            }
+        }
+
+        var result = generator.processBatch(generator.fetchBatch(0));
+
+        String march = DateIntervals.parse("2024-03").orElseThrow().key();
+        String nineties = DateIntervals.parse("199X").orElseThrow().key();
+        assertEquals(68, result.get(march).get(0).getPositions().get(0).getBeginPosition());
+        assertEquals(79, result.get(nineties).get(0).getPositions().get(0).getBeginPosition());
+        assertEquals(2, result.get(DateRollups.yearKey(2024)).get(0).getPositions().size(),
+            "Intervals should not be added to the day roll-ups");
+        assertEquals(4, generator.fetchBatch(0).size(), "Relative dates should still be skipped");
+    }
+}
@@ -3,9 +3,11 @@ package com.example.index;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import com.example.core.DocumentIdSet;
 import com.example.core.Position;
 import com.example.core.PositionList;
 
@@ -147,4 +149,97 @@ public class PositionSerializationTest {
         assertEquals(1, sorted.get(0).getBeginPosition(), "Should be earliest position in doc 1");
         assertEquals(2, sorted.get(3).getDocumentId(), "Last position should be doc 2");
     }
+
+    @Test
+    public void testDocumentIdOnlyRead() {
+        PositionList list = new PositionList();
+        for (int i = 0; i < 500; i++) {
+            list.add(new Position(i / 3, i % 3, i, i + 2, LocalDate.of(2000, 1, 1)));
+        }
+
+        DocumentIdSet docs = PositionList.decode(list.serialize()).documentIds();
+
+        assertEquals(167, docs.size(), "Should contain each distinct document once");
+        assertTrue(docs.contains(0));
+        assertTrue(docs.contains(166));
+        assertFalse(docs.contains(167));
+    }
+
+    @Test
+    public void testFilteredDeserialization() {
+        PositionList list = new PositionList();
+        for (int i = 0; i < 300; i++) {
+            list.add(new Position(i, 0, 0, 4, LocalDate.of(2000, 1, 1)));
+        }
+
+        DocumentIdSet keep = DocumentIdSet.of(new int[]{5, 150, 299, 1000});
+        PositionList filtered = PositionList.deserialize(list.serialize(), keep);
+
+        assertEquals(3, filtered.size());
+        assertEquals(5, filtered.getPositions().get(0).getDocumentId());
+        assertEquals(299, filtered.getPositions().get(2).getDocumentId());
+    }
+
+    @Test
+    public void testTimestampsSpanningBlocks() {
+        PositionList list = new PositionList();
+        for (int i = 0; i < 400; i++) {
+            list.add(new Position(i, 0, 0, 4, LocalDate.of(1990, 1, 1).plusDays(i * 7L)));
+        }
+
+        PositionList deserialized = PositionList.deserialize(list.serialize());
+
+        assertEquals(400, deserialized.size());
+        for (int i : Arrays.asList(0, 127, 128, 255, 399)) {
+            assertEquals(LocalDate.of(1990, 1, 1).plusDays(i * 7L),
+                deserialized.getPositions().get(i).getTimestamp(), "Timestamp mismatch at index " + i);
+        }
+    }
+
+    @Test
+    public void testLegacyFormatDeserialization() {
+        // Written before day offsets: raw columns and timestamps as 8-byte longs
+        ByteBuffer legacy = ByteBuffer.allocate(4 + 1 + 4 * (4 + 2 * 4) + 2 * 8);
+        legacy.putInt(2);
+        legacy.put((byte) 0);
+        for (int[] column : new int[][]{{7, 9}, {1, 2}, {10, 20}, {15, 25}}) {
+            legacy.putInt(-column.length);
+            for (int value : column) {
+                legacy.putInt(value);
+            }
+        }
+        legacy.putLong(LocalDate.of(1993, 10, 26).toEpochDay());
+        legacy.putLong(LocalDate.of(2001, 9, 11).toEpochDay());
+        byte[] data = legacy.array();
+
+        List<Position> positions = PositionList.deserialize(data).getPositions();
+        assertEquals(2, positions.size());
+        assertEquals(new Position(9, 2, 20, 25, null), positions.get(1));
+        assertEquals(LocalDate.of(2001, 9, 11), positions.get(1).getTimestamp());
+        assertEquals(2, PositionList.decode(data).documentIds().size());
+    }
+
+    @Test
+    public void testTimeOrderedSerialization() {
+        PositionList list = new PositionList();
+        for (int i = 0; i < 300; i++) {
+            // Document ids run against time
+            list.add(new Position(i, 0, 0, 4, LocalDate.of(2000, 1, 1).plusDays(299 - i)));
+        }
+        byte[] serialized = list.serializeByTime();
+        assertTrue(PositionList.isTimeOrdered(serialized));
+        assertFalse(PositionList.isTimeOrdered(new PositionList().serialize()));
+
+        PositionList deserialized = PositionList.deserialize(serialized);
+        assertEquals(300, deserialized.size());
+        assertEquals(299, deserialized.getPositions().get(0).getDocumentId());
+        assertEquals(0, deserialized.getPositions().get(299).getDocumentId());
+        for (int i = 1; i < 300; i++) {
+            assertFalse(deserialized.getPositions().get(i).getTimestamp()
+                .isBefore(deserialized.getPositions().get(i - 1).getTimestamp()));
+        }
+
+        PositionList filtered = PositionList.deserialize(serialized, DocumentIdSet.of(new int[]{3, 150, 285}));
+        assertEquals(List.of(285, 150, 3), filtered.getPositions().stream().map(Position::getDocumentId).toList());
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.index;
+
+import com.example.core.IndexAccessInterface;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.SegmentManifest;
+import com.example.core.SegmentedIndexAccess;
+import org.iq80.leveldb.Options;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedIndexWriterTest {
+
+    @TempDir
+    Path indexDir;
+
+    @Test
+    void testWritesOneSegmentPerYear() throws Exception {
+        try (SegmentedIndexWriter writer = new SegmentedIndexWriter(indexDir, "unigram", options(), null)) {
+            writer.put(bytes("apple"), positions(
+                new Position(1, 0, 0, 5, LocalDate.of(2019, 3, 1)),
+                new Position(2, 0, 0, 5, LocalDate.of(2020, 6, 1)),
+                new Position(3, 0, 0, 5, LocalDate.of(2020, 2, 1))), Position::getTimestamp);
+        }
+
+        SegmentManifest manifest = SegmentManifest.read(indexDir);
+        assertEquals(List.of(
+            new SegmentManifest.Segment("2019", LocalDate.of(2019, 3, 1), LocalDate.of(2019, 3, 1), 1),
+            new SegmentManifest.Segment("2020", LocalDate.of(2020, 2, 1), LocalDate.of(2020, 6, 1), 1)
+        ), manifest.segments());
+
+        try (IndexAccessInterface index = SegmentedIndexAccess.open(indexDir, "unigram", readOptions())) {
+            assertEquals(3, index.get(bytes("apple")).orElseThrow().size());
+            assertEquals(2, index.restrictTo(LocalDate.of(2020, 1, 1), null).get(bytes("apple")).orElseThrow().size());
+        }
+    }
+
+    @Test
+    void testRebuildingOneYearKeepsOtherSegments() throws Exception {
+        try (SegmentedIndexWriter writer = new SegmentedIndexWriter(indexDir, "unigram", options(), null)) {
+            writer.put(bytes("apple"), positions(
+                new Position(1, 0, 0, 5, LocalDate.of(2019, 3, 1)),
+                new Position(2, 0, 0, 5, LocalDate.of(2020, 6, 1))), Position::getTimestamp);
+        }
+        long untouched = Files.getLastModifiedTime(indexDir.resolve("2019")).toMillis();
+
+        try (SegmentedIndexWriter writer = new SegmentedIndexWriter(indexDir, "unigram", options(), Set.of(2020))) {
+            writer.put(bytes("apple"), positions(
+                new Position(1, 0, 0, 5, LocalDate.of(2019, 3, 1)),
+                new Position(5, 0, 0, 5, LocalDate.of(2020, 8, 1))), Position::getTimestamp);
+        }
+
+        assertEquals(untouched, Files.getLastModifiedTime(indexDir.resolve("2019")).toMillis());
+        try (IndexAccessInterface index = SegmentedIndexAccess.open(indexDir, "unigram", readOptions())) {
+            assertEquals(List.of(1, 5), index.get(bytes("apple")).orElseThrow().getPositions().stream()
+                .map(Position::getDocumentId).toList());
+        }
+        assertEquals(LocalDate.of(2020, 8, 1), SegmentManifest.read(indexDir).segments().get(1).minTime());
+    }
+
+    private static PositionList positions(Position... positions) {
+        PositionList list = new PositionList();
+        for (Position position : positions) {
+            list.add(position);
+        }
+        return list;
+    }
+
+    private static Options options() {
+        Options options = new Options();
+        options.createIfMissing(true);
+        return options;
+    }
+
+    private static Options readOptions() {
+        Options options = new Options();
+        options.createIfMissing(false);
+        return options;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -11,6 +11,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -155,6 +157,63 @@ class StitchIndexGeneratorTest extends BaseIndexTest {
         assertTrue(foundDateStitch, "Expected to find at least one DATE stitch entry for 'march'");
     }
 
+    @Test
+    void testFetchBatchCoversEveryDocumentAcrossBatches() throws Exception {
+        try (Statement stmt = sqliteConn.createStatement()) {
+            for (int documentId = 1; documentId <= 5; documentId++) {
+                stmt.execute("INSERT INTO documents (document_id, timestamp) VALUES (" + documentId + ", '2024-03-20')");
+                stmt.execute("INSERT INTO annotations (document_id, sentence_id, begin_char, end_char, token, lemma, pos, ner) "
+                    + "VALUES (" + documentId + ", 0, 0, 5, 'Alice', 'alice', 'NNP', 'PERSON'), "
+                    + "(" + documentId + ", 0, 6, 10, 'runs', 'run', 'VBZ', 'O')");
+            }
+        }
+
+        try (StitchIndexGenerator batched = new StitchIndexGenerator(
+                tempDir.resolve("stitch-batched").toString(), stopwordsPath.toString(), sqliteConn, progress,
+                new IndexConfig.Builder().withBatchSize(2).build())) {
+            // Drive batches like generateIndex, whose offset counts entries rather than documents
+            Set<Integer> documents = new TreeSet<>();
+            int offset = 0;
+            List<StitchEntry> batch;
+            while (!(batch = batched.fetchBatch(offset)).isEmpty()) {
+                assertTrue(batch.stream().map(StitchEntry::documentId).distinct().count() <= 2);
+                batch.forEach(entry -> documents.add(entry.documentId()));
+                offset += batch.size();
+            }
+
+            assertEquals(Set.of(1, 2, 3, 4, 5), documents);
+        }
+    }
+
+    @Test
+    void testEntityMentionsAreStitchedToEveryLemmaOfTheSentence() throws Exception {
+        try (Statement stmt = sqliteConn.createStatement()) {
+            stmt.execute("INSERT INTO documents (document_id, timestamp) VALUES (1, '2024-03-20')");
+            stmt.execute("""
+                INSERT INTO annotations (document_id, sentence_id, begin_char, end_char, token, lemma, pos, ner)
+                VALUES
+                (1, 0, 0, 4, 'John', 'john', 'NNP', 'PERSON'),
+                (1, 0, 5, 10, 'Smith', 'smith', 'NNP', 'PERSON'),
+                (1, 0, 11, 16, 'joins', 'join', 'VBZ', 'O'),
+                (1, 0, 17, 21, 'Acme', 'acme', 'NNP', 'ORGANIZATION'),
+                (1, 1, 0, 4, 'Mary', 'mary', 'NNP', 'PERSON')
+            """);
+        }
+
+        var result = generator.processBatch(generator.fetchBatch(0));
+
+        // "John Smith" is one mention, as in the ner index, listed under each lemma of sentence 0
+        for (String lemma : List.of("john", "smith", "join", "acme")) {
+            List<Position> mentions = result.get(lemma + "\0" + StitchEntry.MENTION_KEY_TYPE).get(0).getPositions();
+            assertEquals(2, mentions.size(), "Expected two mentions under " + lemma);
+            assertEquals(List.of(0, 17), mentions.stream().map(Position::getBeginPosition).sorted().toList());
+            assertEquals(List.of(10, 21), mentions.stream().map(Position::getEndPosition).sorted().toList());
+            assertTrue(mentions.stream().allMatch(p -> p.getSentenceId() == 0));
+        }
+        assertEquals(1, result.get("mary\0" + StitchEntry.MENTION_KEY_TYPE).get(0).getPositions().size());
+        assertTrue(result.containsKey("join\0NER"));
+    }
+
     @Test
     void testProcessBatch() throws IOException {
         // Create test entries with both unigram value, annotation type, and synonym ID
@@ -0,0 +1,88 @@
+package com.example.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped SynonymDictionary.
+ */
+public class SynonymDictionaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLookupsInBothDirections() throws IOException {
+        Map<String, Integer> mappings = new LinkedHashMap<>();
+        mappings.put("PERSON", 10000);
+        mappings.put("LOCATION", 10001);
+        mappings.put("ORGANIZATION", 10002);
+        mappings.put("DATE", 10003);
+
+        Path file = tempDir.resolve("ner_synonyms.dict");
+        SynonymDictionary.write(file, mappings);
+        SynonymDictionary dictionary = SynonymDictionary.open(file);
+
+        assertEquals(4, dictionary.size());
+        assertEquals(10003, dictionary.maxId());
+        mappings.forEach((value, id) -> {
+            assertEquals(id, dictionary.getId(value));
+            assertEquals(value, dictionary.getValue(id));
+        });
+        assertEquals(-1, dictionary.getId("MISC"));
+        assertEquals(-1, dictionary.getId("PERSONS"));
+        assertNull(dictionary.getValue(9999));
+        assertNull(dictionary.getValue(10004));
+    }
+
+    @Test
+    void testSparseIdsAndNonAsciiValues() throws IOException {
+        Map<String, Integer> mappings = new HashMap<>();
+        mappings.put("zebra", 7);
+        mappings.put("été", 3);
+        mappings.put("a", 42);
+        mappings.put("東京", 19);
+
+        Path file = tempDir.resolve("sparse.dict");
+        SynonymDictionary.write(file, mappings);
+        SynonymDictionary dictionary = SynonymDictionary.open(file);
+
+        mappings.forEach((value, id) -> {
+            assertEquals(id, dictionary.getId(value));
+            assertEquals(value, dictionary.getValue(id));
+        });
+        assertNull(dictionary.getValue(8));
+
+        Map<String, Integer> visited = new HashMap<>();
+        dictionary.forEach(visited::put);
+        assertEquals(mappings, visited);
+    }
+
+    @Test
+    void testEmptyDictionary() throws IOException {
+        Path file = tempDir.resolve("empty.dict");
+        SynonymDictionary.write(file, Map.of());
+        SynonymDictionary dictionary = SynonymDictionary.open(file);
+
+        assertEquals(0, dictionary.size());
+        assertEquals(-1, dictionary.getId("anything"));
+        assertNull(dictionary.getValue(1));
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("bogus.dict");
+        Files.write(file, new byte[32]);
+
+        assertThrows(IOException.class, () -> SynonymDictionary.open(file));
+    }
+}
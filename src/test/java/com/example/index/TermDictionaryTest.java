@@ -0,0 +1,90 @@
+package com.example.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the corpus-wide TermDictionary and its key encoding.
+ */
+public class TermDictionaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testKeysRoundTripAsShortTuples() throws IOException {
+        try (TermDictionary terms = TermDictionary.open(tempDir)) {
+            String key = "animal" + IndexGenerator.DELIMITER + "nmod:such_as" + IndexGenerator.DELIMITER + "cat";
+            byte[] encoded = terms.assignKey(key);
+
+            assertEquals(3, encoded.length, "Each of the first terms fits in one varint byte");
+            assertArrayEquals(encoded, terms.encodeKey(key));
+            assertEquals(key, terms.decodeKey(encoded));
+            assertTrue(encoded.length < key.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    void testUnknownTermsHaveNoKey() throws IOException {
+        try (TermDictionary terms = TermDictionary.open(tempDir)) {
+            terms.assignKey("cat");
+            assertNull(terms.encodeKey("cat" + IndexGenerator.DELIMITER + "dog"));
+            assertEquals(-1, terms.getId("dog"));
+        }
+    }
+
+    @Test
+    void testLargeIdsUseMultiByteVarints() throws IOException {
+        try (TermDictionary terms = TermDictionary.open(tempDir)) {
+            for (int i = 0; i < 300; i++) {
+                terms.getOrCreateId("term" + i);
+            }
+            String key = "term299" + IndexGenerator.DELIMITER + "term5";
+            byte[] encoded = terms.encodeKey(key);
+            assertEquals(3, encoded.length);
+            assertEquals(key, terms.decodeKey(encoded));
+        }
+    }
+
+    @Test
+    void testIdsAreStableAcrossBuilds() throws IOException {
+        int cat;
+        try (TermDictionary terms = TermDictionary.open(tempDir)) {
+            cat = terms.getOrCreateId("cat");
+            terms.getOrCreateId("car");
+        }
+
+        try (TermDictionary terms = TermDictionary.open(tempDir)) {
+            assertEquals(cat, terms.getId("cat"));
+            int dog = terms.getOrCreateId("dog");
+            assertEquals(3, dog, "New terms continue after the saved ones");
+        }
+
+        try (TermDictionary terms = TermDictionary.open(tempDir)) {
+            assertEquals(3, terms.size());
+            assertEquals("dog", terms.getTerm(3));
+
+            List<String> matches = new ArrayList<>();
+            terms.forEachTermWithPrefix("ca", (term, id) -> matches.add(term));
+            assertEquals(List.of("car", "cat"), matches);
+        }
+    }
+
+    @Test
+    void testTermKeyedMarker() throws IOException {
+        Path indexDir = tempDir.resolve("unigram");
+        assertFalse(TermDictionary.isTermKeyed(indexDir));
+        TermDictionary.setTermKeyed(indexDir, true);
+        assertTrue(TermDictionary.isTermKeyed(indexDir));
+        TermDictionary.setTermKeyed(indexDir, false);
+        assertFalse(TermDictionary.isTermKeyed(indexDir));
+    }
+}
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import com.example.logging.ProgressTracker;
 import com.example.core.IndexAccess;
 import com.example.core.PositionList;
+import com.example.core.TermKeyedIndexAccess;
 import org.iq80.leveldb.Options;
 
 @ExtendWith(MockitoExtension.class)
@@ -200,6 +201,28 @@ class UnigramIndexGeneratorTest extends BaseIndexTest {
         verify(progress, atLeastOnce()).updateIndex(anyLong());
     }
 
+    @Test
+    void testGenerateIndexWithTermIds() throws Exception {
+        insertBasicTestData();
+
+        Path termKeyedDir = tempDir.resolve("term-keyed").resolve("unigram");
+        IndexConfig config = new IndexConfig.Builder().withTermIds(true).build();
+        try (UnigramIndexGenerator termKeyed = new UnigramIndexGenerator(
+                termKeyedDir.toString(), stopwordsPath.toString(), sqliteConn, progress, config)) {
+            termKeyed.generateIndex();
+        }
+
+        assertTrue(TermDictionary.isTermKeyed(termKeyedDir));
+        try (TermDictionary terms = TermDictionary.open(termKeyedDir.getParent());
+             IndexAccess raw = new IndexAccess(termKeyedDir, "unigram", createTestOptions());
+             TermKeyedIndexAccess index = new TermKeyedIndexAccess(raw, terms)) {
+            assertTrue(raw.get("test".getBytes()).isEmpty(), "Keys should be stored as term ids");
+            assertEquals(2, terms.size());
+            assertEquals(1, index.get("test".getBytes()).orElseThrow().getPositions().size());
+            assertEquals(1, index.get("word".getBytes()).orElseThrow().getPositions().size());
+        }
+    }
+
     private String generateRandomWord(int length) {
         StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
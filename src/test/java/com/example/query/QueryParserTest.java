@@ -1,10 +1,12 @@
 package com.example.query;
 
 import com.example.query.model.Query;
+import com.example.query.model.HistogramColumn;
 import com.example.query.model.TemporalRange;
 import com.example.query.model.condition.Condition;
 import com.example.query.model.condition.Contains;
 import com.example.query.model.condition.Dependency;
+import com.example.query.model.condition.Hypernym;
 import com.example.query.model.condition.Logical;
 import com.example.query.model.condition.Ner;
 import com.example.query.model.condition.Not;
@@ -184,6 +186,33 @@ class QueryParserTest {
         assertEquals("relevance", query.orderBy().get(1));
     }
 
+    @Test
+    @DisplayName("Parse query with COUNT BY histogram")
+    void parseCountByHistogram() throws QueryParseException {
+        String queryStr = "SELECT COUNT BY MONTH FROM wikipedia WHERE NER(PERSON) ORDER BY count DESC LIMIT 12";
+        Query query = parser.parse(queryStr);
+
+        assertEquals(1, query.selectColumns().size());
+        HistogramColumn histogram = assertInstanceOf(HistogramColumn.class, query.selectColumns().get(0));
+        assertEquals(HistogramColumn.Bucket.MONTH, histogram.getBucket());
+        assertEquals("month", histogram.getColumnName());
+        assertEquals(List.of("-count"), query.orderBy());
+        assertEquals(12, query.limit().get());
+    }
+
+    @Test
+    @DisplayName("Parse HYPERNYM condition with variable binding")
+    void parseHypernymCondition() throws QueryParseException {
+        String queryStr = "SELECT ?vehicle FROM wikipedia WHERE HYPERNYM(\"vehicle\") AS ?vehicle";
+        Query query = parser.parse(queryStr);
+
+        assertEquals(1, query.conditions().size());
+        Hypernym hypernym = assertInstanceOf(Hypernym.class, query.conditions().get(0));
+        assertEquals("vehicle", hypernym.category());
+        assertTrue(hypernym.isVariable());
+        assertEquals("?vehicle", hypernym.variableName());
+    }
+
     @Test
     @DisplayName("Parse query with limit clause")
     void parseLimitClause() throws QueryParseException {
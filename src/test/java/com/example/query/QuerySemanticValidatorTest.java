@@ -2,6 +2,8 @@ package com.example.query;
 
 import com.example.query.model.*;
 import com.example.query.model.condition.Condition;
+import com.example.query.model.condition.Hypernym;
+import com.example.query.model.condition.Logical;
 import com.example.query.model.condition.Ner;
 import com.example.query.binding.VariableRegistry;
 import com.example.query.binding.VariableType;
@@ -201,6 +203,29 @@ class QuerySemanticValidatorTest {
         assertTrue(exception.getMessage().contains("Variable ?person is consumed but never produced"));
     }
     
+    @Test
+    @DisplayName("COUNT BY histogram must be the only selected column")
+    void histogramWithOtherColumnsShouldFail() {
+        Query alone = createQuery(List.of(new HistogramColumn(HistogramColumn.Bucket.YEAR)), List.of());
+        Query combined = createQuery(List.of(new HistogramColumn(HistogramColumn.Bucket.YEAR), new TitleColumn()), List.of());
+
+        assertDoesNotThrow(() -> validator.validate(alone));
+        QueryParseException exception = assertThrows(QueryParseException.class, () -> validator.validate(combined));
+        assertTrue(exception.getMessage().contains("COUNT BY YEAR"));
+    }
+
+    @Test
+    @DisplayName("HYPERNYM categories must be single words, also when nested")
+    void multiWordHypernymShouldFail() {
+        Query single = createQuery(List.of(new TitleColumn()), List.of(new Hypernym("vehicle")));
+        Query nested = createQuery(List.of(new TitleColumn()), List.of(new Logical(
+            Logical.LogicalOperator.AND, new Ner("PERSON"), new Hypernym("motor vehicle"))));
+
+        assertDoesNotThrow(() -> validator.validate(single));
+        QueryParseException exception = assertThrows(QueryParseException.class, () -> validator.validate(nested));
+        assertTrue(exception.getMessage().contains("motor vehicle"));
+    }
+
     /**
      * Helper method to create a Query object for testing with an empty registry
      */
@@ -8,8 +8,10 @@ import com.example.core.IndexAccessException;
 import com.example.core.IndexAccessInterface;
 import com.example.core.Position;
 import com.example.core.PositionList;
+import com.example.core.index.MockIndexAccess;
 import com.example.query.model.Query;
 import com.example.query.model.condition.Contains;
+import com.example.query.model.condition.Logical;
 import com.example.query.executor.QueryResult;
 import com.example.query.binding.MatchDetail;
 import com.example.query.binding.ValueType;
@@ -438,4 +440,26 @@ public class ContainsConditionExecutorTest {
         assertEquals(variableName, detail.variableName());
         assertEquals(ValueType.TERM, detail.valueType());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testPrefixTermInAndIsNotPrefilteredAsExactTerm() throws QueryExecutionException {
+        MockIndexAccess unigram = new MockIndexAccess("unigram");
+        unigram.addTestData("apple", 1, 0, 0, 5);
+        unigram.addTestData("apply", 2, 0, 0, 5);
+        unigram.addTestData("pie", 1, 0, 6, 9);
+        unigram.addTestData("pie", 2, 0, 6, 9);
+        unigram.addTestData("pie", 3, 0, 0, 3);
+
+        assertTrue(executor.matchingDocuments(new Contains("app*"), Map.of("unigram", unigram)).isEmpty());
+
+        Logical condition = new Logical(Logical.LogicalOperator.AND, new Contains("app*"), new Contains("pie"));
+        ConditionExecutorFactory factory = new ConditionExecutorFactory(null);
+        QueryResult result = factory.getExecutor(condition).execute(condition, Map.of("unigram", unigram),
+            Query.Granularity.SENTENCE, 0, "test_corpus");
+
+        Set<Integer> docIds = result.getAllDetails().stream()
+            .map(MatchDetail::getDocumentId)
+            .collect(Collectors.toSet());
+        assertEquals(Set.of(1, 2), docIds);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.query.executor;
+
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.index.MockIndexAccess;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.model.HistogramColumn;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Contains;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateHistogramTest {
+
+    private MatchDetail detail(int docId, int sentId, LocalDate date) {
+        Position pos = new Position(docId, sentId, 0, 3, date);
+        return new MatchDetail("v", ValueType.TERM, pos, "cond_1", null);
+    }
+
+    private final List<MatchDetail> details = List.of(
+            detail(1, 0, LocalDate.of(2020, 3, 1)),
+            detail(1, 2, LocalDate.of(2020, 3, 1)),
+            detail(1, 2, LocalDate.of(2020, 3, 1)),
+            detail(4, 0, LocalDate.of(2019, 12, 31)),
+            detail(2, 1, LocalDate.of(2020, 11, 5)),
+            detail(3, 0, null));
+
+    @Test
+    void testCountsEachDocumentOnceInBucketOrder() {
+        DateHistogram histogram = DateHistogram.of(details, Query.Granularity.DOCUMENT, HistogramColumn.Bucket.YEAR);
+
+        assertEquals(List.of("2019", "2020", HistogramColumn.UNDATED), List.copyOf(histogram.counts().keySet()));
+        assertEquals(Map.of("2019", 1L, "2020", 2L, HistogramColumn.UNDATED, 1L), histogram.counts());
+        assertEquals(4, histogram.total());
+    }
+
+    @Test
+    void testSentenceGranularityCountsSentences() {
+        DateHistogram histogram = DateHistogram.of(details, Query.Granularity.SENTENCE, HistogramColumn.Bucket.MONTH);
+
+        assertEquals(List.of("2019-12", "2020-03", "2020-11", HistogramColumn.UNDATED),
+                List.copyOf(histogram.counts().keySet()));
+        assertEquals(2L, (long) histogram.counts().get("2020-03"));
+        assertEquals(5, histogram.total());
+    }
+
+    @Test
+    void testUndatedDetailsDoNotDecideTheBucket() {
+        List<MatchDetail> mixed = List.of(
+                detail(5, 0, null),
+                detail(5, 0, LocalDate.of(2018, 6, 1)),
+                detail(6, 1, null),
+                detail(6, 1, null));
+
+        assertEquals(Map.of("2018", 1L, HistogramColumn.UNDATED, 1L),
+                DateHistogram.of(mixed, Query.Granularity.DOCUMENT, HistogramColumn.Bucket.YEAR).counts());
+        assertEquals(Map.of("2018", 1L, HistogramColumn.UNDATED, 1L),
+                DateHistogram.of(mixed, Query.Granularity.SENTENCE, HistogramColumn.Bucket.YEAR).counts());
+    }
+
+    @Test
+    void testBucketLabels() {
+        LocalDate day = LocalDate.of(1999, 1, 7);
+        assertEquals("1999", HistogramColumn.Bucket.YEAR.label(HistogramColumn.Bucket.YEAR.bucketOf(day)));
+        assertEquals("1999-01", HistogramColumn.Bucket.MONTH.label(HistogramColumn.Bucket.MONTH.bucketOf(day)));
+        assertEquals("1999-01-07", HistogramColumn.Bucket.DAY.label(HistogramColumn.Bucket.DAY.bucketOf(day)));
+    }
+
+    @Test
+    void testPostingColumnsCountLikeDetails() {
+        List<MatchDetail> dated = details.stream()
+                .filter(detail -> detail.getDocumentDate() != null)
+                .collect(Collectors.toList());
+        PositionList list = new PositionList();
+        dated.forEach(detail -> list.add(new Position(detail.getDocumentId(), detail.getSentenceId(),
+                detail.getStartPosition(), detail.getEndPosition(), detail.getDocumentDate())));
+
+        for (byte[] serialized : List.of(list.serialize(), list.serializeByTime())) {
+            for (Query.Granularity granularity : Query.Granularity.values()) {
+                assertEquals(DateHistogram.of(dated, granularity, HistogramColumn.Bucket.MONTH).counts(),
+                        DateHistogram.of(PositionList.decode(serialized), granularity, HistogramColumn.Bucket.MONTH).counts());
+            }
+        }
+    }
+
+    @Test
+    void testSingleConditionIsCountedFromThePosting() throws QueryExecutionException {
+        PositionList list = new PositionList();
+        list.add(new Position(1, 0, 0, 3, LocalDate.of(2020, 3, 1)));
+        list.add(new Position(1, 2, 0, 3, LocalDate.of(2020, 3, 1)));
+        list.add(new Position(2, 0, 0, 3, LocalDate.of(2021, 1, 1)));
+        MockIndexAccess unigram = new MockIndexAccess("unigram");
+        unigram.addTestData("apple", list);
+
+        QueryResult result = new QueryExecutor(new ConditionExecutorFactory()).execute(
+                new Query("test_source", List.of(new Contains("apple")), List.of(), Optional.empty(),
+                        Query.Granularity.DOCUMENT, Optional.empty(),
+                        List.of(new HistogramColumn(HistogramColumn.Bucket.YEAR))),
+                Map.of("unigram", unigram));
+
+        assertTrue(result.getAllDetails().isEmpty());
+        assertEquals(Map.of("2020", 1L, "2021", 1L), result.getHistogram().orElseThrow().counts());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.query.executor;
+
+import com.example.core.IndexAccessInterface;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.index.MockIndexAccess;
+import com.example.index.DateIntervals;
+import com.example.index.DatedPosition;
+import com.example.index.DateRollups;
+import com.example.query.binding.MatchDetail;
+import com.example.query.model.Query;
+import com.example.query.model.TemporalPredicate;
+import com.example.query.model.condition.Temporal;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateKeyRangeTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2020, 1, 31, 0, 0);
+
+    private static DateKeyRange range(TemporalPredicate type, LocalDateTime start, LocalDateTime end) {
+        return DateKeyRange.of(type, start, end).orElseThrow();
+    }
+
+    @Test
+    void testBetweenSeeksToStartAndStopsAfterEnd() {
+        DateKeyRange range = range(TemporalPredicate.CONTAINS, JAN_1, JAN_31);
+
+        assertArrayEquals("20200101".getBytes(), range.seekKey().orElseThrow());
+        assertTrue(range.contains(LocalDate.of(2020, 1, 31)));
+        assertFalse(range.isPastEnd(LocalDate.of(2020, 1, 31)));
+        assertTrue(range.isPastEnd(LocalDate.of(2020, 2, 1)));
+    }
+
+    @Test
+    void testComparisonsAreHalfOpen() {
+        DateKeyRange before = range(TemporalPredicate.BEFORE, JAN_1, JAN_1);
+        assertTrue(before.seekKey().isEmpty());
+        assertEquals(LocalDate.of(2019, 12, 31), before.to());
+
+        DateKeyRange after = range(TemporalPredicate.AFTER, JAN_1, JAN_1);
+        assertEquals(LocalDate.of(2020, 1, 2), after.from());
+        assertFalse(after.isPastEnd(LocalDate.of(9999, 12, 31)));
+
+        assertEquals(new DateKeyRange(null, LocalDate.of(2020, 1, 1)),
+            range(TemporalPredicate.BEFORE_EQUAL, JAN_1, JAN_1));
+        assertEquals(new DateKeyRange(LocalDate.of(2020, 1, 1), null),
+            range(TemporalPredicate.AFTER_EQUAL, JAN_1, JAN_1));
+    }
+
+    @Test
+    void testTimesRoundToWholeDays() {
+        DateKeyRange range = range(TemporalPredicate.CONTAINS, JAN_1.plusHours(12), JAN_31.plusHours(12));
+        assertEquals(new DateKeyRange(LocalDate.of(2020, 1, 2), LocalDate.of(2020, 1, 31)), range);
+    }
+
+    @Test
+    void testContainedByMatchesOnlySingleDayIntervals() {
+        assertEquals(new DateKeyRange(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1)),
+            range(TemporalPredicate.CONTAINED_BY, JAN_1, JAN_1));
+        assertTrue(range(TemporalPredicate.CONTAINED_BY, JAN_1, JAN_31).isEmpty());
+    }
+
+    @Test
+    void testProximityIsUnsupported() {
+        assertEquals(Optional.empty(), DateKeyRange.of(TemporalPredicate.PROXIMITY, JAN_1, JAN_1));
+    }
+
+    @Test
+    void testTemporalExecutorReadsOnlyMatchingDates() throws Exception {
+        MockIndexAccess dateIndex = new MockIndexAccess("ner_date");
+        int docId = 0;
+        for (LocalDate date = LocalDate.of(2019, 12, 1); date.isBefore(LocalDate.of(2020, 3, 1)); date = date.plusDays(1)) {
+            PositionList positions = new PositionList();
+            positions.add(new Position(docId++, 0, 0, 8, date));
+            dateIndex.addTestData(date.format(DateKeyRange.KEY_FORMATTER), positions);
+        }
+        Map<String, IndexAccessInterface> indexes = Map.of("ner_date", dateIndex);
+
+        QueryResult result = new TemporalExecutor().execute(new Temporal(JAN_1, JAN_31), indexes,
+            Query.Granularity.SENTENCE, 0, "corpus");
+
+        List<MatchDetail> details = result.getAllDetails();
+        assertEquals(31, details.size());
+        assertTrue(details.stream().allMatch(d -> ((LocalDate) d.value()).getMonthValue() == 1));
+    }
+
+    @Test
+    void testTemporalExecutorCoversRangeWithRollups() throws Exception {
+        assertRollupRangeMatchesDays(true);
+    }
+
+    @Test
+    void testRollupsWithoutDaysFallBackToDailyKeys() throws Exception {
+        assertRollupRangeMatchesDays(false);
+    }
+
+    /**
+     * Mentions every third day from mid-1988 to mid-1993, each dated by its document
+     * timestamp, and checks that a multi-year range yields the matched day of every mention.
+     */
+    private static void assertRollupRangeMatchesDays(boolean datedRollups) throws Exception {
+        MockIndexAccess dateIndex = new MockIndexAccess("ner_date");
+        Map<String, PositionList> lists = new TreeMap<>();
+        int docId = 0;
+        for (LocalDate date = LocalDate.of(1988, 6, 1); date.isBefore(LocalDate.of(1993, 6, 1)); date = date.plusDays(3)) {
+            Position position = new Position(docId++, 0, 0, 8, date);
+            Position rollupPosition = datedRollups ? DatedPosition.fromPosition(position, date) : position;
+            lists.computeIfAbsent(date.format(DateKeyRange.KEY_FORMATTER), k -> new PositionList()).add(position);
+            lists.computeIfAbsent(DateRollups.yearKey(date.getYear()), k -> new PositionList()).add(rollupPosition);
+            lists.computeIfAbsent(DateRollups.monthKey(YearMonth.from(date)), k -> new PositionList()).add(rollupPosition);
+        }
+        lists.forEach(dateIndex::addTestData);
+        Map<String, IndexAccessInterface> indexes = Map.of("ner_date", dateIndex);
+
+        LocalDateTime from = LocalDateTime.of(1989, 11, 20, 0, 0);
+        LocalDateTime to = LocalDateTime.of(1992, 3, 4, 0, 0);
+        List<MatchDetail> details = new TemporalExecutor().execute(new Temporal(from, to), indexes,
+            Query.Granularity.SENTENCE, 0, "corpus").getAllDetails();
+
+        List<Integer> expected = lists.entrySet().stream()
+            .filter(e -> !e.getKey().startsWith(DateRollups.PREFIX))
+            .flatMap(e -> e.getValue().getPositions().stream())
+            .filter(p -> !p.getTimestamp().isBefore(from.toLocalDate()) && !p.getTimestamp().isAfter(to.toLocalDate()))
+            .map(Position::getDocumentId)
+            .sorted()
+            .toList();
+        assertEquals(expected, details.stream().map(d -> d.position().getDocumentId()).sorted().toList());
+        assertTrue(details.stream().allMatch(d -> d.getMatchedDate() != null
+                && d.getMatchedDate().equals(d.getDocumentDate())),
+            "Every match should have its mentioned day as value");
+        assertTrue(details.stream().allMatch(d -> d.position().getClass() == Position.class));
+    }
+
+    @Test
+    void testTemporalExecutorMatchesIntervalMentions() throws Exception {
+        MockIndexAccess dateIndex = new MockIndexAccess("ner_date");
+        String[] mentions = {"1989", "1990-06", "199X", "1990-Q4", "1991-W10", "1989/1992", "2001"};
+        for (int i = 0; i < mentions.length; i++) {
+            PositionList positions = new PositionList();
+            positions.add(new Position(i, 0, 0, 8, LocalDate.of(2020, 1, 1)));
+            dateIndex.addTestData(DateIntervals.parse(mentions[i]).orElseThrow().key(), positions);
+        }
+        Map<String, IndexAccessInterface> indexes = Map.of("ner_date", dateIndex);
+        LocalDateTime from = LocalDateTime.of(1990, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(1990, 12, 31, 0, 0);
+
+        assertEquals(List.of(1, 3), matchingDocuments(TemporalPredicate.CONTAINS, from, to, indexes),
+            "Mentions inside 1990");
+        assertEquals(List.of(2, 5), matchingDocuments(TemporalPredicate.CONTAINED_BY, from, to, indexes),
+            "Mentions spanning all of 1990");
+        assertEquals(List.of(1, 2, 3, 5), matchingDocuments(TemporalPredicate.INTERSECT, from, to, indexes),
+            "Mentions overlapping 1990");
+
+        List<MatchDetail> bound = new TemporalExecutor().execute(
+                new Temporal(from, Optional.of(to), Optional.of("?d"), Optional.empty(), TemporalPredicate.INTERSECT),
+                indexes, Query.Granularity.SENTENCE, 0, "corpus").getAllDetails();
+        assertEquals(List.of(1, 2, 3, 5), bound.stream().map(d -> d.position().getDocumentId()).sorted().toList(),
+            "Binding a variable matches the same mentions");
+        assertTrue(bound.stream().allMatch(d -> "?d".equals(d.variableName())));
+    }
+
+    @Test
+    void testDaysAndIntervalsRoundPartialDaysAlike() throws Exception {
+        MockIndexAccess dateIndex = new MockIndexAccess("ner_date");
+        Map<String, Integer> mentions = Map.of("1990-01", 0, "1990-06", 1, "19900101", 2, "19900102", 3);
+        mentions.forEach((mention, docId) -> {
+            PositionList positions = new PositionList();
+            positions.add(new Position(docId, 0, 0, 8, LocalDate.of(2020, 1, 1)));
+            String key = mention.length() == 8 ? mention : DateIntervals.parse(mention).orElseThrow().key();
+            dateIndex.addTestData(key, positions);
+        });
+        Map<String, IndexAccessInterface> indexes = Map.of("ner_date", dateIndex);
+
+        // Noon of January 1 rounds up to January 2 on both paths
+        assertEquals(List.of(1, 3), matchingDocuments(TemporalPredicate.CONTAINS,
+            LocalDateTime.of(1990, 1, 1, 12, 0), LocalDateTime.of(1990, 12, 31, 0, 0), indexes));
+    }
+
+    private static List<Integer> matchingDocuments(TemporalPredicate type, LocalDateTime from, LocalDateTime to,
+            Map<String, IndexAccessInterface> indexes) throws Exception {
+        return new TemporalExecutor().execute(new Temporal(type, from, to), indexes,
+                Query.Granularity.SENTENCE, 0, "corpus").getAllDetails().stream()
+            .map(d -> d.position().getDocumentId())
+            .sorted()
+            .toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.query.executor;
+
+import com.example.core.IndexAccess;
+import com.example.core.IndexAccessInterface;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.query.binding.MatchDetail;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Hypernym;
+
+import org.iq80.leveldb.DBIterator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HypernymExecutorTest {
+
+    @Mock private IndexAccess hypernymIndex;
+    @Mock private DBIterator iterator;
+
+    private final HypernymExecutor executor = new HypernymExecutor();
+    private Map<String, IndexAccessInterface> indexes;
+    private final LocalDate date = LocalDate.of(2021, 3, 4);
+
+    @BeforeEach
+    void setUp() {
+        indexes = Map.of("hypernym", hypernymIndex);
+    }
+
+    private static byte[] key(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private PositionList positions(Position... positions) {
+        PositionList list = new PositionList();
+        for (Position position : positions) {
+            list.add(position);
+        }
+        return list;
+    }
+
+    @Test
+    void testCategoryResolvedWithSingleLookup() throws Exception {
+        when(hypernymIndex.get(aryEq(key("vehicle")))).thenReturn(Optional.of(positions(
+            new Position(1, 0, 3, 4, date), new Position(4, 2, 8, 9, date))));
+
+        QueryResult result = executor.execute(new Hypernym("Vehicle"), indexes,
+            Query.Granularity.DOCUMENT, 0, "corpus");
+
+        assertEquals(List.of(1, 4), result.getAllDetails().stream().map(MatchDetail::getDocumentId).toList());
+        assertTrue(result.getAllDetails().stream().allMatch(d -> "vehicle".equals(d.value())));
+        verify(hypernymIndex, times(1)).get(any());
+        verify(hypernymIndex, never()).iterator();
+    }
+
+    @Test
+    void testVariableBindsInstancesFromPairKeys() throws Exception {
+        String prefix = "vehicle" + IndexAccessInterface.DELIMITER;
+        when(hypernymIndex.iterator()).thenReturn(iterator);
+        when(iterator.hasNext()).thenReturn(true, true, true, false);
+        when(iterator.next()).thenReturn(
+            Map.entry(key(prefix + "car"), positions(new Position(1, 0, 3, 4, date)).serialize()),
+            Map.entry(key(prefix + "truck"), positions(new Position(2, 1, 5, 6, date)).serialize()),
+            Map.entry(key("vehiclex"), positions(new Position(3, 0, 0, 1, date)).serialize()));
+
+        QueryResult result = executor.execute(new Hypernym("vehicle", "?v", true), indexes,
+            Query.Granularity.SENTENCE, 0, "corpus");
+
+        List<MatchDetail> details = result.getAllDetails();
+        assertEquals(List.of("car", "truck"), details.stream().map(MatchDetail::value).toList());
+        assertTrue(details.stream().allMatch(d -> "?v".equals(d.variableName())));
+        verify(iterator).seek(aryEq(key(prefix)));
+        verify(hypernymIndex, never()).get(any());
+    }
+
+    @Test
+    void testMissingIndexThrows() {
+        QueryExecutionException exception = assertThrows(QueryExecutionException.class, () ->
+            executor.execute(new Hypernym("vehicle"), Map.of(), Query.Granularity.DOCUMENT, 0, "corpus"));
+        assertEquals(QueryExecutionException.ErrorType.MISSING_INDEX, exception.getErrorType());
+    }
+}
@@ -12,12 +12,17 @@ import tech.tablesaw.api.Table;
 
 import java.time.LocalDate;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.example.query.executor.strategies.HashDateJoinStrategy;
 import com.example.query.executor.strategies.NaiveContainsJoinStrategy;
 import com.example.query.executor.strategies.NaiveProximityJoinStrategy;
+import com.example.query.executor.strategies.SortMergeDateJoinStrategy;
+import com.example.query.executor.strategies.SweepLineJoinStrategy;
 
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -46,7 +51,17 @@ class JoinExecutorTest {
                 new NaiveProximityJoinStrategy(),
                 true);
         
-        // TODO: Implement and register strategies for CONTAINED_BY and INTERSECT
+        joinExecutor.registerStrategy(
+                TemporalPredicate.CONTAINED_BY, 
+                "sweep", 
+                new SweepLineJoinStrategy(TemporalPredicate.CONTAINED_BY),
+                true);
+        
+        joinExecutor.registerStrategy(
+                TemporalPredicate.INTERSECT, 
+                "sweep", 
+                new SweepLineJoinStrategy(TemporalPredicate.INTERSECT),
+                true);
         
         // Create a left table with document IDs and dates
         leftTable = Table.create("LeftTable");
@@ -287,4 +302,95 @@ class JoinExecutorTest {
         assertTrue(benchmarkResults.get("naive") >= 0);
         assertTrue(benchmarkResults.get("alternative") >= 0);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testBenchmarkSweepLineAgainstNaive() throws Exception {
+        joinExecutor.registerStrategy(
+                TemporalPredicate.CONTAINS, "sweep", new SweepLineJoinStrategy(TemporalPredicate.CONTAINS), false);
+        joinExecutor.registerStrategy(
+                TemporalPredicate.PROXIMITY, "sweep", new SweepLineJoinStrategy(TemporalPredicate.PROXIMITY), false);
+        
+        Table left = randomDates("Left", 2000, 1);
+        Table right = randomDates("Right", 2000, 2);
+        
+        // benchmark() fails if the strategies disagree on the number of joined rows
+        Map<String, Long> containsResults = joinExecutor.benchmark(left, right,
+            new JoinCondition("date", "date", JoinCondition.JoinType.INNER, TemporalPredicate.CONTAINS), 3);
+        Map<String, Long> proximityResults = joinExecutor.benchmark(left, right,
+            new JoinCondition("date", "date", JoinCondition.JoinType.LEFT, TemporalPredicate.PROXIMITY, Optional.of(3)), 3);
+        
+        assertEquals(2, containsResults.size());
+        assertEquals(2, proximityResults.size());
+        logger.info("CONTAINS: " + containsResults + ", PROXIMITY: " + proximityResults);
+    }
+    
+    @Test
+    void testPairStrategiesMatchNaiveRowForRow() throws Exception {
+        Table left = randomDates("Left", 300, 3);
+        Table right = randomDates("Right", 200, 4);
+        
+        for (JoinCondition.JoinType type : JoinCondition.JoinType.values()) {
+            JoinCondition contains = new JoinCondition("date", "date", type, TemporalPredicate.CONTAINS);
+            Table expectedContains = new NaiveContainsJoinStrategy().execute(left, right, contains);
+            JoinCondition proximity = new JoinCondition("date", "date", type, TemporalPredicate.PROXIMITY, Optional.of(7));
+            Table expectedProximity = new NaiveProximityJoinStrategy().execute(left, right, proximity);
+            
+            assertTablesEqual(expectedContains,
+                new SweepLineJoinStrategy(TemporalPredicate.CONTAINS).execute(left, right, contains));
+            assertTablesEqual(expectedContains,
+                new HashDateJoinStrategy(TemporalPredicate.CONTAINS).execute(left, right, contains));
+            assertTablesEqual(expectedContains,
+                new SortMergeDateJoinStrategy(TemporalPredicate.CONTAINS).execute(left, right, contains));
+            assertTablesEqual(expectedProximity,
+                new SweepLineJoinStrategy(TemporalPredicate.PROXIMITY).execute(left, right, proximity));
+            assertTablesEqual(expectedProximity,
+                new HashDateJoinStrategy(TemporalPredicate.PROXIMITY).execute(left, right, proximity));
+            assertTablesEqual(expectedProximity,
+                new SortMergeDateJoinStrategy(TemporalPredicate.PROXIMITY).execute(left, right, proximity));
+        }
+    }
+    
+    @Test
+    void testAdaptiveSelectionRecordsRuns() throws Exception {
+        JoinExecutor adaptive = JoinExecutor.withDefaultStrategies();
+        JoinCondition condition = new JoinCondition(
+            "date", "date", JoinCondition.JoinType.INNER, TemporalPredicate.CONTAINS);
+        
+        // Tiny inputs keep the naive nested loop
+        Table small = adaptive.join(leftTable, rightTable, condition);
+        assertEquals(1, small.rowCount());
+        
+        // Large unsorted inputs never use it
+        Table large = adaptive.join(randomDates("Left", 2000, 5), randomDates("Right", 2000, 6), condition);
+        
+        List<JoinExecutor.JoinRun> runs = adaptive.getRecordedRuns();
+        assertEquals(2, runs.size());
+        assertEquals("naive", runs.get(0).strategy());
+        assertTrue(runs.get(0).selected());
+        assertEquals("hash", runs.get(1).strategy());
+        assertEquals(large.rowCount(), runs.get(1).outputRows());
+        assertEquals(2000, runs.get(1).profile().leftRows());
+    }
+    
+    private static Table randomDates(String name, int rows, long seed) {
+        Random random = new Random(seed);
+        StringColumn ids = StringColumn.create("document_id");
+        DateColumn dates = DateColumn.create("date");
+        for (int i = 0; i < rows; i++) {
+            ids.append(name + i);
+            dates.append(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(3 * 365)));
+        }
+        return Table.create(name).addColumns(ids, dates);
+    }
+    
+    private static void assertTablesEqual(Table expected, Table actual) {
+        assertEquals(expected.columnNames(), actual.columnNames());
+        assertEquals(expected.rowCount(), actual.rowCount());
+        for (String column : expected.columnNames()) {
+            for (int i = 0; i < expected.rowCount(); i++) {
+                assertEquals(expected.column(column).getString(i), actual.column(column).getString(i),
+                    column + " at row " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.query.executor;
+
+import com.example.core.Position;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.binding.VariableRegistry;
+import com.example.query.model.JoinCondition;
+import com.example.query.model.Query;
+import com.example.query.model.TemporalPredicate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JoinHandlerTest {
+
+    private final JoinHandler joinHandler = new JoinHandler();
+
+    private List<MatchDetail> dates(String variable, int count, int firstDay) {
+        List<MatchDetail> details = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate date = LocalDate.ofEpochDay(firstDay + i);
+            Position pos = new Position(i, 0, 0, 4, date);
+            details.add(new MatchDetail(date, ValueType.DATE, pos, "cond_" + variable, variable));
+        }
+        return details;
+    }
+
+    private QueryResult join(List<MatchDetail> left, List<MatchDetail> right, JoinCondition condition)
+            throws QueryExecutionException {
+        SubqueryContext context = new SubqueryContext();
+        context.addQueryResult("a", new QueryResult(Query.Granularity.DOCUMENT, left));
+        context.addQueryResult("b", new QueryResult(Query.Granularity.DOCUMENT, right));
+        Query query = new Query("test_source", List.of(), List.of(), Optional.empty(), Query.Granularity.DOCUMENT,
+                Optional.empty(), List.of(), new VariableRegistry(), List.of(), Optional.of(condition), Optional.of("a"));
+        return joinHandler.handleJoin(query, context);
+    }
+
+    @Test
+    void testLargeEqualityJoinUsesKeyMatches() throws Exception {
+        // 300 x 200 candidate pairs, of which days 100..299 overlap
+        List<MatchDetail> left = dates("?d", 300, 0);
+        List<MatchDetail> right = dates("?d", 200, 100);
+
+        QueryResult result = join(left, right,
+                new JoinCondition("a.?d", "b.?d", JoinCondition.JoinType.INNER, TemporalPredicate.EQUAL));
+
+        assertEquals(200, result.getAllDetails().size());
+        MatchDetail first = result.getAllDetails().get(0);
+        assertEquals(LocalDate.ofEpochDay(100), first.value());
+        assertEquals(Optional.of(LocalDate.ofEpochDay(100)), first.getRightValue());
+    }
+
+    @Test
+    void testLargeRangeJoinKeepsNestedLoopOrder() throws Exception {
+        List<MatchDetail> left = dates("?d", 100, 0);
+        List<MatchDetail> right = dates("?e", 100, 50);
+
+        QueryResult result = join(left, right,
+                new JoinCondition("a.?d", "b.?e", JoinCondition.JoinType.INNER, TemporalPredicate.BEFORE));
+
+        // Left day l is before right day r for r in [max(50, l + 1), 149]
+        int expected = 0;
+        for (int l = 0; l < 100; l++) {
+            expected += 150 - Math.max(50, l + 1);
+        }
+        List<MatchDetail> joined = result.getAllDetails();
+        assertEquals(expected, joined.size());
+        for (int i = 1; i < joined.size(); i++) {
+            MatchDetail prev = joined.get(i - 1);
+            MatchDetail curr = joined.get(i);
+            int leftCompare = ((LocalDate) prev.value()).compareTo((LocalDate) curr.value());
+            assertTrue(leftCompare < 0 || (leftCompare == 0 && ((LocalDate) prev.getRightValue().get())
+                    .isBefore((LocalDate) curr.getRightValue().get())));
+        }
+    }
+
+    @Test
+    void testProximityJoin() throws Exception {
+        List<MatchDetail> left = dates("?d", 100, 0);
+        List<MatchDetail> right = dates("?e", 100, 0);
+
+        QueryResult result = join(left, right, new JoinCondition("a.?d", "b.?e", JoinCondition.JoinType.INNER,
+                TemporalPredicate.PROXIMITY, Optional.of(1)));
+
+        // Every day pairs with itself and its neighbours
+        assertEquals(100 + 2 * 99, result.getAllDetails().size());
+    }
+
+    @Test
+    void testLeftJoinStillUnsupported() throws Exception {
+        QueryResult result = join(dates("?d", 100, 0), dates("?d", 100, 0),
+                new JoinCondition("a.?d", "b.?d", JoinCondition.JoinType.LEFT, TemporalPredicate.EQUAL));
+
+        assertTrue(result.getAllDetails().isEmpty());
+    }
+}
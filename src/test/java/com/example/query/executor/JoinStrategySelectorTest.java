@@ -0,0 +1,61 @@
+package com.example.query.executor;
+
+import com.example.query.executor.JoinStrategySelector.InputProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JoinStrategySelectorTest {
+
+    private static final Set<String> ALL = Set.of(
+        JoinStrategySelector.NAIVE, JoinStrategySelector.HASH,
+        JoinStrategySelector.SORT_MERGE, JoinStrategySelector.SWEEP);
+
+    private final JoinStrategySelector selector = new JoinStrategySelector();
+
+    @Test
+    void testTinyInputsUseNaive() {
+        InputProfile profile = new InputProfile(50, 60, 1000, false, false, 0);
+        assertEquals(Optional.of("naive"), selector.select(profile, ALL));
+    }
+
+    @Test
+    void testLargeInputsNeverUseNaiveWhenAlternativesExist() {
+        InputProfile profile = new InputProfile(5000, 5000, 1000, false, false, 0);
+        assertEquals(Optional.of("sweep"), selector.select(profile, Set.of("naive", "sweep")));
+        assertEquals(Optional.of("naive"), selector.select(profile, Set.of("naive")));
+    }
+
+    @Test
+    void testSortedInputsUseSortMerge() {
+        InputProfile profile = new InputProfile(5000, 5000, 1000, true, true, 30);
+        assertEquals(Optional.of("sort-merge"), selector.select(profile, ALL));
+    }
+
+    @Test
+    void testHashForNarrowWindowsOrDenseInputs() {
+        assertEquals(Optional.of("hash"),
+            selector.select(new InputProfile(5000, 5000, 100_000, true, false, 0), ALL));
+        // 10,000 rows over ~1000 days is dense enough for a wide window
+        assertEquals(Optional.of("hash"),
+            selector.select(new InputProfile(5000, 5000, 1000, false, false, 60), ALL));
+    }
+
+    @Test
+    void testSweepForWideWindowsOverSparseInputs() {
+        InputProfile profile = new InputProfile(5000, 5000, 100_000, false, false, 60);
+        assertTrue(profile.density() < 1.0);
+        assertEquals(Optional.of("sweep"), selector.select(profile, ALL));
+    }
+
+    @Test
+    void testThresholdsAreConfigurable() {
+        JoinStrategySelector eager = new JoinStrategySelector(new JoinStrategySelector.Thresholds(0, 15, 1.0));
+        InputProfile profile = new InputProfile(3, 3, 10, false, false, 0);
+        assertEquals(Optional.of("hash"), eager.select(profile, ALL));
+        assertEquals(Optional.empty(), eager.select(profile, Set.of("custom")));
+    }
+}
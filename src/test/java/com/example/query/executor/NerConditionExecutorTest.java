@@ -191,5 +191,24 @@ class NerConditionExecutorTest {
         verify(mockIterator, times(3)).hasNext();
         verify(mockIterator, times(2)).next();
     }
-    
-} 
\ No newline at end of file
+
+    @Test
+    void testTargetUsesTimelineIndexWhenPresent() throws Exception {
+        IndexAccess timelineIndex = mock(IndexAccess.class, "timelineIndex");
+        PositionList mentions = new PositionList();
+        mentions.add(new Position(2, 0, 0, 10, LocalDate.of(2021, 5, 1)));
+        mentions.add(new Position(9, 3, 4, 14, LocalDate.of(2019, 1, 1)));
+        mentions.add(new Position(5, 1, 0, 10, LocalDate.of(2020, 7, 1)));
+        byte[] key = ("PERSON" + IndexAccessInterface.DELIMITER + "john smith").getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        when(timelineIndex.getDecoded(argThat(k -> Arrays.equals(k, key))))
+            .thenReturn(Optional.of(PositionList.decode(mentions.serializeByTime())));
+
+        QueryResult result = executor.execute(new Ner("PERSON", "John Smith"),
+            Map.of("ner", nerIndex, "ner_timeline", timelineIndex), Query.Granularity.DOCUMENT, 0, "test_corpus");
+
+        assertEquals(List.of(9, 5, 2), result.getAllDetails().stream().map(MatchDetail::getDocumentId).toList());
+        assertTrue(result.isInTimestampOrder());
+        assertTrue(result.getAllDetails().stream().allMatch(d -> "john smith".equals(d.value()) && d.valueType() == ValueType.ENTITY));
+        verify(nerIndex, never()).iterator();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.query.executor;
+
+import com.example.core.Position;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Condition;
+import com.example.query.model.condition.Contains;
+import com.example.query.model.condition.Logical;
+import com.example.query.model.condition.Not;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryResultCacheTest {
+
+    private static final String CORPUS = "news";
+    private static final Query.Granularity DOC = Query.Granularity.DOCUMENT;
+
+    private QueryResultCache cache;
+    private AtomicInteger executions;
+
+    private Contains contains(String term) {
+        return new Contains(List.of(term), null, false);
+    }
+
+    private QueryResult result(int details) {
+        List<MatchDetail> list = new ArrayList<>();
+        for (int i = 0; i < details; i++) {
+            Position pos = new Position(i, 0, 0, 3, LocalDate.of(2020, 1, 1));
+            list.add(new MatchDetail("t", ValueType.TERM, pos, "cond", null));
+        }
+        return new QueryResult(DOC, 0, list);
+    }
+
+    private QueryResult run(Condition condition, Query.Granularity granularity, int size, int details)
+            throws QueryExecutionException {
+        return cache.getOrExecute(condition, granularity, size, CORPUS, () -> {
+            executions.incrementAndGet();
+            return result(details);
+        });
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new QueryResultCache(100, 16);
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void testNothingCachedWithoutIndexVersion() throws Exception {
+        run(contains("apple"), DOC, 0, 1);
+        run(contains("apple"), DOC, 0, 1);
+
+        assertEquals(2, executions.get());
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void testEquivalentTreesShareEntry() throws Exception {
+        cache.updateIndexVersion(CORPUS, "v1");
+        Logical first = new Logical(Logical.LogicalOperator.AND, List.of(contains("a"),
+                new Logical(Logical.LogicalOperator.AND, List.of(contains("b"), contains("c")))));
+        Logical reordered = new Logical(Logical.LogicalOperator.AND, List.of(contains("c"), contains("a"), contains("b")));
+
+        QueryResult original = run(first, DOC, 0, 2);
+        QueryResult cached = run(reordered, DOC, 0, 2);
+
+        assertSame(original, cached);
+        assertEquals(1, executions.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void testKeyIncludesGranularityAndOperandOrderForWindows() {
+        Logical ab = new Logical(Logical.LogicalOperator.AND, List.of(contains("a"), contains("b")));
+        Logical ba = new Logical(Logical.LogicalOperator.AND, List.of(contains("b"), contains("a")));
+
+        assertEquals(QueryResultCache.canonicalForm(ab, DOC, 0), QueryResultCache.canonicalForm(ba, DOC, 0));
+        assertNotEquals(QueryResultCache.canonicalForm(ab, Query.Granularity.SENTENCE, 3),
+                QueryResultCache.canonicalForm(ba, Query.Granularity.SENTENCE, 3));
+        assertNotEquals(QueryResultCache.canonicalForm(new Not(contains("a")), DOC, 0),
+                QueryResultCache.canonicalForm(contains("a"), DOC, 0));
+    }
+
+    @Test
+    void testRebuiltIndexInvalidatesEntries() throws Exception {
+        cache.updateIndexVersion(CORPUS, "v1");
+        run(contains("apple"), DOC, 0, 1);
+
+        assertFalse(cache.updateIndexVersion(CORPUS, "v1"));
+        assertTrue(cache.updateIndexVersion(CORPUS, "v2"));
+        run(contains("apple"), DOC, 0, 1);
+
+        assertEquals(2, executions.get());
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenFull() throws Exception {
+        cache.updateIndexVersion(CORPUS, "v1");
+        // Each entry weighs 11 details, so at most 9 fit into 100
+        for (int i = 0; i < 10; i++) {
+            run(contains("term" + i), DOC, 0, 10);
+        }
+
+        assertEquals(1, cache.stats().evictions());
+        assertTrue(cache.stats().details() <= 100);
+        run(contains("term0"), DOC, 0, 10);
+        assertEquals(11, executions.get());
+    }
+
+    @Test
+    void testOversizedResultsAreNotAdmitted() throws Exception {
+        cache.updateIndexVersion(CORPUS, "v1");
+        run(contains("common"), DOC, 0, 50);
+
+        assertEquals(0, cache.stats().entries());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.query.executor;
+
+import com.example.core.DocumentIdSet;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.index.MockIndexAccess;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.model.CountColumn;
+import com.example.query.model.Query;
+import com.example.query.model.SelectColumn;
+import com.example.query.model.condition.Contains;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultLimiterTest {
+
+    private MatchDetail detail(int docId, int sentId, int begin, LocalDate date) {
+        Position pos = new Position(docId, sentId, begin, begin + 3, date);
+        return new MatchDetail("v" + begin, ValueType.TERM, pos, "cond_1", "?a");
+    }
+
+    private Query query(List<String> orderBy, Optional<Integer> limit, Query.Granularity granularity,
+                        List<SelectColumn> columns) {
+        return new Query("test_source", List.of(), orderBy, limit, granularity, Optional.empty(), columns);
+    }
+
+    private List<Integer> documentIds(QueryResult result) {
+        return result.getAllDetails().stream().map(MatchDetail::getDocumentId).distinct().sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    void testUnorderedLimitKeepsFirstUnits() {
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        QueryResult result = new QueryResult(Query.Granularity.DOCUMENT, List.of(
+                detail(1, 0, 0, date), detail(1, 2, 4, date),
+                detail(2, 0, 0, date),
+                detail(3, 1, 0, date), detail(4, 0, 0, date)));
+
+        QueryResult limited = ResultLimiter.apply(
+                query(List.of(), Optional.of(2), Query.Granularity.DOCUMENT, List.of()), result);
+
+        assertEquals(3, limited.getAllDetails().size());
+        assertEquals(List.of(1, 2), documentIds(limited));
+    }
+
+    @Test
+    void testSentenceGranularityCountsSentenceUnits() {
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        QueryResult result = new QueryResult(Query.Granularity.SENTENCE, 0, List.of(
+                detail(1, 0, 0, date), detail(1, 0, 4, date),
+                detail(1, 1, 0, date), detail(2, 0, 0, date)));
+
+        QueryResult limited = ResultLimiter.apply(
+                query(List.of(), Optional.of(2), Query.Granularity.SENTENCE, List.of()), result);
+
+        assertEquals(3, limited.getAllDetails().size());
+        assertEquals(List.of(1), documentIds(limited));
+    }
+
+    @Test
+    void testTimestampOrderSelectsEarliestAndLatest() {
+        QueryResult result = new QueryResult(Query.Granularity.DOCUMENT, List.of(
+                detail(5, 0, 0, LocalDate.of(2021, 1, 1)),
+                detail(1, 0, 0, LocalDate.of(2019, 6, 1)),
+                detail(3, 0, 0, LocalDate.of(2023, 3, 1)),
+                detail(2, 0, 0, null),
+                detail(4, 0, 0, LocalDate.of(2018, 2, 1))));
+
+        QueryResult earliest = ResultLimiter.apply(
+                query(List.of("timestamp"), Optional.of(2), Query.Granularity.DOCUMENT, List.of()), result);
+        QueryResult latest = ResultLimiter.apply(
+                query(List.of("-timestamp"), Optional.of(2), Query.Granularity.DOCUMENT, List.of()), result);
+
+        assertEquals(List.of(1, 4), documentIds(earliest));
+        assertEquals(List.of(3, 5), documentIds(latest));
+    }
+
+    @Test
+    void testTimestampOrderOnPreorderedDetails() {
+        // Marked as time-ordered, as read from ner_timeline; documents 9 and 8 share a day
+        QueryResult result = QueryResult.inTimestampOrder(Query.Granularity.DOCUMENT, 0, List.of(
+                detail(7, 0, 0, LocalDate.of(2019, 1, 1)),
+                detail(9, 0, 0, LocalDate.of(2019, 2, 1)),
+                detail(9, 1, 4, LocalDate.of(2019, 2, 1)),
+                detail(8, 0, 0, LocalDate.of(2019, 2, 1)),
+                detail(2, 0, 0, LocalDate.of(2019, 3, 1))));
+
+        QueryResult two = ResultLimiter.apply(
+                query(List.of("timestamp"), Optional.of(2), Query.Granularity.DOCUMENT, List.of()), result);
+        QueryResult three = ResultLimiter.apply(
+                query(List.of("timestamp"), Optional.of(3), Query.Granularity.DOCUMENT, List.of()), result);
+
+        QueryResult latest = ResultLimiter.apply(
+                query(List.of("-timestamp"), Optional.of(2), Query.Granularity.DOCUMENT, List.of()), result);
+
+        assertEquals(List.of(7, 8), documentIds(two));
+        assertEquals(List.of(7, 8, 9), documentIds(three));
+        assertEquals(4, three.getAllDetails().size());
+        assertEquals(List.of(2, 8), documentIds(latest));
+    }
+
+    @Test
+    void testNoPushdownForOtherOrderingsOrCounts() {
+        assertFalse(ResultLimiter.canPushDown(
+                query(List.of("title"), Optional.of(5), Query.Granularity.DOCUMENT, List.of())));
+        assertFalse(ResultLimiter.canPushDown(
+                query(List.of(), Optional.of(5), Query.Granularity.DOCUMENT, List.of(CountColumn.countAll()))));
+        assertFalse(ResultLimiter.canPushDown(
+                query(List.of(), Optional.empty(), Query.Granularity.DOCUMENT, List.of())));
+        assertTrue(ResultLimiter.canPushDown(
+                query(List.of("-TIMESTAMP"), Optional.of(5), Query.Granularity.DOCUMENT, List.of())));
+    }
+
+    private PositionList postingList() {
+        // Documents 2 and 4 share a day
+        PositionList list = new PositionList();
+        list.add(new Position(1, 0, 0, 3, LocalDate.of(2020, 5, 1)));
+        list.add(new Position(1, 2, 4, 7, LocalDate.of(2020, 5, 1)));
+        list.add(new Position(2, 0, 0, 3, LocalDate.of(2019, 1, 1)));
+        list.add(new Position(3, 1, 0, 3, LocalDate.of(2021, 1, 1)));
+        list.add(new Position(4, 0, 0, 3, LocalDate.of(2019, 1, 1)));
+        list.add(new Position(5, 0, 0, 3, LocalDate.of(2018, 1, 1)));
+        return list;
+    }
+
+    private List<Integer> candidates(List<String> orderBy, int limit, byte[] serialized) {
+        DocumentIdSet documents = ResultLimiter.candidateDocuments(
+                query(orderBy, Optional.of(limit), Query.Granularity.DOCUMENT, List.of()),
+                PositionList.decode(serialized));
+        return Arrays.stream(documents.toArray()).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    void testCandidateDocumentsFromPostingColumns() {
+        for (byte[] serialized : List.of(postingList().serialize(), postingList().serializeByTime())) {
+            assertEquals(List.of(2, 5), candidates(List.of("timestamp"), 2, serialized));
+            assertEquals(List.of(2, 4, 5), candidates(List.of("timestamp"), 3, serialized));
+            assertEquals(List.of(1, 3), candidates(List.of("-timestamp"), 2, serialized));
+            assertEquals(List.of(1, 2, 3, 4, 5), candidates(List.of("timestamp"), 10, serialized));
+        }
+        assertEquals(List.of(1, 2), candidates(List.of(), 2, postingList().serialize()));
+        assertEquals(List.of(2, 5), candidates(List.of(), 2, postingList().serializeByTime()));
+    }
+
+    @Test
+    void testSingleConditionLimitIsPushedIntoThePostingWalk() throws QueryExecutionException {
+        MockIndexAccess unigram = new MockIndexAccess("unigram");
+        unigram.addTestData("apple", postingList());
+        QueryExecutor executor = new QueryExecutor(new ConditionExecutorFactory());
+
+        QueryResult latest = executor.execute(new Query("test_source", List.of(new Contains("apple")),
+                List.of("-timestamp"), Optional.of(2), Query.Granularity.DOCUMENT, Optional.empty(), List.of()),
+                Map.of("unigram", unigram));
+        QueryResult sentences = executor.execute(new Query("test_source", List.of(new Contains("apple")),
+                List.of(), Optional.of(2), Query.Granularity.SENTENCE, Optional.empty(), List.of()),
+                Map.of("unigram", unigram));
+
+        assertEquals(List.of(1, 3), documentIds(latest));
+        assertEquals(3, latest.getAllDetails().size());
+        assertEquals(2, sentences.getAllDetails().size());
+        assertEquals(List.of(1), documentIds(sentences));
+    }
+}
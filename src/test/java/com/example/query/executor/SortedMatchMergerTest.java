@@ -0,0 +1,72 @@
+package com.example.query.executor;
+
+import com.example.core.Position;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedMatchMergerTest {
+
+    private final LocalDate testDate = LocalDate.of(2020, 1, 1);
+
+    private MatchDetail detail(int docId, int sentId, int begin, String varName) {
+        Position pos = new Position(docId, sentId, begin, begin + 3, testDate);
+        return new MatchDetail("v" + begin, ValueType.TERM, pos, "cond_" + varName, varName);
+    }
+
+    @Test
+    void testUnionRemovesDuplicatesAndKeepsOrder() {
+        List<MatchDetail> left = List.of(detail(2, 1, 0, "?a"), detail(1, 0, 5, "?a"));
+        List<MatchDetail> right = List.of(detail(1, 0, 5, "?a"), detail(1, 0, 5, "?b"), detail(3, 0, 0, "?b"));
+
+        List<MatchDetail> union = SortedMatchMerger.union(left, right);
+
+        assertEquals(4, union.size());
+        assertEquals(Set.of(detail(1, 0, 5, "?a"), detail(1, 0, 5, "?b"), detail(2, 1, 0, "?a"), detail(3, 0, 0, "?b")),
+                new HashSet<>(union));
+        for (int i = 1; i < union.size(); i++) {
+            assertTrue(SortedMatchMerger.UNIT_ORDER.compare(union.get(i - 1), union.get(i)) <= 0);
+        }
+    }
+
+    @Test
+    void testIntersectSameSentence() {
+        List<MatchDetail> left = List.of(detail(1, 1, 0, "?a"), detail(1, 2, 0, "?a"), detail(2, 1, 0, "?a"));
+        List<MatchDetail> right = List.of(detail(1, 1, 6, "?b"), detail(2, 3, 0, "?b"), detail(3, 1, 0, "?b"));
+
+        List<MatchDetail> result = SortedMatchMerger.intersectSentences(left, right, 0);
+
+        assertEquals(Set.of(detail(1, 1, 0, "?a"), detail(1, 1, 6, "?b")), new HashSet<>(result));
+    }
+
+    @Test
+    void testIntersectWithinWindow() {
+        List<MatchDetail> left = List.of(detail(1, 1, 0, "?a"), detail(1, 5, 0, "?a"), detail(2, 4, 0, "?a"));
+        List<MatchDetail> right = List.of(detail(1, 2, 0, "?b"), detail(2, 1, 0, "?b"), detail(2, 6, 0, "?b"));
+
+        List<MatchDetail> result = SortedMatchMerger.intersectSentences(left, right, 2);
+
+        assertEquals(Set.of(
+                detail(1, 1, 0, "?a"), detail(1, 2, 0, "?b"),
+                detail(2, 4, 0, "?a"), detail(2, 6, 0, "?b")), new HashSet<>(result));
+    }
+
+    @Test
+    void testIntersectHandlesUnsortedInput() {
+        List<MatchDetail> left = List.of(detail(3, 0, 0, "?a"), detail(1, 0, 0, "?a"));
+        List<MatchDetail> right = List.of(detail(1, 0, 4, "?b"), detail(3, 0, 4, "?b"));
+
+        List<MatchDetail> result = SortedMatchMerger.intersectSentences(left, right, 0);
+
+        assertEquals(4, result.size());
+        assertEquals(1, result.get(0).getDocumentId());
+        assertEquals(3, result.get(3).getDocumentId());
+    }
+}
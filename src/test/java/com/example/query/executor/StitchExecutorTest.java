@@ -0,0 +1,238 @@
+package com.example.query.executor;
+
+import com.example.core.IndexAccessInterface;
+import com.example.core.Position;
+import com.example.core.PositionList;
+import com.example.core.index.MockIndexAccess;
+import com.example.index.AnnotationType;
+import com.example.index.MultiAnnotationSynonyms;
+import com.example.index.StitchPosition;
+import com.example.query.binding.MatchDetail;
+import com.example.query.binding.ValueType;
+import com.example.query.model.Query;
+import com.example.query.model.condition.Contains;
+import com.example.query.model.condition.Logical;
+import com.example.query.model.condition.Logical.LogicalOperator;
+import com.example.query.model.condition.Ner;
+import com.example.query.model.condition.Pos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StitchExecutorTest {
+
+    @Mock private IndexAccessInterface stitchIndex;
+    @Mock private LogicalExecutor fallback;
+    @TempDir Path synonymsDir;
+
+    private MultiAnnotationSynonyms synonyms;
+    private StitchExecutor executor;
+    private final MockIndexAccess nerIndex = new MockIndexAccess("ner");
+    private final LocalDate date = LocalDate.of(2020, 5, 1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        synonyms = new MultiAnnotationSynonyms(synonymsDir);
+        executor = new StitchExecutor(fallback);
+        executor.registerSynonyms("corpus", synonyms);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        synonyms.close();
+    }
+
+    private StitchPosition entity(int doc, int sentence, int begin, String type) {
+        int id = synonyms.getOrCreateId(type, AnnotationType.NER);
+        return new StitchPosition(doc, sentence, begin, begin + 1, date, AnnotationType.NER, id);
+    }
+
+    private void stub(String lemma, StitchPosition... positions) throws Exception {
+        PositionList list = new PositionList();
+        for (StitchPosition position : positions) {
+            list.add(position);
+        }
+        byte[] key = (lemma + IndexAccessInterface.DELIMITER + "NER").getBytes(StandardCharsets.UTF_8);
+        when(stitchIndex.get(aryEq(key))).thenReturn(Optional.of(PositionList.deserialize(list.serialize())));
+    }
+
+    private StitchPosition mention(int doc, int sentence, int begin, int end, String type) {
+        int id = synonyms.getOrCreateId(type, AnnotationType.NER);
+        return new StitchPosition(doc, sentence, begin, end, date, AnnotationType.NER, id);
+    }
+
+    private void stubMentions(String lemma, StitchPosition... positions) throws Exception {
+        PositionList list = new PositionList();
+        for (StitchPosition position : positions) {
+            list.add(position);
+        }
+        byte[] key = (lemma + IndexAccessInterface.DELIMITER + "NER_MENTION").getBytes(StandardCharsets.UTF_8);
+        when(stitchIndex.getDecoded(aryEq(key))).thenReturn(Optional.of(PositionList.decode(list.serialize())));
+    }
+
+    @Test
+    void testEligibility() {
+        assertTrue(StitchExecutor.isEligible(new Logical(LogicalOperator.AND,
+            new Contains("merger"), new Ner("ORGANIZATION"))));
+        assertFalse(StitchExecutor.isEligible(new Logical(LogicalOperator.OR,
+            new Contains("merger"), new Ner("ORGANIZATION"))));
+        assertFalse(StitchExecutor.isEligible(new Logical(LogicalOperator.AND,
+            new Contains("merger"), new Ner("DATE"))));
+        assertFalse(StitchExecutor.isEligible(new Logical(LogicalOperator.AND,
+            new Contains("merger"), new Ner("PERSON", "?person", true))));
+        assertFalse(StitchExecutor.isEligible(new Logical(LogicalOperator.AND,
+            new Contains("merger"), new Pos("NN", "merger"))));
+        assertFalse(StitchExecutor.isEligible(new Logical(LogicalOperator.AND,
+            new Ner("PERSON"), new Ner("ORGANIZATION"))));
+        assertFalse(StitchExecutor.isEligible(new Logical(LogicalOperator.AND,
+            new Contains("merg*"), new Ner("ORGANIZATION"))));
+    }
+
+    @Test
+    void testSentencesWithLemmaAndAllEntityTypes() throws Exception {
+        // Sentence (1,0) has both types, (1,1) only a person, (2,3) both
+        stub("merger",
+            entity(1, 0, 4, "PERSON"), entity(1, 0, 4, "ORGANIZATION"),
+            entity(1, 1, 2, "PERSON"),
+            entity(2, 3, 7, "ORGANIZATION"), entity(2, 3, 7, "PERSON"), entity(2, 3, 9, "PERSON"));
+        stubMentions("merger",
+            mention(1, 0, 0, 1, "PERSON"), mention(1, 0, 6, 7, "ORGANIZATION"),
+            mention(1, 1, 0, 1, "PERSON"),
+            mention(2, 3, 0, 1, "PERSON"), mention(2, 3, 3, 4, "ORGANIZATION"));
+        Logical condition = new Logical(LogicalOperator.AND, List.of(
+            new Contains("Merger"), new Ner("person"), new Ner("ORGANIZATION")));
+
+        QueryResult result = executor.execute(condition, Map.of("stitch", stitchIndex, "ner", nerIndex),
+            Query.Granularity.SENTENCE, 0, "corpus");
+
+        List<MatchDetail> terms = result.getAllDetails().stream()
+            .filter(d -> d.valueType() == ValueType.TERM).toList();
+        assertEquals(3, terms.size());
+        assertEquals(List.of(1, 2, 2), terms.stream().map(MatchDetail::getDocumentId).toList());
+        assertEquals(List.of(4, 7, 9), terms.stream().map(MatchDetail::getStartPosition).toList());
+        assertEquals("merger", terms.get(0).value());
+        List<MatchDetail> entities = result.getAllDetails().stream()
+            .filter(d -> d.valueType() == ValueType.ENTITY).toList();
+        assertEquals(4, entities.size());
+        assertTrue(entities.stream().noneMatch(d -> d.getDocumentId() == 1 && d.getSentenceId() == 1));
+        verify(fallback, never()).execute(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testLemmasIntersectBySentence() throws Exception {
+        stub("merger", entity(1, 0, 4, "ORGANIZATION"), entity(3, 2, 1, "ORGANIZATION"));
+        stub("bank", entity(3, 2, 6, "ORGANIZATION"), entity(5, 0, 0, "ORGANIZATION"));
+        stubMentions("merger", mention(1, 0, 6, 7, "ORGANIZATION"), mention(3, 2, 6, 8, "ORGANIZATION"));
+        Logical condition = new Logical(LogicalOperator.AND, List.of(
+            new Contains("merger"), new Contains("bank"), new Ner("ORGANIZATION")));
+
+        QueryResult result = executor.execute(condition, Map.of("stitch", stitchIndex, "ner", nerIndex),
+            Query.Granularity.SENTENCE, 0, "corpus");
+
+        List<MatchDetail> details = result.getAllDetails();
+        assertEquals(3, details.size());
+        assertTrue(details.stream().allMatch(d -> d.getDocumentId() == 3 && d.getSentenceId() == 2));
+    }
+
+    @Test
+    void testFallsBackWithoutStitchIndexOrAtDocumentGranularity() throws Exception {
+        Logical condition = new Logical(LogicalOperator.AND, new Contains("merger"), new Ner("ORGANIZATION"));
+        QueryResult fallbackResult = new QueryResult(Query.Granularity.SENTENCE, 0, List.of());
+        when(fallback.execute(any(), any(), any(), anyInt(), any())).thenReturn(fallbackResult);
+
+        assertSame(fallbackResult, executor.execute(condition, Map.of(),
+            Query.Granularity.SENTENCE, 0, "corpus"));
+        assertSame(fallbackResult, executor.execute(condition, Map.of("stitch", stitchIndex),
+            Query.Granularity.SENTENCE, 0, "corpus"));
+        assertSame(fallbackResult, executor.execute(condition, Map.of("stitch", stitchIndex, "ner", nerIndex),
+            Query.Granularity.DOCUMENT, 0, "corpus"));
+        assertSame(fallbackResult, executor.execute(condition, Map.of("stitch", stitchIndex, "ner", nerIndex),
+            Query.Granularity.SENTENCE, 0, "other"));
+        verify(stitchIndex, never()).get(any());
+    }
+
+    @Test
+    void testFallsBackWithoutMentionPostings() throws Exception {
+        // A stitch index built before mention postings has the lemma key only
+        stub("merger", entity(1, 0, 4, "ORGANIZATION"));
+        Logical condition = new Logical(LogicalOperator.AND, new Contains("merger"), new Ner("ORGANIZATION"));
+        QueryResult fallbackResult = new QueryResult(Query.Granularity.SENTENCE, 0, List.of());
+        when(fallback.execute(any(), any(), any(), anyInt(), any())).thenReturn(fallbackResult);
+
+        assertSame(fallbackResult, executor.execute(condition, Map.of("stitch", stitchIndex, "ner", nerIndex),
+            Query.Granularity.SENTENCE, 0, "corpus"));
+    }
+
+    @Test
+    void testMatchesLogicalExecutorDetailForDetail() throws Exception {
+        ConditionExecutorFactory factory = new ConditionExecutorFactory(null);
+        factory.getStitchExecutor().registerSynonyms("corpus", synonyms);
+        MockIndexAccess unigram = new MockIndexAccess("unigram");
+        MockIndexAccess stitch = new MockIndexAccess("stitch");
+        // Sentences (1,0) and (2,3) hold both types; (1,1) lacks an organization, (4,0) a person
+        unigram.addTestData("merger", positions(
+            new Position(1, 0, 4, 5, date), new Position(1, 1, 2, 3, date),
+            new Position(2, 3, 7, 8, date), new Position(2, 3, 9, 10, date), new Position(4, 0, 1, 2, date)));
+        nerIndex.addTestData("PERSON\0john smith", positions(
+            new Position(1, 0, 0, 2, date), new Position(1, 1, 5, 7, date), new Position(2, 3, 0, 2, date)));
+        nerIndex.addTestData("PERSON\0mary", positions(new Position(2, 3, 11, 12, date)));
+        nerIndex.addTestData("ORGANIZATION\0acme", positions(
+            new Position(1, 0, 6, 7, date), new Position(2, 3, 3, 4, date), new Position(4, 0, 5, 6, date)));
+        stitch.addTestData("merger\0NER", positions(
+            entity(1, 0, 4, "PERSON"), entity(1, 0, 4, "ORGANIZATION"),
+            entity(1, 1, 2, "PERSON"),
+            entity(2, 3, 7, "PERSON"), entity(2, 3, 7, "ORGANIZATION"),
+            entity(2, 3, 9, "PERSON"), entity(2, 3, 9, "ORGANIZATION"),
+            entity(4, 0, 1, "ORGANIZATION")));
+        stitch.addTestData("merger\0NER_MENTION", positions(
+            mention(1, 0, 0, 2, "PERSON"), mention(1, 0, 6, 7, "ORGANIZATION"),
+            mention(1, 1, 5, 7, "PERSON"),
+            mention(2, 3, 0, 2, "PERSON"), mention(2, 3, 3, 4, "ORGANIZATION"), mention(2, 3, 11, 12, "PERSON"),
+            mention(4, 0, 5, 6, "ORGANIZATION")));
+        Map<String, IndexAccessInterface> indexes = Map.of("unigram", unigram, "ner", nerIndex, "stitch", stitch);
+        Logical condition = new Logical(LogicalOperator.AND, List.of(
+            new Contains("merger"), new Ner("PERSON"), new Ner("ORGANIZATION")));
+
+        List<String> viaStitch = describe(factory.getStitchExecutor().execute(condition, indexes,
+            Query.Granularity.SENTENCE, 0, "corpus"));
+        List<String> viaLogical = describe(new LogicalExecutor(factory).execute(condition, indexes,
+            Query.Granularity.SENTENCE, 0, "corpus"));
+
+        assertEquals(8, viaStitch.size());
+        assertEquals(viaLogical, viaStitch);
+    }
+
+    private static PositionList positions(Position... positions) {
+        PositionList list = new PositionList();
+        for (Position position : positions) {
+            list.add(position);
+        }
+        return list;
+    }
+
+    private static List<String> describe(QueryResult result) {
+        return result.getAllDetails().stream()
+            .map(d -> String.join("|", String.valueOf(d.value()), d.valueType().name(),
+                String.valueOf(d.getDocumentId()), String.valueOf(d.getSentenceId()),
+                String.valueOf(d.getStartPosition()), String.valueOf(d.getEndPosition()),
+                d.conditionId(), String.valueOf(d.variableName())))
+            .sorted()
+            .toList();
+    }
+}